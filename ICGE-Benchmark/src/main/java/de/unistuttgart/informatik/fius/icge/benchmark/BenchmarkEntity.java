@@ -0,0 +1,29 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.MovableEntity;
+
+
+/**
+ * A minimal movable entity for the benchmarks.
+ */
+public class BenchmarkEntity extends MovableEntity {
+    
+    @Override
+    protected String getTextureHandle() {
+        return "benchmark";
+    }
+    
+    @Override
+    protected int getZPosition() {
+        return 0;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * The implementation of {@link de.unistuttgart.informatik.fius.icge.simulation.MultiTypedList} before the assignability
+ * cache was added, kept as baseline for the benchmarks.
+ * 
+ * @param <P>
+ *     The parent type of all types contained in this list.
+ */
+public class LegacyMultiTypedList<P> {
+    
+    private final HashMap<Class<? extends P>, List<P>> items = new HashMap<>();
+    
+    /**
+     * Add the given object to this list.
+     * 
+     * @param o
+     *     The object to add
+     */
+    public void add(final P o) {
+        @SuppressWarnings("unchecked")
+        final var type = (Class<? extends P>) o.getClass();
+        this.items.computeIfAbsent(type, t -> new ArrayList<>()).add(o);
+    }
+    
+    /**
+     * Get all objects in this list of the given type.
+     * 
+     * @param <T>
+     *     The generic type to return the objects as
+     * @param type
+     *     The type of the objects to get
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return A list of all matching objects
+     */
+    public <T extends P> List<T> get(final Class<? extends T> type, final boolean includeSubclasses) {
+        if (!includeSubclasses) {
+            @SuppressWarnings("unchecked")
+            final var list = (List<T>) this.items.get(type);
+            return list == null ? List.of() : list;
+        }
+        
+        final List<T> result = new ArrayList<>();
+        
+        for (final Class<? extends P> storedType : this.items.keySet()) {
+            if (type.isAssignableFrom(storedType)) {
+                @SuppressWarnings("unchecked")
+                final var listForStoredType = (List<T>) this.items.get(storedType);
+                result.addAll(listForStoredType);
+            }
+        }
+        
+        return result;
+    }
+}
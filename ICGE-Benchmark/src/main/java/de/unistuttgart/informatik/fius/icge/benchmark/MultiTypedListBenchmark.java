@@ -0,0 +1,151 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.unistuttgart.informatik.fius.icge.simulation.MultiTypedList;
+
+
+/**
+ * Compares the {@link LegacyMultiTypedList} with the {@link MultiTypedList} on a single cell-like list containing a mix
+ * of types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MultiTypedListBenchmark {
+    
+    /** Common parent of all stored objects, like the entity interface. */
+    public interface Item {
+        //marker type
+    }
+    
+    /** A stored type with subclasses. */
+    public static class Creature implements Item {
+        //marker type
+    }
+    
+    /** A subclass of {@link Creature}. */
+    public static class Walker extends Creature {
+        //marker type
+    }
+    
+    /** A subclass of {@link Creature}. */
+    public static class Jumper extends Creature {
+        //marker type
+    }
+    
+    /** A stored type unrelated to {@link Creature}. */
+    public static class Coin implements Item {
+        //marker type
+    }
+    
+    /** A stored type unrelated to {@link Creature}. */
+    public static class Wall implements Item {
+        //marker type
+    }
+    
+    /** The number of objects in the list. */
+    @Param({ "10", "100", "1000" })
+    public int size;
+    
+    /** The requested type: a class with subclasses or the common interface. */
+    @Param({ "Creature", "Item" })
+    public String query;
+    
+    private Class<? extends Item>      type;
+    private LegacyMultiTypedList<Item> legacy;
+    private MultiTypedList<Item>       current;
+    
+    /**
+     * Fill both lists with the same objects.
+     */
+    @Setup
+    public void setup() {
+        this.type = "Item".equals(this.query) ? Item.class : Creature.class;
+        this.legacy = new LegacyMultiTypedList<>();
+        this.current = new MultiTypedList<>();
+        for (int i = 0; i < this.size; i++) {
+            final Item item;
+            switch (i % 5) {
+                case 0:
+                    item = new Walker();
+                    break;
+                case 1:
+                    item = new Jumper();
+                    break;
+                case 2:
+                    item = new Coin();
+                    break;
+                case 3:
+                    item = new Wall();
+                    break;
+                default:
+                    item = new Creature();
+                    break;
+            }
+            this.legacy.add(item);
+            this.current.add(item);
+        }
+    }
+    
+    /**
+     * @return all matching objects using the old implementation
+     */
+    @Benchmark
+    public List<Item> legacyGetWithSubclasses() {
+        return this.legacy.get(this.type, true);
+    }
+    
+    /**
+     * @return all matching objects using the new implementation
+     */
+    @Benchmark
+    public List<Item> getWithSubclasses() {
+        return this.current.get(this.type, true);
+    }
+    
+    /**
+     * Visit all matching objects without copying them.
+     * 
+     * @param blackhole
+     *     the blackhole consuming the objects
+     */
+    @Benchmark
+    public void forEachWithSubclasses(final Blackhole blackhole) {
+        this.current.<Item>forEach(this.type, true, blackhole::consume);
+    }
+    
+    /**
+     * @return the number of matching objects
+     */
+    @Benchmark
+    public int countWithSubclasses() {
+        return this.current.count(this.type, true);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.EntityPositionMap;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.Long2ObjectMap;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.PlayfieldCell;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.PlayfieldChunk;
+
+
+/**
+ * Moves entities around randomly, doing the bookkeeping of the playfield once with boxed {@link HashMap}s and once with
+ * the {@link Long2ObjectMap} and {@link EntityPositionMap}.
+ * <p>
+ * Every invocation does {@value #MOVES} moves. Run with {@code -prof gc} to compare the allocations.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayfieldMapBenchmark {
+    
+    private static final int MOVES      = 1_000_000;
+    private static final int FIELD_SIZE = 128;
+    
+    /** The number of moving entities. */
+    @Param({ "100", "10000" })
+    public int entities;
+    
+    private Entity[]    movers;
+    private Direction[] directions;
+    
+    private Map<Long, PlayfieldChunk> hashChunks;
+    private Map<Entity, Position>     hashPositions;
+    
+    private Long2ObjectMap<PlayfieldChunk> primitiveChunks;
+    private EntityPositionMap              primitivePositions;
+    
+    /**
+     * Place the entities randomly on both variants and generate the moves.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        this.movers = new Entity[this.entities];
+        this.hashChunks = new HashMap<>();
+        this.hashPositions = new HashMap<>();
+        this.primitiveChunks = new Long2ObjectMap<>();
+        this.primitivePositions = new EntityPositionMap();
+        for (int i = 0; i < this.entities; i++) {
+            final Entity entity = new BenchmarkEntity();
+            final Position pos = Position
+                    .of(random.nextInt(PlayfieldMapBenchmark.FIELD_SIZE), random.nextInt(PlayfieldMapBenchmark.FIELD_SIZE));
+            this.movers[i] = entity;
+            this.hashPositions.put(entity, pos);
+            this.hashAdd(pos, entity);
+            this.primitivePositions.put(entity, pos.pack());
+            this.primitiveAdd(pos, entity);
+        }
+        
+        final Direction[] values = Direction.values();
+        this.directions = new Direction[PlayfieldMapBenchmark.MOVES];
+        for (int i = 0; i < PlayfieldMapBenchmark.MOVES; i++) {
+            this.directions[i] = values[random.nextInt(values.length)];
+        }
+    }
+    
+    private void hashAdd(final Position pos, final Entity entity) {
+        this.hashChunks
+                .computeIfAbsent(PlayfieldChunk.keyOf(pos), key -> new PlayfieldChunk(PlayfieldChunk.toChunkCoordinate(pos.getX()), PlayfieldChunk.toChunkCoordinate(pos.getY()))).getOrCreateCell(pos).add(entity);
+    }
+    
+    private void hashRemove(final Position pos, final Entity entity) {
+        final Long key = PlayfieldChunk.keyOf(pos);
+        final PlayfieldChunk chunk = this.hashChunks.get(key);
+        final PlayfieldCell cell = chunk.getCell(pos);
+        cell.remove(entity);
+        if (cell.isEmpty()) {
+            chunk.removeCell(pos);
+            if (chunk.isEmpty()) {
+                this.hashChunks.remove(key);
+            }
+        }
+    }
+    
+    private void primitiveAdd(final Position pos, final Entity entity) {
+        final long key = PlayfieldChunk.keyOf(pos);
+        PlayfieldChunk chunk = this.primitiveChunks.get(key);
+        if (chunk == null) {
+            chunk = new PlayfieldChunk(PlayfieldChunk.toChunkCoordinate(pos.getX()), PlayfieldChunk.toChunkCoordinate(pos.getY()));
+            this.primitiveChunks.put(key, chunk);
+        }
+        chunk.getOrCreateCell(pos).add(entity);
+    }
+    
+    private void primitiveRemove(final Position pos, final Entity entity) {
+        final long key = PlayfieldChunk.keyOf(pos);
+        final PlayfieldChunk chunk = this.primitiveChunks.get(key);
+        final PlayfieldCell cell = chunk.getCell(pos);
+        cell.remove(entity);
+        if (cell.isEmpty()) {
+            chunk.removeCell(pos);
+            if (chunk.isEmpty()) {
+                this.primitiveChunks.remove(key);
+            }
+        }
+    }
+    
+    /**
+     * Do the moves with boxed hash maps.
+     * 
+     * @return the number of occupied chunks afterwards
+     */
+    @Benchmark
+    @OperationsPerInvocation(PlayfieldMapBenchmark.MOVES)
+    public int hashMapMoves() {
+        for (int i = 0; i < PlayfieldMapBenchmark.MOVES; i++) {
+            final Entity entity = this.movers[i % this.movers.length];
+            final Position from = this.hashPositions.get(entity);
+            final Position to = from.adjacentPosition(this.directions[i]);
+            this.hashRemove(from, entity);
+            this.hashAdd(to, entity);
+            this.hashPositions.put(entity, to);
+        }
+        return this.hashChunks.size();
+    }
+    
+    /**
+     * Do the moves with the primitive maps.
+     * 
+     * @return the number of occupied chunks afterwards
+     */
+    @Benchmark
+    @OperationsPerInvocation(PlayfieldMapBenchmark.MOVES)
+    public int primitiveMapMoves() {
+        for (int i = 0; i < PlayfieldMapBenchmark.MOVES; i++) {
+            final Entity entity = this.movers[i % this.movers.length];
+            final Position from = Position.unpack(this.primitivePositions.get(entity));
+            final Position to = from.adjacentPosition(this.directions[i]);
+            this.primitiveRemove(from, entity);
+            this.primitiveAdd(to, entity);
+            this.primitivePositions.put(entity, to.pack());
+        }
+        return this.primitiveChunks.size();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+
+
+/**
+ * Measures position lookups on the playfield.
+ * <p>
+ * Run with {@code -prof gc} to see the allocations per operation ({@code gc.alloc.rate.norm}).
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PositionBenchmark {
+    
+    private static final int FIELD_SIZE = 32;
+    
+    private StandardSimulation simulation;
+    private Playfield          playfield;
+    private int                index;
+    
+    /**
+     * Fill every other position of the playfield with an entity.
+     */
+    @Setup
+    public void setup() {
+        this.simulation = StandardSimulation.createSimulation();
+        this.playfield = this.simulation.getPlayfield();
+        for (int x = 0; x < PositionBenchmark.FIELD_SIZE; x++) {
+            for (int y = x % 2; y < PositionBenchmark.FIELD_SIZE; y += 2) {
+                this.playfield.addEntity(Position.of(x, y), new BenchmarkEntity());
+            }
+        }
+    }
+    
+    /**
+     * Stop the simulation.
+     */
+    @TearDown
+    public void tearDown() {
+        this.simulation.getSimulationClock().shutdown();
+    }
+    
+    private int nextIndex() {
+        this.index = (this.index + 1) % (PositionBenchmark.FIELD_SIZE * PositionBenchmark.FIELD_SIZE);
+        return this.index;
+    }
+    
+    /**
+     * @return the entities at the next position, which is created with the constructor
+     */
+    @Benchmark
+    public List<Entity> getEntitiesAtNewPosition() {
+        final int i = this.nextIndex();
+        return this.playfield.getEntitiesAt(new Position(i % PositionBenchmark.FIELD_SIZE, i / PositionBenchmark.FIELD_SIZE));
+    }
+    
+    /**
+     * @return the entities at the next position, which is taken from the position cache
+     */
+    @Benchmark
+    public List<Entity> getEntitiesAtCachedPosition() {
+        final int i = this.nextIndex();
+        return this.playfield.getEntitiesAt(Position.of(i % PositionBenchmark.FIELD_SIZE, i / PositionBenchmark.FIELD_SIZE));
+    }
+    
+    /**
+     * @return whether there is a solid entity east of the next position, like a canMove check
+     */
+    @Benchmark
+    public boolean isSolidEntityAtAdjacentPosition() {
+        final int i = this.nextIndex();
+        return this.playfield.isSolidEntityAt(
+                Position.of(i % PositionBenchmark.FIELD_SIZE, i / PositionBenchmark.FIELD_SIZE).adjacentPosition(Direction.EAST)
+        );
+    }
+}
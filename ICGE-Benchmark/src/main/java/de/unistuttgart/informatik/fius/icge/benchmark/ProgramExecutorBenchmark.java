@@ -0,0 +1,165 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.BasicEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.CooperativeEntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityIntent;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.ProgramExecutors;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRunner;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.StandardPlayfield;
+
+
+/**
+ * Measures the simulation ticks per second of an unthrottled clock with many concurrently running entity programs.
+ * <p>
+ * Every program sleeps one tick at a time, so the score shows the cost of scheduling and waking up the programs. The
+ * {@code default} executor uses virtual threads on JDK 21 and newer; see {@link ProgramExecutors}. In the
+ * {@code cooperative} mode the programs are {@link CooperativeEntityProgram}s driven by the clock thread.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgramExecutorBenchmark {
+    
+    private static final String PROGRAM_NAME = "sleeper";
+    
+    /** The number of programs running concurrently */
+    @Param({ "100", "1000", "5000" })
+    public int programs;
+    
+    /** The executor strategy; {@code default}, {@code platform} or {@code cooperative} */
+    @Param({ "default", "platform", "cooperative" })
+    public String executor;
+    
+    private ExecutorService         programExecutor;
+    /** Referenced here, because the playfield only keeps a weak reference */
+    private StandardSimulation      simulation;
+    private StandardSimulationClock clock;
+    private final Semaphore         ticks = new Semaphore(0);
+    
+    /**
+     * Start the clock and one program per entity.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("platform".equals(this.executor)) {
+            this.programExecutor = ProgramExecutors.createPlatformThreadPool();
+        } else {
+            this.programExecutor = ProgramExecutors.createDefault();
+        }
+        final StandardEntityProgramRegistry registry = new StandardEntityProgramRegistry();
+        final StandardEntityProgramRunner runner = new StandardEntityProgramRunner(registry, this.programExecutor);
+        this.simulation = new StandardSimulation(
+                new StandardPlayfield(), new StandardSimulationClock(), registry, runner, new StandardActionLog()
+        );
+        this.simulation.initialize();
+        if ("cooperative".equals(this.executor)) {
+            registry.registerManyEntityProgram(ProgramExecutorBenchmark.PROGRAM_NAME, CooperativeSleepingProgram::new);
+        } else {
+            registry.registerManyEntityProgram(ProgramExecutorBenchmark.PROGRAM_NAME, SleepingProgram::new);
+        }
+        
+        this.clock = this.simulation.getSimulationClock();
+        this.clock.registerPostTickListener(tick -> {
+            this.ticks.release();
+            return true;
+        });
+        this.clock.setUnthrottled(true);
+        this.clock.start();
+        for (int i = 0; i < this.programs; i++) {
+            final BenchmarkEntity entity = new BenchmarkEntity();
+            this.simulation.getPlayfield().addEntity(Position.of(i, 0), entity);
+            runner.run(ProgramExecutorBenchmark.PROGRAM_NAME, entity);
+        }
+    }
+    
+    /**
+     * Forget the ticks between the iterations.
+     */
+    @Setup(Level.Iteration)
+    public void resetTicks() {
+        this.ticks.drainPermits();
+    }
+    
+    /**
+     * Stop the clock, which cancels all programs.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.clock.shutdown();
+        this.programExecutor.shutdownNow();
+    }
+    
+    /**
+     * Wait for the next simulation tick.
+     */
+    @Benchmark
+    public void tick() {
+        this.ticks.acquireUninterruptibly();
+    }
+    
+    private static class SleepingProgram implements EntityProgram {
+        
+        @Override
+        public void run(final Entity entity) {
+            while (true) {
+                ((BasicEntity) entity).sleep(1);
+            }
+        }
+        
+        @Override
+        public boolean canRunOn(final Entity entity) {
+            return entity instanceof BasicEntity;
+        }
+    }
+    
+    private static class CooperativeSleepingProgram implements CooperativeEntityProgram {
+        
+        @Override
+        public EntityIntent nextIntent(final Entity entity) {
+            return ((BasicEntity) entity).sleepIntent(1);
+        }
+        
+        @Override
+        public boolean canRunOn(final Entity entity) {
+            return entity instanceof BasicEntity;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.TextureAtlas;
+
+
+/**
+ * Draws {@value #SPRITES} sprites once from their own images and once from the pages of a {@link TextureAtlas}.
+ * <p>
+ * The sprites are drawn into an off-screen image with the size of a playfield window, so the benchmark runs headless.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TextureAtlasBenchmark {
+    
+    private static final int SPRITES      = 10_000;
+    private static final int TEXTURE_SIZE = 32;
+    private static final int WIDTH        = 800;
+    private static final int HEIGHT       = 600;
+    
+    /** The number of distinct textures. */
+    @Param({ "16", "256" })
+    public int textures;
+    
+    private BufferedImage         target;
+    private Graphics2D            graphics;
+    private BufferedImage[]       spriteImages;
+    private TextureAtlas.Region[] spriteRegions;
+    private int[]                 spriteX;
+    private int[]                 spriteY;
+    
+    /**
+     * Create the textures, pack them and place the sprites randomly.
+     */
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final List<BufferedImage> images = new ArrayList<>();
+        for (int i = 0; i < this.textures; i++) {
+            final BufferedImage image = new BufferedImage(
+                    TextureAtlasBenchmark.TEXTURE_SIZE, TextureAtlasBenchmark.TEXTURE_SIZE, BufferedImage.TYPE_INT_ARGB
+            );
+            for (int x = 0; x < TextureAtlasBenchmark.TEXTURE_SIZE; x++) {
+                for (int y = 0; y < TextureAtlasBenchmark.TEXTURE_SIZE; y++) {
+                    // partly transparent like most sprites
+                    image.setRGB(x, y, random.nextBoolean() ? random.nextInt() | 0xFF000000 : 0);
+                }
+            }
+            images.add(image);
+        }
+        final TextureAtlas atlas = TextureAtlas.pack(images);
+        
+        this.spriteImages = new BufferedImage[TextureAtlasBenchmark.SPRITES];
+        this.spriteRegions = new TextureAtlas.Region[TextureAtlasBenchmark.SPRITES];
+        this.spriteX = new int[TextureAtlasBenchmark.SPRITES];
+        this.spriteY = new int[TextureAtlasBenchmark.SPRITES];
+        for (int i = 0; i < TextureAtlasBenchmark.SPRITES; i++) {
+            final BufferedImage image = images.get(random.nextInt(images.size()));
+            this.spriteImages[i] = image;
+            this.spriteRegions[i] = atlas.getRegion(image);
+            this.spriteX[i] = random.nextInt(TextureAtlasBenchmark.WIDTH);
+            this.spriteY[i] = random.nextInt(TextureAtlasBenchmark.HEIGHT);
+        }
+        
+        this.target = new BufferedImage(TextureAtlasBenchmark.WIDTH, TextureAtlasBenchmark.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        this.graphics = this.target.createGraphics();
+    }
+    
+    /**
+     * Release the graphics of the target image.
+     */
+    @TearDown
+    public void tearDown() {
+        this.graphics.dispose();
+    }
+    
+    /**
+     * Draw every sprite from its own image.
+     * 
+     * @return the target image
+     */
+    @Benchmark
+    public BufferedImage perImage() {
+        for (int i = 0; i < TextureAtlasBenchmark.SPRITES; i++) {
+            this.graphics.drawImage(
+                    this.spriteImages[i], this.spriteX[i], this.spriteY[i], TextureAtlasBenchmark.TEXTURE_SIZE,
+                    TextureAtlasBenchmark.TEXTURE_SIZE, null
+            );
+        }
+        return this.target;
+    }
+    
+    /**
+     * Draw every sprite from its region of the atlas.
+     * 
+     * @return the target image
+     */
+    @Benchmark
+    public BufferedImage atlas() {
+        for (int i = 0; i < TextureAtlasBenchmark.SPRITES; i++) {
+            this.spriteRegions[i].draw(
+                    this.graphics, this.spriteX[i], this.spriteY[i], TextureAtlasBenchmark.TEXTURE_SIZE, TextureAtlasBenchmark.TEXTURE_SIZE
+            );
+        }
+        return this.target;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.log;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+
+/**
+ * The simulation output and simulation error logger of one simulation.
+ * <p>
+ * Simulations running at the same time write to their own contexts, so their output can be told apart. The context
+ * returned by {@link Logger#getDefaultContext()} writes to {@link Logger#simout} and {@link Logger#simerror}.
+ * </p>
+ */
+public class LogContext {
+    
+    private final OutputStreamMultiplier simoutStream;
+    private final PrintStream            simout;
+    private final OutputStreamMultiplier simerrorStream;
+    private final PrintStream            simerror;
+    
+    /**
+     * Create a new context without any attached {@link OutputStream}s.
+     */
+    public LogContext() {
+        this.simoutStream = new OutputStreamMultiplier();
+        this.simout = new PrintStream(this.simoutStream);
+        this.simerrorStream = new OutputStreamMultiplier();
+        this.simerror = new PrintStream(this.simerrorStream);
+    }
+    
+    LogContext(
+            final OutputStreamMultiplier simoutStream, final PrintStream simout, final OutputStreamMultiplier simerrorStream,
+            final PrintStream simerror
+    ) {
+        this.simoutStream = simoutStream;
+        this.simout = simout;
+        this.simerrorStream = simerrorStream;
+        this.simerror = simerror;
+    }
+    
+    /**
+     * @return the logger for the simulation
+     */
+    public PrintStream getSimulationOutput() {
+        return this.simout;
+    }
+    
+    /**
+     * @return the error logger of the simulation
+     */
+    public PrintStream getSimulationError() {
+        return this.simerror;
+    }
+    
+    /**
+     * Function to add a {@link OutputStream} to the simulation logger
+     *
+     * @param stream
+     *     The {@link OutputStream} to add
+     * @return Returns true if successfull
+     * @see OutputStreamMultiplier#addOutputStream(OutputStream)
+     */
+    public boolean addSimulationOutputStream(final OutputStream stream) {
+        return this.simoutStream.addOutputStream(stream);
+    }
+    
+    /**
+     * Function to remove a {@link OutputStream} from the simulation logger
+     *
+     * @param stream
+     *     The {@link OutputStream} to remove
+     * @return Returns true if successfull
+     * @see OutputStreamMultiplier#removeOutputStream(OutputStream)
+     */
+    public boolean removeSimulationOutputStream(final OutputStream stream) {
+        return this.simoutStream.removeOutputStream(stream);
+    }
+    
+    /**
+     * Function to add a {@link OutputStream} to the simulation error logger
+     *
+     * @param stream
+     *     The {@link OutputStream} to add
+     * @return Returns true if successfull
+     * @see OutputStreamMultiplier#addOutputStream(OutputStream)
+     */
+    public boolean addSimulationErrorStream(final OutputStream stream) {
+        return this.simerrorStream.addOutputStream(stream);
+    }
+    
+    /**
+     * Function to remove a {@link OutputStream} from the simulation error logger
+     *
+     * @param stream
+     *     The {@link OutputStream} to remove
+     * @return Returns true if successfull
+     * @see OutputStreamMultiplier#removeOutputStream(OutputStream)
+     */
+    public boolean removeSimulationErrorStream(final OutputStream stream) {
+        return this.simerrorStream.removeOutputStream(stream);
+    }
+}
@@ -36,6 +36,8 @@ public abstract class Logger {
     private static OutputStreamMultiplier outStream;
     private static OutputStreamMultiplier errorStream;
     
+    private static LogContext defaultContext;
+    
     // This block setups all the loggers and intercepts {@link System.out} and {@link System.err}
     static {
         Logger.simoutStream = new OutputStreamMultiplier();
@@ -45,6 +47,8 @@ public abstract class Logger {
         Logger.simerrorStream.addOutputStream(System.err);
         Logger.simerror = new PrintStream(Logger.simerrorStream);
         
+        Logger.defaultContext = new LogContext(Logger.simoutStream, Logger.simout, Logger.simerrorStream, Logger.simerror);
+        
         Logger.outStream = new OutputStreamMultiplier();
         Logger.outStream.addOutputStream(System.out);
         Logger.out = new PrintStream(Logger.outStream);
@@ -56,6 +60,18 @@ public abstract class Logger {
         System.setErr(Logger.error);
     }
     
+    /**
+     * Get the context of simulations without their own {@link LogContext}.
+     * <p>
+     * It writes to {@link #simout} and {@link #simerror}, so the stream functions of this class affect it.
+     * </p>
+     *
+     * @return the default context
+     */
+    public static LogContext getDefaultContext() {
+        return Logger.defaultContext;
+    }
+    
     /**
      * Function to add a {@link OutputStream} to the simulation logger
      *
@@ -11,24 +11,28 @@ package de.unistuttgart.informatik.fius.icge.log;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
  * A Output stream that allows multiple other output streams to attach themselves to this one.
+ * <p>
+ * Written arrays are passed on as a whole, and streams may be attached and removed while other threads write.
+ * </p>
  *
  * @author Tobias Wältken
  * @version 1.0
  */
 public class OutputStreamMultiplier extends OutputStream {
     
-    private final ArrayList<OutputStream> listenerStreams;
+    private final List<OutputStream> listenerStreams;
     
     /**
      * Default Constructor
      */
     public OutputStreamMultiplier() {
-        this.listenerStreams = new ArrayList<>();
+        this.listenerStreams = new CopyOnWriteArrayList<>();
     }
     
     /**
@@ -75,4 +79,11 @@ public class OutputStreamMultiplier extends OutputStream {
             listenerStream.write(arg0);
         }
     }
+    
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        for (final OutputStream listenerStream : this.listenerStreams) {
+            listenerStream.write(bytes, offset, length);
+        }
+    }
 }
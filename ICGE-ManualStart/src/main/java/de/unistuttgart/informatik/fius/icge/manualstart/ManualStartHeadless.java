@@ -0,0 +1,33 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.manualstart;
+
+import de.unistuttgart.informatik.fius.icge.simulation.HeadlessSimulationHost;
+import de.unistuttgart.informatik.fius.icge.simulation.SimulationHostFactory;
+
+
+/**
+ * Runs the test task without user interface and exits with status 0 iff it was verified.
+ */
+public class ManualStartHeadless {
+    
+    /**
+     * @param args
+     *     the command line arguments. Not used.
+     */
+    public static void main(final String[] args) {
+        final HeadlessSimulationHost host = SimulationHostFactory.createHeadlessSimulationHost();
+        TestEntity.TEXTURE_HANDLE = host.getTextureRegistry()
+                .loadTextureFromResource("textures/coin-default.png", ManualStartHeadless.class::getResourceAsStream);
+        host.getTaskRegistry().registerTask("Test Task", new TestTask());
+        final boolean verified = host.runTask("Test Task");
+        System.exit(verified ? 0 : 1);
+    }
+}
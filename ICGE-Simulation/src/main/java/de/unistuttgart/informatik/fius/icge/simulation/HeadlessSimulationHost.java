@@ -0,0 +1,72 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionJournalReader;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.Task;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.TaskRunResult;
+
+
+/**
+ * A simulation host without any user interface.
+ * <p>
+ * It does not use AWT or Swing, so it can be used with {@code java.awt.headless=true}, for example to verify tasks on
+ * servers. Textures are registered but never loaded.
+ * </p>
+ */
+public interface HeadlessSimulationHost extends SimulationHost {
+    
+    /**
+     * Run the task registered with the given name in a new simulation and wait for it to finish.
+     * <p>
+     * The simulation clock runs as fast as possible and is shut down after the task is finished.
+     * </p>
+     * 
+     * @param taskName
+     *     The name the task was registered with; must not be null
+     * @return the result of {@link Task#verify()}; false if the task failed with an exception
+     * @throws IllegalArgumentException
+     *     if no task is registered with the given name
+     */
+    boolean runTask(String taskName);
+    
+    /**
+     * Run the given tasks concurrently, each in its own new simulation, and wait for all of them to finish.
+     * <p>
+     * Every simulation has its own clock, playfield, action log and program runner, and its clock runs as fast as
+     * possible. A task instance keeps its state in its fields, so every run needs its own instance. Every simulation
+     * writes its output to its own {@link de.unistuttgart.informatik.fius.icge.log.LogContext}, which is returned with
+     * the result instead of being printed. No action journal is written for these runs.
+     * </p>
+     *
+     * @param tasks
+     *     The task instances to run; must not contain null or the same instance twice; must not be null
+     * @param parallelism
+     *     The maximum number of simulations running at the same time; must be at least 1
+     * @return the results in the order of the given tasks
+     * @throws IllegalArgumentException
+     *     if the given tasks are null, contain null or the same instance twice or if the parallelism is less than 1
+     */
+    List<TaskRunResult> runTasks(List<? extends Task> tasks, int parallelism);
+    
+    /**
+     * Write the actions of the simulations of all following {@link #runTask(String)} calls to the given action journal.
+     * <p>
+     * Each run replaces the file. It can be read with an {@link ActionJournalReader} after the run.
+     * </p>
+     * 
+     * @param journalFile
+     *     The journal file or null to write no journal
+     */
+    void setActionJournal(Path journalFile);
+}
@@ -12,8 +12,11 @@ package de.unistuttgart.informatik.fius.icge.simulation;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 
 /**
@@ -25,8 +28,34 @@ import java.util.Set;
  */
 public class MultiTypedList<P> {
     
+    /**
+     * Cache for {@link Class#isAssignableFrom(Class)} with interfaces as requested type: for every requested interface
+     * a class value telling whether a stored type implements it.
+     * <p>
+     * Checks against classes are not cached, as the JIT answers them in constant time. Checks against interfaces may
+     * need to scan all super interfaces of the stored type and share a single cache slot per stored type.
+     * </p>
+     */
+    private static final ClassValue<ClassValue<Boolean>> IMPLEMENTED_INTERFACES = new ClassValue<>() {
+        @Override
+        protected ClassValue<Boolean> computeValue(final Class<?> requestedType) {
+            return new ClassValue<>() {
+                @Override
+                protected Boolean computeValue(final Class<?> storedType) {
+                    return requestedType.isAssignableFrom(storedType);
+                }
+            };
+        }
+    };
+    
     private final HashMap<Class<? extends P>, List<P>> items = new HashMap<>();
     
+    private static boolean isAssignable(final Class<?> requestedType, final Class<?> storedType) {
+        if (requestedType == storedType) return true;
+        if (!requestedType.isInterface()) return requestedType.isAssignableFrom(storedType);
+        return MultiTypedList.IMPLEMENTED_INTERFACES.get(requestedType).get(storedType);
+    }
+    
     /**
      * Get the relevant list for the given type.
      * 
@@ -121,7 +150,13 @@ public class MultiTypedList<P> {
     public boolean remove(final P o) {
         final var opt = this.getRelevantList(o);
         if (opt.isEmpty()) return false;
-        return opt.get().remove(o);
+        final List<P> list = opt.get();
+        final boolean removed = list.remove(o);
+        if (list.isEmpty()) {
+            //drop empty lists, so isEmpty and getStoredTypes stay correct
+            this.items.remove(this.getClass(o));
+        }
+        return removed;
     }
     
     /**
@@ -139,18 +174,106 @@ public class MultiTypedList<P> {
         if (!includeSubclasses) return this.<T>getRelevantListGeneric(type).orElse(List.of());
         
         final List<T> result = new ArrayList<>();
-        
-        for (final Class<? extends P> storedType : this.items.keySet()) {
-            if (type.isAssignableFrom(storedType)) {
-                final Class<? extends T> storedTypeAsSubOfRequested = storedType.asSubclass(type);
-                final List<T> listForStoredType = this.<T>getRelevantListGeneric(storedTypeAsSubOfRequested).orElse(List.of());
+        for (final Map.Entry<Class<? extends P>, List<P>> entry : this.items.entrySet()) {
+            if (MultiTypedList.isAssignable(type, entry.getKey())) {
+                //This cast is safe, because the list only contains objects of the stored type, which extends T
+                @SuppressWarnings("unchecked")
+                final List<T> listForStoredType = (List<T>) entry.getValue();
                 result.addAll(listForStoredType);
             }
         }
-        
         return result;
     }
     
+    /**
+     * Call the given consumer for all objects in this list of the given type.
+     * <p>
+     * Unlike {@link #get(Class, boolean)} this does not copy the objects into a new list. The consumer must not modify
+     * this list.
+     * </p>
+     * 
+     * @param <T>
+     *     The generic type to pass the objects as
+     * @param type
+     *     The type of the objects to visit
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @param consumer
+     *     The consumer to call for every matching object
+     */
+    public <T extends P> void forEach(final Class<? extends T> type, final boolean includeSubclasses, final Consumer<? super T> consumer) {
+        if (!includeSubclasses) {
+            for (final T o : this.<T>getRelevantListGeneric(type).orElse(List.of())) {
+                consumer.accept(o);
+            }
+            return;
+        }
+        
+        for (final Map.Entry<Class<? extends P>, List<P>> entry : this.items.entrySet()) {
+            if (MultiTypedList.isAssignable(type, entry.getKey())) {
+                for (final P o : entry.getValue()) {
+                    //This cast is safe, because the list only contains objects of the stored type, which extends T
+                    @SuppressWarnings("unchecked")
+                    final T typed = (T) o;
+                    consumer.accept(typed);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Check whether any object in this list of the given type matches the given predicate.
+     * 
+     * @param <T>
+     *     The generic type to pass the objects as
+     * @param type
+     *     The type of the objects to check
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @param predicate
+     *     The predicate to test the objects with
+     * @return Whether at least one matching object satisfies the predicate
+     */
+    public <T extends P> boolean anyMatch(
+            final Class<? extends T> type, final boolean includeSubclasses, final Predicate<? super T> predicate
+    ) {
+        for (final Map.Entry<Class<? extends P>, List<P>> entry : this.items.entrySet()) {
+            if (includeSubclasses ? MultiTypedList.isAssignable(type, entry.getKey()) : (type == entry.getKey())) {
+                for (final P o : entry.getValue()) {
+                    //This cast is safe, because the list only contains objects of the stored type, which extends T
+                    @SuppressWarnings("unchecked")
+                    final T typed = (T) o;
+                    if (predicate.test(typed)) return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Count all objects in this list of the given type.
+     * 
+     * @param type
+     *     The type of the objects to count
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return The number of matching objects
+     */
+    public int count(final Class<? extends P> type, final boolean includeSubclasses) {
+        if (!includeSubclasses) {
+            final List<P> list = this.items.get(type);
+            return list == null ? 0 : list.size();
+        }
+        
+        int count = 0;
+        for (final Map.Entry<Class<? extends P>, List<P>> entry : this.items.entrySet()) {
+            if (MultiTypedList.isAssignable(type, entry.getKey())) {
+                count += entry.getValue().size();
+            }
+        }
+        return count;
+    }
+    
     /**
      * @return a list of stored types.
      */
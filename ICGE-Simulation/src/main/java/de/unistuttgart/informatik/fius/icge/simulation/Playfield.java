@@ -10,10 +10,12 @@
 package de.unistuttgart.informatik.fius.icge.simulation;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityMoveAction;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.RestorableEntity;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityAlreadyOnFieldExcpetion;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityNotOnFieldException;
 
@@ -33,12 +35,19 @@ public interface Playfield {
     /**
      * Get a list of all entities on this playfield.
      * 
-     * @return A list of all entities
+     * @return An unmodifiable list of all entities
+     * @see #getAllEntitiesOfType(Class, boolean)
      */
     List<Entity> getAllEntities();
     
     /**
      * Get a list of all entities matching the given type on this playfield.
+     * <p>
+     * The list is an unmodifiable snapshot of the matching entities and not a live view, because entities acting in the
+     * same tick may modify this playfield while the list is read. Like the stream of
+     * {@link #streamEntitiesOfType(Class, boolean)} the snapshot is shared between calls and only taken again after
+     * entities of a matching type were added or removed.
+     * </p>
      * 
      * @param <T>
      *     The generic type to return the entities as
@@ -46,12 +55,46 @@ public interface Playfield {
      *     The type of entity to get; must <b>not</b> be <b>null</b>
      * @param includeSubclasses
      *     Whether to include the subclasses of the given type
-     * @return A list of all matching entities
+     * @return An unmodifiable list of all matching entities
      * @throws IllegalArgumentException
      *     if the given type is null
      */
     <T extends Entity> List<T> getAllEntitiesOfType(Class<? extends T> type, boolean includeSubclasses);
     
+    /**
+     * Get a stream of all entities matching the given type on this playfield.
+     * <p>
+     * The stream is backed by a snapshot of the matching entities, so it stays valid while entities acting in the same
+     * tick modify this playfield. The snapshot is shared between calls and only taken again after entities of a
+     * matching type were added or removed. Use {@link #countEntitiesOfType(Class, boolean)} when only the number of
+     * entities is needed.
+     * </p>
+     * 
+     * @param <T>
+     *     The generic type to return the entities as
+     * @param type
+     *     The type of entity to get; must <b>not</b> be <b>null</b>
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return A stream of all matching entities
+     * @throws IllegalArgumentException
+     *     if the given type is null
+     */
+    <T extends Entity> Stream<T> streamEntitiesOfType(Class<? extends T> type, boolean includeSubclasses);
+    
+    /**
+     * Count all entities matching the given type on this playfield.
+     * 
+     * @param type
+     *     The type of entity to count; must <b>not</b> be <b>null</b>
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return The number of matching entities
+     * @throws IllegalArgumentException
+     *     if the given type is null
+     */
+    int countEntitiesOfType(Class<? extends Entity> type, boolean includeSubclasses);
+    
     /**
      * Get a list of all entities at the given position on this playfield.
      * 
@@ -80,6 +123,45 @@ public interface Playfield {
      */
     <T extends Entity> List<T> getEntitiesOfTypeAt(final Position pos, Class<? extends T> type, boolean includeSubclasses);
     
+    /**
+     * Get a list of all entities in the given rectangular area of this playfield.
+     * <p>
+     * The area includes both corners, so {@code getEntitiesInArea(pos, pos)} returns the same entities as
+     * {@link #getEntitiesAt(Position)}.
+     * </p>
+     * 
+     * @param min
+     *     The corner of the area with the smallest coordinates; must <b>not</b> be <b>null</b>
+     * @param max
+     *     The corner of the area with the largest coordinates; must <b>not</b> be <b>null</b>
+     * @return A list of all entities in that area
+     * @throws IllegalArgumentException
+     *     if the given min or max is null or if min has a larger x or y coordinate than max
+     */
+    List<Entity> getEntitiesInArea(Position min, Position max);
+    
+    /**
+     * Get a list of all entities matching the given type in the given rectangular area of this playfield.
+     * <p>
+     * The area includes both corners.
+     * </p>
+     * 
+     * @param <T>
+     *     The generic type to return the entities as
+     * @param min
+     *     The corner of the area with the smallest coordinates; must <b>not</b> be <b>null</b>
+     * @param max
+     *     The corner of the area with the largest coordinates; must <b>not</b> be <b>null</b>
+     * @param type
+     *     The type of entity to get; must <b>not</b> be <b>null</b>
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return A list of all matching entities in that area
+     * @throws IllegalArgumentException
+     *     if the given min, max or type is null or if min has a larger x or y coordinate than max
+     */
+    <T extends Entity> List<T> getEntitiesOfTypeInArea(Position min, Position max, Class<? extends T> type, boolean includeSubclasses);
+    
     /**
      * Add a given entity to this simulation at a given position on this playfield.
      * 
@@ -165,6 +247,22 @@ public interface Playfield {
      */
     boolean containsEntity(Entity entity);
     
+    /**
+     * Tell the playfield that the draw information of the specified entity changed.
+     * <p>
+     * Adding, moving and removing an entity redraws it automatically. Entities whose texture, z position or animation
+     * changes otherwise have to call this method, so the entity is redrawn with the next simulation tick.
+     * </p>
+     * 
+     * @param entity
+     *     The entity to redraw; <b>must</b> be <b>on the field</b>; must <b>not</b> be <b>null</b>
+     * @throws EntityNotOnFieldException
+     *     if the given entity is not in this playfield
+     * @throws IllegalArgumentException
+     *     if the given entity is null
+     */
+    void drawInformationChanged(Entity entity);
+    
     /**
      * Check whether a solid entity is at the given position.
      * 
@@ -173,4 +271,53 @@ public interface Playfield {
      * @return true if and only if a solid entity is at that position
      */
     boolean isSolidEntityAt(Position pos);
+    
+    /**
+     * Tell this playfield that the state of the given entity is about to change.
+     * <p>
+     * The newest snapshot copies the state of the entity when it changes for the first time after the snapshot was
+     * taken. Restorable entities have to call this before every change of the state returned by
+     * {@link RestorableEntity#saveState()}.
+     * </p>
+     * 
+     * @param entity
+     *     The entity whose state changes; must <b>not</b> be <b>null</b>
+     * @throws IllegalArgumentException
+     *     if the given entity is null
+     */
+    void stateWillChange(RestorableEntity entity);
+    
+    /**
+     * Capture which entities are on this playfield, where they are and the state of the restorable entities.
+     * <p>
+     * Taking a snapshot copies nothing: the snapshot only remembers the previous position of an entity when the entity
+     * is moved, added or removed for the first time after the snapshot was taken, and the previous state of a
+     * {@link de.unistuttgart.informatik.fius.icge.simulation.entity.RestorableEntity restorable entity} before its
+     * state changes for the first time. So the cost of a snapshot grows with the number of changed entities, not with
+     * the size of this playfield. This playfield keeps the recorded changes until the snapshot is discarded.
+     * </p>
+     *
+     * @return the snapshot
+     * @see PlayfieldSnapshot#discard()
+     */
+    PlayfieldSnapshot snapshot();
+    
+    /**
+     * Put all entities back to where they were when the given snapshot was taken and restore the state of the
+     * restorable entities.
+     * <p>
+     * Only entities moved, added, removed or changed since the snapshot are put back, and no actions are logged for
+     * this. All snapshots taken after the given one become invalid; the given one stays valid and can be restored
+     * again.
+     * </p>
+     *
+     * @param snapshot
+     *     The snapshot to restore; must have been taken of this playfield; must be valid; must <b>not</b> be
+     *     <b>null</b>
+     * @throws IllegalArgumentException
+     *     if the given snapshot is null or was taken of another playfield
+     * @throws IllegalStateException
+     *     if the given snapshot is not valid any more
+     */
+    void restore(PlayfieldSnapshot snapshot);
 }
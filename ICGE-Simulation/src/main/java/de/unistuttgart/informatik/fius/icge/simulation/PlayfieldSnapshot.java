@@ -0,0 +1,41 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+/**
+ * The state of a playfield captured by {@link Playfield#snapshot()}.
+ * <p>
+ * A snapshot contains which entities are on the playfield, where they are and the state of the
+ * {@link de.unistuttgart.informatik.fius.icge.simulation.entity.RestorableEntity restorable entities}, like their
+ * looking direction or inventory. The programs of the entities are not part of it.
+ * </p>
+ */
+public interface PlayfieldSnapshot {
+    
+    /**
+     * Check whether this snapshot can still be restored.
+     * <p>
+     * Restoring a snapshot invalidates all snapshots taken after it. A discarded snapshot is not valid either.
+     * </p>
+     *
+     * @return whether this snapshot can be restored
+     */
+    boolean isValid();
+    
+    /**
+     * Release this snapshot, so the playfield stops keeping the changes made since it was taken.
+     * <p>
+     * The playfield keeps every snapshot until it is discarded or invalidated by restoring an older one, so discard
+     * snapshots which are not needed any more. The other snapshots stay valid. Discarding an invalid snapshot does
+     * nothing.
+     * </p>
+     */
+    void discard();
+}
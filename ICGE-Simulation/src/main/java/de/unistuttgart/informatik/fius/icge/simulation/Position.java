@@ -9,9 +9,6 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation;
 
-import java.util.Arrays;
-
-
 /**
  * Represents a position on the playfield.
  * <p>
@@ -27,11 +24,26 @@ import java.util.Arrays;
  * ({@link Direction#EAST})
  * </p>
  * 
+ * <p>
+ * Positions close to the origin are cached, so {@link #of(int, int)} should be preferred over the constructor. A
+ * position can also be packed into a single {@code long} using {@link #pack()} and {@link #pack(int, int)}, for example
+ * to use it as primitive key.
+ * </p>
+ * 
  * @see Direction
  * 
  * @author Tim Neumann
  */
 public class Position {
+    
+    private static final int CACHE_MIN  = -32;
+    private static final int CACHE_SIZE = 128;
+    
+    /**
+     * The cached positions, filled lazily. Positions are immutable, so racing threads at worst create duplicates.
+     */
+    private static final Position[] CACHE = new Position[Position.CACHE_SIZE * Position.CACHE_SIZE];
+    
     private final int x;
     private final int y;
     
@@ -48,6 +60,90 @@ public class Position {
         this.y = y;
     }
     
+    /**
+     * Get the position with the given coordinates.
+     * <p>
+     * Unlike the constructor this returns a cached object for commonly used coordinates.
+     * </p>
+     * 
+     * @param x
+     *     The x coordinate of the position
+     * @param y
+     *     The y coordinate of the position
+     * @return the position with the given coordinates
+     */
+    public static Position of(final int x, final int y) {
+        final int cacheX = x - Position.CACHE_MIN;
+        final int cacheY = y - Position.CACHE_MIN;
+        if ((cacheX < 0) || (cacheX >= Position.CACHE_SIZE) || (cacheY < 0) || (cacheY >= Position.CACHE_SIZE)) return new Position(x, y);
+        
+        final int index = (cacheY * Position.CACHE_SIZE) + cacheX;
+        Position pos = Position.CACHE[index];
+        if (pos == null) {
+            pos = new Position(x, y);
+            Position.CACHE[index] = pos;
+        }
+        return pos;
+    }
+    
+    /**
+     * Pack the given coordinates into a single long.
+     * 
+     * @param x
+     *     The x coordinate
+     * @param y
+     *     The y coordinate
+     * @return the packed coordinates
+     * @see #unpack(long)
+     */
+    public static long pack(final int x, final int y) {
+        return (((long) x) << 32) | (y & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Get the x coordinate of the given packed coordinates.
+     * 
+     * @param packed
+     *     The packed coordinates
+     * @return the x coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackX(final long packed) {
+        return (int) (packed >> 32);
+    }
+    
+    /**
+     * Get the y coordinate of the given packed coordinates.
+     * 
+     * @param packed
+     *     The packed coordinates
+     * @return the y coordinate
+     * @see #pack(int, int)
+     */
+    public static int unpackY(final long packed) {
+        return (int) packed;
+    }
+    
+    /**
+     * Get the position for the given packed coordinates.
+     * 
+     * @param packed
+     *     The packed coordinates
+     * @return the position
+     * @see #pack(int, int)
+     */
+    public static Position unpack(final long packed) {
+        return Position.of(Position.unpackX(packed), Position.unpackY(packed));
+    }
+    
+    /**
+     * @return the coordinates of this position packed into a single long
+     * @see #pack(int, int)
+     */
+    public long pack() {
+        return Position.pack(this.x, this.y);
+    }
+    
     /**
      * @return the x coordinate of this position
      */
@@ -72,13 +168,13 @@ public class Position {
     public Position adjacentPosition(final Direction direction) {
         switch (direction) {
             case EAST:
-                return new Position(this.getX() + 1, this.getY());
+                return Position.of(this.getX() + 1, this.getY());
             case NORTH:
-                return new Position(this.getX(), this.getY() - 1);
+                return Position.of(this.getX(), this.getY() - 1);
             case SOUTH:
-                return new Position(this.getX(), this.getY() + 1);
+                return Position.of(this.getX(), this.getY() + 1);
             case WEST:
-                return new Position(this.getX() - 1, this.getY());
+                return Position.of(this.getX() - 1, this.getY());
             default:
                 throw new IllegalArgumentException("Unknown direction");
         }
@@ -93,8 +189,8 @@ public class Position {
     
     @Override
     public int hashCode() {
-        final int[] numbers = { this.x, this.y };
-        return Arrays.hashCode(numbers);
+        //same value as Arrays.hashCode(new int[] { x, y }) without allocating the array
+        return (31 * (31 + this.x)) + this.y;
     }
     
     @Override
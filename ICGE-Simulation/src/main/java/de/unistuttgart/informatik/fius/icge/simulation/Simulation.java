@@ -9,6 +9,7 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation;
 
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLog;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRegistry;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRunner;
@@ -55,6 +56,16 @@ public interface Simulation {
      */
     ActionLog getActionLog();
     
+    /**
+     * Get the log context for this simulation.
+     * <p>
+     * All output of the simulation, like the printed actions and the exceptions of entity programs, is written to it.
+     * </p>
+     * 
+     * @return the log context used by this simulation
+     */
+    LogContext getLogContext();
+    
     /**
      * Initialize the simulation and all its submodules.
      */
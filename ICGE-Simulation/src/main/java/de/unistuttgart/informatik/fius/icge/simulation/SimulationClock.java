@@ -9,6 +9,7 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
@@ -55,6 +56,25 @@ public interface SimulationClock {
      */
     int getGameTickPeriod();
     
+    /**
+     * Enable or disable the unthrottled mode.
+     * <p>
+     * In unthrottled mode the period is ignored: the simulation ticks follow each other as soon as all operations of
+     * the previous tick are completed and no render ticks are produced. While no operation is scheduled at all the
+     * clock waits for the next one instead of producing empty ticks.
+     * </p>
+     *
+     * @param unthrottled
+     *     true to run the simulation as fast as possible, false to use the period again
+     */
+    void setUnthrottled(boolean unthrottled);
+    
+    /**
+     * @return whether the clock is in unthrottled mode
+     * @see #setUnthrottled(boolean)
+     */
+    boolean isUnthrottled();
+    
     /**
      * Query the clock if its running
      *
@@ -125,6 +145,8 @@ public interface SimulationClock {
      *     Tick processing will be halted until this future is completed; must not complete exceptionally
      * @throws IllegalStateException
      *     if the end of operation completes exceptionally
+     * @throws CancellationException
+     *     if the clock is shut down before or while waiting for the tick
      */
     void scheduleOperationAtTick(long tick, CompletableFuture<Void> endOfOperation);
     
@@ -141,6 +163,8 @@ public interface SimulationClock {
      *     Tick processing will be halted until this future is completed; must not complete exceptionally
      * @throws IllegalStateException
      *     if the end of operation completes exceptionally
+     * @throws CancellationException
+     *     if the clock is shut down before or while waiting for the tick
      */
     void scheduleOperationInTicks(long ticks, CompletableFuture<Void> endOfOperation);
     
@@ -152,6 +176,8 @@ public interface SimulationClock {
      *     Tick processing will be halted until this future is completed; must not complete exceptionally
      * @throws IllegalStateException
      *     if the end of operation completes exceptionally
+     * @throws CancellationException
+     *     if the clock is shut down before or while waiting for the tick
      */
     void scheduleOperationAtNextTick(CompletableFuture<Void> endOfOperation);
 }
@@ -9,6 +9,7 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation;
 
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardHeadlessSimulationHost;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationProxy;
 
 import de.unistuttgart.informatik.fius.icge.ui.GameWindow;
@@ -35,4 +36,16 @@ public class SimulationHostFactory {
         
         return simulationProxy;
     }
+    
+    /**
+     * Creates a simulation host without any user interface.
+     * <p>
+     * No window is opened and no AWT or Swing classes are used, so this works with {@code java.awt.headless=true}.
+     * </p>
+     * 
+     * @return The new headless simulation host.
+     */
+    public static HeadlessSimulationHost createHeadlessSimulationHost() {
+        return new StandardHeadlessSimulationHost();
+    }
 }
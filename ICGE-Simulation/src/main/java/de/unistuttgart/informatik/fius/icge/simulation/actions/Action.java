@@ -11,6 +11,10 @@ package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
 /**
  * An action which happens during the execution of a simulation.
+ * <p>
+ * The entity actions of this package are values: two of them are equal if they are of the same class and all their
+ * properties are equal. Subclasses adding properties should override {@link #equals(Object)} and {@link #hashCode()}.
+ * </p>
  * 
  * @author Tim Neumann
  */
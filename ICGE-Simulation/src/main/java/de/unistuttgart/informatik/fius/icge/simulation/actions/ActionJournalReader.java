@@ -0,0 +1,344 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.actions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Reads an action journal written during a simulation.
+ * <p>
+ * The journal is mapped into memory in chunks and read record by record, so even journals with millions of actions can
+ * be analysed without loading them into the heap. Iterators, spliterators and streams of this reader may be used
+ * concurrently.
+ * </p>
+ * <h2>File format</h2>
+ * <p>
+ * All numbers are big endian. The file starts with a header of {@value #HEADER_SIZE} bytes:
+ * </p>
+ * <ul>
+ * <li>{@code long} {@link #MAGIC}</li>
+ * <li>{@code int} the format version {@value #VERSION}</li>
+ * <li>{@code int} the size of a record, {@value #RECORD_SIZE}</li>
+ * <li>{@code long} the number of records</li>
+ * <li>{@code long} the offset of the tick index or 0 if the journal was not closed properly</li>
+ * </ul>
+ * <p>
+ * The records follow the header. An action record contains the tick as {@code long}, the kind as {@code byte} (see
+ * {@link ActionRecord.Kind}), three reserved bytes and the {@code int}s entity number, entity type, fromX, fromY, toX,
+ * toY, reference, reference type and a reserved one. Types and descriptions are stored as strings: a string is a record
+ * of kind {@value #STRING_START} with the byte length of the UTF-8 encoded string in place of the tick, followed by
+ * records of kind {@value #STRING_CONTINUATION}; each of them holds up to {@value #STRING_BYTES_PER_RECORD} bytes after
+ * the kind and the reserved bytes. Strings are referenced by the number of their first record; -1 means none.
+ * </p>
+ * <p>
+ * The tick index contains the number of records per block as {@code int}, the number of blocks as {@code int} and for
+ * each block the lowest and highest tick of its actions as {@code long}s. If it is missing the reader builds it.
+ * </p>
+ */
+public class ActionJournalReader implements Closeable, Iterable<ActionRecord> {
+    
+    /** The first eight bytes of a journal */
+    public static final long MAGIC                   = 0x4943_4745_4A52_4E4CL;
+    /** The version of the file format */
+    public static final int  VERSION                 = 1;
+    /** The size of the header in bytes */
+    public static final int  HEADER_SIZE             = 64;
+    /** The size of a record in bytes */
+    public static final int  RECORD_SIZE             = 48;
+    /** The kind of the first record of a string */
+    public static final byte STRING_START            = 64;
+    /** The kind of the following records of a string */
+    public static final byte STRING_CONTINUATION     = 65;
+    /** The number of string bytes per record */
+    public static final int  STRING_BYTES_PER_RECORD = ActionJournalReader.RECORD_SIZE - 12;
+    /** The number of records per block of the tick index written by the simulation */
+    public static final int  INDEX_BLOCK_SIZE        = 4096;
+    /** The offset of the number of records in the header */
+    public static final int  RECORD_COUNT_OFFSET     = 16;
+    /** The offset of the offset of the tick index in the header */
+    public static final int  INDEX_OFFSET_OFFSET     = 24;
+    
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_MASK  = (1 << ActionJournalReader.CHUNK_SHIFT) - 1;
+    
+    private static final ActionRecord.Kind[] KINDS = ActionRecord.Kind.values();
+    
+    private final FileChannel          channel;
+    private final long                 recordCount;
+    private final MappedByteBuffer[]   chunks;
+    private final Map<Integer, String> types = new ConcurrentHashMap<>();
+    
+    private int    indexBlockSize;
+    private long[] blockMinTicks;
+    private long[] blockMaxTicks;
+    
+    /**
+     * Open the given journal.
+     *
+     * @param file
+     *     the journal file; must not be null
+     * @throws IOException
+     *     if the file cannot be read or is no action journal
+     */
+    public ActionJournalReader(final Path file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("The given file is null.");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(ActionJournalReader.HEADER_SIZE);
+            while (header.hasRemaining() && (this.channel.read(header) >= 0)) {
+                //read the whole header
+            }
+            if (
+                header.hasRemaining() || (header.getLong(0) != ActionJournalReader.MAGIC)
+            ) throw new IOException("Not an action journal: " + file);
+            if (
+                header.getInt(8) != ActionJournalReader.VERSION
+            ) throw new IOException("Unsupported action journal version " + header.getInt(8) + ": " + file);
+            if (header.getInt(12) != ActionJournalReader.RECORD_SIZE) throw new IOException("Unsupported record size: " + file);
+            this.recordCount = header.getLong(ActionJournalReader.RECORD_COUNT_OFFSET);
+            this.chunks = new MappedByteBuffer[(int) ((this.recordCount
+                    + ActionJournalReader.CHUNK_MASK) >>> ActionJournalReader.CHUNK_SHIFT)];
+            final long indexOffset = header.getLong(ActionJournalReader.INDEX_OFFSET_OFFSET);
+            if (indexOffset != 0) {
+                this.readIndex(indexOffset);
+            }
+        } catch (final IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+    
+    private void readIndex(final long indexOffset) throws IOException {
+        final ByteBuffer sizes = ByteBuffer.allocate(8);
+        this.channel.read(sizes, indexOffset);
+        final int blocks = sizes.getInt(4);
+        final ByteBuffer entries = this.channel.map(FileChannel.MapMode.READ_ONLY, indexOffset + 8, blocks * 16L);
+        this.blockMinTicks = new long[blocks];
+        this.blockMaxTicks = new long[blocks];
+        for (int block = 0; block < blocks; block++) {
+            this.blockMinTicks[block] = entries.getLong(block * 16);
+            this.blockMaxTicks[block] = entries.getLong((block * 16) + 8);
+        }
+        this.indexBlockSize = sizes.getInt(0);
+    }
+    
+    /**
+     * Build the tick index by reading all records, for journals which were not closed properly.
+     */
+    private synchronized void buildIndex() {
+        if (this.blockMinTicks != null) return;
+        final int blocks = (int) ((this.recordCount + ActionJournalReader.INDEX_BLOCK_SIZE - 1) / ActionJournalReader.INDEX_BLOCK_SIZE);
+        final long[] minTicks = new long[blocks];
+        final long[] maxTicks = new long[blocks];
+        for (int block = 0; block < blocks; block++) {
+            minTicks[block] = Long.MAX_VALUE;
+            maxTicks[block] = Long.MIN_VALUE;
+        }
+        for (long index = 0; index < this.recordCount; index++) {
+            final ByteBuffer chunk = this.chunkOf(index);
+            final int offset = ActionJournalReader.offsetOf(index);
+            if (chunk.get(offset + 8) < ActionJournalReader.STRING_START) {
+                final int block = (int) (index / ActionJournalReader.INDEX_BLOCK_SIZE);
+                final long tick = chunk.getLong(offset);
+                minTicks[block] = Math.min(minTicks[block], tick);
+                maxTicks[block] = Math.max(maxTicks[block], tick);
+            }
+        }
+        this.indexBlockSize = ActionJournalReader.INDEX_BLOCK_SIZE;
+        this.blockMaxTicks = maxTicks;
+        this.blockMinTicks = minTicks;
+    }
+    
+    /**
+     * @return the number of records including the records of strings
+     */
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+    
+    @Override
+    public Iterator<ActionRecord> iterator() {
+        return Spliterators.iterator(this.spliterator());
+    }
+    
+    @Override
+    public Spliterator<ActionRecord> spliterator() {
+        return new RecordSpliterator(0, this.recordCount);
+    }
+    
+    /**
+     * @return a stream of all actions in the order they were logged
+     */
+    public Stream<ActionRecord> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+    
+    /**
+     * Get the actions with a tick number between the given ticks.
+     * <p>
+     * Only the blocks of records which contain such actions according to the tick index are read.
+     * </p>
+     *
+     * @param fromTick
+     *     the first tick (inclusive)
+     * @param toTick
+     *     the last tick (inclusive)
+     * @return a stream of the actions in the order they were logged
+     */
+    public Stream<ActionRecord> streamBetweenTicks(final long fromTick, final long toTick) {
+        this.buildIndex();
+        final int blockSize = this.indexBlockSize;
+        final long[] minTicks = this.blockMinTicks;
+        final long[] maxTicks = this.blockMaxTicks;
+        return LongStream.range(
+                0, minTicks.length
+        ).filter(block -> (maxTicks[(int) block] >= fromTick) && (minTicks[(int) block] <= toTick))
+                .mapToObj(
+                        block -> StreamSupport.stream(
+                                new RecordSpliterator(block * blockSize, Math.min((block + 1) * blockSize, this.recordCount)), false
+                        )
+                ).flatMap(records -> records).filter(record -> (record.getTick() >= fromTick) && (record.getTick() <= toTick));
+    }
+    
+    private ByteBuffer chunkOf(final long index) {
+        final int chunkIndex = (int) (index >>> ActionJournalReader.CHUNK_SHIFT);
+        MappedByteBuffer chunk = this.chunks[chunkIndex];
+        if (chunk == null) {
+            synchronized (this.chunks) {
+                chunk = this.chunks[chunkIndex];
+                if (chunk == null) {
+                    final long first = (long) chunkIndex << ActionJournalReader.CHUNK_SHIFT;
+                    final long records = Math.min(ActionJournalReader.CHUNK_MASK + 1L, this.recordCount - first);
+                    try {
+                        chunk = this.channel.map(
+                                FileChannel.MapMode.READ_ONLY, ActionJournalReader.HEADER_SIZE + (first * ActionJournalReader.RECORD_SIZE),
+                                records * ActionJournalReader.RECORD_SIZE
+                        );
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    this.chunks[chunkIndex] = chunk;
+                }
+            }
+        }
+        return chunk;
+    }
+    
+    private static int offsetOf(final long index) {
+        return (int) (index & ActionJournalReader.CHUNK_MASK) * ActionJournalReader.RECORD_SIZE;
+    }
+    
+    /**
+     * Read the string starting at the given record.
+     *
+     * @param index
+     *     the number of the first record of the string
+     * @return the string or null if the index is -1
+     */
+    String readString(final long index) {
+        if (index < 0) return null;
+        if (!this.channel.isOpen()) throw new IllegalStateException("The reader is closed.");
+        final ByteBuffer first = this.chunkOf(index);
+        final int length = (int) first.getLong(ActionJournalReader.offsetOf(index));
+        final byte[] bytes = new byte[length];
+        for (int read = 0; read < length; read += ActionJournalReader.STRING_BYTES_PER_RECORD) {
+            final long record = index + (read / ActionJournalReader.STRING_BYTES_PER_RECORD);
+            final ByteBuffer chunk = this.chunkOf(record);
+            final int offset = ActionJournalReader.offsetOf(record) + 12;
+            for (int i = 0; (i < ActionJournalReader.STRING_BYTES_PER_RECORD) && ((read + i) < length); i++) {
+                bytes[read + i] = chunk.get(offset + i);
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private String readType(final int index) {
+        if (index < 0) return null;
+        return this.types.computeIfAbsent(index, this::readString);
+    }
+    
+    private ActionRecord readRecord(final long index, final ByteBuffer chunk, final int offset) {
+        final ActionRecord.Kind kind = ActionJournalReader.KINDS[chunk.get(offset + 8)];
+        final int referenceType = chunk.getInt(offset + 40);
+        return new ActionRecord(
+                this, index, chunk.getLong(offset), kind, chunk.getInt(offset + 12), this.readType(chunk.getInt(offset + 16)), chunk.getInt(offset + 20), chunk.getInt(offset + 24), chunk.getInt(offset + 28), chunk.getInt(offset + 32), chunk.getInt(offset + 36), this.readType(referenceType)
+        );
+    }
+    
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+    
+    private class RecordSpliterator implements Spliterator<ActionRecord> {
+        
+        private static final int MIN_SPLIT_SIZE = 1024;
+        
+        private long       next;
+        private final long end;
+        
+        private RecordSpliterator(final long first, final long end) {
+            this.next = first;
+            this.end = end;
+        }
+        
+        @Override
+        public boolean tryAdvance(final Consumer<? super ActionRecord> action) {
+            while (this.next < this.end) {
+                final long index = this.next++;
+                final ByteBuffer chunk = ActionJournalReader.this.chunkOf(index);
+                final int offset = ActionJournalReader.offsetOf(index);
+                if (chunk.get(offset + 8) < ActionJournalReader.STRING_START) {
+                    action.accept(ActionJournalReader.this.readRecord(index, chunk, offset));
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public Spliterator<ActionRecord> trySplit() {
+            final long size = this.end - this.next;
+            if (size < (2 * RecordSpliterator.MIN_SPLIT_SIZE)) return null;
+            final long middle = this.next + (size / 2);
+            final RecordSpliterator prefix = new RecordSpliterator(this.next, middle);
+            this.next = middle;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return this.end - this.next;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        }
+    }
+}
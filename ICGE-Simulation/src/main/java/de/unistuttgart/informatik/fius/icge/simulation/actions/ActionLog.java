@@ -9,13 +9,14 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
-import java.util.List;
-
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
 
 
 /**
  * A log for all {@link Action}s.
+ * <p>
+ * Which actions are kept is decided by the {@link ActionLogRetention}; by default all actions are kept.
+ * </p>
  * 
  * @author Tim Neumann
  */
@@ -29,7 +30,7 @@ public interface ActionLog {
      * 
      * @return A list of all actions logged
      */
-    List<Action> getAllActions();
+    ActionQueryResult<Action> getAllActions();
     
     /**
      * Get all actions which were logged of the given type.
@@ -42,7 +43,7 @@ public interface ActionLog {
      *     Whether to include the subclasses of the given type
      * @return A list of all matching actions
      */
-    public <T extends Action> List<T> getActionsOfType(final Class<? extends T> type, final boolean includeSubclasses);
+    public <T extends Action> ActionQueryResult<T> getActionsOfType(final Class<? extends T> type, final boolean includeSubclasses);
     
     /**
      * Get all actions which were logged and were caused by the given entity.
@@ -51,7 +52,7 @@ public interface ActionLog {
      *     The entity to get actions for
      * @return A list of all matching actions
      */
-    List<EntityAction> getAllActionsOfEntity(Entity entity);
+    ActionQueryResult<EntityAction> getAllActionsOfEntity(Entity entity);
     
     /**
      * Get all actions which were logged of the given type and were caused by the given entity.
@@ -66,10 +67,21 @@ public interface ActionLog {
      *     Whether to include the subclasses of the given type
      * @return A list of all matching actions
      */
-    public <T extends EntityAction> List<T> getActionsOfTypeOfEntity(
+    public <T extends EntityAction> ActionQueryResult<T> getActionsOfTypeOfEntity(
             Entity entity, final Class<? extends T> type, final boolean includeSubclasses
     );
     
+    /**
+     * Get all actions which were logged with a tick number between the given ticks.
+     * 
+     * @param fromTick
+     *     The first tick number (inclusive)
+     * @param toTick
+     *     The last tick number (inclusive)
+     * @return A list of all matching actions in the order they were logged
+     */
+    ActionQueryResult<Action> getActionsBetweenTicks(long fromTick, long toTick);
+    
     /**
      * Log an action.
      * 
@@ -77,4 +89,20 @@ public interface ActionLog {
      *     The action to log
      */
     void logAction(Action actionToLog);
+    
+    /**
+     * Set which actions this log keeps.
+     * <p>
+     * The new retention applies from the next logged action on.
+     * </p>
+     * 
+     * @param retention
+     *     The retention to use; must not be null
+     */
+    void setRetention(ActionLogRetention retention);
+    
+    /**
+     * @return the retention deciding which actions this log keeps
+     */
+    ActionLogRetention getRetention();
 }
@@ -0,0 +1,122 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.actions;
+
+import java.nio.file.Path;
+
+
+/**
+ * Decides which actions an {@link ActionLog} keeps.
+ * <p>
+ * Without a limit every action is kept for the whole simulation, including references to all entities which ever acted.
+ * For long running simulations one of the limits keeps the memory used by the log bounded. Queries of the log report
+ * through {@link ActionQueryResult#isComplete()} whether actions were removed.
+ * </p>
+ * <p>
+ * Instances are immutable.
+ * </p>
+ */
+public final class ActionLogRetention {
+    
+    private static final ActionLogRetention UNLIMITED = new ActionLogRetention(0, 0, null);
+    
+    private final long ticks;
+    private final int  actionsPerEntity;
+    private final Path spillFile;
+    
+    private ActionLogRetention(final long ticks, final int actionsPerEntity, final Path spillFile) {
+        this.ticks = ticks;
+        this.actionsPerEntity = actionsPerEntity;
+        this.spillFile = spillFile;
+    }
+    
+    /**
+     * @return a retention keeping all actions
+     */
+    public static ActionLogRetention unlimited() {
+        return ActionLogRetention.UNLIMITED;
+    }
+    
+    /**
+     * Get a retention keeping the actions of the last ticks.
+     * <p>
+     * The actions of older ticks are removed as soon as an action of a later tick is logged.
+     * </p>
+     *
+     * @param ticks
+     *     The number of ticks, counted back from the tick of the latest action, whose actions are kept; must be
+     *     {@code > 0}
+     * @return the retention
+     */
+    public static ActionLogRetention lastTicks(final long ticks) {
+        if (ticks <= 0) throw new IllegalArgumentException("The number of ticks must be > 0.");
+        return new ActionLogRetention(ticks, 0, null);
+    }
+    
+    /**
+     * Get a retention keeping the last actions of each entity.
+     * <p>
+     * Of the actions not caused by an entity the same number of last actions is kept. When an entity is despawned, all
+     * its actions are removed, including the despawn action, so the log does not reference removed entities.
+     * </p>
+     *
+     * @param actions
+     *     The number of actions to keep per entity; must be {@code > 0}
+     * @return the retention
+     */
+    public static ActionLogRetention lastActionsPerEntity(final int actions) {
+        if (actions <= 0) throw new IllegalArgumentException("The number of actions must be > 0.");
+        return new ActionLogRetention(0, actions, null);
+    }
+    
+    /**
+     * Get a retention like this one, which writes the removed actions to the given file.
+     * <p>
+     * The file is overwritten. Every removed action is written as a line containing its tick number and its description
+     * separated by a tab.
+     * </p>
+     *
+     * @param file
+     *     The file to write to; must not be null
+     * @return the new retention
+     */
+    public ActionLogRetention spillingTo(final Path file) {
+        if (file == null) throw new IllegalArgumentException("The given file is null.");
+        return new ActionLogRetention(this.ticks, this.actionsPerEntity, file);
+    }
+    
+    /**
+     * @return the number of ticks whose actions are kept or 0 if the actions are not limited by ticks
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+    
+    /**
+     * @return the number of actions kept per entity or 0 if the actions are not limited per entity
+     */
+    public int getActionsPerEntity() {
+        return this.actionsPerEntity;
+    }
+    
+    /**
+     * @return the file removed actions are written to or null if they are discarded
+     */
+    public Path getSpillFile() {
+        return this.spillFile;
+    }
+    
+    /**
+     * @return whether this retention ever removes actions
+     */
+    public boolean isLimited() {
+        return (this.ticks > 0) || (this.actionsPerEntity > 0);
+    }
+}
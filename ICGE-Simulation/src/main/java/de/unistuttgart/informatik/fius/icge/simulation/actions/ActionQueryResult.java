@@ -0,0 +1,36 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.actions;
+
+import java.util.List;
+
+
+/**
+ * The actions returned by a query of an {@link ActionLog}.
+ * <p>
+ * An action log with an {@link ActionLogRetention} removes old actions, so the result of a query may lack some of the
+ * actions which were logged and match the query.
+ * </p>
+ *
+ * @param <T>
+ *     The type of the actions
+ */
+public interface ActionQueryResult<T extends Action> extends List<T> {
+    
+    /**
+     * Check whether this result contains all actions ever logged which match the query.
+     * <p>
+     * If this is false, matching actions may have been removed by the retention of the log.
+     * </p>
+     *
+     * @return true if no matching action was removed
+     */
+    boolean isComplete();
+}
@@ -0,0 +1,229 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.actions;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+
+
+/**
+ * An action read from an action journal by an {@link ActionJournalReader}.
+ * <p>
+ * The entities of the simulation do not exist any more when a journal is read, so they are identified by a number which
+ * is unique within the journal and the name of their class.
+ * </p>
+ */
+public final class ActionRecord {
+    
+    /**
+     * The kind of a recorded action.
+     * <p>
+     * Every standard action class has its own kind; actions of other classes, including subclasses of the standard
+     * classes, are recorded with their class name and description only.
+     * </p>
+     */
+    public enum Kind {
+        /** An action of another class */
+        OTHER,
+        /** An {@link EntityStepAction} */
+        STEP,
+        /** An {@link EntityTeleportAction} */
+        TELEPORT,
+        /** An {@link EntityTurnAction} */
+        TURN,
+        /** An {@link EntitySpawnAction} */
+        SPAWN,
+        /** An {@link EntityDespawnAction} */
+        DESPAWN,
+        /** An {@link EntityCollectAction} */
+        COLLECT,
+        /** An {@link EntityDropAction} */
+        DROP
+    }
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    private final ActionJournalReader reader;
+    private final long                index;
+    private final long                tick;
+    private final Kind                kind;
+    private final int                 entityId;
+    private final String              entityType;
+    private final int                 fromX;
+    private final int                 fromY;
+    private final int                 toX;
+    private final int                 toY;
+    private final int                 reference;
+    private final String              referenceType;
+    
+    ActionRecord(
+            final ActionJournalReader reader, final long index, final long tick, final Kind kind, final int entityId,
+            final String entityType, final int fromX, final int fromY, final int toX, final int toY, final int reference,
+            final String referenceType
+    ) {
+        this.reader = reader;
+        this.index = index;
+        this.tick = tick;
+        this.kind = kind;
+        this.entityId = entityId;
+        this.entityType = entityType;
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.toX = toX;
+        this.toY = toY;
+        this.reference = reference;
+        this.referenceType = referenceType;
+    }
+    
+    /**
+     * @return the number of this record in the journal
+     */
+    public long getIndex() {
+        return this.index;
+    }
+    
+    /**
+     * @return the tick the action happened at
+     */
+    public long getTick() {
+        return this.tick;
+    }
+    
+    /**
+     * @return the kind of the action
+     */
+    public Kind getKind() {
+        return this.kind;
+    }
+    
+    /**
+     * @return the name of the class of the action
+     */
+    public String getActionType() {
+        switch (this.kind) {
+            case OTHER:
+                return this.referenceType;
+            case STEP:
+                return EntityStepAction.class.getName();
+            case TELEPORT:
+                return EntityTeleportAction.class.getName();
+            case TURN:
+                return EntityTurnAction.class.getName();
+            case SPAWN:
+                return EntitySpawnAction.class.getName();
+            case DESPAWN:
+                return EntityDespawnAction.class.getName();
+            case COLLECT:
+                return EntityCollectAction.class.getName();
+            default:
+                return EntityDropAction.class.getName();
+        }
+    }
+    
+    /**
+     * @return the number of the entity which caused the action or -1 if it was no entity action
+     */
+    public int getEntityId() {
+        return this.entityId;
+    }
+    
+    /**
+     * @return the class name of the entity which caused the action or null if it was no entity action
+     */
+    public String getEntityType() {
+        return this.entityType;
+    }
+    
+    /**
+     * Get the first position of the action.
+     * <p>
+     * This is the position before a move and the position of the acting entity for collect and drop actions.
+     * </p>
+     *
+     * @return the position or null if the action has no first position
+     */
+    public Position getFrom() {
+        switch (this.kind) {
+            case STEP:
+            case TELEPORT:
+            case COLLECT:
+            case DROP:
+                return Position.of(this.fromX, this.fromY);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Get the second position of the action.
+     * <p>
+     * This is the position after a move, the spawn position and the position of the collected or dropped entity.
+     * </p>
+     *
+     * @return the position or null if the action has no second position
+     */
+    public Position getTo() {
+        switch (this.kind) {
+            case STEP:
+            case TELEPORT:
+            case SPAWN:
+            case COLLECT:
+            case DROP:
+                return Position.of(this.toX, this.toY);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * @return the direction before a turn or null for other actions
+     */
+    public Direction getFromDirection() {
+        return this.kind == Kind.TURN ? ActionRecord.DIRECTIONS[this.fromX] : null;
+    }
+    
+    /**
+     * @return the direction after a turn or null for other actions
+     */
+    public Direction getToDirection() {
+        return this.kind == Kind.TURN ? ActionRecord.DIRECTIONS[this.toX] : null;
+    }
+    
+    /**
+     * @return the number of the collected or dropped entity or -1 for other actions
+     */
+    public int getOtherEntityId() {
+        return ((this.kind == Kind.COLLECT) || (this.kind == Kind.DROP)) ? this.reference : -1;
+    }
+    
+    /**
+     * @return the class name of the collected or dropped entity or null for other actions
+     */
+    public String getOtherEntityType() {
+        return ((this.kind == Kind.COLLECT) || (this.kind == Kind.DROP)) ? this.referenceType : null;
+    }
+    
+    /**
+     * Get the description of an action of kind {@link Kind#OTHER}.
+     * <p>
+     * The description is read from the journal when this method is called, so the reader must not be closed yet.
+     * </p>
+     *
+     * @return the description or null for actions of the other kinds
+     */
+    public String getDescription() {
+        return this.kind == Kind.OTHER ? this.reader.readString(this.reference) : null;
+    }
+    
+    @Override
+    public String toString() {
+        return "ActionRecord[" + this.tick + ", " + this.kind + ", entity " + this.entityId + "]";
+    }
+}
@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
@@ -74,4 +76,20 @@ public class EntityCollectAction extends EntityAction {
                 + getCollectedEntityPosition();
     }
     
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntityCollectAction other = (EntityCollectAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        if (!Objects.equals(this.collected, other.collected)) return false;
+        if (!Objects.equals(this.collectorPos, other.collectorPos)) return false;
+        return Objects.equals(this.collectedPos, other.collectedPos);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.collected, this.collectorPos, this.collectedPos);
+    }
 }
@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
 
@@ -48,4 +50,19 @@ public class EntityDespawnAction extends EntityAction {
     public String getDescription() {
         return this.getEntity() + " despawned from " + this.getPlayfield();
     }
+    
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntityDespawnAction other = (EntityDespawnAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        return Objects.equals(this.playfield, other.playfield);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.playfield);
+    }
 }
@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
@@ -73,4 +75,20 @@ public class EntityDropAction extends EntityAction {
         return this.getEntity() + " (at " + getDropperPosition() + ") dropped " + getDroppedEntity() + " at " + getDroppedEntityPosition();
     }
     
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntityDropAction other = (EntityDropAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        if (!Objects.equals(this.dropped, other.dropped)) return false;
+        if (!Objects.equals(this.dropperPos, other.dropperPos)) return false;
+        return Objects.equals(this.dropppedPos, other.dropppedPos);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.dropped, this.dropperPos, this.dropppedPos);
+    }
 }
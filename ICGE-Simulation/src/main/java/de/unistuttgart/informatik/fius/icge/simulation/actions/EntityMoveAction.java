@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
 
@@ -56,4 +58,20 @@ public abstract class EntityMoveAction extends EntityAction {
     public Position to() {
         return this.to;
     }
+    
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntityMoveAction other = (EntityMoveAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        if (!Objects.equals(this.from, other.from)) return false;
+        return Objects.equals(this.to, other.to);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.from, this.to);
+    }
 }
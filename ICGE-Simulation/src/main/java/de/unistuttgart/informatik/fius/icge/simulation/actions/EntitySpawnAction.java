@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
@@ -60,4 +62,20 @@ public class EntitySpawnAction extends EntityAction {
     public String getDescription() {
         return this.getEntity() + " spawned in " + this.getPlayfield() + " at " + this.getPosition();
     }
+    
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntitySpawnAction other = (EntitySpawnAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        if (!Objects.equals(this.playfield, other.playfield)) return false;
+        return Objects.equals(this.position, other.position);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.playfield, this.position);
+    }
 }
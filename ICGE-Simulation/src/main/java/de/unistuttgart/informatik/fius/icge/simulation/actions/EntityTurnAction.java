@@ -9,6 +9,8 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.actions;
 
+import java.util.Objects;
+
 import de.unistuttgart.informatik.fius.icge.simulation.Direction;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
 
@@ -59,4 +61,20 @@ public class EntityTurnAction extends EntityAction {
     public String getDescription() {
         return this.getEntity() + " turned from " + this.from() + " to " + this.to();
     }
+    
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if ((obj == null) || (obj.getClass() != this.getClass())) return false;
+        final EntityTurnAction other = (EntityTurnAction) obj;
+        if (this.getTickNumber() != other.getTickNumber()) return false;
+        if (!Objects.equals(this.getEntity(), other.getEntity())) return false;
+        if (!Objects.equals(this.from, other.from)) return false;
+        return Objects.equals(this.to, other.to);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getTickNumber(), this.getEntity(), this.from, this.to);
+    }
 }
@@ -10,11 +10,11 @@
 package de.unistuttgart.informatik.fius.icge.simulation.entity;
 
 import java.lang.ref.WeakReference;
-import java.util.concurrent.CompletableFuture;
 
 import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.Simulation;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityIntent;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityNotOnFieldException;
 import de.unistuttgart.informatik.fius.icge.simulation.inspection.InspectionAttribute;
 import de.unistuttgart.informatik.fius.icge.ui.BasicDrawable;
@@ -106,6 +106,23 @@ public abstract class BasicEntity implements Entity {
         return this.field.get();
     }
     
+    /**
+     * Redraw this entity with the next simulation tick.
+     * <p>
+     * Subclasses have to call this method when their texture, z position or animation changes.
+     * </p>
+     * 
+     * @see Playfield#drawInformationChanged(Entity)
+     */
+    protected void drawInformationChanged() {
+        if (!this.isOnPlayfield()) return;
+        try {
+            this.getPlayfield().drawInformationChanged(this);
+        } catch (@SuppressWarnings("unused") EntityNotOnFieldException e) {
+            //The entity has been removed in the meantime, so there is nothing to redraw.
+        }
+    }
+    
     /**
      * Get the simulation of this entity.
      * 
@@ -128,13 +145,24 @@ public abstract class BasicEntity implements Entity {
      *     if ticks is {@code <= 0}
      */
     public void sleep(int ticks) {
+        this.sleepIntent(ticks).perform();
+    }
+    
+    /**
+     * Get the intent to pause for {@code ticks} simulation ticks.
+     * 
+     * @param ticks
+     *     numberof simulation ticks to pause; must be {@code > 0}
+     * @return the intent
+     * @throws IllegalArgumentException
+     *     if ticks is {@code <= 0}
+     * @see #sleep(int)
+     */
+    public EntityIntent sleepIntent(int ticks) {
         if (ticks <= 0) throw new IllegalArgumentException("The number of ticks must be > 0 !");
-        final CompletableFuture<Void> endOfOperation = new CompletableFuture<>();
-        try {
-            this.getSimulation().getSimulationClock().scheduleOperationInTicks(ticks, endOfOperation);
-        } finally {
-            endOfOperation.complete(null);
-        }
+        return EntityIntent.of(this.getSimulation().getSimulationClock(), ticks, () -> {
+            //nothing to do, just wait
+        });
     }
     
     @Override
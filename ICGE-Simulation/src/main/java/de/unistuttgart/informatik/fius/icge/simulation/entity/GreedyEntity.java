@@ -30,12 +30,36 @@ public abstract class GreedyEntity extends MovableEntity implements EntityCollec
     private final Inventory inventory = new Inventory();
     
     /**
+     * Get the inventory of this greedy entity.
+     * <p>
+     * Changing the inventory directly instead of collecting or dropping entities is not captured by snapshots of the
+     * playfield.
+     * </p>
+     * 
      * @return the inventory of this greedy entity
      */
     public Inventory getInventory() {
         return this.inventory;
     }
     
+    /**
+     * @return the looking direction and the content of the inventory of this entity
+     */
+    @Override
+    public Object saveState() {
+        return new State(super.saveState(), this.inventory.get(CollectableEntity.class, true));
+    }
+    
+    @Override
+    public void restoreState(final Object state) {
+        final State greedyState = (State) state;
+        super.restoreState(greedyState.movableState);
+        for (final CollectableEntity entity : this.inventory.get(CollectableEntity.class, true)) {
+            this.inventory.remove(entity);
+        }
+        greedyState.inventory.forEach(this.inventory::add);
+    }
+    
     @Override
     public boolean canCarry(final Class<? extends CollectableEntity> type) {
         return true;
@@ -70,6 +94,7 @@ public abstract class GreedyEntity extends MovableEntity implements EntityCollec
         
         if (!myPos.equals(otherPos)) throw new CannotCollectEntityException("Not on my field");
         
+        this.stateWillChange();
         this.getSimulation().getPlayfield().removeEntity(entity);
         this.getInventory().add(entity);
         
@@ -106,6 +131,7 @@ public abstract class GreedyEntity extends MovableEntity implements EntityCollec
         
         if (!myPos.equals(pos)) throw new CannotCollectEntityException("Not on my field");
         
+        this.stateWillChange();
         this.getInventory().remove(entity);
         this.getPlayfield().addEntity(pos, entity);
         
@@ -127,4 +153,16 @@ public abstract class GreedyEntity extends MovableEntity implements EntityCollec
         this.drop(entity, this.getPosition());
     }
     
+    /**
+     * The state of a greedy entity captured by {@link GreedyEntity#saveState()}.
+     */
+    private static final class State {
+        private final Object                  movableState;
+        private final List<CollectableEntity> inventory;
+        
+        private State(final Object movableState, final List<CollectableEntity> inventory) {
+            this.movableState = movableState;
+            this.inventory = inventory;
+        }
+    }
 }
@@ -9,14 +9,14 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.entity;
 
-import java.util.concurrent.CompletableFuture;
-
 import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.SimulationClock;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityMoveAction;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityIntent;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityNotOnFieldException;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.IllegalMoveException;
 import de.unistuttgart.informatik.fius.icge.simulation.inspection.InspectionAttribute;
@@ -30,7 +30,7 @@ import de.unistuttgart.informatik.fius.icge.ui.Drawable;
  * 
  * @author Tim Neumann
  */
-public abstract class MovableEntity extends BasicEntity {
+public abstract class MovableEntity extends BasicEntity implements RestorableEntity {
     
     private Direction lookingDirection = Direction.EAST;
     
@@ -51,20 +51,26 @@ public abstract class MovableEntity extends BasicEntity {
      * Turn this entity for 90 degrees in clock wise direction.
      */
     public void turnClockWise() {
-        final CompletableFuture<Void> endOfOperation = new CompletableFuture<>();
-        try {
-            this.getSimulation().getSimulationClock().scheduleOperationAtNextTick(endOfOperation);
-            turnClockWiseInternal();
-        } finally {
-            endOfOperation.complete(null);
-        }
+        this.turnClockWiseIntent().perform();
+    }
+    
+    /**
+     * Get the intent to turn this entity for 90 degrees in clock wise direction.
+     * 
+     * @return the intent
+     * @see #turnClockWise()
+     */
+    public EntityIntent turnClockWiseIntent() {
+        return EntityIntent.of(this.getSimulation().getSimulationClock(), 1, this::turnClockWiseInternal);
     }
     
     private void turnClockWiseInternal() {
+        this.stateWillChange();
         Direction oldLookingDirection = this.lookingDirection;
         this.lookingDirection = this.lookingDirection.clockWiseNext();
         long tick = this.getSimulation().getSimulationClock().getLastTickNumber();
         this.getSimulation().getActionLog().logAction(new EntityTurnAction(tick, this, oldLookingDirection, this.lookingDirection));
+        this.drawInformationChanged();
     }
     
     @InspectionMethod(name = "turnClockwise")
@@ -93,6 +99,43 @@ public abstract class MovableEntity extends BasicEntity {
                     tickStart, currentPos.getX(), currentPos.getY(), duration, nextPos.getX(), nextPos.getY(), this.getZPosition(),
                     this.getTextureHandle()
             );
+            this.drawInformationChanged();
+        }
+    }
+    
+    /**
+     * @return the looking direction of this entity
+     */
+    @Override
+    public Object saveState() {
+        return this.lookingDirection;
+    }
+    
+    /**
+     * Set the looking direction and stop the animation of a move in progress.
+     */
+    @Override
+    public void restoreState(final Object state) {
+        this.lookingDirection = (Direction) state;
+        this.movingDrawable = null;
+        this.directionOfAlmostArrivedMove = null;
+    }
+    
+    /**
+     * Tell the playfield that the state returned by {@link #saveState()} is about to change, so the newest snapshot of
+     * the playfield can capture it first.
+     * <p>
+     * Subclasses with additional state have to call this before changing it.
+     * </p>
+     * 
+     * @see Playfield#stateWillChange(RestorableEntity)
+     */
+    protected void stateWillChange() {
+        if (!this.isOnPlayfield()) return;
+        try {
+            this.getPlayfield().stateWillChange(this);
+        } catch (@SuppressWarnings("unused") EntityNotOnFieldException e) {
+            //The entity has been removed in the meantime, so there is no snapshot to tell.
         }
     }
     
@@ -111,7 +154,9 @@ public abstract class MovableEntity extends BasicEntity {
      */
     @InspectionAttribute(name = "LookingDirection")
     private void setLookingDirectionByString(String direction) {
+        this.stateWillChange();
         this.lookingDirection = Direction.valueOf(direction.toUpperCase());
+        this.drawInformationChanged();
         recalculateAnimationAfterInspector();
     }
     
@@ -136,38 +181,53 @@ public abstract class MovableEntity extends BasicEntity {
      *     if a solid entity is in the way
      */
     public void move() {
+        this.moveIntent().perform();
+    }
+    
+    /**
+     * Get the intent to move this entity forward one field.
+     * <p>
+     * The move fails with an {@link IllegalMoveException} when the intent is performed and a solid entity is in the
+     * way.
+     * </p>
+     * 
+     * @return the intent
+     * @throws EntityNotOnFieldException
+     *     if this entity is not on a playfield
+     * @see #move()
+     */
+    public EntityIntent moveIntent() {
         final int duration = 4;
         final int renderTickDuration = duration * SimulationClock.RENDER_TICKS_PER_SIMULATION_TICK;
         final SimulationClock clock = this.getSimulation().getSimulationClock();
-        final long currentTick = clock.getLastRenderTickNumber();
-        this.directionOfAlmostArrivedMove = null;
-        Position currentPos = this.getPosition();
-        Position nextPos = currentPos.adjacentPosition(this.lookingDirection);
-        this.movingDrawable = new AnimatedDrawable(
-                currentTick, currentPos.getX(), currentPos.getY(), renderTickDuration, nextPos.getX(), nextPos.getY(), this.getZPosition(),
-                this.getTextureHandle()
-        );
-        
-        final CompletableFuture<Void> endOfOperation1 = new CompletableFuture<>();
-        try {
-            clock.scheduleOperationInTicks(duration / 2, endOfOperation1);
-            //Check if really still going this direction. Maybe we were turned by inspector in the mean time.
-            //Later turns are not changing destination.
-            this.directionOfAlmostArrivedMove = this.lookingDirection;
-        } finally {
-            endOfOperation1.complete(null);
-        }
-        
-        final CompletableFuture<Void> endOfOperation2 = new CompletableFuture<>();
-        try {
-            clock.scheduleOperationInTicks(duration / 2, endOfOperation2);
-            currentPos = this.getPosition();
-            nextPos = currentPos.adjacentPosition(this.directionOfAlmostArrivedMove);
-            internalMove(currentPos, nextPos);
-        } finally {
-            endOfOperation2.complete(null);
-            this.movingDrawable = null;
-        }
+        return EntityIntent.of(clock, 0, () -> {
+            final long currentTick = clock.getLastRenderTickNumber();
+            //restoring a snapshot stops the animation of a move which was interrupted
+            this.stateWillChange();
+            this.directionOfAlmostArrivedMove = null;
+            final Position currentPos = this.getPosition();
+            final Position nextPos = currentPos.adjacentPosition(this.lookingDirection);
+            this.movingDrawable = new AnimatedDrawable(
+                    currentTick, currentPos.getX(), currentPos.getY(), renderTickDuration, nextPos.getX(), nextPos.getY(),
+                    this.getZPosition(), this.getTextureHandle()
+            );
+            this.drawInformationChanged();
+        }).then(
+                duration / 2, () -> {
+                    //Check if really still going this direction. Maybe we were turned by inspector in the mean time.
+                    //Later turns are not changing destination.
+                    this.directionOfAlmostArrivedMove = this.lookingDirection;
+                }
+        ).then(duration / 2, () -> {
+            try {
+                final Position currentPos = this.getPosition();
+                final Position nextPos = currentPos.adjacentPosition(this.directionOfAlmostArrivedMove);
+                internalMove(currentPos, nextPos);
+            } finally {
+                this.movingDrawable = null;
+                this.drawInformationChanged();
+            }
+        });
     }
     
     @InspectionMethod(name = "move")
@@ -0,0 +1,43 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.entity;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
+import de.unistuttgart.informatik.fius.icge.simulation.PlayfieldSnapshot;
+
+
+/**
+ * An entity with a state besides its position, which is captured by {@link Playfield#snapshot()} and put back by
+ * {@link Playfield#restore(PlayfieldSnapshot)}.
+ */
+public interface RestorableEntity extends Entity {
+    
+    /**
+     * Capture the current state of this entity.
+     * <p>
+     * A snapshot captures the state lazily: this entity has to call {@link Playfield#stateWillChange(RestorableEntity)}
+     * before every change of its state, and this method is called the first time after a snapshot was taken.
+     * </p>
+     *
+     * @return the state; must not change when this entity changes afterwards
+     */
+    Object saveState();
+    
+    /**
+     * Put this entity back into a state captured before.
+     * <p>
+     * This method is called by the playfield, which redraws the entity afterwards. It must not log any actions.
+     * </p>
+     *
+     * @param state
+     *     A state returned by {@link #saveState()} of this entity
+     */
+    void restoreState(Object state);
+}
@@ -0,0 +1,50 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.entity.program;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * An entity program which does not block a thread while its entity waits for the simulation ticks.
+ * <p>
+ * Instead of calling blocking methods like {@code MovableEntity.move()} the program returns one {@link EntityIntent} at
+ * a time, for example {@code MovableEntity.moveIntent()}. The {@link EntityProgramRunner} performs the intents on the
+ * thread processing the simulation ticks and asks for the next intent once the last one is done, so thousands of these
+ * programs can run without a thread each.
+ * </p>
+ * <p>
+ * If {@link #run(Entity)} is called directly, the intents are performed blocking by the calling thread.
+ * </p>
+ */
+public interface CooperativeEntityProgram extends EntityProgram {
+    
+    /**
+     * Decide what the given entity does next.
+     * <p>
+     * This is called on the thread processing the simulation tick and must not block. It is called at most once per
+     * simulation tick for each running program.
+     * </p>
+     *
+     * @param entity
+     *     The entity this program runs on
+     * @return the next intent or null if this program is finished
+     */
+    EntityIntent nextIntent(Entity entity);
+    
+    @Override
+    default void run(final Entity entity) {
+        EntityIntent intent = this.nextIntent(entity);
+        while (intent != null) {
+            intent.perform();
+            intent = this.nextIntent(entity);
+        }
+    }
+}
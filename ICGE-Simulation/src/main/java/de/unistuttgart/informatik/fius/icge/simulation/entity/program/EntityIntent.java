@@ -0,0 +1,126 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.entity.program;
+
+import java.util.concurrent.CompletableFuture;
+
+import de.unistuttgart.informatik.fius.icge.simulation.SimulationClock;
+
+
+/**
+ * Something an entity intends to do, like moving one field.
+ * <p>
+ * An intent is a chain of stages. Each stage waits a number of simulation ticks and then performs an operation. The
+ * intent can either be performed blocking by the calling thread, like {@code MovableEntity.move()} does, or be handed
+ * to the clock by a {@link CooperativeEntityProgram}, in which case no thread waits for the ticks.
+ * </p>
+ * <p>
+ * Intents are immutable; {@link #then(int, Runnable)} returns a new intent.
+ * </p>
+ */
+public final class EntityIntent {
+    
+    private final SimulationClock clock;
+    private final int             ticks;
+    private final Runnable        operation;
+    private final EntityIntent    next;
+    
+    private EntityIntent(final SimulationClock clock, final int ticks, final Runnable operation, final EntityIntent next) {
+        this.clock = clock;
+        this.ticks = ticks;
+        this.operation = operation;
+        this.next = next;
+    }
+    
+    /**
+     * Create a new intent with a single stage.
+     *
+     * @param clock
+     *     The clock of the simulation the intent is performed in; must not be null
+     * @param ticks
+     *     The number of simulation ticks to wait before performing the operation; must be {@code >= 0}
+     * @param operation
+     *     The operation to perform; must not be null
+     * @return the new intent
+     * @throws IllegalArgumentException
+     *     if an argument is null or ticks is negative
+     */
+    public static EntityIntent of(final SimulationClock clock, final int ticks, final Runnable operation) {
+        if ((clock == null) || (operation == null)) throw new IllegalArgumentException("An argument is null.");
+        if (ticks < 0) throw new IllegalArgumentException("The number of ticks must be >= 0 !");
+        return new EntityIntent(clock, ticks, operation, null);
+    }
+    
+    /**
+     * Create a new intent which performs the stages of this intent and then the given stage.
+     *
+     * @param ticksAfter
+     *     The number of simulation ticks to wait after the last stage of this intent; must be {@code >= 0}
+     * @param followingOperation
+     *     The operation to perform; must not be null
+     * @return the new intent
+     * @throws IllegalArgumentException
+     *     if an argument is null or ticksAfter is negative
+     */
+    public EntityIntent then(final int ticksAfter, final Runnable followingOperation) {
+        final EntityIntent following;
+        if (this.next == null) {
+            following = EntityIntent.of(this.clock, ticksAfter, followingOperation);
+        } else {
+            following = this.next.then(ticksAfter, followingOperation);
+        }
+        return new EntityIntent(this.clock, this.ticks, this.operation, following);
+    }
+    
+    /**
+     * @return the number of simulation ticks to wait before performing the operation of the first stage
+     */
+    public int getTicks() {
+        return this.ticks;
+    }
+    
+    /**
+     * @return the intent consisting of the remaining stages or null if this is the last stage
+     */
+    public EntityIntent getNext() {
+        return this.next;
+    }
+    
+    /**
+     * Perform the operation of the first stage right now without waiting.
+     * <p>
+     * This must only be called by the thread processing a simulation tick, after the ticks of the stage have passed.
+     * </p>
+     */
+    public void performOperation() {
+        this.operation.run();
+    }
+    
+    /**
+     * Perform all stages, blocking the calling thread while waiting for the ticks.
+     */
+    public void perform() {
+        EntityIntent stage = this;
+        while (stage != null) {
+            if (stage.ticks == 0) {
+                stage.operation.run();
+            } else {
+                final CompletableFuture<Void> endOfOperation = new CompletableFuture<>();
+                try {
+                    this.clock.scheduleOperationInTicks(stage.ticks, endOfOperation);
+                    stage.operation.run();
+                } finally {
+                    endOfOperation.complete(null);
+                }
+            }
+            stage = stage.next;
+        }
+    }
+}
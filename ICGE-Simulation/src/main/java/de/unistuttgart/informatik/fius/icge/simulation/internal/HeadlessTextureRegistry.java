@@ -0,0 +1,61 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import de.unistuttgart.informatik.fius.icge.ui.TextureRegistry;
+
+
+/**
+ * A {@link TextureRegistry} for simulations without user interface.
+ * <p>
+ * It hands out the same kind of texture handles as the swing texture registry, but never reads or decodes any image.
+ * </p>
+ */
+public class HeadlessTextureRegistry implements TextureRegistry {
+    private final Set<String> animatedTextures = new HashSet<>();
+    
+    @Override
+    public synchronized String loadTextureFromResource(final String resourceName, final Function<String, InputStream> resourceProvider) {
+        if (resourceName == null) throw new IllegalArgumentException("The given resource name is null.");
+        return "resource://" + resourceName;
+    }
+    
+    @Override
+    public synchronized String createAnimatedTexture(final boolean loop) {
+        final String textureHandle = UUID.randomUUID().toString();
+        this.animatedTextures.add(textureHandle);
+        return textureHandle;
+    }
+    
+    @Override
+    public synchronized void addAnimationFrameToTexture(final String animatedTexture, final String frameTexture, final long frames) {
+        if (
+            !this.animatedTextures.contains(animatedTexture)
+        ) throw new IllegalArgumentException("Texture handle was not a handle for an animated texture!");
+    }
+    
+    @Override
+    public synchronized boolean isTextureAnimated(final String textureHandle) {
+        return this.animatedTextures.contains(textureHandle);
+    }
+    
+    @Override
+    public synchronized String loadTextureFromFile(final String filePath) {
+        if (filePath == null) throw new IllegalArgumentException("The given file path is null.");
+        return "file://" + Path.of(filePath).toAbsolutePath().toString();
+    }
+}
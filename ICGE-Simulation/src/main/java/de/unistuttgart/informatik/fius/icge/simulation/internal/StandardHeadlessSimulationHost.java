@@ -0,0 +1,178 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
+import de.unistuttgart.informatik.fius.icge.log.Logger;
+import de.unistuttgart.informatik.fius.icge.simulation.HeadlessSimulationHost;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.EntityTypeRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.exception.UncheckedInterruptedException;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.JournalActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.StandardEntityTypeRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.tasks.StandardTaskRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.tasks.StandardTaskRunner;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.Task;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.TaskRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.TaskRunResult;
+import de.unistuttgart.informatik.fius.icge.ui.TextureRegistry;
+
+
+/**
+ * The standard implementation of {@link HeadlessSimulationHost}
+ */
+public class StandardHeadlessSimulationHost implements HeadlessSimulationHost {
+    
+    private final StandardTaskRegistry       taskRegistry;
+    private final HeadlessTextureRegistry    textureRegistry;
+    private final StandardEntityTypeRegistry entityTypeRegistry;
+    private volatile Path                    actionJournal;
+    
+    /**
+     * Default Constructor
+     */
+    public StandardHeadlessSimulationHost() {
+        this.taskRegistry = new StandardTaskRegistry();
+        this.textureRegistry = new HeadlessTextureRegistry();
+        this.entityTypeRegistry = new StandardEntityTypeRegistry();
+    }
+    
+    @Override
+    public TaskRegistry getTaskRegistry() {
+        return this.taskRegistry;
+    }
+    
+    @Override
+    public TextureRegistry getTextureRegistry() {
+        return this.textureRegistry;
+    }
+    
+    @Override
+    public EntityTypeRegistry getEntityTypeRegistry() {
+        return this.entityTypeRegistry;
+    }
+    
+    @Override
+    public void updateGraphicsSettings(final boolean useDoubleBuffering, final boolean syncToScreen) {
+        //nothing is drawn
+    }
+    
+    @Override
+    public boolean runTask(final String taskName) {
+        final Task task = this.taskRegistry.getTask(taskName);
+        if (task == null) throw new IllegalArgumentException("There is no task with the name " + taskName + ".");
+        
+        final StandardActionLog actionLog;
+        final Path journalFile = this.actionJournal;
+        if (journalFile == null) {
+            actionLog = new StandardActionLog();
+        } else {
+            try {
+                actionLog = new JournalActionLog(journalFile);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Cannot create the action journal.", e);
+            }
+        }
+        return this.runInNewSimulation(task, actionLog, Logger.getDefaultContext(), null).isSuccessful();
+    }
+    
+    @Override
+    public List<TaskRunResult> runTasks(final List<? extends Task> tasks, final int parallelism) {
+        if (tasks == null) throw new IllegalArgumentException("The given tasks are null.");
+        if (parallelism < 1) throw new IllegalArgumentException("The given parallelism is less than 1.");
+        final Set<Task> distinctTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Task task : tasks) {
+            if (task == null) throw new IllegalArgumentException("The given tasks contain null.");
+            if (!distinctTasks.add(task)) throw new IllegalArgumentException("The given tasks contain the same instance twice.");
+        }
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "STM-TaskRunner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<TaskRunResult>> runs = new ArrayList<>(tasks.size());
+            for (final Task task : tasks) {
+                runs.add(executor.submit(() -> {
+                    //every run writes to its own context, so the output of concurrent runs is not mixed
+                    final LogContext logContext = new LogContext();
+                    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    logContext.addSimulationOutputStream(output);
+                    logContext.addSimulationErrorStream(output);
+                    return this.runInNewSimulation(task, new StandardActionLog(), logContext, output);
+                }));
+            }
+            final List<TaskRunResult> results = new ArrayList<>(tasks.size());
+            for (final Future<TaskRunResult> run : runs) {
+                results.add(run.get());
+            }
+            return results;
+        } catch (final InterruptedException e) {
+            throw new UncheckedInterruptedException(e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("The task runner failed.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Run the given task in a new simulation on the current thread.
+     * <p>
+     * The given output stream, if any, must be attached to the given log context; its content is part of the result.
+     * </p>
+     */
+    private TaskRunResult runInNewSimulation(
+            final Task task, final StandardActionLog actionLog, final LogContext logContext, final ByteArrayOutputStream output
+    ) {
+        final long start = System.nanoTime();
+        final StandardSimulation simulation = StandardSimulation.createSimulation(actionLog, logContext);
+        final StandardSimulationClock clock = simulation.getSimulationClock();
+        clock.setUnthrottled(true);
+        clock.start();
+        try {
+            //the task runs on this thread, so concurrent runs do not compete for the common pool
+            final boolean successful = new StandardTaskRunner(task, simulation).runTask(Runnable::run).get();
+            final Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+            logContext.getSimulationOutput().flush();
+            logContext.getSimulationError().flush();
+            return new TaskRunResult(task, successful, clock.getLastTickNumber(), wallTime, output == null ? "" : output.toString());
+        } catch (final InterruptedException e) {
+            throw new UncheckedInterruptedException(e);
+        } catch (final ExecutionException e) {
+            //The task runner catches all exceptions of the task itself
+            throw new IllegalStateException("The task runner failed.", e);
+        } finally {
+            //stop the programs still running, so they do not keep running without a clock, and close the log
+            simulation.shutdown();
+        }
+    }
+    
+    @Override
+    public void setActionJournal(final Path journalFile) {
+        this.actionJournal = journalFile;
+    }
+}
@@ -9,12 +9,10 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.internal;
 
-import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
+import de.unistuttgart.informatik.fius.icge.log.Logger;
 import de.unistuttgart.informatik.fius.icge.simulation.Simulation;
-import de.unistuttgart.informatik.fius.icge.simulation.SimulationClock;
-import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLog;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRegistry;
-import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRunner;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRegistry;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRunner;
@@ -35,6 +33,7 @@ public class StandardSimulation implements Simulation {
     private final StandardEntityProgramRegistry entityProgramRegistry;
     private final StandardEntityProgramRunner   entityProgramRunner;
     private final StandardActionLog             actionLog;
+    private final LogContext                    logContext;
     
     /**
      * Creates a new standard simulation with the given parameters.
@@ -55,6 +54,32 @@ public class StandardSimulation implements Simulation {
             final StandardEntityProgramRegistry entityProgramRegistry, final StandardEntityProgramRunner entityProgramRunner,
             final StandardActionLog actionLog
     ) {
+        this(playfield, simulationClock, entityProgramRegistry, entityProgramRunner, actionLog, Logger.getDefaultContext());
+    }
+    
+    /**
+     * Creates a new standard simulation with the given parameters.
+     * 
+     * @param playfield
+     *     The playfield to use
+     * @param simulationClock
+     *     The simulation clock to use
+     * @param entityProgramRegistry
+     *     The entityProgramRegistry to use
+     * @param entityProgramRunner
+     *     The entityProgramRunner to use
+     * @param actionLog
+     *     The actionLog to use
+     * @param logContext
+     *     The log context to write the output of the simulation to
+     */
+    public StandardSimulation(
+            final StandardPlayfield playfield, final StandardSimulationClock simulationClock,
+            final StandardEntityProgramRegistry entityProgramRegistry, final StandardEntityProgramRunner entityProgramRunner,
+            final StandardActionLog actionLog, final LogContext logContext
+    ) {
+        if (logContext == null) throw new IllegalArgumentException("The given log context is null.");
+        this.logContext = logContext;
         this.playfield = playfield;
         this.simulationClock = simulationClock;
         this.entityProgramRegistry = entityProgramRegistry;
@@ -62,14 +87,56 @@ public class StandardSimulation implements Simulation {
         this.actionLog = actionLog;
     }
     
+    /**
+     * Creates a new standard simulation with new standard components and initializes it.
+     * 
+     * @return the new simulation
+     */
+    public static StandardSimulation createSimulation() {
+        return StandardSimulation.createSimulation(new StandardActionLog());
+    }
+    
+    /**
+     * Creates a new standard simulation with new standard components and the given action log and initializes it.
+     * 
+     * @param actionLog
+     *     The actionLog to use
+     * @return the new simulation
+     */
+    public static StandardSimulation createSimulation(final StandardActionLog actionLog) {
+        return StandardSimulation.createSimulation(actionLog, Logger.getDefaultContext());
+    }
+    
+    /**
+     * Creates a new standard simulation with new standard components, the given action log and the given log context
+     * and initializes it.
+     * 
+     * @param actionLog
+     *     The actionLog to use
+     * @param logContext
+     *     The log context to write the output of the simulation to
+     * @return the new simulation
+     */
+    public static StandardSimulation createSimulation(final StandardActionLog actionLog, final LogContext logContext) {
+        final StandardEntityProgramRegistry entityProgramRegistry = new StandardEntityProgramRegistry();
+        final StandardSimulation simulation = new StandardSimulation(
+                new StandardPlayfield(), new StandardSimulationClock(), entityProgramRegistry,
+                new StandardEntityProgramRunner(entityProgramRegistry), actionLog, logContext
+        );
+        simulation.initialize();
+        return simulation;
+    }
+    
     @Override
-    public Playfield getPlayfield() {
+    public StandardPlayfield getPlayfield() {
         return this.playfield;
     }
     
     @Override
     public void initialize() {
+        this.actionLog.setLogContext(this.logContext);
         this.playfield.initialize(this);
+        this.entityProgramRunner.initialize(this);
     }
     
     /**
@@ -87,8 +154,21 @@ public class StandardSimulation implements Simulation {
         this.playfield.setEntityDrawListener(listener);
     }
     
+    /**
+     * Shut down this simulation once it is not used anymore.
+     * <p>
+     * The clock is shut down, the programs still running are stopped and the action log is closed, so its spill file is
+     * complete.
+     * </p>
+     */
+    public void shutdown() {
+        this.simulationClock.shutdown();
+        this.entityProgramRunner.shutdown();
+        this.actionLog.close();
+    }
+    
     @Override
-    public SimulationClock getSimulationClock() {
+    public StandardSimulationClock getSimulationClock() {
         return this.simulationClock;
     }
     
@@ -98,12 +178,17 @@ public class StandardSimulation implements Simulation {
     }
     
     @Override
-    public EntityProgramRunner getEntityProgramRunner() {
+    public StandardEntityProgramRunner getEntityProgramRunner() {
         return this.entityProgramRunner;
     }
     
     @Override
-    public ActionLog getActionLog() {
+    public StandardActionLog getActionLog() {
         return this.actionLog;
     }
+    
+    @Override
+    public LogContext getLogContext() {
+        return this.logContext;
+    }
 }
@@ -10,20 +10,19 @@
 package de.unistuttgart.informatik.fius.icge.simulation.internal;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Phaser;
 import java.util.function.Function;
 
 import de.unistuttgart.informatik.fius.icge.simulation.SimulationClock;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.TimerAlreadyRunning;
-import de.unistuttgart.informatik.fius.icge.simulation.exception.UncheckedInterruptedException;
 import de.unistuttgart.informatik.fius.icge.ui.exception.ListenerSetException;
 import de.unistuttgart.informatik.fius.icge.ui.SimulationProxy.ButtonType;
 import de.unistuttgart.informatik.fius.icge.ui.SimulationProxy.EntityDrawListener;
@@ -42,16 +41,41 @@ public class StandardSimulationClock implements SimulationClock {
     
     private EntityDrawListener drawer;
     
+    private static final long UNTHROTTLED_IDLE_WAIT_MILLIS = 10;
+    
     private final Object tickListenerLock = new Object();
     
     private final List<Function<Long, Boolean>> tickListeners;
     private final List<Function<Long, Boolean>> postTickListeners;
     
-    private final Set<CompletableFuture<Void>> operationBoundaries;
+    /**
+     * Guards {@link #scheduledOperations} and {@link #runningOperations}.
+     * <p>
+     * When both locks are needed the {@link #tickListenerLock} must be acquired first.
+     * </p>
+     */
+    private final Object operationLock = new Object();
+    
+    /**
+     * One barrier per simulation tick with scheduled operations.
+     * <p>
+     * The clock is a party of every barrier and each scheduled operation registers as another party. In phase 0 all
+     * parties wait for each other, which releases all operations of the tick at once. In phase 1 the clock waits for
+     * every operation to arrive at the end of the operation.
+     * </p>
+     */
+    private final NavigableMap<Long, Phaser> scheduledOperations;
+    /** The barriers of the simulation tick currently processed */
+    private final List<Phaser>               runningOperations;
     
     private TimerTask   task;
     private final Timer timer;
     
+    /** Whether to tick as fast as possible instead of using the timer; see {@link #setUnthrottled(boolean)} */
+    private volatile boolean unthrottled;
+    /** The thread producing the ticks in unthrottled mode; null if it is not running */
+    private volatile Thread  unthrottledTicker;
+    
     private volatile long tickCount;
     
     /**
@@ -64,9 +88,18 @@ public class StandardSimulationClock implements SimulationClock {
      * to concurrency some methods may still be called after a shutdown without the caller doing anything wrong or
      * having any sensible to reaction to this.
      * </p>
+     * <p>
+     * The scheduleOperation methods are the exception: they throw a {@link CancellationException}, so that the programs
+     * still performing operations stop instead of running without waiting for any ticks.
+     * </p>
      * 
      */
     private volatile boolean shuttingDown;
+    /**
+     * Set from {@link #cancelOperations()} until {@link #reset()}; like after a shutdown the scheduleOperation methods
+     * throw a {@link CancellationException} meanwhile.
+     */
+    private volatile boolean cancellingOperations;
     
     private int period;
     
@@ -80,7 +113,8 @@ public class StandardSimulationClock implements SimulationClock {
         this.tickCount = -1;
         this.period = SimulationClock.DEFAULT_RENDER_TICK_PERIOD;
         this.shuttingDown = false;
-        this.operationBoundaries = Collections.synchronizedSet(new HashSet<>());
+        this.scheduledOperations = new TreeMap<>();
+        this.runningOperations = new ArrayList<>();
     }
     
     /**
@@ -120,6 +154,14 @@ public class StandardSimulationClock implements SimulationClock {
         if (this.isRunning()) throw new TimerAlreadyRunning();
         if (this.shuttingDown) return;
         
+        if (this.unthrottled) {
+            final Thread ticker = new Thread(this::runUnthrottled, "STM-UnthrottledTicker");
+            ticker.setDaemon(true);
+            this.unthrottledTicker = ticker;
+            ticker.start();
+            return;
+        }
+        
         this.task = new TimerTask() {
             
             @Override
@@ -135,10 +177,12 @@ public class StandardSimulationClock implements SimulationClock {
      * what you do use {@link SimulationClock#stop()}
      */
     public synchronized void stopInternal() {
-        if (this.isRunning()) {
+        if (this.task != null) {
             this.task.cancel();
         }
         this.task = null;
+        //the ticker notices this after its current tick
+        this.unthrottledTicker = null;
     }
     
     /**
@@ -149,8 +193,8 @@ public class StandardSimulationClock implements SimulationClock {
      * </p>
      * <p>
      * Most methods of this clock will just return immediately after this method is called. This includes register
-     * listener methods, scheduleOperation methods and all methods controlling the state of the clock except for
-     * stopInternal.
+     * listener methods and all methods controlling the state of the clock except for stopInternal. The
+     * scheduleOperation methods throw a {@link CancellationException} instead.
      * </p>
      * 
      * @see #shuttingDown <b>shuttingDown</b> for more information and the reason for all methods returning
@@ -159,8 +203,50 @@ public class StandardSimulationClock implements SimulationClock {
         if (this.shuttingDown) return;
         this.shuttingDown = true;
         stop();
-        for (var boundary : Set.copyOf(this.operationBoundaries)) {
-            boundary.cancel(true);
+        this.timer.cancel();
+        this.terminateOperations();
+    }
+    
+    /**
+     * Stop this clock and cancel all scheduled operations like {@link #shutdown()} does, but keep this clock usable.
+     * <p>
+     * Scheduling an operation fails with a {@link CancellationException} until {@link #reset()} is called, so the
+     * programs still running stop at their next operation instead of waiting for a tick.
+     * </p>
+     */
+    public synchronized void cancelOperations() {
+        if (this.shuttingDown) return;
+        this.cancellingOperations = true;
+        this.stopInternal();
+        this.terminateOperations();
+    }
+    
+    /**
+     * Start counting the ticks from the beginning again and accept operations again after {@link #cancelOperations()}.
+     * <p>
+     * Call this once all programs scheduling operations have stopped. The listeners stay registered.
+     * </p>
+     */
+    public synchronized void reset() {
+        if (this.shuttingDown) return;
+        this.stopInternal();
+        synchronized (this.tickListenerLock) {
+            //a tick still being processed is finished before
+            this.tickCount = -1;
+        }
+        this.cancellingOperations = false;
+    }
+    
+    private void terminateOperations() {
+        synchronized (this.operationLock) {
+            for (final Phaser operations : this.scheduledOperations.values()) {
+                operations.forceTermination();
+            }
+            this.scheduledOperations.clear();
+            for (final Phaser operations : this.runningOperations) {
+                operations.forceTermination();
+            }
+            this.operationLock.notifyAll();
         }
     }
     
@@ -174,6 +260,24 @@ public class StandardSimulationClock implements SimulationClock {
         }
     }
     
+    @Override
+    public synchronized void setUnthrottled(final boolean unthrottled) {
+        if (this.unthrottled == unthrottled) return;
+        
+        if (this.isRunning()) {
+            this.stop();
+            this.unthrottled = unthrottled;
+            this.start();
+        } else {
+            this.unthrottled = unthrottled;
+        }
+    }
+    
+    @Override
+    public boolean isUnthrottled() {
+        return this.unthrottled;
+    }
+    
     @Override
     public int getRenderTickPeriod() {
         return this.period;
@@ -186,7 +290,7 @@ public class StandardSimulationClock implements SimulationClock {
     
     @Override
     public boolean isRunning() {
-        return this.task != null;
+        return (this.task != null) || (this.unthrottledTicker != null);
     }
     
     @Override
@@ -238,6 +342,43 @@ public class StandardSimulationClock implements SimulationClock {
         }
     }
     
+    /**
+     * Produce simulation ticks back to back until the unthrottled ticker is stopped.
+     */
+    private void runUnthrottled() {
+        final Thread self = Thread.currentThread();
+        while ((this.unthrottledTicker == self) && !this.shuttingDown) {
+            if (this.isIdle()) {
+                synchronized (this.operationLock) {
+                    if (this.scheduledOperations.isEmpty()) {
+                        //Nothing to do in the next tick; wait for an operation instead of producing empty ticks.
+                        //The timeout makes sure stopping is noticed without taking the lock.
+                        try {
+                            this.operationLock.wait(StandardSimulationClock.UNTHROTTLED_IDLE_WAIT_MILLIS);
+                        } catch (@SuppressWarnings("unused") final InterruptedException e) {
+                            return;
+                        }
+                        continue;
+                    }
+                }
+            }
+            synchronized (this.tickListenerLock) {
+                //Don't process tick when shutting down.
+                if (this.shuttingDown) return;
+                //skip the render ticks and continue with the first render tick of the next simulation tick
+                final long simulationTick = Math.floorDiv(this.tickCount, SimulationClock.RENDER_TICKS_PER_SIMULATION_TICK) + 1;
+                this.tickCount = simulationTick * SimulationClock.RENDER_TICKS_PER_SIMULATION_TICK;
+                this.tickSimulation(simulationTick);
+            }
+        }
+    }
+    
+    private boolean isIdle() {
+        synchronized (this.tickListenerLock) {
+            return this.tickListeners.isEmpty();
+        }
+    }
+    
     /**
      * Process a simulation tick
      *
@@ -245,6 +386,8 @@ public class StandardSimulationClock implements SimulationClock {
      *     The number of the simulation tick since the start of the clock.
      */
     private void tickSimulation(final long tickNumber) {
+        this.runOperations(tickNumber);
+        
         for (final var listener : List.copyOf(this.tickListeners)) {
             //Don't continue to process tick when shutting down.
             if (this.shuttingDown) return;
@@ -262,12 +405,50 @@ public class StandardSimulationClock implements SimulationClock {
         }
     }
     
+    /**
+     * Release all operations scheduled up to the given tick at once and wait until all of them are done.
+     *
+     * @param tickNumber
+     *     The number of the simulation tick being processed
+     */
+    private void runOperations(final long tickNumber) {
+        synchronized (this.operationLock) {
+            if (this.shuttingDown) return;
+            //operations scheduled for a tick which is already over are run in this tick
+            final Map<Long, Phaser> dueOperations = this.scheduledOperations.headMap(tickNumber, true);
+            if (dueOperations.isEmpty()) return;
+            this.runningOperations.addAll(dueOperations.values());
+            dueOperations.clear();
+        }
+        
+        //phase 0: release the operations of all barriers before waiting for any of them
+        final int[] releasePhases = new int[this.runningOperations.size()];
+        for (int i = 0; i < releasePhases.length; i++) {
+            releasePhases[i] = this.runningOperations.get(i).arrive();
+        }
+        for (int i = 0; i < releasePhases.length; i++) {
+            this.runningOperations.get(i).awaitAdvance(releasePhases[i]);
+        }
+        //phase 1: wait for the end of all operations
+        for (final Phaser operations : this.runningOperations) {
+            operations.arriveAndAwaitAdvance();
+        }
+        
+        synchronized (this.operationLock) {
+            this.runningOperations.clear();
+        }
+    }
+    
     @Override
     public void registerTickListener(final Function<Long, Boolean> listener) {
         if (this.shuttingDown) return;
         synchronized (this.tickListenerLock) {
             this.tickListeners.add(listener);
         }
+        //wake up the unthrottled ticker if it waits for an operation
+        synchronized (this.operationLock) {
+            this.operationLock.notifyAll();
+        }
     }
     
     @Override
@@ -291,37 +472,18 @@ public class StandardSimulationClock implements SimulationClock {
     
     @Override
     public void scheduleOperationAtTick(final long tick, final CompletableFuture<Void> endOfOperation) {
-        if (this.shuttingDown) return;
-        this.operationBoundaries.add(endOfOperation);
-        final CompletableFuture<Void> startOfOperation = new CompletableFuture<>();
-        this.operationBoundaries.add(startOfOperation);
-        this.registerTickListener(tickNumber -> {
-            if (tickNumber >= tick) {
-                startOfOperation.complete(null);
-                try {
-                    endOfOperation.get();
-                    this.operationBoundaries.remove(endOfOperation);
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                } catch (CancellationException e) {
-                    //When shutting down this is expected
-                    if (!this.shuttingDown) {
-                        e.printStackTrace();
-                    }
-                }
-                return false;
-            }
-            return true;
-        });
-        try {
-            startOfOperation.get();
-            this.operationBoundaries.remove(startOfOperation);
-        } catch (final InterruptedException e) {
-            throw new UncheckedInterruptedException(e);
-        } catch (final ExecutionException e) {
-            //Should not happen as this future does never execute but is simply completed manually.
-            e.printStackTrace();
+        final Phaser operations;
+        synchronized (this.operationLock) {
+            if (this.shuttingDown || this.cancellingOperations) throw new CancellationException();
+            operations = this.scheduledOperations.computeIfAbsent(tick, unused -> new Phaser(1));
+            operations.register();
+            //wake up the unthrottled ticker if it waits for an operation
+            this.operationLock.notifyAll();
         }
+        
+        //wait for the clock to release the operations of the tick
+        if ((operations.arriveAndAwaitAdvance() < 0) || operations.isTerminated()) throw new CancellationException();
+        endOfOperation.whenComplete((unusedResult, unusedException) -> operations.arriveAndDeregister());
     }
     
     @Override
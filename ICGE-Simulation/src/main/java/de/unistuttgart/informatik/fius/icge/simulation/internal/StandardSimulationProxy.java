@@ -17,7 +17,6 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
-import de.unistuttgart.informatik.fius.icge.log.Logger;
 import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.Simulation;
@@ -27,10 +26,7 @@ import de.unistuttgart.informatik.fius.icge.simulation.entity.EntityTypeRegistry
 import de.unistuttgart.informatik.fius.icge.simulation.exception.CannotRunProgramException;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityNotOnFieldException;
 import de.unistuttgart.informatik.fius.icge.simulation.inspection.InspectionManager;
-import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.StandardEntityTypeRegistry;
-import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRegistry;
-import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.StandardEntityProgramRunner;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.StandardPlayfield;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.tasks.StandardTaskRegistry;
 import de.unistuttgart.informatik.fius.icge.simulation.internal.tasks.StandardTaskRunner;
@@ -60,6 +56,9 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
             // These values are aproximated by two functions originally by haslersn which where modified by waeltkts
     };
     
+    /** How long stopping a task waits for the task and its programs before preparing the task in a new simulation */
+    private static final long RESTART_TIMEOUT_MILLIS = 1000;
+    
     // GAME WINDOW
     private GameWindow gameWindow;
     
@@ -89,6 +88,7 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
     // CURRENT SIMULATION AND TASKS
     private String                     currentTaskName    = null;
     private StandardSimulation         currentSimulation  = null;
+    private StandardTaskRunner         currentTaskRunner  = null;
     private CompletableFuture<Boolean> currentRunningTask = null;
     
     /**
@@ -199,6 +199,10 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
                 if (this.simulationClock.isRunning()) {
                     this.simulationClock.stopInternal();
                 }
+                if (this.currentPlayfield != null) {
+                    //changes made outside of a tick are drawn with the next tick, which does not come any more
+                    this.currentPlayfield.drawChangedEntities();
+                }
                 this.buttonStateListener.changeButtonState(ClockButtonState.PAUSED);
                 break;
             
@@ -207,7 +211,7 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
                 if (this.simulationClock.isRunning()) {
                     this.simulationClock.stopInternal();
                 }
-                this.switchTask(this.currentTaskName);
+                this.restartTask();
                 this.buttonStateListener.changeButtonState(ClockButtonState.STOPPED);
                 break;
             
@@ -257,13 +261,35 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
         }
     }
     
+    /**
+     * Run the current task again from the snapshot taken after it was prepared.
+     * <p>
+     * If the task was not prepared yet or it or its programs do not stop, the task is prepared again in a new
+     * simulation instead.
+     * </p>
+     */
+    private synchronized void restartTask() {
+        if ((this.currentTaskRunner == null) || !this.currentTaskRunner.stopTask(StandardSimulationProxy.RESTART_TIMEOUT_MILLIS)) {
+            this.switchTask(this.currentTaskName);
+            return;
+        }
+        
+        this.gameWindow.getConsole().clearSimulationConsole();
+        this.entityToInspect = null;
+        this.entityInspectorListener.disable();
+        // reset currentTick in playfield drawer
+        this.gameWindow.getPlayfieldDrawer().draw(0);
+        
+        this.currentRunningTask = this.currentTaskRunner.restartTask();
+    }
+    
     private synchronized void switchTask(String newTaskName) {
         
         final Task task = this.taskRegistry.getTask(newTaskName);
         
         // CLEANUP
         if (this.currentSimulation != null) {
-            this.simulationClock.shutdown();
+            this.currentSimulation.shutdown();
             this.currentSimulation.setEntityDrawListener(null);
         }
         if (this.currentRunningTask != null) {
@@ -278,18 +304,9 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
         
         // SETUP NEW
         
-        final StandardPlayfield playfield = new StandardPlayfield();
-        final StandardSimulationClock newSimulationClock = new StandardSimulationClock();
-        
-        final StandardEntityProgramRegistry entityProgramRegistry = new StandardEntityProgramRegistry();
-        final StandardEntityProgramRunner entityProgramRunner = new StandardEntityProgramRunner(entityProgramRegistry);
-        
-        final StandardActionLog actionLog = new StandardActionLog();
-        
-        final StandardSimulation simulation = new StandardSimulation(
-                playfield, newSimulationClock, entityProgramRegistry, entityProgramRunner, actionLog
-        );
-        simulation.initialize();
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final StandardSimulationClock newSimulationClock = simulation.getSimulationClock();
         final StandardTaskRunner taskRunner = new StandardTaskRunner(task, simulation);
         
         simulation.setEntityDrawListener(this.entityDrawListener);
@@ -316,12 +333,13 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
         });
         
         // START TASK
-        final CompletableFuture<Boolean> runningTask = taskRunner.runTask();
+        final CompletableFuture<Boolean> runningTask = taskRunner.runRestartableTask();
         
         // REPLACE OLD
         this.setSimulationClock(newSimulationClock);
         this.currentTaskName = newTaskName;
         this.currentSimulation = simulation;
+        this.currentTaskRunner = taskRunner;
         this.currentRunningTask = runningTask;
         this.currentPlayfield = playfield;
         this.gameWindow.setWindowTitle("Task: " + newTaskName);
@@ -401,8 +419,8 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
             final Entity entity = this.entityTypeRegistry.getNewEntity(typeName);
             return sim.getEntityProgramRegistry().getProgramsForEntity(entity);
         } catch (Exception e) {
-            Logger.simout.println("Could not load program list for entity type " + typeName + ". (See system log for details.)");
-            e.printStackTrace(Logger.error);
+            sim.getLogContext().getSimulationOutput().println("Could not load program list for entity type " + typeName + ".");
+            e.printStackTrace(sim.getLogContext().getSimulationError());
         }
         return new HashSet<>();
     }
@@ -416,19 +434,19 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
         try {
             final Entity ent = this.entityTypeRegistry.getNewEntity(typeName);
             if (ent == null) {
-                Logger.simout.println("Could not create a new entity of type " + typeName + "!");
+                sim.getLogContext().getSimulationOutput().println("Could not create a new entity of type " + typeName + "!");
                 return;
             }
-            field.addEntity(new Position(x, y), ent);
+            field.addEntity(Position.of(x, y), ent);
             if (program != null && !program.equals("")) {
-                this.currentSimulation.getEntityProgramRunner().run(program, ent);
+                sim.getEntityProgramRunner().run(program, ent);
             }
         } catch (CannotRunProgramException e) {
-            Logger.simout.println("Could not run program " + program + " for the new entity. (See system log for details.)");
-            e.printStackTrace(Logger.error);
+            sim.getLogContext().getSimulationOutput().println("Could not run program " + program + " for the new entity.");
+            e.printStackTrace(sim.getLogContext().getSimulationError());
         } catch (Exception e) {
-            Logger.simout.println("Something went wrong while creating new entity. (See system log for details.)");
-            e.printStackTrace(Logger.error);
+            sim.getLogContext().getSimulationOutput().println("Something went wrong while creating new entity.");
+            e.printStackTrace(sim.getLogContext().getSimulationError());
         }
     }
     
@@ -438,7 +456,7 @@ public class StandardSimulationProxy implements SimulationProxy, SimulationHost
         if (sim == null) return; // no simulation
         
         final Playfield field = sim.getPlayfield();
-        final List<Entity> toRemove = field.getEntitiesAt(new Position(x, y));
+        final List<Entity> toRemove = field.getEntitiesAt(Position.of(x, y));
         
         toRemove.forEach(entity -> {
             try {
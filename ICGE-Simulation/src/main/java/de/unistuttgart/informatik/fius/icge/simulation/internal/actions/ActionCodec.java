@@ -0,0 +1,244 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityMoveAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * Converts the actions of the simulation to the columns of a {@link ColumnarActionStore} and back.
+ * <p>
+ * Every action of one of the standard action classes is stored as a kind and up to two positions. The columns
+ * {@code fromX} and {@code fromY} hold the first position, {@code toX} and {@code toY} the second one; a turn stores
+ * the ordinals of its directions in {@code fromX} and {@code toX}. Objects which do not fit into the columns, like the
+ * collected entity, are referenced. Actions of any other class, including subclasses of the standard classes, have the
+ * kind {@link #OTHER} and reference the action object itself.
+ * </p>
+ */
+public final class ActionCodec {
+    
+    /** An action stored as object */
+    public static final byte OTHER    = 0;
+    /** An {@link EntityStepAction} */
+    public static final byte STEP     = 1;
+    /** An {@link EntityTeleportAction} */
+    public static final byte TELEPORT = 2;
+    /** An {@link EntityTurnAction} */
+    public static final byte TURN     = 3;
+    /** An {@link EntitySpawnAction}; references the playfield */
+    public static final byte SPAWN    = 4;
+    /** An {@link EntityDespawnAction}; references the playfield */
+    public static final byte DESPAWN  = 5;
+    /** An {@link EntityCollectAction}; references the collected entity */
+    public static final byte COLLECT  = 6;
+    /** An {@link EntityDropAction}; references the dropped entity */
+    public static final byte DROP     = 7;
+    
+    private static final Class<?>[] KIND_TYPES = { Action.class, EntityStepAction.class, EntityTeleportAction.class, EntityTurnAction.class,
+            EntitySpawnAction.class, EntityDespawnAction.class, EntityCollectAction.class, EntityDropAction.class };
+    
+    private static final Direction[] DIRECTIONS = Direction.values();
+    
+    private ActionCodec() {
+        //static utility class
+    }
+    
+    /**
+     * @return the number of kinds
+     */
+    public static int kindCount() {
+        return ActionCodec.KIND_TYPES.length;
+    }
+    
+    /**
+     * Get the kind to store the given action as.
+     *
+     * @param action
+     *     the action
+     * @return the kind of the action
+     */
+    public static byte kindOf(final Action action) {
+        final Class<?> type = action.getClass();
+        for (byte kind = 1; kind < ActionCodec.KIND_TYPES.length; kind++) {
+            if (ActionCodec.KIND_TYPES[kind] == type) return ActionCodec.isEncodable(action, kind) ? kind : ActionCodec.OTHER;
+        }
+        return ActionCodec.OTHER;
+    }
+    
+    /**
+     * Check that the fields stored in the columns are not null, as null cannot be stored there.
+     */
+    private static boolean isEncodable(final Action action, final byte kind) {
+        switch (kind) {
+            case STEP:
+            case TELEPORT:
+                final EntityMoveAction move = (EntityMoveAction) action;
+                return (move.from() != null) && (move.to() != null);
+            case TURN:
+                final EntityTurnAction turn = (EntityTurnAction) action;
+                return (turn.from() != null) && (turn.to() != null);
+            case SPAWN:
+                return ((EntitySpawnAction) action).getPosition() != null;
+            case COLLECT:
+                final EntityCollectAction collect = (EntityCollectAction) action;
+                return (collect.getCollectorPosition() != null) && (collect.getCollectedEntityPosition() != null);
+            case DROP:
+                final EntityDropAction drop = (EntityDropAction) action;
+                return (drop.getDropperPosition() != null) && (drop.getDroppedEntityPosition() != null);
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Get the first position stored for the given action.
+     *
+     * @param action
+     *     the action
+     * @param kind
+     *     the kind of the action
+     * @return the first position or null if the kind stores no position
+     */
+    public static Position firstPosition(final Action action, final byte kind) {
+        switch (kind) {
+            case STEP:
+            case TELEPORT:
+                return ((EntityMoveAction) action).from();
+            case COLLECT:
+                return ((EntityCollectAction) action).getCollectorPosition();
+            case DROP:
+                return ((EntityDropAction) action).getDropperPosition();
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Get the second position stored for the given action.
+     *
+     * @param action
+     *     the action
+     * @param kind
+     *     the kind of the action
+     * @return the second position or null if the kind stores no second position
+     */
+    public static Position secondPosition(final Action action, final byte kind) {
+        switch (kind) {
+            case STEP:
+            case TELEPORT:
+                return ((EntityMoveAction) action).to();
+            case SPAWN:
+                return ((EntitySpawnAction) action).getPosition();
+            case COLLECT:
+                return ((EntityCollectAction) action).getCollectedEntityPosition();
+            case DROP:
+                return ((EntityDropAction) action).getDroppedEntityPosition();
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Get the object referenced by the given action.
+     *
+     * @param action
+     *     the action
+     * @param kind
+     *     the kind of the action
+     * @return the referenced object or null if the kind references no object
+     */
+    public static Object reference(final Action action, final byte kind) {
+        switch (kind) {
+            case OTHER:
+                return action;
+            case SPAWN:
+                return ((EntitySpawnAction) action).getPlayfield();
+            case DESPAWN:
+                return ((EntityDespawnAction) action).getPlayfield();
+            case COLLECT:
+                return ((EntityCollectAction) action).getCollectedEntity();
+            case DROP:
+                return ((EntityDropAction) action).getDroppedEntity();
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Rebuild an action from its columns.
+     *
+     * @param kind
+     *     the kind of the action
+     * @param tick
+     *     the tick number of the action
+     * @param entity
+     *     the entity of the action; null if it is no entity action
+     * @param fromX
+     *     the fromX column
+     * @param fromY
+     *     the fromY column
+     * @param toX
+     *     the toX column
+     * @param toY
+     *     the toY column
+     * @param reference
+     *     the referenced object
+     * @return the action
+     */
+    public static Action decode(
+            final byte kind, final long tick, final Entity entity, final int fromX, final int fromY, final int toX, final int toY,
+            final Object reference
+    ) {
+        switch (kind) {
+            case STEP:
+                return new EntityStepAction(tick, entity, Position.of(fromX, fromY), Position.of(toX, toY));
+            case TELEPORT:
+                return new EntityTeleportAction(tick, entity, Position.of(fromX, fromY), Position.of(toX, toY));
+            case TURN:
+                return new EntityTurnAction(tick, entity, ActionCodec.DIRECTIONS[fromX], ActionCodec.DIRECTIONS[toX]);
+            case SPAWN:
+                return new EntitySpawnAction(tick, entity, (Playfield) reference, Position.of(toX, toY));
+            case DESPAWN:
+                return new EntityDespawnAction(tick, entity, (Playfield) reference);
+            case COLLECT:
+                return new EntityCollectAction(
+                        tick, entity, (CollectableEntity) reference, Position.of(fromX, fromY), Position.of(toX, toY)
+                );
+            case DROP:
+                return new EntityDropAction(tick, entity, (CollectableEntity) reference, Position.of(fromX, fromY), Position.of(toX, toY));
+            default:
+                return (Action) reference;
+        }
+    }
+    
+    /**
+     * Get the class of the actions of the given kind.
+     *
+     * @param kind
+     *     the kind; must not be {@link #OTHER}
+     * @return the class
+     */
+    public static Class<?> typeOf(final byte kind) {
+        return ActionCodec.KIND_TYPES[kind];
+    }
+}
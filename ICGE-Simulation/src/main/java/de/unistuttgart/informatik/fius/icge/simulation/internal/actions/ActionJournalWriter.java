@@ -0,0 +1,259 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionJournalReader;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * Writes actions to a memory mapped action journal; see {@link ActionJournalReader} for the file format.
+ * <p>
+ * The records are written into the mapped file, and the number of records in the header is updated after each action,
+ * so the journal can be read even if the JVM exits without closing the writer. Closing the writer adds the tick index.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+public class ActionJournalWriter implements Closeable {
+    
+    private static final int NONE          = -1;
+    private static final int CHUNK_RECORDS = 1 << 16;
+    
+    private final FileChannel      channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer       chunk;
+    private long                   chunkFirstRecord;
+    private long                   recordCount;
+    
+    /** The entity numbers; weak so the journal does not keep removed entities alive */
+    private final Map<Entity, Integer>   entityIds   = new WeakHashMap<>();
+    private int                          nextEntityId;
+    /** The first records of the class names written so far */
+    private final Map<Class<?>, Integer> typeStrings = new HashMap<>();
+    
+    private long[] blockMinTicks = new long[16];
+    private long[] blockMaxTicks = new long[16];
+    
+    /**
+     * Create a new journal, replacing an existing file.
+     *
+     * @param file
+     *     the file to write to; must not be null
+     * @throws IOException
+     *     if the file cannot be created
+     */
+    public ActionJournalWriter(final Path file) throws IOException {
+        if (file == null) throw new IllegalArgumentException("The given file is null.");
+        this.channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, ActionJournalReader.HEADER_SIZE);
+        this.header.putLong(0, ActionJournalReader.MAGIC);
+        this.header.putInt(8, ActionJournalReader.VERSION);
+        this.header.putInt(12, ActionJournalReader.RECORD_SIZE);
+        Arrays.fill(this.blockMinTicks, Long.MAX_VALUE);
+        Arrays.fill(this.blockMaxTicks, Long.MIN_VALUE);
+    }
+    
+    /**
+     * Append the given action to the journal.
+     *
+     * @param action
+     *     the action; must not be null
+     * @throws IOException
+     *     if the file cannot be extended
+     */
+    public void write(final Action action) throws IOException {
+        if (action == null) throw new IllegalArgumentException("The given action is null.");
+        final byte kind = ActionCodec.kindOf(action);
+        
+        int entityId = ActionJournalWriter.NONE;
+        int entityType = ActionJournalWriter.NONE;
+        if (action instanceof EntityAction) {
+            final Entity entity = ((EntityAction) action).getEntity();
+            entityId = this.idOf(entity);
+            entityType = this.typeString(entity);
+        }
+        
+        int fromX = 0;
+        int fromY = 0;
+        int toX = 0;
+        int toY = 0;
+        if (kind == ActionCodec.TURN) {
+            final EntityTurnAction turn = (EntityTurnAction) action;
+            fromX = turn.from().ordinal();
+            toX = turn.to().ordinal();
+        } else {
+            final Position first = ActionCodec.firstPosition(action, kind);
+            if (first != null) {
+                fromX = first.getX();
+                fromY = first.getY();
+            }
+            final Position second = ActionCodec.secondPosition(action, kind);
+            if (second != null) {
+                toX = second.getX();
+                toY = second.getY();
+            }
+        }
+        
+        int reference = ActionJournalWriter.NONE;
+        int referenceType = ActionJournalWriter.NONE;
+        if (kind == ActionCodec.COLLECT) {
+            final Entity collected = ((EntityCollectAction) action).getCollectedEntity();
+            reference = this.idOf(collected);
+            referenceType = this.typeString(collected);
+        } else if (kind == ActionCodec.DROP) {
+            final Entity dropped = ((EntityDropAction) action).getDroppedEntity();
+            reference = this.idOf(dropped);
+            referenceType = this.typeString(dropped);
+        } else if (kind == ActionCodec.OTHER) {
+            reference = this.writeString(action.getDescription());
+            referenceType = this.typeString(action);
+        }
+        
+        final long index = this.recordCount;
+        final ByteBuffer buffer = this.nextRecord();
+        final int offset = buffer.position();
+        buffer.putLong(offset, action.getTickNumber());
+        buffer.put(offset + 8, kind);
+        buffer.putInt(offset + 12, entityId);
+        buffer.putInt(offset + 16, entityType);
+        buffer.putInt(offset + 20, fromX);
+        buffer.putInt(offset + 24, fromY);
+        buffer.putInt(offset + 28, toX);
+        buffer.putInt(offset + 32, toY);
+        buffer.putInt(offset + 36, reference);
+        buffer.putInt(offset + 40, referenceType);
+        this.indexTick(index, action.getTickNumber());
+        this.header.putLong(ActionJournalReader.RECORD_COUNT_OFFSET, this.recordCount);
+    }
+    
+    private int idOf(final Entity entity) {
+        if (entity == null) return ActionJournalWriter.NONE;
+        return this.entityIds.computeIfAbsent(entity, unused -> this.nextEntityId++);
+    }
+    
+    private int typeString(final Object object) throws IOException {
+        if (object == null) return ActionJournalWriter.NONE;
+        final Integer known = this.typeStrings.get(object.getClass());
+        if (known != null) return known;
+        final int index = this.writeString(object.getClass().getName());
+        this.typeStrings.put(object.getClass(), index);
+        return index;
+    }
+    
+    private int writeString(final String string) throws IOException {
+        if (string == null) return ActionJournalWriter.NONE;
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        final int first = (int) this.recordCount;
+        int written = 0;
+        do {
+            final ByteBuffer buffer = this.nextRecord();
+            final int offset = buffer.position();
+            buffer.putLong(offset, written == 0 ? bytes.length : 0);
+            buffer.put(offset + 8, written == 0 ? ActionJournalReader.STRING_START : ActionJournalReader.STRING_CONTINUATION);
+            final int length = Math.min(ActionJournalReader.STRING_BYTES_PER_RECORD, bytes.length - written);
+            for (int i = 0; i < length; i++) {
+                buffer.put(offset + 12 + i, bytes[written + i]);
+            }
+            written += length;
+        } while (written < bytes.length);
+        return first;
+    }
+    
+    /**
+     * Reserve the next record and get the buffer positioned at it.
+     */
+    private ByteBuffer nextRecord() throws IOException {
+        if ((this.chunk == null) || (this.recordCount == (this.chunkFirstRecord + ActionJournalWriter.CHUNK_RECORDS))) {
+            this.chunkFirstRecord = this.recordCount;
+            this.chunk = this.channel.map(
+                    FileChannel.MapMode.READ_WRITE,
+                    ActionJournalReader.HEADER_SIZE + (this.chunkFirstRecord * ActionJournalReader.RECORD_SIZE),
+                    (long) ActionJournalWriter.CHUNK_RECORDS * ActionJournalReader.RECORD_SIZE
+            );
+        }
+        this.chunk.position((int) (this.recordCount - this.chunkFirstRecord) * ActionJournalReader.RECORD_SIZE);
+        this.recordCount++;
+        return this.chunk;
+    }
+    
+    private void indexTick(final long index, final long tick) {
+        final int block = (int) (index / ActionJournalReader.INDEX_BLOCK_SIZE);
+        if (block >= this.blockMinTicks.length) {
+            final int oldLength = this.blockMinTicks.length;
+            this.blockMinTicks = Arrays.copyOf(this.blockMinTicks, Math.max(block + 1, oldLength * 2));
+            this.blockMaxTicks = Arrays.copyOf(this.blockMaxTicks, this.blockMinTicks.length);
+            Arrays.fill(this.blockMinTicks, oldLength, this.blockMinTicks.length, Long.MAX_VALUE);
+            Arrays.fill(this.blockMaxTicks, oldLength, this.blockMaxTicks.length, Long.MIN_VALUE);
+        }
+        this.blockMinTicks[block] = Math.min(this.blockMinTicks[block], tick);
+        this.blockMaxTicks[block] = Math.max(this.blockMaxTicks[block], tick);
+    }
+    
+    /**
+     * @return the number of records written, including the records of strings
+     */
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+    
+    /**
+     * Write the tick index and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.channel.isOpen()) return;
+        final long indexOffset = ActionJournalReader.HEADER_SIZE + (this.recordCount * ActionJournalReader.RECORD_SIZE);
+        final int blocks = (int) ((this.recordCount + ActionJournalReader.INDEX_BLOCK_SIZE - 1) / ActionJournalReader.INDEX_BLOCK_SIZE);
+        final ByteBuffer index = ByteBuffer.allocate(8 + (blocks * 16));
+        index.putInt(ActionJournalReader.INDEX_BLOCK_SIZE);
+        index.putInt(blocks);
+        for (int block = 0; block < blocks; block++) {
+            index.putLong(this.blockMinTicks[block]);
+            index.putLong(this.blockMaxTicks[block]);
+        }
+        index.flip();
+        while (index.hasRemaining()) {
+            this.channel.write(index, indexOffset + index.position());
+        }
+        this.header.putLong(ActionJournalReader.INDEX_OFFSET_OFFSET, indexOffset);
+        this.header.force();
+        this.chunk = null;
+        try {
+            //cut off the unused rest of the last chunk; some systems refuse this while the chunk is still mapped
+            this.channel.truncate(indexOffset + (blocks * 16L) + 8);
+        } catch (@SuppressWarnings("unused") final IOException e) {
+            //the header knows where the journal ends
+        }
+        this.channel.close();
+    }
+}
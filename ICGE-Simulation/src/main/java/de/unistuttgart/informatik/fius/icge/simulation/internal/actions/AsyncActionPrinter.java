@@ -0,0 +1,204 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
+import de.unistuttgart.informatik.fius.icge.log.Logger;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+
+
+/**
+ * Prints the descriptions of actions to the simulation output of a {@link LogContext} on a background thread.
+ * <p>
+ * The actions are put into a bounded ring buffer without taking a lock. A consumer thread formats them and prints them
+ * in batches. It is started with the first action and stops after being idle for a while. What happens to an action
+ * when the buffer is full is decided by the {@link OverflowPolicy}.
+ * </p>
+ * <p>
+ * Only one thread may call {@link #print(Action)} at a time; the action log calls it while holding its lock.
+ * </p>
+ */
+public class AsyncActionPrinter {
+    
+    /**
+     * What to do with an action when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait until the consumer made room; all actions are printed */
+        BLOCK,
+        /** Do not print the action */
+        DROP,
+        /** Wait for every {@value AsyncActionPrinter#SAMPLE_RATE}th action and do not print the others */
+        SAMPLE
+    }
+    
+    /** While the buffer is full, only one of this many actions is printed with {@link OverflowPolicy#SAMPLE} */
+    public static final int SAMPLE_RATE = 16;
+    
+    /** The default number of actions the buffer can hold */
+    public static final int DEFAULT_CAPACITY = 8192;
+    
+    private static final int  BATCH_SIZE         = 256;
+    private static final long WAIT_NANOS         = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_PARK_NANOS    = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private final OverflowPolicy policy;
+    private volatile LogContext  logContext = Logger.getDefaultContext();
+    private final Action[]       buffer;
+    private final int            mask;
+    
+    /** The number of actions taken from the buffer; only written by the consumer */
+    private volatile long head;
+    /** The number of actions put into the buffer; only written by the producer */
+    private volatile long tail;
+    /** The number of actions taken from the buffer and printed */
+    private volatile long printed;
+    
+    private final AtomicLong dropped = new AtomicLong();
+    private int              sampleCounter;
+    
+    private final AtomicBoolean consumerRunning = new AtomicBoolean();
+    private volatile Thread     consumer;
+    private volatile boolean    consumerWaiting;
+    
+    /**
+     * Create a new printer.
+     *
+     * @param capacity
+     *     The number of actions the buffer can hold; is rounded up to the next power of two; must be {@code > 0}
+     * @param policy
+     *     The policy to use when the buffer is full; must not be null
+     */
+    public AsyncActionPrinter(final int capacity, final OverflowPolicy policy) {
+        if (policy == null) throw new IllegalArgumentException("The given policy is null.");
+        if ((capacity <= 0) || (capacity > (1 << 30))) throw new IllegalArgumentException("The capacity must be > 0 and <= 2^30.");
+        this.policy = policy;
+        this.buffer = new Action[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = this.buffer.length - 1;
+    }
+    
+    /**
+     * Set the log context to print to; it applies to the actions printed from now on.
+     *
+     * @param logContext
+     *     the log context; must not be null
+     */
+    public void setLogContext(final LogContext logContext) {
+        if (logContext == null) throw new IllegalArgumentException("The given log context is null.");
+        this.logContext = logContext;
+    }
+    
+    /**
+     * @return the policy used when the buffer is full
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return this.policy;
+    }
+    
+    /**
+     * Queue the given action for printing.
+     *
+     * @param action
+     *     the action to print
+     */
+    public void print(final Action action) {
+        if ((this.tail - this.head) == this.buffer.length) {
+            if (
+                (this.policy == OverflowPolicy.DROP)
+                        || ((this.policy == OverflowPolicy.SAMPLE) && ((++this.sampleCounter % AsyncActionPrinter.SAMPLE_RATE) != 0))
+            ) {
+                this.dropped.incrementAndGet();
+                this.wakeConsumer();
+                return;
+            }
+            while ((this.tail - this.head) == this.buffer.length) {
+                this.wakeConsumer();
+                LockSupport.parkNanos(this, AsyncActionPrinter.WAIT_NANOS);
+            }
+        }
+        this.buffer[(int) (this.tail & this.mask)] = action;
+        this.tail = this.tail + 1;
+        this.wakeConsumer();
+    }
+    
+    /**
+     * Wait until all actions queued so far are printed.
+     */
+    public void flush() {
+        final long target = this.tail;
+        while (this.printed < target) {
+            this.wakeConsumer();
+            LockSupport.parkNanos(this, AsyncActionPrinter.WAIT_NANOS);
+        }
+    }
+    
+    private void wakeConsumer() {
+        if (!this.consumerRunning.get()) {
+            if (this.consumerRunning.compareAndSet(false, true)) {
+                final Thread thread = new Thread(this::consume, "STM-ActionPrinter");
+                thread.setDaemon(true);
+                this.consumer = thread;
+                thread.start();
+            }
+        } else if (this.consumerWaiting) {
+            LockSupport.unpark(this.consumer);
+        }
+    }
+    
+    private void consume() {
+        final StringBuilder text = new StringBuilder();
+        long idleSince = System.nanoTime();
+        while (true) {
+            final long available = this.tail - this.head;
+            if ((available == 0) && (this.dropped.get() == 0)) {
+                if ((System.nanoTime() - idleSince) > AsyncActionPrinter.IDLE_TIMEOUT_NANOS) {
+                    this.consumerRunning.set(false);
+                    //an action may have been queued before the producer could see that this thread stops
+                    if ((this.tail == this.head) || !this.consumerRunning.compareAndSet(false, true)) return;
+                    continue;
+                }
+                this.consumerWaiting = true;
+                if (this.tail == this.head) {
+                    LockSupport.parkNanos(this, AsyncActionPrinter.IDLE_PARK_NANOS);
+                }
+                this.consumerWaiting = false;
+                continue;
+            }
+            
+            final int batchSize = (int) Math.min(available, AsyncActionPrinter.BATCH_SIZE);
+            for (int i = 0; i < batchSize; i++) {
+                final int index = (int) ((this.head + i) & this.mask);
+                final Action action = this.buffer[index];
+                this.buffer[index] = null;
+                try {
+                    text.append(action.getDescription()).append(System.lineSeparator());
+                } catch (final RuntimeException e) {
+                    e.printStackTrace(this.logContext.getSimulationError());
+                }
+            }
+            this.head = this.head + batchSize;
+            
+            final long droppedActions = this.dropped.getAndSet(0);
+            if (droppedActions > 0) {
+                text.append("... ").append(droppedActions).append(" actions were not printed ...").append(System.lineSeparator());
+            }
+            this.logContext.getSimulationOutput().print(text.toString());
+            text.setLength(0);
+            this.printed = this.head;
+            idleSince = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,758 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionQueryResult;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * A store of actions in primitive columns.
+ * <p>
+ * Every action is a row. The columns are split into segments of {@value #SEGMENT_SIZE} rows, whose columns are never
+ * moved or changed after a row was written. Each segment knows the range of its tick numbers, so tick range queries
+ * skip all other segments. For every entity the rows of its actions are indexed, and so are the rows of the actions
+ * without entity. See {@link ActionCodec} for how the actions are stored.
+ * </p>
+ * <p>
+ * Actions can be evicted, either from the start or the oldest ones of an entity. A segment is dropped when all its rows
+ * are evicted, and an entity is forgotten when all its rows are evicted. When most of the kept segments consist of
+ * evicted rows, or before the row numbers could overflow, the remaining rows are copied to new segments.
+ * </p>
+ * <p>
+ * Queries return lists of row numbers as {@link #view(int[], boolean) views}, which rebuild the action objects only
+ * when they are accessed. This class is not thread safe; the views may be used by any thread.
+ * </p>
+ */
+public class ColumnarActionStore {
+    
+    /** The number of rows per segment */
+    public static final int SEGMENT_SIZE = 1 << 12;
+    
+    private static final int SEGMENT_SHIFT  = 12;
+    private static final int SEGMENT_MASK   = ColumnarActionStore.SEGMENT_SIZE - 1;
+    /** The id the actions without entity are indexed under */
+    private static final int NO_ENTITY      = 0;
+    private static final int NO_REFERENCE   = -1;
+    private static final int RENUMBER_LIMIT = 1 << 30;
+    
+    private Segment[] segments       = new Segment[16];
+    /** Whether a view uses the current segments array, so it must be copied before removing a segment */
+    private boolean   segmentsShared;
+    /** The next row number */
+    private int       size;
+    /** The index of the first segment which was not dropped */
+    private int       firstSegment;
+    /** All rows before this one have a lower tick number than the last tick evicted before */
+    private int       tickEvictionRow;
+    /** The number of rows which are not evicted */
+    private int       retained;
+    /** The number of evicted rows in segments which were not dropped */
+    private int       evictedInSegments;
+    private long      evictedCount;
+    private long      maxEvictedTick = Long.MIN_VALUE;
+    private long      latestTick     = Long.MIN_VALUE;
+    
+    private final Map<Entity, Integer> entityIds       = new IdentityHashMap<>();
+    private Entity[]                   entities        = new Entity[64];
+    /** Whether a view uses the current entities array, so it must be copied before removing an entity */
+    private boolean                    entitiesShared;
+    /** The rows of the actions of each entity; the rows from the start to the end index are not evicted */
+    private int[][]                    entityRows      = new int[64][];
+    private int[]                      entityRowStarts = new int[64];
+    private int[]                      entityRowEnds   = new int[64];
+    /** Whether actions of an entity were evicted */
+    private boolean[]                  entityTruncated = new boolean[64];
+    private int                        nextEntityId    = ColumnarActionStore.NO_ENTITY + 1;
+    private int[]                      freeEntityIds   = new int[16];
+    private int                        freeEntityIdCount;
+    
+    /**
+     * Create a new empty store.
+     */
+    public ColumnarActionStore() {
+        this.entityRows[ColumnarActionStore.NO_ENTITY] = new int[8];
+    }
+    
+    /**
+     * Append the given action.
+     *
+     * @param action
+     *     the action; must not be null
+     * @return the row of the action
+     */
+    public int append(final Action action) {
+        if (action == null) throw new IllegalArgumentException("The given action is null.");
+        final byte kind = ActionCodec.kindOf(action);
+        final int entityId = action instanceof EntityAction ? this.idOf(((EntityAction) action).getEntity())
+                : ColumnarActionStore.NO_ENTITY;
+        
+        int fromX = 0;
+        int fromY = 0;
+        int toX = 0;
+        int toY = 0;
+        if (kind == ActionCodec.TURN) {
+            final EntityTurnAction turn = (EntityTurnAction) action;
+            fromX = turn.from().ordinal();
+            toX = turn.to().ordinal();
+        } else {
+            final Position first = ActionCodec.firstPosition(action, kind);
+            if (first != null) {
+                fromX = first.getX();
+                fromY = first.getY();
+            }
+            final Position second = ActionCodec.secondPosition(action, kind);
+            if (second != null) {
+                toX = second.getX();
+                toY = second.getY();
+            }
+        }
+        return this.writeRow(kind, action.getTickNumber(), entityId, fromX, fromY, toX, toY, ActionCodec.reference(action, kind));
+    }
+    
+    private int writeRow(
+            final byte kind, final long tick, final int entityId, final int fromX, final int fromY, final int toX, final int toY,
+            final Object reference
+    ) {
+        final int row = this.size;
+        final int segmentIndex = row >>> ColumnarActionStore.SEGMENT_SHIFT;
+        if (segmentIndex == this.segments.length) {
+            this.segments = Arrays.copyOf(this.segments, this.segments.length * 2);
+            this.segmentsShared = false;
+        }
+        if (this.segments[segmentIndex] == null) {
+            this.segments[segmentIndex] = new Segment();
+        }
+        final Segment segment = this.segments[segmentIndex];
+        final int index = row & ColumnarActionStore.SEGMENT_MASK;
+        
+        segment.kinds[index] = kind;
+        segment.ticks[index] = tick;
+        segment.minTick = Math.min(segment.minTick, tick);
+        segment.maxTick = Math.max(segment.maxTick, tick);
+        segment.entities[index] = entityId;
+        segment.fromX[index] = fromX;
+        segment.fromY[index] = fromY;
+        segment.toX[index] = toX;
+        segment.toY[index] = toY;
+        segment.references[index] = reference == null ? ColumnarActionStore.NO_REFERENCE : segment.addReference(reference);
+        this.addEntityRow(entityId, row);
+        
+        this.latestTick = Math.max(this.latestTick, tick);
+        this.retained++;
+        this.size++;
+        return row;
+    }
+    
+    private int idOf(final Entity entity) {
+        final Integer knownId = this.entityIds.get(entity);
+        if (knownId != null) return knownId;
+        final int id;
+        if (this.freeEntityIdCount > 0) {
+            id = this.freeEntityIds[--this.freeEntityIdCount];
+        } else {
+            id = this.nextEntityId++;
+            if (id == this.entities.length) {
+                this.entities = Arrays.copyOf(this.entities, id * 2);
+                this.entitiesShared = false;
+                this.entityRows = Arrays.copyOf(this.entityRows, id * 2);
+                this.entityRowStarts = Arrays.copyOf(this.entityRowStarts, id * 2);
+                this.entityRowEnds = Arrays.copyOf(this.entityRowEnds, id * 2);
+                this.entityTruncated = Arrays.copyOf(this.entityTruncated, id * 2);
+            }
+        }
+        this.entityIds.put(entity, id);
+        this.entities[id] = entity;
+        this.entityRows[id] = new int[8];
+        this.entityRowStarts[id] = 0;
+        this.entityRowEnds[id] = 0;
+        //an entity forgotten before may have had actions which were evicted
+        this.entityTruncated[id] = this.evictedCount > 0;
+        return id;
+    }
+    
+    private void addEntityRow(final int entityId, final int row) {
+        final int end = this.entityRowEnds[entityId];
+        if (end == this.entityRows[entityId].length) {
+            final int start = this.entityRowStarts[entityId];
+            //reuse the space of evicted rows if they take at least half of the array
+            if (start >= (end / 2)) {
+                System.arraycopy(this.entityRows[entityId], start, this.entityRows[entityId], 0, end - start);
+                this.entityRowStarts[entityId] = 0;
+                this.entityRowEnds[entityId] = end - start;
+                this.entityRows[entityId][end - start] = row;
+                this.entityRowEnds[entityId]++;
+                return;
+            }
+            this.entityRows[entityId] = Arrays.copyOf(this.entityRows[entityId], end * 2);
+        }
+        this.entityRows[entityId][end] = row;
+        this.entityRowEnds[entityId] = end + 1;
+    }
+    
+    /**
+     * Forget the given entity after all its rows were evicted.
+     */
+    private void releaseEntity(final int entityId) {
+        if (this.entitiesShared) {
+            this.entities = this.entities.clone();
+            this.entitiesShared = false;
+        }
+        this.entityIds.remove(this.entities[entityId]);
+        this.entities[entityId] = null;
+        this.entityRows[entityId] = null;
+        if (this.freeEntityIdCount == this.freeEntityIds.length) {
+            this.freeEntityIds = Arrays.copyOf(this.freeEntityIds, this.freeEntityIdCount * 2);
+        }
+        this.freeEntityIds[this.freeEntityIdCount++] = entityId;
+    }
+    
+    /**
+     * @return the number of rows which are not evicted
+     */
+    public int size() {
+        return this.retained;
+    }
+    
+    /**
+     * @return the highest tick number of all appended actions or {@link Long#MIN_VALUE} if no action was appended
+     */
+    public long getLatestTick() {
+        return this.latestTick;
+    }
+    
+    /**
+     * @return the number of evicted rows
+     */
+    public long getEvictedCount() {
+        return this.evictedCount;
+    }
+    
+    /**
+     * Check whether no row of the given entity was evicted.
+     *
+     * @param entity
+     *     the entity
+     * @return whether all actions of the entity are kept
+     */
+    public boolean isCompleteForEntity(final Entity entity) {
+        final Integer id = this.entityIds.get(entity);
+        //the rows of a forgotten entity were all evicted
+        if (id == null) return this.evictedCount == 0;
+        return !this.entityTruncated[id];
+    }
+    
+    /**
+     * Check whether no row with a tick number of at least the given one was evicted.
+     *
+     * @param fromTick
+     *     the tick number
+     * @return whether all actions from the given tick on are kept
+     */
+    public boolean isCompleteFromTick(final long fromTick) {
+        return (this.evictedCount == 0) || (fromTick > this.maxEvictedTick);
+    }
+    
+    /**
+     * Get the tick number of the action in the given row.
+     *
+     * @param row
+     *     the row
+     * @return the tick number
+     */
+    public long getTick(final int row) {
+        return this.segments[row >>> ColumnarActionStore.SEGMENT_SHIFT].ticks[row & ColumnarActionStore.SEGMENT_MASK];
+    }
+    
+    /**
+     * Get the kind of the action in the given row; see {@link ActionCodec}.
+     *
+     * @param row
+     *     the row
+     * @return the kind
+     */
+    public byte getKind(final int row) {
+        return this.segments[row >>> ColumnarActionStore.SEGMENT_SHIFT].kinds[row & ColumnarActionStore.SEGMENT_MASK];
+    }
+    
+    /**
+     * Check whether the action in the given row is of the given type.
+     *
+     * @param row
+     *     the row
+     * @param type
+     *     the type
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return whether the action matches
+     */
+    public boolean isOfType(final int row, final Class<?> type, final boolean includeSubclasses) {
+        final Segment segment = this.segments[row >>> ColumnarActionStore.SEGMENT_SHIFT];
+        final int index = row & ColumnarActionStore.SEGMENT_MASK;
+        final byte kind = segment.kinds[index];
+        final Class<?> actionType = kind == ActionCodec.OTHER ? segment.objects[segment.references[index]].getClass()
+                : ActionCodec.typeOf(kind);
+        return includeSubclasses ? type.isAssignableFrom(actionType) : (type == actionType);
+    }
+    
+    /**
+     * Get the rows of all actions matching the given type.
+     *
+     * @param type
+     *     the type
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return the rows in ascending order
+     */
+    public int[] rowsOfType(final Class<?> type, final boolean includeSubclasses) {
+        return this.filter(this.retainedRows(), this.retained, type, includeSubclasses);
+    }
+    
+    /**
+     * Get the rows of all actions of the given entity matching the given type.
+     *
+     * @param entity
+     *     the entity
+     * @param type
+     *     the type
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return the rows in ascending order
+     */
+    public int[] rowsOfEntity(final Entity entity, final Class<?> type, final boolean includeSubclasses) {
+        final Integer id = this.entityIds.get(entity);
+        if (id == null) return new int[0];
+        final int start = this.entityRowStarts[id];
+        final int[] rows = Arrays.copyOfRange(this.entityRows[id], start, this.entityRowEnds[id]);
+        return this.filter(rows, rows.length, type, includeSubclasses);
+    }
+    
+    /**
+     * Get the rows of all actions with a tick number between the given ticks.
+     *
+     * @param fromTick
+     *     the first tick (inclusive)
+     * @param toTick
+     *     the last tick (inclusive)
+     * @return the rows in ascending order
+     */
+    public int[] rowsBetweenTicks(final long fromTick, final long toTick) {
+        int[] result = new int[16];
+        int count = 0;
+        for (int segmentIndex = this.firstSegment; (segmentIndex << ColumnarActionStore.SEGMENT_SHIFT) < this.size; segmentIndex++) {
+            final Segment segment = this.segments[segmentIndex];
+            if ((segment == null) || (segment.maxTick < fromTick) || (segment.minTick > toTick)) {
+                continue;
+            }
+            final int firstRow = segmentIndex << ColumnarActionStore.SEGMENT_SHIFT;
+            final int rows = Math.min(ColumnarActionStore.SEGMENT_SIZE, this.size - firstRow);
+            for (int index = 0; index < rows; index++) {
+                final long tick = segment.ticks[index];
+                if ((tick >= fromTick) && (tick <= toTick) && !segment.isEvicted(index)) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = firstRow + index;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+    
+    /**
+     * @return the rows which are not evicted or null if these are all rows from 0 on
+     */
+    private int[] retainedRows() {
+        if (this.retained == this.size) return null;
+        final int[] rows = new int[this.retained];
+        int count = 0;
+        for (int segmentIndex = this.firstSegment; (segmentIndex << ColumnarActionStore.SEGMENT_SHIFT) < this.size; segmentIndex++) {
+            final Segment segment = this.segments[segmentIndex];
+            if (segment == null) {
+                continue;
+            }
+            final int firstRow = segmentIndex << ColumnarActionStore.SEGMENT_SHIFT;
+            final int segmentRows = Math.min(ColumnarActionStore.SEGMENT_SIZE, this.size - firstRow);
+            for (int index = 0; index < segmentRows; index++) {
+                if (!segment.isEvicted(index)) {
+                    rows[count++] = firstRow + index;
+                }
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Filter the given rows, or all rows from 0 to {@code rowCount} if {@code rows} is null, by type.
+     */
+    private int[] filter(final int[] rows, final int rowCount, final Class<?> type, final boolean includeSubclasses) {
+        //which kinds match is decided once; only rows stored as objects are checked one by one
+        final boolean[] kindMatches = new boolean[ActionCodec.kindCount()];
+        for (byte kind = 1; kind < kindMatches.length; kind++) {
+            final Class<?> kindType = ActionCodec.typeOf(kind);
+            kindMatches[kind] = includeSubclasses ? type.isAssignableFrom(kindType) : (type == kindType);
+        }
+        
+        final int[] result = new int[rowCount];
+        int count = 0;
+        for (int i = 0; i < rowCount; i++) {
+            final int row = rows == null ? i : rows[i];
+            final byte kind = this.getKind(row);
+            if ((kind == ActionCodec.OTHER) ? this.isOfType(row, type, includeSubclasses) : kindMatches[kind]) {
+                result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+    
+    /**
+     * Evict the actions from the start until the first action with a tick number of at least the given one.
+     * <p>
+     * Actions are logged in the order of their ticks, so this evicts all actions with a lower tick number.
+     * </p>
+     *
+     * @param tick
+     *     the first tick number to keep
+     * @param evicted
+     *     receives every evicted action before it is evicted; may be null
+     */
+    public void evictBeforeTick(final long tick, final Consumer<Action> evicted) {
+        //evict whole segments first, as long as no row of them is kept
+        final int lastSegment = (this.size - 1) >>> ColumnarActionStore.SEGMENT_SHIFT;
+        while ((this.size > 0) && (this.firstSegment < lastSegment)) {
+            final Segment segment = this.segments[this.firstSegment];
+            if (segment != null) {
+                if (segment.maxTick >= tick) {
+                    break;
+                }
+                this.evictSegment(this.firstSegment, evicted);
+            }
+            this.firstSegment++;
+        }
+        
+        //then the single rows at the start of the first segment
+        int row = Math.max(this.tickEvictionRow, this.firstSegment << ColumnarActionStore.SEGMENT_SHIFT);
+        while (row < this.size) {
+            final int segmentIndex = row >>> ColumnarActionStore.SEGMENT_SHIFT;
+            final Segment segment = this.segments[segmentIndex];
+            if (segment == null) {
+                row = (segmentIndex + 1) << ColumnarActionStore.SEGMENT_SHIFT;
+                continue;
+            }
+            final int index = row & ColumnarActionStore.SEGMENT_MASK;
+            if (segment.ticks[index] >= tick) {
+                break;
+            }
+            if (!segment.isEvicted(index)) {
+                final int entityId = segment.entities[index];
+                //the older rows of the entity are already evicted, so this is its first remaining row
+                this.entityRowStarts[entityId]++;
+                this.evictRow(row, lastSegment, evicted);
+                if ((entityId != ColumnarActionStore.NO_ENTITY) && (this.entityRowStarts[entityId] == this.entityRowEnds[entityId])) {
+                    this.releaseEntity(entityId);
+                }
+            }
+            row++;
+        }
+        this.tickEvictionRow = row;
+        this.compactIfNeeded();
+    }
+    
+    private void evictSegment(final int segmentIndex, final Consumer<Action> evicted) {
+        final Segment segment = this.segments[segmentIndex];
+        final int firstRow = segmentIndex << ColumnarActionStore.SEGMENT_SHIFT;
+        for (int index = 0; index < ColumnarActionStore.SEGMENT_SIZE; index++) {
+            if (segment.isEvicted(index)) {
+                continue;
+            }
+            this.countEvicted(segment, index, firstRow + index, evicted);
+            final int entityId = segment.entities[index];
+            //the rows of an entity are evicted in ascending order, so this is its first remaining row
+            this.entityRowStarts[entityId]++;
+            if ((entityId != ColumnarActionStore.NO_ENTITY) && (this.entityRowStarts[entityId] == this.entityRowEnds[entityId])) {
+                this.releaseEntity(entityId);
+            }
+        }
+        this.dropSegment(segmentIndex);
+    }
+    
+    private void dropSegment(final int segmentIndex) {
+        if (this.segmentsShared) {
+            this.segments = this.segments.clone();
+            this.segmentsShared = false;
+        }
+        this.evictedInSegments -= this.segments[segmentIndex].evictedRows;
+        this.segments[segmentIndex] = null;
+    }
+    
+    private void countEvicted(final Segment segment, final int index, final int row, final Consumer<Action> evicted) {
+        if (evicted != null) {
+            evicted.accept(this.decode(row));
+        }
+        this.entityTruncated[segment.entities[index]] = true;
+        this.maxEvictedTick = Math.max(this.maxEvictedTick, segment.ticks[index]);
+        this.evictedCount++;
+        this.retained--;
+    }
+    
+    /**
+     * Evict the oldest rows of the given entity until at most the given number of its rows is left.
+     *
+     * @param entity
+     *     the entity
+     * @param keep
+     *     the number of rows to keep; must be {@code >= 0}; if it is 0 the entity is forgotten
+     * @param evicted
+     *     receives every evicted action before it is evicted; may be null
+     */
+    public void evictOldestOfEntity(final Entity entity, final int keep, final Consumer<Action> evicted) {
+        final Integer id = this.entityIds.get(entity);
+        if (id == null) return;
+        this.evictOldest(id, keep, evicted);
+        if (this.entityRowStarts[id] == this.entityRowEnds[id]) {
+            this.releaseEntity(id);
+        }
+        this.compactIfNeeded();
+    }
+    
+    /**
+     * Evict the oldest rows of actions without entity until at most the given number of them is left.
+     *
+     * @param keep
+     *     the number of rows to keep; must be {@code >= 0}
+     * @param evicted
+     *     receives every evicted action before it is evicted; may be null
+     */
+    public void evictOldestWithoutEntity(final int keep, final Consumer<Action> evicted) {
+        this.evictOldest(ColumnarActionStore.NO_ENTITY, keep, evicted);
+        this.compactIfNeeded();
+    }
+    
+    private void evictOldest(final int entityId, final int keep, final Consumer<Action> evicted) {
+        final int lastSegment = (this.size - 1) >>> ColumnarActionStore.SEGMENT_SHIFT;
+        while ((this.entityRowEnds[entityId] - this.entityRowStarts[entityId]) > keep) {
+            this.evictRow(this.entityRows[entityId][this.entityRowStarts[entityId]++], lastSegment, evicted);
+        }
+    }
+    
+    /**
+     * Evict a single row; the index of its entity must already be updated.
+     */
+    private void evictRow(final int row, final int lastSegment, final Consumer<Action> evicted) {
+        final int segmentIndex = row >>> ColumnarActionStore.SEGMENT_SHIFT;
+        final Segment segment = this.segments[segmentIndex];
+        final int index = row & ColumnarActionStore.SEGMENT_MASK;
+        this.countEvicted(segment, index, row, evicted);
+        segment.setEvicted(index);
+        this.evictedInSegments++;
+        if ((segment.evictedRows == ColumnarActionStore.SEGMENT_SIZE) && (segmentIndex < lastSegment)) {
+            this.dropSegment(segmentIndex);
+            while ((this.firstSegment < lastSegment) && (this.segments[this.firstSegment] == null)) {
+                this.firstSegment++;
+            }
+        }
+    }
+    
+    private void compactIfNeeded() {
+        if (
+            (this.evictedInSegments > (this.retained + ColumnarActionStore.SEGMENT_SIZE))
+                    || (this.size >= ColumnarActionStore.RENUMBER_LIMIT)
+        ) {
+            this.compact();
+        }
+    }
+    
+    /**
+     * Copy all rows which are not evicted to new segments, numbering them from 0 on.
+     */
+    private void compact() {
+        final Segment[] oldSegments = this.segments;
+        final int oldSize = this.size;
+        final int oldFirstSegment = this.firstSegment;
+        this.segments = new Segment[Math.max(16, Integer.highestOneBit(this.retained >>> ColumnarActionStore.SEGMENT_SHIFT) * 2)];
+        this.segmentsShared = false;
+        this.size = 0;
+        this.firstSegment = 0;
+        this.tickEvictionRow = 0;
+        this.retained = 0;
+        this.evictedInSegments = 0;
+        for (int id = 0; id < this.nextEntityId; id++) {
+            this.entityRowStarts[id] = 0;
+            this.entityRowEnds[id] = 0;
+        }
+        
+        for (int segmentIndex = oldFirstSegment; (segmentIndex << ColumnarActionStore.SEGMENT_SHIFT) < oldSize; segmentIndex++) {
+            final Segment segment = oldSegments[segmentIndex];
+            if (segment == null) {
+                continue;
+            }
+            final int rows = Math.min(ColumnarActionStore.SEGMENT_SIZE, oldSize - (segmentIndex << ColumnarActionStore.SEGMENT_SHIFT));
+            for (int index = 0; index < rows; index++) {
+                if (segment.isEvicted(index)) {
+                    continue;
+                }
+                final int reference = segment.references[index];
+                this.writeRow(
+                        segment.kinds[index], segment.ticks[index], segment.entities[index], segment.fromX[index], segment.fromY[index],
+                        segment.toX[index], segment.toY[index],
+                        reference == ColumnarActionStore.NO_REFERENCE ? null : segment.objects[reference]
+                );
+            }
+        }
+    }
+    
+    /**
+     * Rebuild the action in the given row.
+     *
+     * @param row
+     *     the row
+     * @return a new action equal to the appended one or the appended one, if it was stored as object
+     */
+    public Action decode(final int row) {
+        return ColumnarActionStore.decode(this.segments, this.entities, row);
+    }
+    
+    private static Action decode(final Segment[] segments, final Entity[] entities, final int row) {
+        final Segment segment = segments[row >>> ColumnarActionStore.SEGMENT_SHIFT];
+        final int index = row & ColumnarActionStore.SEGMENT_MASK;
+        final int entityId = segment.entities[index];
+        final int reference = segment.references[index];
+        return ActionCodec.decode(
+                segment.kinds[index], segment.ticks[index], entityId == ColumnarActionStore.NO_ENTITY ? null : entities[entityId],
+                segment.fromX[index], segment.fromY[index], segment.toX[index], segment.toY[index],
+                reference == ColumnarActionStore.NO_REFERENCE ? null : segment.objects[reference]
+        );
+    }
+    
+    /**
+     * Get a list of the actions in the given rows, which are rebuilt when accessed.
+     * <p>
+     * The list captures the current arrays, so it may be used by other threads while this store changes. It must be
+     * created by the thread appending to this store or while holding the same lock.
+     * </p>
+     *
+     * @param <T>
+     *     The type of the actions; all given rows must contain actions of this type
+     * @param rows
+     *     the rows; the list does not copy this array
+     * @param complete
+     *     whether the rows are all rows matching the query
+     * @return the list of actions
+     */
+    public <T extends Action> ActionQueryResult<T> view(final int[] rows, final boolean complete) {
+        this.segmentsShared = true;
+        this.entitiesShared = true;
+        return new ActionView<>(this.segments, this.entities, rows, rows.length, complete);
+    }
+    
+    /**
+     * @return a list of all actions which are not evicted, which are rebuilt when accessed; see
+     *     {@link #view(int[], boolean)}
+     */
+    public ActionQueryResult<Action> viewAll() {
+        final int[] rows = this.retainedRows();
+        this.segmentsShared = true;
+        this.entitiesShared = true;
+        return new ActionView<>(this.segments, this.entities, rows, this.retained, this.evictedCount == 0);
+    }
+    
+    private static class Segment {
+        
+        private final long[] ticks      = new long[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  entities   = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private final byte[] kinds      = new byte[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  fromX      = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  fromY      = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  toX        = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  toY        = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private final int[]  references = new int[ColumnarActionStore.SEGMENT_SIZE];
+        private long         minTick    = Long.MAX_VALUE;
+        private long         maxTick    = Long.MIN_VALUE;
+        
+        /** The referenced objects; kept per segment so they are released with the segment */
+        private Object[] objects = new Object[16];
+        private int      objectCount;
+        
+        /** The evicted rows as bit set; null while no row is evicted */
+        private long[] evicted;
+        private int    evictedRows;
+        
+        private int addReference(final Object reference) {
+            //consecutive actions often reference the same playfield
+            if ((this.objectCount > 0) && (this.objects[this.objectCount - 1] == reference)) return this.objectCount - 1;
+            if (this.objectCount == this.objects.length) {
+                this.objects = Arrays.copyOf(this.objects, this.objectCount * 2);
+            }
+            this.objects[this.objectCount] = reference;
+            return this.objectCount++;
+        }
+        
+        private boolean isEvicted(final int index) {
+            return (this.evicted != null) && ((this.evicted[index >>> 6] & (1L << index)) != 0);
+        }
+        
+        private void setEvicted(final int index) {
+            if (this.evicted == null) {
+                this.evicted = new long[ColumnarActionStore.SEGMENT_SIZE / 64];
+            }
+            this.evicted[index >>> 6] |= 1L << index;
+            this.evictedRows++;
+        }
+    }
+    
+    private static class ActionView<T extends Action> extends AbstractList<T> implements ActionQueryResult<T>, RandomAccess {
+        
+        private final Segment[] segments;
+        private final Entity[]  entities;
+        /** The rows or null for the rows from 0 to count */
+        private final int[]     rows;
+        private final int       count;
+        private final boolean   complete;
+        
+        private ActionView(final Segment[] segments, final Entity[] entities, final int[] rows, final int count, final boolean complete) {
+            this.segments = segments;
+            this.entities = entities;
+            this.rows = rows;
+            this.count = count;
+            this.complete = complete;
+        }
+        
+        @Override
+        public T get(final int index) {
+            if ((index < 0) || (index >= this.count)) throw new IndexOutOfBoundsException("Index " + index + " out of " + this.count);
+            final int row = this.rows == null ? index : this.rows[index];
+            //This cast is safe, because the creator of this view guarantees that all rows contain actions of type T
+            @SuppressWarnings("unchecked")
+            final T action = (T) ColumnarActionStore.decode(this.segments, this.entities, row);
+            return action;
+        }
+        
+        @Override
+        public int size() {
+            return this.count;
+        }
+        
+        @Override
+        public boolean isComplete() {
+            return this.complete;
+        }
+    }
+}
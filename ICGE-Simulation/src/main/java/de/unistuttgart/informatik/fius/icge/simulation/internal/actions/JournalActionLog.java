@@ -0,0 +1,83 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionJournalReader;
+
+
+/**
+ * An action log which additionally writes every action to an action journal file.
+ * <p>
+ * The journal keeps the full history of the simulation after the JVM exits and can be read with an
+ * {@link ActionJournalReader}. Combined with an
+ * {@link de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLogRetention} the log in memory stays small
+ * while the journal still contains every action.
+ * </p>
+ * <p>
+ * Actions logged after closing the log are not written to the journal.
+ * </p>
+ */
+public class JournalActionLog extends StandardActionLog {
+    
+    private final Path          file;
+    private ActionJournalWriter journal;
+    
+    /**
+     * Create a new action log writing to the given journal file.
+     *
+     * @param file
+     *     The journal file to create; an existing file is replaced; must not be null
+     * @throws IOException
+     *     if the file cannot be created
+     */
+    public JournalActionLog(final Path file) throws IOException {
+        this.file = file;
+        this.journal = new ActionJournalWriter(file);
+    }
+    
+    @Override
+    public synchronized void logAction(final Action actionToLog) {
+        super.logAction(actionToLog);
+        if (this.journal == null) return;
+        try {
+            this.journal.write(actionToLog);
+        } catch (final IOException e) {
+            //the simulation continues without the journal
+            this.getLogContext().getSimulationError().println("Cannot write to the action journal " + this.file);
+            e.printStackTrace(this.getLogContext().getSimulationError());
+            this.closeJournal();
+        }
+    }
+    
+    /**
+     * Close this log like {@link StandardActionLog#close()} and finish the journal by writing its tick index.
+     */
+    @Override
+    public void close() {
+        super.close();
+        synchronized (this) {
+            this.closeJournal();
+        }
+    }
+    
+    private void closeJournal() {
+        if (this.journal == null) return;
+        try {
+            this.journal.close();
+        } catch (final IOException e) {
+            e.printStackTrace(this.getLogContext().getSimulationError());
+        }
+        this.journal = null;
+    }
+}
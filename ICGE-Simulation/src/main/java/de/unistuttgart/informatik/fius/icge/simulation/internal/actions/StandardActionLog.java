@@ -9,66 +9,235 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.internal.actions;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
 import de.unistuttgart.informatik.fius.icge.log.Logger;
-import de.unistuttgart.informatik.fius.icge.simulation.MultiTypedList;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLogRetention;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionQueryResult;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
 
 
 /**
  * The standard implementation of {@link ActionLog}.
+ * <p>
+ * The actions are kept in a {@link ColumnarActionStore}. The returned lists rebuild the standard entity actions when
+ * they are accessed, so these are equal but not identical to the logged ones; actions of other classes are returned as
+ * logged.
+ * </p>
+ * <p>
+ * Entities acting in the same tick log their actions concurrently, so all methods are synchronized.
+ * </p>
+ * <p>
+ * After each logged action the actions no longer kept by the {@link ActionLogRetention} are evicted from the store and,
+ * if the retention has a spill file, written to it.
+ * </p>
+ * <p>
+ * The descriptions of the actions are printed by an {@link AsyncActionPrinter}, so logging an action does not wait for
+ * the console. Call {@link #flush()} to wait until everything logged so far is printed.
+ * </p>
+ * <p>
+ * The simulation using this log closes it when the simulation is shut down.
+ * </p>
  * 
  * @author Tim Neumann
  */
-public class StandardActionLog implements ActionLog {
+public class StandardActionLog implements ActionLog, Closeable {
     
-    private MultiTypedList<Action> actions = new MultiTypedList<>();
+    private ColumnarActionStore      store      = new ColumnarActionStore();
+    private final AsyncActionPrinter printer;
+    private volatile LogContext      logContext = Logger.getDefaultContext();
     
-    private Map<Entity, MultiTypedList<EntityAction>> entityActions = new HashMap<>();
+    private ActionLogRetention retention = ActionLogRetention.unlimited();
+    private Writer             spillWriter;
+    private Consumer<Action>   spill;
+    
+    /**
+     * Create a new action log printing all actions.
+     */
+    public StandardActionLog() {
+        this(AsyncActionPrinter.DEFAULT_CAPACITY, AsyncActionPrinter.OverflowPolicy.BLOCK);
+    }
+    
+    /**
+     * Create a new action log.
+     * 
+     * @param printBufferCapacity
+     *     The number of actions waiting to be printed before the overflow policy applies; must be {@code > 0}
+     * @param overflowPolicy
+     *     What to do with actions to print when the buffer is full; must not be null
+     */
+    public StandardActionLog(final int printBufferCapacity, final AsyncActionPrinter.OverflowPolicy overflowPolicy) {
+        this.printer = new AsyncActionPrinter(printBufferCapacity, overflowPolicy);
+    }
+    
+    /**
+     * Set the log context to print the actions and errors of this log to.
+     * <p>
+     * The simulation using this log sets its own context when it is initialized.
+     * </p>
+     * 
+     * @param logContext
+     *     the log context; must not be null
+     */
+    public void setLogContext(final LogContext logContext) {
+        if (logContext == null) throw new IllegalArgumentException("The given log context is null.");
+        this.logContext = logContext;
+        this.printer.setLogContext(logContext);
+    }
+    
+    /**
+     * @return the log context this log prints to
+     */
+    public LogContext getLogContext() {
+        return this.logContext;
+    }
+    
+    @Override
+    public synchronized ActionQueryResult<Action> getAllActions() {
+        return this.store.viewAll();
+    }
+    
+    @Override
+    public synchronized <T extends Action> ActionQueryResult<T> getActionsOfType(Class<? extends T> type, boolean includeSubclasses) {
+        return this.store.view(this.store.rowsOfType(type, includeSubclasses), this.store.getEvictedCount() == 0);
+    }
     
     @Override
-    public List<Action> getAllActions() {
-        return this.actions.get(Action.class, true);
+    public synchronized ActionQueryResult<EntityAction> getAllActionsOfEntity(Entity entity) {
+        return this.store.view(this.store.rowsOfEntity(entity, EntityAction.class, true), this.store.isCompleteForEntity(entity));
     }
     
     @Override
-    public <T extends Action> List<T> getActionsOfType(Class<? extends T> type, boolean includeSubclasses) {
-        return this.actions.get(type, includeSubclasses);
+    public synchronized <T extends EntityAction> ActionQueryResult<T> getActionsOfTypeOfEntity(
+            Entity entity, Class<? extends T> type, boolean includeSubclasses
+    ) {
+        return this.store.view(this.store.rowsOfEntity(entity, type, includeSubclasses), this.store.isCompleteForEntity(entity));
     }
     
     @Override
-    public List<EntityAction> getAllActionsOfEntity(Entity entity) {
-        MultiTypedList<EntityAction> list = this.entityActions.get(entity);
-        if (list == null) return Collections.emptyList();
-        return list.get(EntityAction.class, true);
+    public synchronized ActionQueryResult<Action> getActionsBetweenTicks(long fromTick, long toTick) {
+        return this.store.view(this.store.rowsBetweenTicks(fromTick, toTick), this.store.isCompleteFromTick(fromTick));
+    }
+    
+    @Override
+    public synchronized void logAction(Action actionToLog) {
+        this.store.append(actionToLog);
+        this.printer.print(actionToLog);
+        if (this.retention.getTicks() > 0) {
+            this.store.evictBeforeTick((this.store.getLatestTick() - this.retention.getTicks()) + 1, this.spill);
+        }
+        final int perEntity = this.retention.getActionsPerEntity();
+        if (perEntity > 0) {
+            if (actionToLog instanceof EntityDespawnAction) {
+                this.store.evictOldestOfEntity(((EntityAction) actionToLog).getEntity(), 0, this.spill);
+            } else if (actionToLog instanceof EntityAction) {
+                this.store.evictOldestOfEntity(((EntityAction) actionToLog).getEntity(), perEntity, this.spill);
+            } else {
+                this.store.evictOldestWithoutEntity(perEntity, this.spill);
+            }
+        }
+    }
+    
+    /**
+     * Replace all actions of this log with the given ones and print them again.
+     * <p>
+     * The retention is not applied to the given actions and they are not written to the spill file. Lists returned
+     * before keep their actions.
+     * </p>
+     * 
+     * @param actions
+     *     The actions to keep, usually a list returned by {@link #getAllActions()} before; must not be null
+     */
+    public synchronized void reset(final List<? extends Action> actions) {
+        if (actions == null) throw new IllegalArgumentException("The given actions are null.");
+        this.store = new ColumnarActionStore();
+        for (final Action action : actions) {
+            this.store.append(action);
+            this.printer.print(action);
+        }
     }
     
     @Override
-    public <T extends EntityAction> List<T> getActionsOfTypeOfEntity(Entity entity, Class<? extends T> type, boolean includeSubclasses) {
-        MultiTypedList<EntityAction> list = this.entityActions.get(entity);
-        if (list == null) return Collections.emptyList();
-        return list.get(type, includeSubclasses);
+    public synchronized void setRetention(final ActionLogRetention retention) {
+        if (retention == null) throw new IllegalArgumentException("The given retention is null.");
+        this.closeSpillFile();
+        if (retention.getSpillFile() != null) {
+            try {
+                this.spillWriter = Files.newBufferedWriter(retention.getSpillFile());
+                this.spill = this::spill;
+            } catch (final IOException e) {
+                throw new IllegalArgumentException("Cannot open the spill file " + retention.getSpillFile(), e);
+            }
+        }
+        this.retention = retention;
     }
     
     @Override
-    public void logAction(Action actionToLog) {
-        if (actionToLog instanceof EntityAction) {
-            EntityAction entityAction = ((EntityAction) actionToLog);
-            Entity entity = entityAction.getEntity();
-            if (!this.entityActions.containsKey(entity)) {
-                this.entityActions.put(entity, new MultiTypedList<>());
+    public synchronized ActionLogRetention getRetention() {
+        return this.retention;
+    }
+    
+    private void spill(final Action action) {
+        try {
+            this.spillWriter.write(action.getTickNumber() + "\t" + action.getDescription());
+            this.spillWriter.write(System.lineSeparator());
+        } catch (final IOException e) {
+            //the simulation continues; the actions are discarded from now on
+            this.logContext.getSimulationError().println("Cannot write evicted actions to " + this.retention.getSpillFile());
+            e.printStackTrace(this.logContext.getSimulationError());
+            this.closeSpillFile();
+        }
+    }
+    
+    private void closeSpillFile() {
+        if (this.spillWriter == null) return;
+        try {
+            this.spillWriter.close();
+        } catch (final IOException e) {
+            e.printStackTrace(this.logContext.getSimulationError());
+        }
+        this.spillWriter = null;
+        this.spill = null;
+    }
+    
+    /**
+     * Wait until the descriptions of all actions logged so far are printed and write the evicted actions to the spill
+     * file, if there is one.
+     */
+    public void flush() {
+        this.printer.flush();
+        synchronized (this) {
+            if (this.spillWriter != null) {
+                try {
+                    this.spillWriter.flush();
+                } catch (final IOException e) {
+                    e.printStackTrace(this.logContext.getSimulationError());
+                }
             }
-            this.entityActions.get(entity).add(entityAction);
         }
-        this.actions.add(actionToLog);
-        Logger.simout.println(actionToLog.getDescription());
     }
     
+    /**
+     * Flush this log like {@link #flush()} and close the spill file, if there is one.
+     * <p>
+     * Actions logged afterwards are still kept and printed, but the actions evicted by the retention are discarded.
+     * </p>
+     */
+    @Override
+    public void close() {
+        this.flush();
+        synchronized (this) {
+            this.closeSpillFile();
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import de.unistuttgart.informatik.fius.icge.simulation.SimulationClock;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.CooperativeEntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityIntent;
+
+
+/**
+ * Drives {@link CooperativeEntityProgram}s from the thread processing the simulation ticks.
+ * <p>
+ * The scheduler is a single tick listener of the clock. In every tick it performs the due stages of the intents of all
+ * its programs and asks the programs for their next intents, so no thread waits for the ticks.
+ * </p>
+ */
+public class CooperativeProgramScheduler {
+    
+    private final SimulationClock clock;
+    
+    /** Guards all following fields */
+    private final Object                                     lock = new Object();
+    /** The programs by the tick their next stage is due at */
+    private final NavigableMap<Long, List<ScheduledProgram>> due  = new TreeMap<>();
+    private boolean                                          listening;
+    
+    /**
+     * Create a new scheduler.
+     *
+     * @param clock
+     *     The clock to drive the programs with; must not be null
+     */
+    public CooperativeProgramScheduler(final SimulationClock clock) {
+        if (clock == null) throw new IllegalArgumentException("The given clock is null.");
+        this.clock = clock;
+    }
+    
+    /**
+     * Start running the given program on the given entity.
+     * <p>
+     * The program is asked for its first intent in the next simulation tick. Cancelling the returned future stops the
+     * program.
+     * </p>
+     *
+     * @param program
+     *     The program to run; must not be null
+     * @param entity
+     *     The entity to run the program on; must not be null
+     * @return a future completed when the program finished; completed exceptionally if the program threw an exception
+     */
+    public CompletableFuture<Void> start(final CooperativeEntityProgram program, final Entity entity) {
+        if ((program == null) || (entity == null)) throw new IllegalArgumentException("An argument is null.");
+        final ScheduledProgram scheduled = new ScheduledProgram(program, entity);
+        this.schedule(scheduled, this.clock.getLastTickNumber() + 1);
+        return scheduled.future;
+    }
+    
+    /**
+     * Stop all programs of this scheduler and forget them.
+     */
+    public void cancelAll() {
+        final List<ScheduledProgram> programs = new ArrayList<>();
+        synchronized (this.lock) {
+            this.due.values().forEach(programs::addAll);
+            this.due.clear();
+        }
+        for (final ScheduledProgram scheduled : programs) {
+            scheduled.future.cancel(false);
+        }
+    }
+    
+    private void schedule(final ScheduledProgram scheduled, final long tick) {
+        final boolean register;
+        synchronized (this.lock) {
+            this.due.computeIfAbsent(tick, unused -> new ArrayList<>()).add(scheduled);
+            register = !this.listening;
+            this.listening = true;
+        }
+        if (register) {
+            this.clock.registerTickListener(this::tick);
+        }
+    }
+    
+    private boolean tick(final long tickNumber) {
+        final List<ScheduledProgram> duePrograms = new ArrayList<>();
+        synchronized (this.lock) {
+            final Map<Long, List<ScheduledProgram>> dueLists = this.due.headMap(tickNumber, true);
+            for (final List<ScheduledProgram> programs : dueLists.values()) {
+                duePrograms.addAll(programs);
+            }
+            dueLists.clear();
+        }
+        
+        for (final ScheduledProgram scheduled : duePrograms) {
+            //the program was stopped
+            if (scheduled.future.isDone()) {
+                continue;
+            }
+            try {
+                this.advance(scheduled, tickNumber);
+            } catch (final Exception e) {
+                scheduled.future.completeExceptionally(e);
+            }
+        }
+        
+        synchronized (this.lock) {
+            //the listener is removed when returning false, so it must be registered again for new programs
+            this.listening = !this.due.isEmpty();
+            return this.listening;
+        }
+    }
+    
+    /**
+     * Perform the due stage of the given program and everything following it which does not need to wait.
+     */
+    private void advance(final ScheduledProgram scheduled, final long tickNumber) {
+        EntityIntent stage = scheduled.stage;
+        boolean askedForIntent = false;
+        while (true) {
+            if (stage == null) {
+                //only ask once per tick, so programs returning intents without ticks don't stall the clock
+                if (askedForIntent) {
+                    this.scheduleStage(scheduled, null, tickNumber + 1);
+                    return;
+                }
+                askedForIntent = true;
+                stage = scheduled.program.nextIntent(scheduled.entity);
+                if (stage == null) {
+                    scheduled.future.complete(null);
+                    return;
+                }
+                if (stage.getTicks() > 0) {
+                    this.scheduleStage(scheduled, stage, tickNumber + stage.getTicks());
+                    return;
+                }
+            }
+            stage.performOperation();
+            stage = stage.getNext();
+            if ((stage != null) && (stage.getTicks() > 0)) {
+                this.scheduleStage(scheduled, stage, tickNumber + stage.getTicks());
+                return;
+            }
+        }
+    }
+    
+    private void scheduleStage(final ScheduledProgram scheduled, final EntityIntent stage, final long tick) {
+        scheduled.stage = stage;
+        this.schedule(scheduled, tick);
+    }
+    
+    private static class ScheduledProgram {
+        
+        private final CooperativeEntityProgram program;
+        private final Entity                   entity;
+        private final CompletableFuture<Void>  future = new CompletableFuture<>();
+        /** The stage to perform when due or null to ask the program for the next intent */
+        private EntityIntent                   stage;
+        
+        private ScheduledProgram(final CooperativeEntityProgram program, final Entity entity) {
+            this.program = program;
+            this.entity = entity;
+        }
+    }
+}
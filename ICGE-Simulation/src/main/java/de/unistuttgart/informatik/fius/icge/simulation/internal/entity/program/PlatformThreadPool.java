@@ -0,0 +1,44 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+
+/**
+ * The pool of platform threads used by both variants of {@link ProgramExecutors}.
+ */
+final class PlatformThreadPool {
+    
+    private PlatformThreadPool() {
+        //static utility class
+    }
+    
+    /**
+     * Create a pool of platform threads, one per available processor.
+     * 
+     * @return a new executor
+     */
+    static ExecutorService create() {
+        final ForkJoinWorkerThreadFactory factory = new ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                worker.setName("EntityProgramRunnerThread-" + worker.getPoolIndex());
+                return worker;
+            }
+        };
+        
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), factory, null, false);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ * 
+ * Copyright (c) 2019 the ICGE project authors.
+ * 
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program;
+
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * The executor strategies to run entity programs with.
+ * <p>
+ * An entity program spends almost all of its time waiting for its next scheduled operation. On JDK 21 and newer this
+ * class is replaced by the variant in {@code META-INF/versions/21} of the multi-release jar, which runs every program
+ * on its own virtual thread. This variant for older JDKs uses a pool of platform threads.
+ * </p>
+ */
+public final class ProgramExecutors {
+    
+    private ProgramExecutors() {
+        //static utility class
+    }
+    
+    /**
+     * @return whether {@link #createDefault()} runs the programs on virtual threads
+     */
+    public static boolean usesVirtualThreads() {
+        return false;
+    }
+    
+    /**
+     * Create the executor best suited to run entity programs on the current JDK.
+     * 
+     * @return a new executor
+     */
+    public static ExecutorService createDefault() {
+        return ProgramExecutors.createPlatformThreadPool();
+    }
+    
+    /**
+     * Create a pool of platform threads, one per available processor.
+     * <p>
+     * The pool starts additional threads while programs wait for their scheduled operations.
+     * </p>
+     * 
+     * @return a new executor
+     */
+    public static ExecutorService createPlatformThreadPool() {
+        return PlatformThreadPool.create();
+    }
+}
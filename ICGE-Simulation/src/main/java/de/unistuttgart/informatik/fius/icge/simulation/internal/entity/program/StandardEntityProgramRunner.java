@@ -9,23 +9,31 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program;
 
+import java.io.PrintStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
-import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
 import de.unistuttgart.informatik.fius.icge.log.Logger;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.CooperativeEntityProgram;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRunner;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramState;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.program.RunningProgramInfo;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.CannotRunProgramException;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.UncheckedInterruptedException;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
 
 
 /**
@@ -39,20 +47,25 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
     
     private final ExecutorService executor;
     
+    private CooperativeProgramScheduler cooperativeScheduler;
+    private LogContext                  logContext = Logger.getDefaultContext();
+    
     private final Map<String, EntityProgramRunningInfo> singlePrograms = new HashMap<>();
     private final Map<Entity, EntityProgramRunningInfo> entityPrograms = new HashMap<>();
+    /** The name of the program last run on every entity, in the order the programs were started */
+    private final Map<Entity, String>                   programNames   = new LinkedHashMap<>();
+    /** Completed when the thread of a program is done; cancelling the future of a program does not stop its thread */
+    private final Set<CompletableFuture<Void>>          programThreads = ConcurrentHashMap.newKeySet();
     
-    private ExecutorService createExecutor() {
-        final ForkJoinWorkerThreadFactory factory = new ForkJoinWorkerThreadFactory() {
-            @Override
-            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
-                final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
-                worker.setName("EntityProgramRunnerThread-" + worker.getPoolIndex());
-                return worker;
-            }
-        };
-        
-        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), factory, null, false);
+    /**
+     * Create a new StandardEntityProgramRunner running the programs on the {@link ProgramExecutors#createDefault()
+     * default executor}.
+     * 
+     * @param registry
+     *     The EntityProgramRegistry to use
+     */
+    public StandardEntityProgramRunner(final StandardEntityProgramRegistry registry) {
+        this(registry, ProgramExecutors.createDefault());
     }
     
     /**
@@ -60,10 +73,24 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
      * 
      * @param registry
      *     The EntityProgramRegistry to use
+     * @param executor
+     *     The executor to run the programs on; see {@link ProgramExecutors}
      */
-    public StandardEntityProgramRunner(final StandardEntityProgramRegistry registry) {
+    public StandardEntityProgramRunner(final StandardEntityProgramRegistry registry, final ExecutorService executor) {
+        if (executor == null) throw new IllegalArgumentException("The given executor is null.");
         this.registry = registry;
-        this.executor = createExecutor();
+        this.executor = executor;
+    }
+    
+    /**
+     * Initialize this runner for the given simulation.
+     * 
+     * @param simulation
+     *     The simulation whose clock drives the {@link CooperativeEntityProgram}s
+     */
+    public void initialize(final StandardSimulation simulation) {
+        this.cooperativeScheduler = new CooperativeProgramScheduler(simulation.getSimulationClock());
+        this.logContext = simulation.getLogContext();
     }
     
     private EntityProgramRunningInfo getSingleInstanceProgramInfo(final String programName) {
@@ -130,6 +157,15 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
         
         if (!this.canRunProgramOn(info, entity)) throw new CannotRunProgramException();
         
+        if (info.getProgram() instanceof CooperativeEntityProgram) {
+            this.runCooperative(program, (CooperativeEntityProgram) info.getProgram(), info, entity);
+            return;
+        }
+        
+        final CompletableFuture<Void> threadDone = new CompletableFuture<>();
+        this.programThreads.add(threadDone);
+        threadDone.whenComplete((unused, exception) -> this.programThreads.remove(threadDone));
+        
         CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> {
             try {
                 info.getProgram().run(entity);
@@ -143,11 +179,10 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
                 //TODO: If a way is added to see/use the log messages of an old simulation we need to fix this
                 info.setState(EntityProgramState.KILLED);
             } catch (Exception e) {
-                Logger.simout.println("----------------------------------------------");
-                Logger.simout.println("The following exception happened in program " + program + " running on entity " + entity.toString());
-                e.printStackTrace(Logger.simerror);
-                Logger.simout.println("----------------------------------------------");
+                this.logProgramException(program, entity, e);
                 info.setState(EntityProgramState.KILLED);
+            } finally {
+                threadDone.complete(null);
             }
             return null;
         }, this.executor);
@@ -157,6 +192,45 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
         
         // set the running program in the entityMap
         this.entityPrograms.put(entity, info);
+        this.putProgramName(entity, program);
+    }
+    
+    private void putProgramName(final Entity entity, final String program) {
+        //keep the order in which the programs were started
+        this.programNames.remove(entity);
+        this.programNames.put(entity, program);
+    }
+    
+    private void runCooperative(
+            final String programName, final CooperativeEntityProgram program, final EntityProgramRunningInfo info, final Entity entity
+    ) {
+        if (this.cooperativeScheduler == null) throw new IllegalStateException("This runner is not part of any simulation.");
+        
+        info.setState(EntityProgramState.RUNNING);
+        final CompletableFuture<Void> future = this.cooperativeScheduler.start(program, entity);
+        info.setFuture(future);
+        this.entityPrograms.put(entity, info);
+        this.putProgramName(entity, programName);
+        
+        future.whenComplete((unused, exception) -> {
+            if (exception == null) {
+                info.setState(EntityProgramState.FINISHED);
+                return;
+            }
+            final Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+            if (!(cause instanceof CancellationException)) {
+                this.logProgramException(programName, entity, cause);
+            }
+            info.setState(EntityProgramState.KILLED);
+        });
+    }
+    
+    private void logProgramException(final String program, final Entity entity, final Throwable e) {
+        final PrintStream simout = this.logContext.getSimulationOutput();
+        simout.println("----------------------------------------------");
+        simout.println("The following exception happened in program " + program + " running on entity " + entity.toString());
+        e.printStackTrace(this.logContext.getSimulationError());
+        simout.println("----------------------------------------------");
     }
     
     @Override
@@ -175,4 +249,56 @@ public class StandardEntityProgramRunner implements EntityProgramRunner {
         }
     }
     
+    /**
+     * @return the name of the program last run on every entity, in the order the programs were started
+     */
+    public Map<Entity, String> getProgramNames() {
+        return new LinkedHashMap<>(this.programNames);
+    }
+    
+    /**
+     * Stop all programs, wait until they are done and forget them, so programs can be run on all entities again.
+     * <p>
+     * Programs waiting for the simulation clock only stop when their operations are cancelled, see
+     * {@link de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock#cancelOperations()}.
+     * </p>
+     * 
+     * @param timeoutMillis
+     *     How long to wait for the programs at most
+     * @return whether all programs stopped in time; if not, the programs are not forgotten
+     */
+    public boolean reset(final long timeoutMillis) {
+        this.forceStop();
+        if (this.cooperativeScheduler != null) {
+            this.cooperativeScheduler.cancelAll();
+        }
+        try {
+            CompletableFuture.allOf(this.programThreads.toArray(new CompletableFuture<?>[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (@SuppressWarnings("unused") final TimeoutException e) {
+            return false;
+        } catch (@SuppressWarnings("unused") final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ExecutionException e) {
+            //the futures of the threads are never completed exceptionally
+            throw new IllegalStateException(e);
+        }
+        this.singlePrograms.clear();
+        this.entityPrograms.clear();
+        this.programNames.clear();
+        return true;
+    }
+    
+    /**
+     * Stop all programs and shut down the executor running them.
+     * <p>
+     * Call this once the simulation of this runner is not used anymore; no programs can be run afterwards. This does
+     * not block until the programs have stopped.
+     * </p>
+     */
+    public void shutdown() {
+        this.forceStop();
+        this.executor.shutdownNow();
+    }
+    
 }
@@ -0,0 +1,158 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * A map from entities to their packed position (see {@link Position#pack()}).
+ * <p>
+ * Entities are compared by identity. The map uses open addressing with linear probing and stores the positions in a
+ * primitive array.
+ * </p>
+ */
+public class EntityPositionMap {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private Entity[] keys;
+    private long[]   positions;
+    private int      mask;
+    private int      size;
+    
+    /**
+     * Create a new empty map.
+     */
+    public EntityPositionMap() {
+        this.allocate(EntityPositionMap.DEFAULT_CAPACITY);
+    }
+    
+    private void allocate(final int capacity) {
+        this.keys = new Entity[capacity];
+        this.positions = new long[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    private int slotOf(final Entity entity) {
+        final int hash = System.identityHashCode(entity) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & this.mask;
+    }
+    
+    private int indexOf(final Entity entity) {
+        int index = this.slotOf(entity);
+        while (this.keys[index] != null) {
+            if (this.keys[index] == entity) return index;
+            index = (index + 1) & this.mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * @param entity
+     *     the entity
+     * @return whether this map contains a position for the given entity
+     */
+    public boolean containsKey(final Entity entity) {
+        return this.indexOf(entity) >= 0;
+    }
+    
+    /**
+     * Get the packed position of the given entity.
+     *
+     * @param entity
+     *     the entity
+     * @return the packed position of the entity
+     * @throws IllegalArgumentException
+     *     if this map does not contain the given entity
+     */
+    public long get(final Entity entity) {
+        final int index = this.indexOf(entity);
+        if (index < 0) throw new IllegalArgumentException("The given entity is not in this map.");
+        return this.positions[index];
+    }
+    
+    /**
+     * Set the packed position of the given entity.
+     *
+     * @param entity
+     *     the entity; must not be null
+     * @param packedPosition
+     *     the packed position
+     */
+    public void put(final Entity entity, final long packedPosition) {
+        if (entity == null) throw new IllegalArgumentException("The given entity is null.");
+        int index = this.slotOf(entity);
+        while (this.keys[index] != null) {
+            if (this.keys[index] == entity) {
+                this.positions[index] = packedPosition;
+                return;
+            }
+            index = (index + 1) & this.mask;
+        }
+        this.keys[index] = entity;
+        this.positions[index] = packedPosition;
+        this.size++;
+        if ((this.size * 2) > this.keys.length) {
+            this.rehash(this.keys.length * 2);
+        }
+    }
+    
+    /**
+     * Remove the given entity from this map.
+     *
+     * @param entity
+     *     the entity
+     * @return whether this map contained the given entity
+     */
+    public boolean remove(final Entity entity) {
+        int index = this.indexOf(entity);
+        if (index < 0) return false;
+        
+        //shift following entries back into the gap, so no probe sequence is interrupted
+        int next = (index + 1) & this.mask;
+        while (this.keys[next] != null) {
+            final int slot = this.slotOf(this.keys[next]);
+            if (((next - slot) & this.mask) >= ((next - index) & this.mask)) {
+                this.keys[index] = this.keys[next];
+                this.positions[index] = this.positions[next];
+                index = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.keys[index] = null;
+        this.size--;
+        return true;
+    }
+    
+    private void rehash(final int capacity) {
+        final Entity[] oldKeys = this.keys;
+        final long[] oldPositions = this.positions;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = this.slotOf(oldKeys[i]);
+                while (this.keys[index] != null) {
+                    index = (index + 1) & this.mask;
+                }
+                this.keys[index] = oldKeys[i];
+                this.positions[index] = oldPositions[i];
+            }
+        }
+    }
+    
+    /**
+     * @return the number of entities in this map
+     */
+    public int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * An index of all entities on a playfield by their type.
+ * <p>
+ * Entities are stored by their concrete class. For every type that was queried with subclasses the list of matching
+ * concrete classes is cached, so a query only touches the entities it returns. For streams and lists that outlive
+ * modifications every concrete class additionally has an immutable snapshot array, which is only taken again after
+ * entities of that class were added or removed.
+ * </p>
+ */
+public class EntityTypeIndex {
+    
+    private final Map<Class<? extends Entity>, Set<Entity>> entitiesByType = new HashMap<>();
+    
+    /** The cached subtype closure: for every queried type all stored concrete types assignable to it. */
+    private final Map<Class<?>, List<Class<? extends Entity>>> subtypeClosures = new HashMap<>();
+    
+    /** The immutable snapshots of the sets in {@link #entitiesByType}; missing if the set changed since. */
+    private final Map<Class<?>, Entity[]> snapshots = new HashMap<>();
+    
+    /**
+     * Add the given entity to this index.
+     *
+     * @param entity
+     *     the entity to add
+     */
+    public void add(final Entity entity) {
+        Set<Entity> entities = this.entitiesByType.get(entity.getClass());
+        if (entities == null) {
+            entities = new LinkedHashSet<>();
+            this.entitiesByType.put(entity.getClass(), entities);
+            this.addToSubtypeClosures(entity.getClass());
+        }
+        if (entities.add(entity)) {
+            this.snapshots.remove(entity.getClass());
+        }
+    }
+    
+    /**
+     * Remove the given entity from this index.
+     * <p>
+     * The (possibly empty) set of the type is kept, so the cached subtype closures stay valid.
+     * </p>
+     *
+     * @param entity
+     *     the entity to remove
+     */
+    public void remove(final Entity entity) {
+        final Set<Entity> entities = this.entitiesByType.get(entity.getClass());
+        if ((entities != null) && entities.remove(entity)) {
+            this.snapshots.remove(entity.getClass());
+        }
+    }
+    
+    private void addToSubtypeClosures(final Class<? extends Entity> newType) {
+        for (final Map.Entry<Class<?>, List<Class<? extends Entity>>> closure : this.subtypeClosures.entrySet()) {
+            if (closure.getKey().isAssignableFrom(newType)) {
+                closure.getValue().add(newType);
+            }
+        }
+    }
+    
+    private List<Class<? extends Entity>> getSubtypeClosure(final Class<?> type) {
+        List<Class<? extends Entity>> closure = this.subtypeClosures.get(type);
+        if (closure == null) {
+            closure = new ArrayList<>();
+            for (final Class<? extends Entity> storedType : this.entitiesByType.keySet()) {
+                if (type.isAssignableFrom(storedType)) {
+                    closure.add(storedType);
+                }
+            }
+            this.subtypeClosures.put(type, closure);
+        }
+        return closure;
+    }
+    
+    private Set<Entity> getEntitiesOfExactType(final Class<?> type) {
+        final Set<Entity> entities = this.entitiesByType.get(type);
+        if (entities == null) return Collections.emptySet();
+        return entities;
+    }
+    
+    /**
+     * Get a stream over all entities matching the given type.
+     * <p>
+     * The stream is backed by this index and must be consumed before the index is modified again.
+     * </p>
+     *
+     * @param <T>
+     *     The generic type to return the entities as
+     * @param type
+     *     The type of the entities to get
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return a stream of all matching entities
+     */
+    public <T extends Entity> Stream<T> stream(final Class<? extends T> type, final boolean includeSubclasses) {
+        final Stream<Entity> entities;
+        if (includeSubclasses) {
+            entities = this.getSubtypeClosure(type).stream().flatMap(storedType -> this.getEntitiesOfExactType(storedType).stream());
+        } else {
+            entities = this.getEntitiesOfExactType(type).stream();
+        }
+        //This cast is safe, because only entities of a type assignable to the given type are in the stream
+        @SuppressWarnings("unchecked")
+        final Stream<T> typedEntities = (Stream<T>) entities;
+        return typedEntities;
+    }
+    
+    private Entity[] getSnapshotOfExactType(final Class<?> type) {
+        Entity[] snapshot = this.snapshots.get(type);
+        if (snapshot == null) {
+            snapshot = this.getEntitiesOfExactType(type).toArray(new Entity[0]);
+            this.snapshots.put(type, snapshot);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Resolve the snapshots of all concrete types matching the given type now, so they can be read later.
+     */
+    private List<Entity[]> getSnapshots(final Class<?> type, final boolean includeSubclasses) {
+        if (!includeSubclasses) return List.<Entity[]>of(this.getSnapshotOfExactType(type));
+        final List<Class<? extends Entity>> closure = this.getSubtypeClosure(type);
+        final List<Entity[]> typeSnapshots = new ArrayList<>(closure.size());
+        for (final Class<? extends Entity> storedType : closure) {
+            typeSnapshots.add(this.getSnapshotOfExactType(storedType));
+        }
+        return typeSnapshots;
+    }
+    
+    /**
+     * Get a stream over all entities matching the given type, as they are at the time of this call.
+     * <p>
+     * The stream is backed by the immutable snapshots of the matching concrete types, which are shared between calls.
+     * So the index may be modified while the stream is consumed, and only types modified since the last call are
+     * copied.
+     * </p>
+     *
+     * @param <T>
+     *     The generic type to return the entities as
+     * @param type
+     *     The type of the entities to get
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return a stream of all matching entities
+     */
+    public <T extends Entity> Stream<T> snapshotStream(final Class<? extends T> type, final boolean includeSubclasses) {
+        final Stream<Entity> entities = this.getSnapshots(type, includeSubclasses).stream().flatMap(Arrays::stream);
+        //This cast is safe, because only entities of a type assignable to the given type are in the stream
+        @SuppressWarnings("unchecked")
+        final Stream<T> typedEntities = (Stream<T>) entities;
+        return typedEntities;
+    }
+    
+    /**
+     * Get an unmodifiable list of all entities matching the given type, as they are at the time of this call.
+     * <p>
+     * Like {@link #snapshotStream(Class, boolean)} the list is backed by the shared snapshots of the matching concrete
+     * types, so no entities are copied for types not modified since the last call.
+     * </p>
+     *
+     * @param <T>
+     *     The generic type to return the entities as
+     * @param type
+     *     The type of the entities to get
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return an unmodifiable list of all matching entities
+     */
+    public <T extends Entity> List<T> snapshotList(final Class<? extends T> type, final boolean includeSubclasses) {
+        final List<Entity[]> typeSnapshots = this.getSnapshots(type, includeSubclasses);
+        final List<Entity> entities;
+        if (typeSnapshots.size() == 1) {
+            entities = Collections.unmodifiableList(Arrays.asList(typeSnapshots.get(0)));
+        } else {
+            entities = new SnapshotList(typeSnapshots);
+        }
+        //This cast is safe, because only entities of a type assignable to the given type are in the list
+        @SuppressWarnings("unchecked")
+        final List<T> typedEntities = (List<T>) entities;
+        return typedEntities;
+    }
+    
+    /**
+     * Count all entities matching the given type.
+     *
+     * @param type
+     *     The type of the entities to count
+     * @param includeSubclasses
+     *     Whether to include the subclasses of the given type
+     * @return the number of matching entities
+     */
+    public int count(final Class<? extends Entity> type, final boolean includeSubclasses) {
+        if (!includeSubclasses) return this.getEntitiesOfExactType(type).size();
+        int count = 0;
+        for (final Class<? extends Entity> storedType : this.getSubtypeClosure(type)) {
+            count += this.getEntitiesOfExactType(storedType).size();
+        }
+        return count;
+    }
+    
+    /**
+     * An unmodifiable list concatenating the snapshots of several concrete types.
+     */
+    private static class SnapshotList extends AbstractList<Entity> implements RandomAccess {
+        
+        private final List<Entity[]> typeSnapshots;
+        private final int            size;
+        
+        private SnapshotList(final List<Entity[]> typeSnapshots) {
+            this.typeSnapshots = typeSnapshots;
+            int size = 0;
+            for (final Entity[] snapshot : typeSnapshots) {
+                size += snapshot.length;
+            }
+            this.size = size;
+        }
+        
+        @Override
+        public Entity get(final int index) {
+            if ((index < 0) || (index >= this.size)) throw new IndexOutOfBoundsException(index);
+            int offset = index;
+            for (final Entity[] snapshot : this.typeSnapshots) {
+                if (offset < snapshot.length) return snapshot[offset];
+                offset -= snapshot.length;
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+        
+        @Override
+        public int size() {
+            return this.size;
+        }
+        
+        @Override
+        public Stream<Entity> stream() {
+            return this.typeSnapshots.stream().flatMap(Arrays::stream);
+        }
+    }
+}
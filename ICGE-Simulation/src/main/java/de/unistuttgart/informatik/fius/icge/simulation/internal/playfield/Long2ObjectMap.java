@@ -0,0 +1,204 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+
+/**
+ * A hash map from primitive {@code long} keys to objects.
+ * <p>
+ * The map uses open addressing with linear probing, so neither keys nor entries are boxed. A slot is free iff its value
+ * is null, therefore null values are not allowed.
+ * </p>
+ *
+ * @param <V>
+ *     The type of the values
+ */
+public class Long2ObjectMap<V> {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private long[]   keys;
+    private Object[] values;
+    private int      mask;
+    private int      shift;
+    private int      size;
+    
+    /**
+     * Create a new empty map.
+     */
+    public Long2ObjectMap() {
+        this.allocate(Long2ObjectMap.DEFAULT_CAPACITY);
+    }
+    
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(capacity - 1L);
+    }
+    
+    private int slotOf(final long key) {
+        //fibonacci hashing; spreads packed coordinates, whose low and high halves are small numbers, over all slots
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> this.shift);
+    }
+    
+    private int indexOf(final long key) {
+        int index = this.slotOf(key);
+        while (this.values[index] != null) {
+            if (this.keys[index] == key) return index;
+            index = (index + 1) & this.mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * Get the value for the given key.
+     *
+     * @param key
+     *     the key
+     * @return the value for the key or null if there is none
+     */
+    public V get(final long key) {
+        final int index = this.indexOf(key);
+        if (index < 0) return null;
+        @SuppressWarnings("unchecked")
+        final V value = (V) this.values[index];
+        return value;
+    }
+    
+    /**
+     * @param key
+     *     the key
+     * @return whether there is a value for the given key
+     */
+    public boolean containsKey(final long key) {
+        return this.indexOf(key) >= 0;
+    }
+    
+    /**
+     * Set the value for the given key.
+     *
+     * @param key
+     *     the key
+     * @param value
+     *     the value; must not be null
+     * @return the previous value for the key or null if there was none
+     */
+    public V put(final long key, final V value) {
+        if (value == null) throw new IllegalArgumentException("The given value is null.");
+        int index = this.slotOf(key);
+        while (this.values[index] != null) {
+            if (this.keys[index] == key) {
+                @SuppressWarnings("unchecked")
+                final V previous = (V) this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & this.mask;
+        }
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.size++;
+        if ((this.size * 2) > this.values.length) {
+            this.rehash(this.values.length * 2);
+        }
+        return null;
+    }
+    
+    /**
+     * Remove the value for the given key.
+     *
+     * @param key
+     *     the key
+     * @return the removed value or null if there was none
+     */
+    public V remove(final long key) {
+        int index = this.indexOf(key);
+        if (index < 0) return null;
+        @SuppressWarnings("unchecked")
+        final V removed = (V) this.values[index];
+        
+        //shift following entries back into the gap, so no probe sequence is interrupted
+        int next = (index + 1) & this.mask;
+        while (this.values[next] != null) {
+            final int slot = this.slotOf(this.keys[next]);
+            if (((next - slot) & this.mask) >= ((next - index) & this.mask)) {
+                this.keys[index] = this.keys[next];
+                this.values[index] = this.values[next];
+                index = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.values[index] = null;
+        this.size--;
+        return removed;
+    }
+    
+    private void rehash(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = this.slotOf(oldKeys[i]);
+                while (this.values[index] != null) {
+                    index = (index + 1) & this.mask;
+                }
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+    
+    /**
+     * @return the number of entries in this map
+     */
+    public int size() {
+        return this.size;
+    }
+    
+    /**
+     * @return whether this map is empty
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    /**
+     * Remove all entries from this map.
+     */
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+    
+    /**
+     * Call the given consumer for every value in this map.
+     * <p>
+     * The consumer must not modify this map.
+     * </p>
+     *
+     * @param consumer
+     *     the consumer to call
+     */
+    public void forEachValue(final Consumer<? super V> consumer) {
+        final Object[] currentValues = this.values;
+        for (final Object value : currentValues) {
+            if (value != null) {
+                @SuppressWarnings("unchecked")
+                final V typedValue = (V) value;
+                consumer.accept(typedValue);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
+
+import java.util.function.Consumer;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+
+
+/**
+ * A square tile of {@link PlayfieldCell}s used as the unit of the spatial index of the {@link StandardPlayfield}.
+ * <p>
+ * A chunk covers {@value #SIZE}x{@value #SIZE} positions. The chunk containing a position is found by shifting its
+ * coordinates, so negative coordinates are handled the same way as positive ones.
+ * </p>
+ */
+public class PlayfieldChunk {
+    
+    /** The number of bits of a coordinate which address a cell inside of a chunk. */
+    public static final int SIZE_BITS = 4;
+    
+    /** The width and height of a chunk in cells. */
+    public static final int SIZE = 1 << PlayfieldChunk.SIZE_BITS;
+    
+    private static final int MASK = PlayfieldChunk.SIZE - 1;
+    
+    private final int chunkX;
+    private final int chunkY;
+    
+    private final PlayfieldCell[] cells = new PlayfieldCell[PlayfieldChunk.SIZE * PlayfieldChunk.SIZE];
+    private int                   occupiedCells;
+    
+    /**
+     * Create a new empty chunk.
+     *
+     * @param chunkX
+     *     the x coordinate of the chunk (in chunks, not cells)
+     * @param chunkY
+     *     the y coordinate of the chunk (in chunks, not cells)
+     */
+    public PlayfieldChunk(final int chunkX, final int chunkY) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+    }
+    
+    /**
+     * Get the chunk coordinate for the given cell coordinate.
+     *
+     * @param cellCoordinate
+     *     the x or y coordinate of a cell
+     * @return the x or y coordinate of the chunk containing that cell
+     */
+    public static int toChunkCoordinate(final int cellCoordinate) {
+        return cellCoordinate >> PlayfieldChunk.SIZE_BITS;
+    }
+    
+    /**
+     * Get the key of the given chunk coordinates.
+     *
+     * @param chunkX
+     *     the x coordinate of the chunk
+     * @param chunkY
+     *     the y coordinate of the chunk
+     * @return the key of the chunk
+     */
+    public static long key(final int chunkX, final int chunkY) {
+        return Position.pack(chunkX, chunkY);
+    }
+    
+    /**
+     * Get the key of the chunk containing the given position.
+     *
+     * @param pos
+     *     the position to get the chunk key for
+     * @return the key of the chunk containing that position
+     */
+    public static long keyOf(final Position pos) {
+        return PlayfieldChunk.key(PlayfieldChunk.toChunkCoordinate(pos.getX()), PlayfieldChunk.toChunkCoordinate(pos.getY()));
+    }
+    
+    private static int indexOf(final int x, final int y) {
+        return ((y & PlayfieldChunk.MASK) << PlayfieldChunk.SIZE_BITS) | (x & PlayfieldChunk.MASK);
+    }
+    
+    /**
+     * @return the x coordinate of this chunk (in chunks, not cells)
+     */
+    public int getChunkX() {
+        return this.chunkX;
+    }
+    
+    /**
+     * @return the y coordinate of this chunk (in chunks, not cells)
+     */
+    public int getChunkY() {
+        return this.chunkY;
+    }
+    
+    /**
+     * Get the cell at the given position.
+     *
+     * @param pos
+     *     the position; must be inside of this chunk
+     * @return the cell at that position or null if there is none
+     */
+    public PlayfieldCell getCell(final Position pos) {
+        return this.cells[PlayfieldChunk.indexOf(pos.getX(), pos.getY())];
+    }
+    
+    /**
+     * Get the cell at the given position and create it if it does not exist yet.
+     *
+     * @param pos
+     *     the position; must be inside of this chunk
+     * @return the cell at that position
+     */
+    public PlayfieldCell getOrCreateCell(final Position pos) {
+        final int index = PlayfieldChunk.indexOf(pos.getX(), pos.getY());
+        PlayfieldCell cell = this.cells[index];
+        if (cell == null) {
+            cell = new PlayfieldCell(pos);
+            this.cells[index] = cell;
+            this.occupiedCells++;
+        }
+        return cell;
+    }
+    
+    /**
+     * Remove the cell at the given position from this chunk.
+     *
+     * @param pos
+     *     the position; must be inside of this chunk
+     */
+    public void removeCell(final Position pos) {
+        final int index = PlayfieldChunk.indexOf(pos.getX(), pos.getY());
+        if (this.cells[index] != null) {
+            this.cells[index] = null;
+            this.occupiedCells--;
+        }
+    }
+    
+    /**
+     * @return true if and only if this chunk does not contain any cells
+     */
+    public boolean isEmpty() {
+        return this.occupiedCells == 0;
+    }
+    
+    /**
+     * Check whether this chunk intersects the given area.
+     *
+     * @param minX
+     *     the smallest x coordinate of the area (inclusive)
+     * @param minY
+     *     the smallest y coordinate of the area (inclusive)
+     * @param maxX
+     *     the largest x coordinate of the area (inclusive)
+     * @param maxY
+     *     the largest y coordinate of the area (inclusive)
+     * @return true if at least one position of the area lies in this chunk
+     */
+    public boolean intersects(final int minX, final int minY, final int maxX, final int maxY) {
+        return (PlayfieldChunk.toChunkCoordinate(minX) <= this.chunkX) && (PlayfieldChunk.toChunkCoordinate(maxX) >= this.chunkX)
+                && (PlayfieldChunk.toChunkCoordinate(minY) <= this.chunkY) && (PlayfieldChunk.toChunkCoordinate(maxY) >= this.chunkY);
+    }
+    
+    /**
+     * Call the given consumer for every cell in this chunk.
+     *
+     * @param consumer
+     *     the consumer to call
+     */
+    public void forEachCell(final Consumer<PlayfieldCell> consumer) {
+        for (final PlayfieldCell cell : this.cells) {
+            if (cell != null) {
+                consumer.accept(cell);
+            }
+        }
+    }
+    
+    /**
+     * Call the given consumer for every cell of this chunk which lies in the given area.
+     *
+     * @param minX
+     *     the smallest x coordinate of the area (inclusive)
+     * @param minY
+     *     the smallest y coordinate of the area (inclusive)
+     * @param maxX
+     *     the largest x coordinate of the area (inclusive)
+     * @param maxY
+     *     the largest y coordinate of the area (inclusive)
+     * @param consumer
+     *     the consumer to call
+     */
+    public void forEachCellInArea(final int minX, final int minY, final int maxX, final int maxY, final Consumer<PlayfieldCell> consumer) {
+        final int originX = this.chunkX << PlayfieldChunk.SIZE_BITS;
+        final int originY = this.chunkY << PlayfieldChunk.SIZE_BITS;
+        final int fromX = Math.max(minX, originX) - originX;
+        final int fromY = Math.max(minY, originY) - originY;
+        final int toX = Math.min(maxX, originX + PlayfieldChunk.MASK) - originX;
+        final int toY = Math.min(maxY, originY + PlayfieldChunk.MASK) - originY;
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                final PlayfieldCell cell = this.cells[(y << PlayfieldChunk.SIZE_BITS) | x];
+                if (cell != null) {
+                    consumer.accept(cell);
+                }
+            }
+        }
+    }
+}
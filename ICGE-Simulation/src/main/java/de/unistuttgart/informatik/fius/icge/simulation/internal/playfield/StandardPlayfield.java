@@ -11,13 +11,17 @@ package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import de.unistuttgart.informatik.fius.icge.simulation.Playfield;
+import de.unistuttgart.informatik.fius.icge.simulation.PlayfieldSnapshot;
 import de.unistuttgart.informatik.fius.icge.simulation.Position;
 import de.unistuttgart.informatik.fius.icge.simulation.Simulation;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
@@ -25,6 +29,7 @@ import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityMoveAction;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
 import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.RestorableEntity;
 import de.unistuttgart.informatik.fius.icge.simulation.entity.SolidEntity;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityAlreadyOnFieldExcpetion;
 import de.unistuttgart.informatik.fius.icge.simulation.exception.EntityNotOnFieldException;
@@ -43,10 +48,22 @@ import de.unistuttgart.informatik.fius.icge.ui.SimulationTreeNode;
 public class StandardPlayfield implements Playfield {
     private WeakReference<Simulation> sim;
     
-    private final Map<Position, PlayfieldCell> cells           = new HashMap<>();
-    private final Map<Entity, Position>        entityPositions = new HashMap<>();
+    /** The spatial index of all cells; the cells are grouped into chunks keyed by {@link PlayfieldChunk#key}. */
+    private final Long2ObjectMap<PlayfieldChunk> chunks          = new Long2ObjectMap<>();
+    /** The packed position of every entity on this playfield. */
+    private final EntityPositionMap              entityPositions = new EntityPositionMap();
+    private final EntityTypeIndex                typeIndex       = new EntityTypeIndex();
     
-    private EntityDrawListener drawer;
+    /** The valid snapshots which were not discarded, the oldest first; only the newest one records changes */
+    private final List<StandardPlayfieldSnapshot> snapshots = new ArrayList<>();
+    /** Whether a snapshot is being restored, so the changed entities are drawn once afterwards */
+    private boolean                               restoring;
+    
+    private EntityDrawListener          drawer;
+    /** The drawable of every entity as it was last passed to the drawer */
+    private final Map<Entity, Drawable> drawnDrawables  = new IdentityHashMap<>();
+    /** The entities added, moved, removed or changed since they were last drawn */
+    private final Set<Entity>           changedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
     
     private SimulationTreeNode simualtionTreeRootNode;
     
@@ -62,7 +79,7 @@ public class StandardPlayfield implements Playfield {
     public void initialize(final StandardSimulation simulation) {
         this.sim = new WeakReference<>(simulation);
         simulation.getSimulationClock().registerPostTickListener(count -> {
-            this.drawEntities();
+            this.drawChangedEntities();
             return true;
         });
         
@@ -77,11 +94,19 @@ public class StandardPlayfield implements Playfield {
      * @throws ListenerSetException
      *     If listener is already set and new listener is not null
      */
-    public void setEntityDrawListener(EntityDrawListener listener) {
+    public synchronized void setEntityDrawListener(EntityDrawListener listener) {
         if ((this.drawer == null) || (listener == null)) {
             this.drawer = listener;
+            this.drawnDrawables.clear();
+            this.changedEntities.clear();
             if (listener != null) {
-                this.drawEntities();
+                final List<Drawable> drawables = new ArrayList<>();
+                for (final Entity entity : this.getAllEntities()) {
+                    final Drawable drawable = entity.getDrawInformation();
+                    drawables.add(drawable);
+                    this.drawnDrawables.put(entity, drawable);
+                }
+                listener.setDrawables(drawables);
             }
         } else throw new ListenerSetException();
     }
@@ -99,20 +124,77 @@ public class StandardPlayfield implements Playfield {
     }
     
     /**
-     * Converts all entities to drawables and sends them to the playfield drawer.
+     * Checks the draw information of all entities and sends the changed drawables to the playfield drawer.
+     * <p>
+     * Use this after entities were changed in a way the playfield is not told about.
+     * </p>
      */
-    public void drawEntities() {
-        final List<Drawable> drawables = new ArrayList<>();
-        for (final Entity entity : this.getAllEntities()) {
-            try {
-                drawables.add(entity.getDrawInformation());
-            } catch (@SuppressWarnings("unused") EntityNotOnFieldException e) {
-                //Entity has been removed from the field while this loop was running.
-                //Just don't draw it and ignore the exception.
+    public synchronized void drawEntities() {
+        if (this.drawer == null) return;
+        this.changedEntities.addAll(this.drawnDrawables.keySet());
+        this.changedEntities.addAll(this.getAllEntities());
+        this.drawChangedEntities();
+    }
+    
+    /**
+     * Sends the drawables of all entities added, moved, removed or changed since they were last drawn to the playfield
+     * drawer.
+     * <p>
+     * If the drawer does not support
+     * {@link EntityDrawListener#updateDrawables(java.util.Collection, java.util.Collection) updating its drawables},
+     * all drawables are set again instead.
+     * </p>
+     */
+    public synchronized void drawChangedEntities() {
+        if (this.changedEntities.isEmpty()) return;
+        if (this.drawer == null) {
+            this.changedEntities.clear();
+            return;
+        }
+        final List<Drawable> removed = new ArrayList<>();
+        final List<Drawable> added = new ArrayList<>();
+        for (final Entity entity : this.changedEntities) {
+            final Drawable oldDrawable = this.drawnDrawables.get(entity);
+            final Drawable newDrawable = this.entityPositions.containsKey(entity) ? entity.getDrawInformation() : null;
+            if (StandardPlayfield.isSameDrawable(oldDrawable, newDrawable)) {
+                continue;
+            }
+            if (oldDrawable != null) {
+                removed.add(oldDrawable);
+            }
+            if (newDrawable != null) {
+                added.add(newDrawable);
+                this.drawnDrawables.put(entity, newDrawable);
+            } else {
+                this.drawnDrawables.remove(entity);
             }
         }
-        if (this.drawer != null) {
-            this.drawer.setDrawables(drawables);
+        this.changedEntities.clear();
+        if (removed.isEmpty() && added.isEmpty()) return;
+        if (this.drawer.supportsDrawableUpdates()) {
+            this.drawer.updateDrawables(removed, added);
+        } else {
+            this.drawer.setDrawables(new ArrayList<>(this.drawnDrawables.values()));
+        }
+    }
+    
+    private static boolean isSameDrawable(final Drawable a, final Drawable b) {
+        if (a == b) return true;
+        if ((a == null) || (b == null) || (a.getClass() != b.getClass())) return false;
+        //animated drawables change over time, so only the same instance is the same drawable
+        if (a.isAnimated() || b.isAnimated()) return false;
+        return (a.getX() == b.getX()) && (a.getY() == b.getY()) && (a.getZ() == b.getZ()) && (a.isTilable() == b.isTilable())
+                && a.getTextureHandle().equals(b.getTextureHandle());
+    }
+    
+    /**
+     * Draw the given entity with the next simulation tick, or right away if the simulation clock is not running.
+     */
+    private void entityChanged(final Entity entity) {
+        if (this.drawer == null) return;
+        this.changedEntities.add(entity);
+        if (!this.restoring && !this.getSimulation().getSimulationClock().isRunning()) {
+            this.drawChangedEntities();
         }
     }
     
@@ -122,13 +204,23 @@ public class StandardPlayfield implements Playfield {
     }
     
     @Override
-    public <T extends Entity> List<T> getAllEntitiesOfType(final Class<? extends T> type, final boolean includeSubclasses) {
+    public synchronized <T extends Entity> List<T> getAllEntitiesOfType(final Class<? extends T> type, final boolean includeSubclasses) {
         if (type == null) throw new IllegalArgumentException("The given type is null.");
-        final List<T> result = new ArrayList<>();
-        for (final PlayfieldCell cell : this.cells.values()) {
-            result.addAll(cell.get(type, includeSubclasses));
-        }
-        return result;
+        //a snapshot and not a live view, because entities of other threads may modify this playfield while it is read
+        return this.typeIndex.snapshotList(type, includeSubclasses);
+    }
+    
+    @Override
+    public synchronized <T extends Entity> Stream<T> streamEntitiesOfType(final Class<? extends T> type, final boolean includeSubclasses) {
+        if (type == null) throw new IllegalArgumentException("The given type is null.");
+        //entities of other threads may modify this playfield while the stream is consumed
+        return this.typeIndex.snapshotStream(type, includeSubclasses);
+    }
+    
+    @Override
+    public synchronized int countEntitiesOfType(final Class<? extends Entity> type, final boolean includeSubclasses) {
+        if (type == null) throw new IllegalArgumentException("The given type is null.");
+        return this.typeIndex.count(type, includeSubclasses);
     }
     
     @Override
@@ -138,40 +230,95 @@ public class StandardPlayfield implements Playfield {
     }
     
     @Override
-    public <T extends Entity> List<T> getEntitiesOfTypeAt(
+    public synchronized <T extends Entity> List<T> getEntitiesOfTypeAt(
             final Position pos, final Class<? extends T> type, final boolean includeSubclasses
     ) {
         if (type == null) throw new IllegalArgumentException("The given type is null.");
         if (pos == null) throw new IllegalArgumentException("The given pos is null.");
         final List<T> result = new ArrayList<>();
-        final PlayfieldCell cell = this.cells.get(pos);
+        final PlayfieldCell cell = this.getCell(pos);
         if ((cell != null) && cell.getPosition().equals(pos)) {
-            result.addAll(cell.get(type, includeSubclasses));
+            cell.forEach(type, includeSubclasses, result::add);
         }
         return result;
     }
     
+    @Override
+    public List<Entity> getEntitiesInArea(final Position min, final Position max) {
+        return this.getEntitiesOfTypeInArea(min, max, Entity.class, true);
+    }
+    
+    @Override
+    public synchronized <T extends Entity> List<T> getEntitiesOfTypeInArea(
+            final Position min, final Position max, final Class<? extends T> type, final boolean includeSubclasses
+    ) {
+        if (type == null) throw new IllegalArgumentException("The given type is null.");
+        if ((min == null) || (max == null)) throw new IllegalArgumentException("The given min or max is null.");
+        if ((min.getX() > max.getX()) || (min.getY() > max.getY())) throw new IllegalArgumentException("The given min is not <= max.");
+        
+        final int minX = min.getX();
+        final int minY = min.getY();
+        final int maxX = max.getX();
+        final int maxY = max.getY();
+        final List<T> result = new ArrayList<>();
+        final Consumer<PlayfieldCell> collector = cell -> cell.forEach(type, includeSubclasses, result::add);
+        
+        final long chunksWide = ((long) PlayfieldChunk.toChunkCoordinate(maxX) - PlayfieldChunk.toChunkCoordinate(minX)) + 1;
+        final long chunksHigh = ((long) PlayfieldChunk.toChunkCoordinate(maxY) - PlayfieldChunk.toChunkCoordinate(minY)) + 1;
+        if ((chunksWide * chunksHigh) > this.chunks.size()) {
+            // the area covers more chunk coordinates than there are chunks, so it is cheaper to check every chunk
+            this.chunks.forEachValue(chunk -> {
+                if (chunk.intersects(minX, minY, maxX, maxY)) {
+                    chunk.forEachCellInArea(minX, minY, maxX, maxY, collector);
+                }
+            });
+            return result;
+        }
+        for (int chunkY = PlayfieldChunk.toChunkCoordinate(minY); chunkY <= PlayfieldChunk.toChunkCoordinate(maxY); chunkY++) {
+            for (int chunkX = PlayfieldChunk.toChunkCoordinate(minX); chunkX <= PlayfieldChunk.toChunkCoordinate(maxX); chunkX++) {
+                final PlayfieldChunk chunk = this.chunks.get(PlayfieldChunk.key(chunkX, chunkY));
+                if (chunk != null) {
+                    chunk.forEachCellInArea(minX, minY, maxX, maxY, collector);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private PlayfieldCell getCell(final Position pos) {
+        final PlayfieldChunk chunk = this.chunks.get(PlayfieldChunk.keyOf(pos));
+        if (chunk == null) return null;
+        return chunk.getCell(pos);
+    }
+    
     private void addEntityToCell(final Position pos, final Entity entity) {
-        PlayfieldCell cell = this.cells.get(pos);
-        if (cell == null) {
-            cell = new PlayfieldCell(pos);
-            this.cells.put(pos, cell);
+        final long key = PlayfieldChunk.keyOf(pos);
+        PlayfieldChunk chunk = this.chunks.get(key);
+        if (chunk == null) {
+            chunk = new PlayfieldChunk(PlayfieldChunk.toChunkCoordinate(pos.getX()), PlayfieldChunk.toChunkCoordinate(pos.getY()));
+            this.chunks.put(key, chunk);
         }
-        cell.add(entity);
+        chunk.getOrCreateCell(pos).add(entity);
     }
     
     private void removeEntityFromCell(final Position pos, final Entity entity) {
-        final PlayfieldCell cell = this.cells.get(pos);
+        final long key = PlayfieldChunk.keyOf(pos);
+        final PlayfieldChunk chunk = this.chunks.get(key);
+        if (chunk == null) return; // chunk is already empty...
+        final PlayfieldCell cell = chunk.getCell(pos);
         if ((cell == null) || !cell.contains(entity)) // TODO decide if this should throw an Exception
             return; // cell is already empty...
         cell.remove(entity);
         if (cell.isEmpty()) {
-            this.cells.remove(pos, cell);
+            chunk.removeCell(pos);
+            if (chunk.isEmpty()) {
+                this.chunks.remove(key);
+            }
         }
     }
     
     @Override
-    public void addEntity(final Position pos, final Entity entity) {
+    public synchronized void addEntity(final Position pos, final Entity entity) {
         if (pos == null) throw new IllegalArgumentException("The given pos is null.");
         if (entity == null) throw new IllegalArgumentException("The given entity is null.");
         
@@ -179,17 +326,25 @@ public class StandardPlayfield implements Playfield {
             this.entityPositions.containsKey(entity)
         ) throw new EntityAlreadyOnFieldExcpetion("The given entity" + entity + "is already on this playfield.");
         
-        this.entityPositions.put(entity, pos);
+        this.placeEntity(pos, entity, true);
+    }
+    
+    private void placeEntity(final Position pos, final Entity entity, final boolean log) {
+        this.recordChange(entity, null);
+        this.entityPositions.put(entity, pos.pack());
         
         this.addEntityToCell(pos, entity);
+        this.typeIndex.add(entity);
         
-        this.getSimulation().getActionLog()
-                .logAction(new EntitySpawnAction(this.getSimulation().getSimulationClock().getLastTickNumber(), entity, this, pos));
+        if (log) {
+            this.getSimulation().getActionLog()
+                    .logAction(new EntitySpawnAction(this.getSimulation().getSimulationClock().getLastTickNumber(), entity, this, pos));
+        }
         
         entity.initOnPlayfield(this);
         
         addEntityToSimulationTree(entity);
-        this.drawEntities();
+        this.entityChanged(entity);
     }
     
     private SimulationTreeNode findNodeForEntity(Entity entity, boolean create) {
@@ -228,7 +383,9 @@ public class StandardPlayfield implements Playfield {
         );
         findNodeForEntity(entity, true).appendChild(newNode);
         
-        this.simulationTreeEntityAddedListener.accept(newNode, entity);
+        if (this.simulationTreeEntityAddedListener != null) {
+            this.simulationTreeEntityAddedListener.accept(newNode, entity);
+        }
     }
     
     @Override
@@ -237,7 +394,7 @@ public class StandardPlayfield implements Playfield {
     }
     
     @Override
-    public void moveEntity(Entity entity, Position pos, EntityMoveAction action) {
+    public synchronized void moveEntity(Entity entity, Position pos, EntityMoveAction action) {
         if (pos == null) throw new IllegalArgumentException("The given pos is null.");
         if (entity == null) throw new IllegalArgumentException("The given entity is null.");
         if (
@@ -246,7 +403,7 @@ public class StandardPlayfield implements Playfield {
         
         EntityMoveAction actionToLog = action;
         
-        final Position oldPos = this.entityPositions.get(entity);
+        final Position oldPos = Position.unpack(this.entityPositions.get(entity));
         
         if (actionToLog == null) {
             actionToLog = new EntityTeleportAction(this.getSimulation().getSimulationClock().getLastTickNumber(), entity, oldPos, pos);
@@ -258,13 +415,16 @@ public class StandardPlayfield implements Playfield {
             if (!actionToLog.to().equals(pos)) throw new IllegalArgumentException("Given action does not end at given pos.");
         }
         
+        this.relocateEntity(entity, oldPos, pos);
+        this.getSimulation().getActionLog().logAction(actionToLog);
+    }
+    
+    private void relocateEntity(final Entity entity, final Position oldPos, final Position pos) {
+        this.recordChange(entity, oldPos);
         this.removeEntityFromCell(oldPos, entity);
         this.addEntityToCell(pos, entity);
-        this.entityPositions.put(entity, pos);
-        
-        this.getSimulation().getActionLog().logAction(actionToLog);
-        
-        this.drawEntities();
+        this.entityPositions.put(entity, pos.pack());
+        this.entityChanged(entity);
     }
     
     private void removeEntityFromSimulationTree(Entity entity) {
@@ -275,51 +435,165 @@ public class StandardPlayfield implements Playfield {
         for (SimulationTreeNode child : node.getChildren()) {
             if (child.getElementId().equals(Integer.toHexString(entity.hashCode()))) {
                 node.removeChild(child);
-                this.simulationTreeEntityRemovedListener.accept(child);
+                if (this.simulationTreeEntityRemovedListener != null) {
+                    this.simulationTreeEntityRemovedListener.accept(child);
+                }
             }
         }
     }
     
     @Override
-    public void removeEntity(final Entity entity) {
+    public synchronized void removeEntity(final Entity entity) {
         if (entity == null) throw new IllegalArgumentException("The given entity is null.");
         if (
             !this.entityPositions.containsKey(entity)
         ) throw new EntityNotOnFieldException("The given entity" + entity + "is not on this playfield.");
         
-        final Position pos = this.entityPositions.get(entity);
+        this.takeEntity(entity, true);
+    }
+    
+    private void takeEntity(final Entity entity, final boolean log) {
+        final Position pos = Position.unpack(this.entityPositions.get(entity));
+        this.recordChange(entity, pos);
         this.removeEntityFromCell(pos, entity);
-        this.entityPositions.remove(entity, pos);
+        this.entityPositions.remove(entity);
+        this.typeIndex.remove(entity);
         
-        this.getSimulation().getActionLog()
-                .logAction(new EntityDespawnAction(this.getSimulation().getSimulationClock().getLastTickNumber(), entity, this));
+        if (log) {
+            this.getSimulation().getActionLog()
+                    .logAction(new EntityDespawnAction(this.getSimulation().getSimulationClock().getLastTickNumber(), entity, this));
+        }
         
         removeEntityFromSimulationTree(entity);
         
-        this.drawEntities();
+        this.entityChanged(entity);
     }
     
     @Override
-    public Position getEntityPosition(final Entity entity) {
+    public synchronized Position getEntityPosition(final Entity entity) {
         if (entity == null) throw new IllegalArgumentException("The given entity is null.");
-        final Position pos = this.entityPositions.get(entity);
-        if (pos == null) throw new EntityNotOnFieldException("The given entity" + entity + "is not on this playfield.");
-        return pos;
+        if (
+            !this.entityPositions.containsKey(entity)
+        ) throw new EntityNotOnFieldException("The given entity" + entity + "is not on this playfield.");
+        return Position.unpack(this.entityPositions.get(entity));
     }
     
     @Override
-    public boolean containsEntity(final Entity entity) {
+    public synchronized boolean containsEntity(final Entity entity) {
         if (entity == null) throw new IllegalArgumentException("The given entity is null.");
         return this.entityPositions.containsKey(entity);
     }
     
     @Override
-    public boolean isSolidEntityAt(final Position pos) {
-        final List<SolidEntity> solidEntitiesAtPos = this.getEntitiesOfTypeAt(pos, SolidEntity.class, true);
-        for (final SolidEntity entity : solidEntitiesAtPos) {
-            if (entity.isCurrentlySolid()) return true;
+    public synchronized void drawInformationChanged(final Entity entity) {
+        if (entity == null) throw new IllegalArgumentException("The given entity is null.");
+        if (
+            !this.entityPositions.containsKey(entity)
+        ) throw new EntityNotOnFieldException("The given entity" + entity + "is not on this playfield.");
+        this.entityChanged(entity);
+    }
+    
+    @Override
+    public synchronized boolean isSolidEntityAt(final Position pos) {
+        if (pos == null) throw new IllegalArgumentException("The given pos is null.");
+        final PlayfieldCell cell = this.getCell(pos);
+        if (cell == null) return false;
+        return cell.<SolidEntity>anyMatch(SolidEntity.class, true, SolidEntity::isCurrentlySolid);
+    }
+    
+    @Override
+    public synchronized void stateWillChange(final RestorableEntity entity) {
+        if (entity == null) throw new IllegalArgumentException("The given entity is null.");
+        if (!this.restoring && !this.snapshots.isEmpty()) {
+            this.snapshots.get(this.snapshots.size() - 1).recordState(entity);
+        }
+    }
+    
+    private void recordChange(final Entity entity, final Position oldPos) {
+        if (!this.snapshots.isEmpty()) {
+            this.snapshots.get(this.snapshots.size() - 1).recordOriginal(entity, oldPos);
+        }
+    }
+    
+    @Override
+    public synchronized PlayfieldSnapshot snapshot() {
+        final StandardPlayfieldSnapshot snapshot = new StandardPlayfieldSnapshot(this);
+        this.snapshots.add(snapshot);
+        return snapshot;
+    }
+    
+    /**
+     * Stop keeping the changes for the given snapshot and invalidate it.
+     */
+    synchronized void discard(final StandardPlayfieldSnapshot snapshot) {
+        final int index = this.snapshots.indexOf(snapshot);
+        if (index < 0) return;
+        this.snapshots.remove(index);
+        if (index > 0) {
+            //the changes recorded by the discarded snapshot are still needed to restore the snapshot before it
+            this.snapshots.get(index - 1).recordAll(snapshot);
+        }
+        snapshot.invalidate();
+    }
+    
+    /**
+     * @return the number of snapshots of this playfield which are neither discarded nor invalidated
+     */
+    public synchronized int getSnapshotCount() {
+        return this.snapshots.size();
+    }
+    
+    @Override
+    public synchronized void restore(final PlayfieldSnapshot snapshot) {
+        if (snapshot == null) throw new IllegalArgumentException("The given snapshot is null.");
+        if (
+            !(snapshot instanceof StandardPlayfieldSnapshot) || (((StandardPlayfieldSnapshot) snapshot).getPlayfield() != this)
+        ) throw new IllegalArgumentException("The given snapshot was not taken of this playfield.");
+        if (!snapshot.isValid()) throw new IllegalStateException("The given snapshot was discarded or invalidated.");
+        
+        //the oldest recorded position and state of an entity are the ones it had when the given snapshot was taken
+        final int first = this.snapshots.indexOf(snapshot);
+        final Map<Entity, Position> targets = new IdentityHashMap<>();
+        final Map<RestorableEntity, Object> states = new IdentityHashMap<>();
+        for (int i = first; i < this.snapshots.size(); i++) {
+            for (final Map.Entry<Entity, Position> original : this.snapshots.get(i).getOriginals().entrySet()) {
+                if (!targets.containsKey(original.getKey())) {
+                    targets.put(original.getKey(), original.getValue());
+                }
+            }
+            this.snapshots.get(i).getStates().forEach(states::putIfAbsent);
+        }
+        
+        this.restoring = true;
+        try {
+            for (final Map.Entry<Entity, Position> target : targets.entrySet()) {
+                final Entity entity = target.getKey();
+                final Position pos = target.getValue();
+                final boolean onField = this.entityPositions.containsKey(entity);
+                if (pos == null) {
+                    if (onField) {
+                        this.takeEntity(entity, false);
+                    }
+                } else if (!onField) {
+                    this.placeEntity(pos, entity, false);
+                } else if (this.entityPositions.get(entity) != pos.pack()) {
+                    this.relocateEntity(entity, Position.unpack(this.entityPositions.get(entity)), pos);
+                }
+            }
+            for (final Map.Entry<RestorableEntity, Object> state : states.entrySet()) {
+                state.getKey().restoreState(state.getValue());
+                this.entityChanged(state.getKey());
+            }
+        } finally {
+            this.restoring = false;
+        }
+        
+        while (this.snapshots.size() > (first + 1)) {
+            this.snapshots.remove(this.snapshots.size() - 1).invalidate();
         }
-        return false;
+        this.snapshots.get(first).getOriginals().clear();
+        this.snapshots.get(first).getStates().clear();
+        this.drawChangedEntities();
     }
     
     /**
@@ -0,0 +1,97 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.internal.playfield;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import de.unistuttgart.informatik.fius.icge.simulation.PlayfieldSnapshot;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.RestorableEntity;
+
+
+/**
+ * The standard implementation of {@link PlayfieldSnapshot}.
+ * <p>
+ * The snapshot does not copy the playfield. Instead the playfield tells the newest snapshot the position and the state
+ * of an entity before it is changed for the first time, so a snapshot only holds the entities changed between it and
+ * the next snapshot.
+ * </p>
+ */
+public class StandardPlayfieldSnapshot implements PlayfieldSnapshot {
+    
+    private final StandardPlayfield playfield;
+    
+    /** The position of every moved entity when this snapshot was taken; null if it was not on the playfield */
+    private final Map<Entity, Position>         originals = new IdentityHashMap<>();
+    /** The state of every changed restorable entity when this snapshot was taken */
+    private final Map<RestorableEntity, Object> states    = new IdentityHashMap<>();
+    private boolean                             valid     = true;
+    
+    StandardPlayfieldSnapshot(final StandardPlayfield playfield) {
+        this.playfield = playfield;
+    }
+    
+    StandardPlayfield getPlayfield() {
+        return this.playfield;
+    }
+    
+    /**
+     * Remember the position of the given entity unless it was changed before.
+     */
+    void recordOriginal(final Entity entity, final Position pos) {
+        if (!this.originals.containsKey(entity)) {
+            this.originals.put(entity, pos);
+        }
+    }
+    
+    /**
+     * Remember the state of the given entity unless it was changed before.
+     */
+    void recordState(final RestorableEntity entity) {
+        if (!this.states.containsKey(entity)) {
+            this.states.put(entity, entity.saveState());
+        }
+    }
+    
+    /**
+     * Take over the changes recorded by the given snapshot, which was taken after this one, unless this snapshot
+     * recorded them before.
+     */
+    void recordAll(final StandardPlayfieldSnapshot later) {
+        later.originals.forEach(this::recordOriginal);
+        later.states.forEach(this.states::putIfAbsent);
+    }
+    
+    Map<Entity, Position> getOriginals() {
+        return this.originals;
+    }
+    
+    Map<RestorableEntity, Object> getStates() {
+        return this.states;
+    }
+    
+    void invalidate() {
+        this.valid = false;
+        this.originals.clear();
+        this.states.clear();
+    }
+    
+    @Override
+    public boolean isValid() {
+        return this.valid;
+    }
+    
+    @Override
+    public void discard() {
+        this.playfield.discard(this);
+    }
+}
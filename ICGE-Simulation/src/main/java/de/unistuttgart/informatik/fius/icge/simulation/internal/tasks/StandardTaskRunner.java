@@ -9,11 +9,22 @@
  */
 package de.unistuttgart.informatik.fius.icge.simulation.internal.tasks;
 
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import de.unistuttgart.informatik.fius.icge.log.Logger;
+import de.unistuttgart.informatik.fius.icge.simulation.PlayfieldSnapshot;
 import de.unistuttgart.informatik.fius.icge.simulation.Simulation;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
 import de.unistuttgart.informatik.fius.icge.simulation.tasks.Task;
 
 
@@ -27,6 +38,15 @@ public class StandardTaskRunner {
     private final Task       taskToRun;
     private final Simulation sim;
     
+    /** Whether to keep the state after preparing the task; see {@link #runRestartableTask()} */
+    private volatile boolean                    restartable;
+    /** The state of the simulation after preparing the task; null until the task is prepared */
+    private volatile PreparedState              prepared;
+    /** The current run of the task; null until the task is run */
+    private volatile CompletableFuture<Boolean> run;
+    /** Whether the run was stopped by {@link #stopTask(long)} and can be restarted */
+    private volatile boolean                    stopped;
+    
     /**
      * Create a new task runner.
      * 
@@ -47,25 +67,126 @@ public class StandardTaskRunner {
      * @return true if the task was completed successfully and the solution could be verified
      */
     public CompletableFuture<Boolean> runTask() {
-        CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(this::executeTask);
+        CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> this.executeTask(true));
+        this.run = future;
+        return future;
+    }
+    
+    /**
+     * Run the given task with the given executor and verify the solution.
+     *
+     * @param executor
+     *     The executor to run the task with; must not be null
+     * @return true if the task was completed successfully and the solution could be verified
+     */
+    public CompletableFuture<Boolean> runTask(final Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("The given executor is null.");
+        final CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> this.executeTask(true), executor);
+        this.run = future;
+        return future;
+    }
+    
+    /**
+     * Run the given task like {@link #runTask()} and keep the state of the simulation after the task was prepared, so
+     * the task can be restarted with {@link #stopTask(long)} and {@link #restartTask()}.
+     * 
+     * @return true if the task was completed successfully and the solution could be verified
+     * @throws IllegalStateException
+     *     if the simulation of this runner is not a {@link StandardSimulation}
+     */
+    public CompletableFuture<Boolean> runRestartableTask() {
+        if (
+            !(this.sim instanceof StandardSimulation)
+        ) throw new IllegalStateException("Only tasks of a standard simulation can be restarted.");
+        this.restartable = true;
+        return this.runTask();
+    }
+    
+    /**
+     * Stop the run of the task and all entity programs, so the task can be restarted.
+     * <p>
+     * The clock of the simulation cancels all operations, so the task and the programs stop at their next operation.
+     * </p>
+     * 
+     * @param timeoutMillis
+     *     How long to wait for the task and for the programs at most
+     * @return whether the task can be restarted: it was run by {@link #runRestartableTask()}, it was prepared and it
+     *     stopped in time together with all programs; if not, the simulation cannot be used any more
+     */
+    public boolean stopTask(final long timeoutMillis) {
+        final CompletableFuture<Boolean> currentRun = this.run;
+        if ((this.prepared == null) || (currentRun == null)) return false;
+        final StandardSimulation simulation = (StandardSimulation) this.sim;
+        simulation.getSimulationClock().cancelOperations();
+        //a task waiting for a program gets a CancellationException
+        simulation.getEntityProgramRunner().forceStop();
+        try {
+            currentRun.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (@SuppressWarnings("unused") final TimeoutException e) {
+            return false;
+        } catch (@SuppressWarnings("unused") final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (@SuppressWarnings("unused") final ExecutionException | CancellationException e) {
+            //the run has ended anyway
+        }
+        //the task is done, so it cannot start new programs while waiting for the programs
+        if (!simulation.getEntityProgramRunner().reset(timeoutMillis)) return false;
+        this.flushActionLog();
+        this.stopped = true;
+        return true;
+    }
+    
+    /**
+     * Run the task again from the state after it was prepared, without preparing it again.
+     * <p>
+     * The playfield is restored from a snapshot taken after the task was prepared and the action log is reset to the
+     * actions logged until then. The clock starts at the first tick again and the programs started while preparing the
+     * task are run again. The simulation and the entities stay the same objects, so the fields set by
+     * {@link Task#prepare(Simulation)} stay valid; other fields of the task are not reset.
+     * </p>
+     * 
+     * @return true if the task was completed successfully and the solution could be verified
+     * @throws IllegalStateException
+     *     if the task was not stopped by {@link #stopTask(long)} before
+     */
+    public CompletableFuture<Boolean> restartTask() {
+        if (!this.stopped) throw new IllegalStateException("The task was not stopped for a restart.");
+        this.stopped = false;
+        final PreparedState state = this.prepared;
+        final StandardSimulation simulation = (StandardSimulation) this.sim;
+        simulation.getSimulationClock().reset();
+        simulation.getActionLog().reset(state.actions);
+        simulation.getPlayfield().restore(state.snapshot);
+        state.programs.forEach((entity, program) -> simulation.getEntityProgramRunner().run(program, entity));
         
+        final CompletableFuture<Boolean> future = CompletableFuture.supplyAsync(() -> this.executeTask(false));
+        this.run = future;
         return future;
     }
     
-    private boolean executeTask() {
+    private boolean executeTask(final boolean prepare) {
+        final PrintStream simout = this.sim.getLogContext().getSimulationOutput();
+        final PrintStream simerror = this.sim.getLogContext().getSimulationError();
         try {
-            this.taskToRun.prepare(this.sim);
+            if (prepare) {
+                this.taskToRun.prepare(this.sim);
+                if (this.restartable) {
+                    this.prepared = new PreparedState((StandardSimulation) this.sim);
+                }
+            }
             this.taskToRun.solve();
             
             boolean verified = this.taskToRun.verify();
+            this.flushActionLog();
             if (verified) {
-                Logger.simout.println("----------------------------------------------");
-                Logger.simout.println("Task completed successfully");
-                Logger.simout.println("----------------------------------------------");
+                simout.println("----------------------------------------------");
+                simout.println("Task completed successfully");
+                simout.println("----------------------------------------------");
             } else {
-                Logger.simout.println("----------------------------------------------");
-                Logger.simout.println("Task failed");
-                Logger.simout.println("----------------------------------------------");
+                simout.println("----------------------------------------------");
+                simout.println("Task failed");
+                simout.println("----------------------------------------------");
             }
             return verified;
         } catch (@SuppressWarnings("unused") CancellationException e) {
@@ -75,11 +196,37 @@ public class StandardTaskRunner {
             //TODO: If a way is added to see/use the log messages of an old simulation we need to fix this
             return false;
         } catch (Exception e) {
-            Logger.simout.println("----------------------------------------------");
-            Logger.simout.println("The following exception caused a task failure:");
-            e.printStackTrace(Logger.simerror);
-            Logger.simout.println("----------------------------------------------");
+            this.flushActionLog();
+            simout.println("----------------------------------------------");
+            simout.println("The following exception caused a task failure:");
+            e.printStackTrace(simerror);
+            simout.println("----------------------------------------------");
             return false;
         }
     }
+    
+    /**
+     * The actions are printed asynchronously; print them before the result of the task.
+     */
+    private void flushActionLog() {
+        if (this.sim.getActionLog() instanceof StandardActionLog) {
+            ((StandardActionLog) this.sim.getActionLog()).flush();
+        }
+    }
+    
+    /**
+     * The state of a simulation after a task was prepared.
+     */
+    private static final class PreparedState {
+        
+        private final PlayfieldSnapshot   snapshot;
+        private final List<Action>        actions;
+        private final Map<Entity, String> programs;
+        
+        private PreparedState(final StandardSimulation simulation) {
+            this.snapshot = simulation.getPlayfield().snapshot();
+            this.actions = simulation.getActionLog().getAllActions();
+            this.programs = simulation.getEntityProgramRunner().getProgramNames();
+        }
+    }
 }
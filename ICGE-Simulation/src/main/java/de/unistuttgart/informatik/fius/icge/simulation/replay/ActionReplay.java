@@ -0,0 +1,202 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionQueryResult;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * Rebuilds the state of a playfield at any tick from recorded actions.
+ * <p>
+ * The spawn, despawn, move, turn, collect and drop actions describe every change of the playfield, so a replay applies
+ * them to a {@link ReplayState} without running entity programs or a clock. While the actions are read once, copies of
+ * the state are kept as keyframes; seeking starts from the closest keyframe or from the current state, whichever is
+ * closer. A keyframe is taken after at least {@value #MIN_KEYFRAME_DISTANCE} actions and at least as many actions as
+ * there are entities, so the keyframes never take more memory than the actions themselves.
+ * </p>
+ * <p>
+ * The entities in the actions are the entities of the recorded simulation; they are only used as keys and are not
+ * changed. This class is not thread safe.
+ * </p>
+ */
+public class ActionReplay {
+    
+    /** The minimum number of actions between two keyframes */
+    public static final int MIN_KEYFRAME_DISTANCE = 4096;
+    
+    private final Action[]               actions;
+    private final long[]                 ticks;
+    private final boolean                complete;
+    private final Map<Entity, Direction> initialDirections = new IdentityHashMap<>();
+    private final List<Keyframe>         keyframes         = new ArrayList<>();
+    
+    private ReplayState current;
+    /** The number of actions applied to the current state */
+    private int         currentIndex;
+    
+    /**
+     * Create a replay of all actions of the given log.
+     *
+     * @param log
+     *     the log; must not be null
+     * @return the replay
+     */
+    public static ActionReplay of(final ActionLog log) {
+        if (log == null) throw new IllegalArgumentException("The given log is null.");
+        return new ActionReplay(log.getAllActions());
+    }
+    
+    /**
+     * Create a new replay of the given actions.
+     *
+     * @param actions
+     *     The actions to replay; they are ordered by their tick number, actions of the same tick keep their order; must
+     *     not be null
+     */
+    public ActionReplay(final List<? extends Action> actions) {
+        if (actions == null) throw new IllegalArgumentException("The given actions are null.");
+        this.actions = actions.toArray(new Action[0]);
+        Arrays.sort(this.actions, Comparator.comparingLong(Action::getTickNumber));
+        this.ticks = new long[this.actions.length];
+        this.complete = !(actions instanceof ActionQueryResult) || ((ActionQueryResult<?>) actions).isComplete();
+        
+        final ReplayState state = new ReplayState(this.initialDirections);
+        this.keyframes.add(new Keyframe(0, state.copy()));
+        int lastKeyframe = 0;
+        for (int index = 0; index < this.actions.length; index++) {
+            final Action action = this.actions[index];
+            this.ticks[index] = action.getTickNumber();
+            if (action instanceof EntityTurnAction) {
+                this.initialDirections.putIfAbsent(((EntityTurnAction) action).getEntity(), ((EntityTurnAction) action).from());
+            }
+            state.apply(action);
+            final int distance = (index + 1) - lastKeyframe;
+            if ((distance >= ActionReplay.MIN_KEYFRAME_DISTANCE) && (distance >= state.size())) {
+                state.setTick(action.getTickNumber());
+                lastKeyframe = index + 1;
+                this.keyframes.add(new Keyframe(lastKeyframe, state.copy()));
+            }
+        }
+        this.current = this.keyframes.get(0).state.copy();
+        this.currentIndex = 0;
+    }
+    
+    /**
+     * @return the number of replayed actions
+     */
+    public int getActionCount() {
+        return this.actions.length;
+    }
+    
+    /**
+     * @return the tick of the first action or {@link Long#MIN_VALUE} if there are no actions
+     */
+    public long getFirstTick() {
+        return this.ticks.length == 0 ? Long.MIN_VALUE : this.ticks[0];
+    }
+    
+    /**
+     * @return the tick of the last action or {@link Long#MIN_VALUE} if there are no actions
+     */
+    public long getLastTick() {
+        return this.ticks.length == 0 ? Long.MIN_VALUE : this.ticks[this.ticks.length - 1];
+    }
+    
+    /**
+     * Check whether the replayed actions start with the start of the simulation.
+     * <p>
+     * If the log removed old actions, entities which did not act after that are missing from the states.
+     * </p>
+     *
+     * @return whether no action was removed from the replayed log
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+    
+    /**
+     * Get the state of the playfield after all actions of the given tick.
+     * <p>
+     * The returned state is changed by the next call of this method; use {@link ReplayState#copy()} to keep it.
+     * </p>
+     *
+     * @param tick
+     *     the tick
+     * @return the state at the end of the tick
+     */
+    public ReplayState seek(final long tick) {
+        final int target = this.indexAfter(tick);
+        final Keyframe keyframe = this.keyframeBefore(target);
+        if ((this.currentIndex > target) || (this.currentIndex < keyframe.index)) {
+            this.current = keyframe.state.copy();
+            this.currentIndex = keyframe.index;
+        }
+        while (this.currentIndex < target) {
+            this.current.apply(this.actions[this.currentIndex++]);
+        }
+        this.current.setTick(tick);
+        return this.current;
+    }
+    
+    /**
+     * @return the number of actions with a tick number {@code <=} the given one
+     */
+    private int indexAfter(final long tick) {
+        int low = 0;
+        int high = this.ticks.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.ticks[middle] <= tick) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    private Keyframe keyframeBefore(final int index) {
+        int low = 0;
+        int high = this.keyframes.size() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (this.keyframes.get(middle).index <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return this.keyframes.get(low);
+    }
+    
+    private static class Keyframe {
+        
+        /** The number of actions applied to the state */
+        private final int         index;
+        private final ReplayState state;
+        
+        private Keyframe(final int index, final ReplayState state) {
+            this.index = index;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.replay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.unistuttgart.informatik.fius.icge.simulation.Direction;
+import de.unistuttgart.informatik.fius.icge.simulation.Position;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityMoveAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+
+
+/**
+ * The state of a playfield rebuilt from actions by an {@link ActionReplay}.
+ * <p>
+ * It contains the positions and looking directions of the entities and what they collected, as far as the actions tell.
+ * The entities are indexed by their position like on a playfield. The entities themselves are not changed by a replay.
+ * </p>
+ */
+public class ReplayState {
+    
+    private final Map<Entity, Direction> initialDirections;
+    
+    private long                                       tick;
+    private final Map<Entity, Position>                positions;
+    /** The entities at every occupied position, in the order they arrived there */
+    private final Map<Position, List<Entity>>          entitiesAt;
+    private final Map<Entity, Direction>               directions;
+    private final Map<Entity, List<CollectableEntity>> inventories;
+    
+    ReplayState(final Map<Entity, Direction> initialDirections) {
+        this.initialDirections = initialDirections;
+        this.tick = Long.MIN_VALUE;
+        this.positions = new IdentityHashMap<>();
+        this.entitiesAt = new HashMap<>();
+        this.directions = new IdentityHashMap<>();
+        this.inventories = new IdentityHashMap<>();
+    }
+    
+    private ReplayState(final ReplayState state) {
+        this.initialDirections = state.initialDirections;
+        this.tick = state.tick;
+        this.positions = new IdentityHashMap<>(state.positions);
+        this.entitiesAt = new HashMap<>(state.entitiesAt.size() * 2);
+        for (final Map.Entry<Position, List<Entity>> cell : state.entitiesAt.entrySet()) {
+            this.entitiesAt.put(cell.getKey(), new ArrayList<>(cell.getValue()));
+        }
+        this.directions = new IdentityHashMap<>(state.directions);
+        this.inventories = new IdentityHashMap<>(state.inventories.size());
+        for (final Map.Entry<Entity, List<CollectableEntity>> inventory : state.inventories.entrySet()) {
+            this.inventories.put(inventory.getKey(), new ArrayList<>(inventory.getValue()));
+        }
+    }
+    
+    /**
+     * @return an independent copy of this state
+     */
+    public ReplayState copy() {
+        return new ReplayState(this);
+    }
+    
+    /**
+     * Change this state by the given action.
+     */
+    void apply(final Action action) {
+        if (action instanceof EntitySpawnAction) {
+            final EntitySpawnAction spawn = (EntitySpawnAction) action;
+            this.moveTo(spawn.getEntity(), spawn.getPosition());
+        } else if (action instanceof EntityDespawnAction) {
+            this.moveTo(((EntityDespawnAction) action).getEntity(), null);
+        } else if (action instanceof EntityMoveAction) {
+            final EntityMoveAction move = (EntityMoveAction) action;
+            this.moveTo(move.getEntity(), move.to());
+        } else if (action instanceof EntityTurnAction) {
+            final EntityTurnAction turn = (EntityTurnAction) action;
+            this.directions.put(turn.getEntity(), turn.to());
+        } else if (action instanceof EntityCollectAction) {
+            final EntityCollectAction collect = (EntityCollectAction) action;
+            this.inventories.computeIfAbsent(collect.getEntity(), unused -> new ArrayList<>()).add(collect.getCollectedEntity());
+        } else if (action instanceof EntityDropAction) {
+            final EntityDropAction drop = (EntityDropAction) action;
+            final List<CollectableEntity> inventory = this.inventories.get(drop.getEntity());
+            if (inventory != null) {
+                inventory.remove(drop.getDroppedEntity());
+            }
+        }
+    }
+    
+    /**
+     * Set the position of the given entity; null removes it from the playfield.
+     */
+    private void moveTo(final Entity entity, final Position pos) {
+        final Position oldPos = pos == null ? this.positions.remove(entity) : this.positions.put(entity, pos);
+        if (oldPos != null) {
+            final List<Entity> atOldPos = this.entitiesAt.get(oldPos);
+            atOldPos.removeIf(other -> other == entity);
+            if (atOldPos.isEmpty()) {
+                this.entitiesAt.remove(oldPos);
+            }
+        }
+        if (pos != null) {
+            this.entitiesAt.computeIfAbsent(pos, unused -> new ArrayList<>()).add(entity);
+        }
+    }
+    
+    void setTick(final long tick) {
+        this.tick = tick;
+    }
+    
+    /**
+     * @return the tick this state belongs to
+     */
+    public long getTick() {
+        return this.tick;
+    }
+    
+    /**
+     * @return the number of entities on the playfield
+     */
+    public int size() {
+        return this.positions.size();
+    }
+    
+    /**
+     * @return all entities on the playfield
+     */
+    public List<Entity> getEntities() {
+        return new ArrayList<>(this.positions.keySet());
+    }
+    
+    /**
+     * Get the position of the given entity.
+     *
+     * @param entity
+     *     the entity
+     * @return the position or null if the entity is not on the playfield
+     */
+    public Position getPosition(final Entity entity) {
+        return this.positions.get(entity);
+    }
+    
+    /**
+     * Check whether the given entity is on the playfield.
+     *
+     * @param entity
+     *     the entity
+     * @return whether the entity is on the playfield
+     */
+    public boolean containsEntity(final Entity entity) {
+        return this.positions.containsKey(entity);
+    }
+    
+    /**
+     * Get all entities at the given position.
+     *
+     * @param pos
+     *     the position
+     * @return the entities at the position, in the order they arrived there
+     */
+    public List<Entity> getEntitiesAt(final Position pos) {
+        if (pos == null) throw new IllegalArgumentException("The given pos is null.");
+        final List<Entity> entities = this.entitiesAt.get(pos);
+        return entities == null ? new ArrayList<>() : new ArrayList<>(entities);
+    }
+    
+    /**
+     * Get the looking direction of the given entity.
+     *
+     * @param entity
+     *     the entity
+     * @return the direction or null if the entity never turned in the replayed actions
+     */
+    public Direction getLookingDirection(final Entity entity) {
+        final Direction direction = this.directions.get(entity);
+        return direction == null ? this.initialDirections.get(entity) : direction;
+    }
+    
+    /**
+     * Get the entities collected and not yet dropped by the given entity.
+     *
+     * @param collector
+     *     the collecting entity
+     * @return the collected entities
+     */
+    public List<CollectableEntity> getCollectedEntities(final Entity collector) {
+        final List<CollectableEntity> inventory = this.inventories.get(collector);
+        return inventory == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(inventory));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation.tasks;
+
+import java.time.Duration;
+
+
+/**
+ * The result of running one task in its own simulation.
+ */
+public final class TaskRunResult {
+    
+    private final Task     task;
+    private final boolean  successful;
+    private final long     tickCount;
+    private final Duration wallTime;
+    private final String   output;
+    
+    /**
+     * Create a new result.
+     *
+     * @param task
+     *     The task that was run; must not be null
+     * @param successful
+     *     Whether the task was verified successfully
+     * @param tickCount
+     *     The number of simulation ticks the run took
+     * @param wallTime
+     *     The real time the run took; must not be null
+     * @param output
+     *     The simulation output and simulation errors of the run; must not be null
+     */
+    public TaskRunResult(final Task task, final boolean successful, final long tickCount, final Duration wallTime, final String output) {
+        if (task == null) throw new IllegalArgumentException("The given task is null.");
+        if (wallTime == null) throw new IllegalArgumentException("The given wall time is null.");
+        if (output == null) throw new IllegalArgumentException("The given output is null.");
+        this.task = task;
+        this.successful = successful;
+        this.tickCount = tickCount;
+        this.wallTime = wallTime;
+        this.output = output;
+    }
+    
+    /**
+     * @return the task that was run
+     */
+    public Task getTask() {
+        return this.task;
+    }
+    
+    /**
+     * @return the result of {@link Task#verify()}; false if the task failed with an exception
+     */
+    public boolean isSuccessful() {
+        return this.successful;
+    }
+    
+    /**
+     * @return the number of simulation ticks the run took
+     */
+    public long getTickCount() {
+        return this.tickCount;
+    }
+    
+    /**
+     * @return the real time the run took, including preparing and verifying the task
+     */
+    public Duration getWallTime() {
+        return this.wallTime;
+    }
+    
+    /**
+     * @return everything the simulation of the run wrote to its simulation output and simulation error logger
+     */
+    public String getOutput() {
+        return this.output;
+    }
+    
+    @Override
+    public String toString() {
+        return "TaskRunResult[" + (this.successful ? "passed" : "failed") + ", " + this.tickCount + " ticks, " + this.wallTime.toMillis()
+                + "ms]";
+    }
+}
@@ -9,7 +9,7 @@
  */
 module de.unistuttgart.informatik.fius.icge.simulation {
     requires transitive de.unistuttgart.informatik.fius.icge.ui;
-    requires de.unistuttgart.informatik.fius.icge.log;
+    requires transitive de.unistuttgart.informatik.fius.icge.log;
     
     exports de.unistuttgart.informatik.fius.icge.simulation;
     exports de.unistuttgart.informatik.fius.icge.simulation.entity;
@@ -18,4 +18,5 @@ module de.unistuttgart.informatik.fius.icge.simulation {
     exports de.unistuttgart.informatik.fius.icge.simulation.tasks;
     exports de.unistuttgart.informatik.fius.icge.simulation.actions;
     exports de.unistuttgart.informatik.fius.icge.simulation.inspection;
+    exports de.unistuttgart.informatik.fius.icge.simulation.replay;
 }
@@ -0,0 +1,255 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionJournalReader;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionRecord;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.ActionJournalWriter;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.JournalActionLog;
+
+
+/**
+ * Test class for the {@link ActionJournalWriter}, the {@link ActionJournalReader} and the {@link JournalActionLog}
+ */
+class ActionJournalTest {
+    
+    /**
+     * An action class unknown to the journal, which is recorded with its description.
+     */
+    private static class CustomAction extends Action {
+        
+        private final String description;
+        
+        private CustomAction(final long tickNumber, final String description) {
+            super(tickNumber);
+            this.description = description;
+        }
+        
+        @Override
+        public String getDescription() {
+            return this.description;
+        }
+    }
+    
+    private Path file;
+    
+    @BeforeEach
+    void createFile() throws IOException {
+        this.file = Files.createTempFile("icge-journal", ".bin");
+    }
+    
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+    
+    /**
+     * Write step actions of one entity, with a custom action after every 100 actions, so string records are interleaved
+     * with the action records.
+     *
+     * @return the ticks of the written actions in the order they were written
+     */
+    private List<Long> writeSteps(final ActionJournalWriter writer, final int count) throws IOException {
+        final TestEntity entity = new TestEntity();
+        final List<Long> ticks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            //two actions per tick
+            final long tick = i / 2;
+            if ((i % 100) == 0) {
+                writer.write(new CustomAction(tick, "custom action " + i));
+            } else {
+                writer.write(new EntityStepAction(tick, entity, Position.of(i, 0), Position.of(i + 1, 0)));
+            }
+            ticks.add(tick);
+        }
+        return ticks;
+    }
+    
+    /**
+     * Test that all kinds of actions are read back as they were logged
+     *
+     * @throws IOException
+     *     if the journal cannot be written or read
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        final TestEntity entity = new TestEntity();
+        final TestEntity.CollectableTestEntity coin = new TestEntity.CollectableTestEntity();
+        //long enough to be continued across several records, with multi-byte characters on the record boundaries
+        final String longDescription = "a" + "Ü".repeat(17) + "€𝄞 a description of a custom action which does not fit into one record";
+        final JournalActionLog log = new JournalActionLog(this.file);
+        final Playfield playfield = StandardSimulation.createSimulation(log).getPlayfield();
+        final List<Action> logged = List.of(
+                new EntitySpawnAction(1, entity, playfield, Position.of(0, 0)), new EntityStepAction(2, entity, Position.of(0, 0), Position.of(1, 0)), new EntityTeleportAction(3, entity, Position.of(1, 0), Position.of(-5, 9)), new EntityTurnAction(4, entity, Direction.EAST, Direction.SOUTH), new CustomAction(5, longDescription), new EntityCollectAction(6, entity, coin, Position.of(-5, 9), Position.of(-5, 9)), new CustomAction(7, ""), new EntityDropAction(8, entity, coin, Position.of(-5, 9), Position.of(-4, 9)), new EntityDespawnAction(9, entity, playfield)
+        );
+        for (final Action action : logged) {
+            log.logAction(action);
+        }
+        log.close();
+        //actions logged after closing are not written
+        log.logAction(new CustomAction(10, "not written"));
+        
+        try (ActionJournalReader reader = new ActionJournalReader(this.file)) {
+            final List<ActionRecord> records = reader.stream().collect(Collectors.toList());
+            Assertions.assertEquals(logged.size(), records.size());
+            for (int i = 0; i < logged.size(); i++) {
+                Assertions.assertEquals(logged.get(i).getTickNumber(), records.get(i).getTick());
+                Assertions.assertEquals(logged.get(i).getClass().getName(), records.get(i).getActionType());
+            }
+            final int entityId = records.get(0).getEntityId();
+            for (final ActionRecord record : records) {
+                if (record.getKind() != ActionRecord.Kind.OTHER) {
+                    Assertions.assertEquals(entityId, record.getEntityId());
+                    Assertions.assertEquals(TestEntity.class.getName(), record.getEntityType());
+                } else {
+                    Assertions.assertEquals(-1, record.getEntityId());
+                    Assertions.assertNull(record.getEntityType());
+                }
+            }
+            
+            Assertions.assertEquals(ActionRecord.Kind.SPAWN, records.get(0).getKind());
+            Assertions.assertNull(records.get(0).getFrom());
+            Assertions.assertEquals(Position.of(0, 0), records.get(0).getTo());
+            Assertions.assertEquals(Position.of(0, 0), records.get(1).getFrom());
+            Assertions.assertEquals(Position.of(1, 0), records.get(1).getTo());
+            Assertions.assertEquals(ActionRecord.Kind.TELEPORT, records.get(2).getKind());
+            Assertions.assertEquals(Position.of(-5, 9), records.get(2).getTo());
+            Assertions.assertEquals(Direction.EAST, records.get(3).getFromDirection());
+            Assertions.assertEquals(Direction.SOUTH, records.get(3).getToDirection());
+            Assertions.assertEquals(longDescription, records.get(4).getDescription());
+            Assertions.assertEquals(CustomAction.class.getName(), records.get(4).getActionType());
+            Assertions.assertNotEquals(entityId, records.get(5).getOtherEntityId());
+            Assertions.assertEquals(TestEntity.CollectableTestEntity.class.getName(), records.get(5).getOtherEntityType());
+            Assertions.assertEquals("", records.get(6).getDescription());
+            Assertions.assertEquals(records.get(5).getOtherEntityId(), records.get(7).getOtherEntityId());
+            Assertions.assertEquals(Position.of(-4, 9), records.get(7).getTo());
+            Assertions.assertNull(records.get(8).getTo());
+            Assertions.assertNull(records.get(8).getDescription());
+        }
+    }
+    
+    /**
+     * Test that the tick index of a journal which was not closed is rebuilt and used for tick queries across blocks
+     *
+     * @throws IOException
+     *     if the journal cannot be written or read
+     */
+    @Test
+    void testUnclosedJournal() throws IOException {
+        final int count = (3 * ActionJournalReader.INDEX_BLOCK_SIZE) + 500;
+        final ActionJournalWriter writer = new ActionJournalWriter(this.file);
+        try {
+            final List<Long> ticks = this.writeSteps(writer, count);
+            //the writer is not closed, like after a crash of the simulation
+            try (ActionJournalReader reader = new ActionJournalReader(this.file)) {
+                Assertions.assertEquals(writer.getRecordCount(), reader.getRecordCount());
+                Assertions.assertEquals(ticks, reader.stream().map(ActionRecord::getTick).collect(Collectors.toList()));
+                
+                final long from = (ActionJournalReader.INDEX_BLOCK_SIZE / 2) - 10;
+                final long to = ActionJournalReader.INDEX_BLOCK_SIZE + 10;
+                final List<Long> expected = ticks.stream().filter(tick -> (tick >= from) && (tick <= to)).collect(Collectors.toList());
+                Assertions.assertEquals(
+                        expected, reader.streamBetweenTicks(from, to).map(ActionRecord::getTick).collect(Collectors.toList())
+                );
+                Assertions.assertEquals("custom action 100", reader.streamBetweenTicks(50, 50).findFirst().get().getDescription());
+            }
+        } finally {
+            writer.close();
+        }
+    }
+    
+    /**
+     * Test tick queries across the blocks of the tick index written when closing the journal
+     *
+     * @throws IOException
+     *     if the journal cannot be written or read
+     */
+    @Test
+    void testStreamBetweenTicks() throws IOException {
+        final int count = (4 * ActionJournalReader.INDEX_BLOCK_SIZE) + 1;
+        final List<Long> ticks;
+        try (ActionJournalWriter writer = new ActionJournalWriter(this.file)) {
+            ticks = this.writeSteps(writer, count);
+        }
+        try (ActionJournalReader reader = new ActionJournalReader(this.file)) {
+            final long[][] ranges = { { 0, 0 }, { 2000, 2100 }, { 1000, 7000 }, { count / 2, count / 2 }, { -10, -1 },
+                    { count, Long.MAX_VALUE }, { Long.MIN_VALUE, Long.MAX_VALUE } };
+            for (final long[] range : ranges) {
+                final List<Long> expected = ticks.stream().filter(tick -> (tick >= range[0]) && (tick <= range[1]))
+                        .collect(Collectors.toList());
+                Assertions.assertEquals(
+                        expected, reader.streamBetweenTicks(range[0], range[1]).map(ActionRecord::getTick).collect(Collectors.toList())
+                );
+            }
+        }
+    }
+    
+    /**
+     * Test that split spliterators together return every action once and in order
+     *
+     * @throws IOException
+     *     if the journal cannot be written or read
+     */
+    @Test
+    void testTrySplit() throws IOException {
+        final int count = 10_000;
+        try (ActionJournalWriter writer = new ActionJournalWriter(this.file)) {
+            this.writeSteps(writer, count);
+        }
+        try (ActionJournalReader reader = new ActionJournalReader(this.file)) {
+            final List<Long> all = reader.stream().map(ActionRecord::getIndex).collect(Collectors.toList());
+            Assertions.assertEquals(count, all.size());
+            
+            final Spliterator<ActionRecord> suffix = reader.spliterator();
+            final long size = suffix.estimateSize();
+            final Spliterator<ActionRecord> prefix = suffix.trySplit();
+            Assertions.assertNotNull(prefix);
+            Assertions.assertEquals(size, prefix.estimateSize() + suffix.estimateSize());
+            final List<Long> joined = new ArrayList<>();
+            prefix.forEachRemaining(record -> joined.add(record.getIndex()));
+            suffix.forEachRemaining(record -> joined.add(record.getIndex()));
+            Assertions.assertEquals(all, joined);
+            
+            //small spliterators are not split
+            final Spliterator<ActionRecord> small = reader.spliterator();
+            while (small.estimateSize() >= 2048) {
+                Assertions.assertNotNull(small.trySplit());
+            }
+            Assertions.assertNull(small.trySplit());
+            
+            Assertions.assertEquals(
+                    all, StreamSupport.stream(reader.spliterator(), true).map(ActionRecord::getIndex).collect(Collectors.toList())
+            );
+        }
+    }
+}
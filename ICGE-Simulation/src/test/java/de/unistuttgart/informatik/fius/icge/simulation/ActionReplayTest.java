@@ -0,0 +1,211 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLogRetention;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
+import de.unistuttgart.informatik.fius.icge.simulation.replay.ActionReplay;
+import de.unistuttgart.informatik.fius.icge.simulation.replay.ReplayState;
+
+
+/**
+ * Test class for the {@link ActionReplay} and the {@link ReplayState}
+ */
+class ActionReplayTest {
+    
+    /**
+     * The positions and looking directions expected at the end of a tick.
+     */
+    private static class Expected {
+        
+        private final long                       tick;
+        private final Map<TestEntity, Position>  positions;
+        private final Map<TestEntity, Direction> directions;
+        
+        private Expected(final long tick, final Map<TestEntity, Position> positions, final Map<TestEntity, Direction> directions) {
+            this.tick = tick;
+            this.positions = new IdentityHashMap<>(positions);
+            this.directions = new IdentityHashMap<>(directions);
+        }
+    }
+    
+    /**
+     * Test seeking forward and backward across the keyframes against the states tracked while creating the actions
+     */
+    @Test
+    void testSeek() {
+        final Random random = new Random(42);
+        final Playfield playfield = StandardSimulation.createSimulation().getPlayfield();
+        final List<TestEntity> entities = new ArrayList<>();
+        final Map<TestEntity, Position> positions = new IdentityHashMap<>();
+        final Map<TestEntity, Direction> directions = new IdentityHashMap<>();
+        final List<Action> actions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final TestEntity entity = new TestEntity();
+            entities.add(entity);
+            positions.put(entity, Position.of(i % 4, 0));
+            actions.add(new EntitySpawnAction(0, entity, playfield, Position.of(i % 4, 0)));
+        }
+        
+        final List<Expected> expected = new ArrayList<>();
+        expected.add(new Expected(0, positions, directions));
+        final int count = (3 * ActionReplay.MIN_KEYFRAME_DISTANCE) + 100;
+        for (int tick = 1; tick <= count; tick++) {
+            //some ticks have no actions, others several
+            for (int i = random.nextInt(3); i > 0; i--) {
+                final TestEntity entity = entities.get(random.nextInt(entities.size()));
+                final Position pos = positions.get(entity);
+                final int choice = random.nextInt(100);
+                if (pos == null) {
+                    final Position spawnPos = Position.of(random.nextInt(4), random.nextInt(4));
+                    actions.add(new EntitySpawnAction(tick, entity, playfield, spawnPos));
+                    positions.put(entity, spawnPos);
+                } else if (choice < 45) {
+                    final Position to = Position.of(Math.floorMod(pos.getX() + 1, 4), pos.getY());
+                    actions.add(new EntityStepAction(tick, entity, pos, to));
+                    positions.put(entity, to);
+                } else if (choice < 50) {
+                    final Position to = Position.of(random.nextInt(4), random.nextInt(4));
+                    actions.add(new EntityTeleportAction(tick, entity, pos, to));
+                    positions.put(entity, to);
+                } else if (choice < 95) {
+                    final Direction from = directions.getOrDefault(entity, Direction.EAST);
+                    actions.add(new EntityTurnAction(tick, entity, from, from.clockWiseNext()));
+                    directions.put(entity, from.clockWiseNext());
+                } else {
+                    actions.add(new EntityDespawnAction(tick, entity, playfield));
+                    positions.remove(entity);
+                }
+            }
+            if ((random.nextInt(50) == 0) || (tick == count)) {
+                expected.add(new Expected(tick, positions, directions));
+            }
+        }
+        
+        final ActionReplay replay = new ActionReplay(actions);
+        Assertions.assertEquals(actions.size(), replay.getActionCount());
+        Assertions.assertEquals(0, replay.getFirstTick());
+        Assertions.assertTrue(replay.isComplete());
+        final List<Expected> order = new ArrayList<>(expected);
+        Collections.shuffle(order, random);
+        //seek forward in order, then backward and jumping
+        order.addAll(0, expected);
+        for (final Expected state : order) {
+            final ReplayState replayed = replay.seek(state.tick);
+            Assertions.assertEquals(state.tick, replayed.getTick());
+            Assertions.assertEquals(state.positions.size(), replayed.size());
+            for (final TestEntity entity : entities) {
+                Assertions.assertEquals(state.positions.get(entity), replayed.getPosition(entity));
+                if (state.directions.containsKey(entity)) {
+                    Assertions.assertEquals(state.directions.get(entity), replayed.getLookingDirection(entity));
+                }
+            }
+            for (int x = 0; x < 4; x++) {
+                for (int y = 0; y < 4; y++) {
+                    final Position pos = Position.of(x, y);
+                    final List<TestEntity> at = new ArrayList<>();
+                    state.positions.forEach((entity, entityPos) -> {
+                        if (entityPos.equals(pos)) {
+                            at.add(entity);
+                        }
+                    });
+                    final List<?> replayedAt = replayed.getEntitiesAt(pos);
+                    Assertions.assertEquals(at.size(), replayedAt.size());
+                    Assertions.assertTrue(replayedAt.containsAll(at));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test the positions, looking directions and inventories of a short replay and that a kept state is not changed
+     */
+    @Test
+    void testState() {
+        final Playfield playfield = StandardSimulation.createSimulation().getPlayfield();
+        final TestEntity entity = new TestEntity();
+        final TestEntity other = new TestEntity();
+        final TestEntity.CollectableTestEntity coin = new TestEntity.CollectableTestEntity();
+        final ActionReplay replay = new ActionReplay(
+                List.of(new EntitySpawnAction(0, entity, playfield, Position.of(0, 0)), new EntitySpawnAction(0, coin, playfield, Position.of(1, 0)), new EntitySpawnAction(1, other, playfield, Position.of(1, 0)), new EntityTurnAction(2, entity, Direction.EAST, Direction.SOUTH), new EntityStepAction(3, entity, Position.of(0, 0), Position.of(1, 0)), new EntityCollectAction(4, entity, coin, Position.of(1, 0), Position.of(1, 0)), new EntityDespawnAction(4, coin, playfield), new EntityDropAction(6, entity, coin, Position.of(1, 0), Position.of(1, 1)), new EntitySpawnAction(6, coin, playfield, Position.of(1, 1)))
+        );
+        
+        final ReplayState start = replay.seek(0).copy();
+        Assertions.assertEquals(Direction.EAST, start.getLookingDirection(entity));
+        Assertions.assertNull(start.getLookingDirection(other));
+        Assertions.assertFalse(start.containsEntity(other));
+        Assertions.assertEquals(List.of(coin), start.getEntitiesAt(Position.of(1, 0)));
+        
+        final ReplayState collected = replay.seek(5);
+        Assertions.assertEquals(Direction.SOUTH, collected.getLookingDirection(entity));
+        Assertions.assertEquals(List.of(other, entity), collected.getEntitiesAt(Position.of(1, 0)));
+        Assertions.assertEquals(List.of(coin), collected.getCollectedEntities(entity));
+        Assertions.assertFalse(collected.containsEntity(coin));
+        Assertions.assertEquals(2, collected.getEntities().size());
+        
+        final ReplayState dropped = replay.seek(Long.MAX_VALUE);
+        Assertions.assertTrue(dropped.getCollectedEntities(entity).isEmpty());
+        Assertions.assertEquals(List.of(coin), dropped.getEntitiesAt(Position.of(1, 1)));
+        Assertions.assertTrue(dropped.getEntitiesAt(Position.of(0, 0)).isEmpty());
+        
+        //the copied state is independent of the replay
+        Assertions.assertEquals(Position.of(0, 0), start.getPosition(entity));
+        Assertions.assertEquals(List.of(entity), start.getEntitiesAt(Position.of(0, 0)));
+        Assertions.assertTrue(replay.seek(-1).getEntities().isEmpty());
+    }
+    
+    /**
+     * Test that a replay of a log which removed old actions is not complete
+     */
+    @Test
+    void testIncompleteLog() {
+        final StandardActionLog log = new StandardActionLog();
+        log.setRetention(ActionLogRetention.lastTicks(100));
+        final Simulation simulation = StandardSimulation.createSimulation(log);
+        final TestEntity entity = new TestEntity();
+        log.logAction(new EntitySpawnAction(0, entity, simulation.getPlayfield(), Position.of(0, 0)));
+        Direction direction = Direction.EAST;
+        for (int tick = 1; tick < 200; tick++) {
+            log.logAction(new EntityTurnAction(tick, entity, direction, direction.clockWiseNext()));
+            direction = direction.clockWiseNext();
+        }
+        
+        final ActionReplay replay = ActionReplay.of(log);
+        Assertions.assertFalse(replay.isComplete());
+        Assertions.assertEquals(100, replay.getFirstTick());
+        Assertions.assertEquals(199, replay.getLastTick());
+        //the spawn was removed from the log, so the entity is missing from the replayed playfield
+        final ReplayState state = replay.seek(replay.getLastTick());
+        Assertions.assertFalse(state.containsEntity(entity));
+        Assertions.assertEquals(direction, state.getLookingDirection(entity));
+        
+        Assertions.assertTrue(ActionReplay.of(new StandardActionLog()).isComplete());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ActionReplay.of(null));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.log.LogContext;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.AsyncActionPrinter;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.AsyncActionPrinter.OverflowPolicy;
+
+
+/**
+ * Test class for the {@link AsyncActionPrinter}
+ */
+class AsyncActionPrinterTest {
+    
+    /** How long a call which has to block is given to return wrongly */
+    private static final long BLOCK_CHECK_MILLIS = 200;
+    
+    /**
+     * An action described by its tick number.
+     */
+    private static class NumberedAction extends Action {
+        
+        private NumberedAction(final long tickNumber) {
+            super(tickNumber);
+        }
+        
+        @Override
+        public String getDescription() {
+            return "action " + this.getTickNumber();
+        }
+    }
+    
+    /**
+     * A stream which blocks all writes until it is opened and records the written text and the writing threads.
+     */
+    private static class GatedStream extends OutputStream {
+        
+        private final CountDownLatch        writing = new CountDownLatch(1);
+        private final CountDownLatch        open    = new CountDownLatch(1);
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final List<Thread>          writers = new ArrayList<>();
+        
+        @Override
+        public void write(final int b) {
+            this.write(new byte[] { (byte) b }, 0, 1);
+        }
+        
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            this.writing.countDown();
+            try {
+                this.open.await();
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            synchronized (this) {
+                this.written.write(bytes, offset, length);
+                if (!this.writers.contains(Thread.currentThread())) {
+                    this.writers.add(Thread.currentThread());
+                }
+            }
+        }
+        
+        private void awaitWriting() throws InterruptedException {
+            Assertions.assertTrue(this.writing.await(10, TimeUnit.SECONDS));
+        }
+        
+        private void open() {
+            this.open.countDown();
+        }
+        
+        private synchronized List<String> getLines() {
+            final String text = this.written.toString();
+            return text.isEmpty() ? List.of() : Arrays.asList(text.split(System.lineSeparator()));
+        }
+        
+        private synchronized List<Thread> getWriters() {
+            return List.copyOf(this.writers);
+        }
+    }
+    
+    private static AsyncActionPrinter createPrinter(final OverflowPolicy policy, final GatedStream stream) {
+        final LogContext logContext = new LogContext();
+        logContext.addSimulationOutputStream(stream);
+        final AsyncActionPrinter printer = new AsyncActionPrinter(4, policy);
+        printer.setLogContext(logContext);
+        return printer;
+    }
+    
+    /**
+     * Queue one action, which the consumer blocks on while printing, and then fill the buffer.
+     */
+    private static void fillBuffer(final AsyncActionPrinter printer, final GatedStream stream) throws InterruptedException {
+        printer.print(new NumberedAction(1));
+        stream.awaitWriting();
+        for (int i = 2; i <= 5; i++) {
+            printer.print(new NumberedAction(i));
+        }
+    }
+    
+    private static List<String> descriptions(final int from, final int to) {
+        final List<String> descriptions = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            descriptions.add("action " + i);
+        }
+        return descriptions;
+    }
+    
+    /**
+     * Test that printing into a full buffer waits for the consumer with {@link OverflowPolicy#BLOCK}
+     *
+     * @throws Exception
+     *     if waiting fails
+     */
+    @Test
+    void testBlock() throws Exception {
+        final GatedStream stream = new GatedStream();
+        final AsyncActionPrinter printer = AsyncActionPrinterTest.createPrinter(OverflowPolicy.BLOCK, stream);
+        AsyncActionPrinterTest.fillBuffer(printer, stream);
+        final CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> printer.print(new NumberedAction(6)));
+        Thread.sleep(AsyncActionPrinterTest.BLOCK_CHECK_MILLIS);
+        Assertions.assertFalse(blocked.isDone());
+        
+        stream.open();
+        blocked.get(10, TimeUnit.SECONDS);
+        printer.flush();
+        Assertions.assertEquals(AsyncActionPrinterTest.descriptions(1, 6), stream.getLines());
+    }
+    
+    /**
+     * Test that actions printed into a full buffer are counted and not printed with {@link OverflowPolicy#DROP}
+     *
+     * @throws Exception
+     *     if waiting fails
+     */
+    @Test
+    void testDrop() throws Exception {
+        final GatedStream stream = new GatedStream();
+        final AsyncActionPrinter printer = AsyncActionPrinterTest.createPrinter(OverflowPolicy.DROP, stream);
+        AsyncActionPrinterTest.fillBuffer(printer, stream);
+        for (int i = 6; i <= 10; i++) {
+            printer.print(new NumberedAction(i));
+        }
+        
+        stream.open();
+        printer.flush();
+        final List<String> expected = AsyncActionPrinterTest.descriptions(1, 5);
+        expected.add("... 5 actions were not printed ...");
+        Assertions.assertEquals(expected, stream.getLines());
+    }
+    
+    /**
+     * Test that only every {@value AsyncActionPrinter#SAMPLE_RATE}th action printed into a full buffer waits for the
+     * consumer with {@link OverflowPolicy#SAMPLE}
+     *
+     * @throws Exception
+     *     if waiting fails
+     */
+    @Test
+    void testSample() throws Exception {
+        final GatedStream stream = new GatedStream();
+        final AsyncActionPrinter printer = AsyncActionPrinterTest.createPrinter(OverflowPolicy.SAMPLE, stream);
+        AsyncActionPrinterTest.fillBuffer(printer, stream);
+        final int sampled = 5 + AsyncActionPrinter.SAMPLE_RATE;
+        for (int i = 6; i < sampled; i++) {
+            printer.print(new NumberedAction(i));
+        }
+        final CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> printer.print(new NumberedAction(sampled)));
+        Thread.sleep(AsyncActionPrinterTest.BLOCK_CHECK_MILLIS);
+        Assertions.assertFalse(blocked.isDone());
+        
+        stream.open();
+        blocked.get(10, TimeUnit.SECONDS);
+        printer.flush();
+        final List<String> lines = stream.getLines();
+        Assertions.assertEquals(AsyncActionPrinterTest.descriptions(1, 5), lines.subList(0, 5));
+        Assertions.assertTrue(lines.contains("action " + sampled));
+        Assertions.assertTrue(lines.contains("... " + (AsyncActionPrinter.SAMPLE_RATE - 1) + " actions were not printed ..."));
+        Assertions.assertEquals(7, lines.size());
+    }
+    
+    /**
+     * Test that {@link AsyncActionPrinter#flush()} returns only after all queued actions are printed
+     *
+     * @throws Exception
+     *     if waiting fails
+     */
+    @Test
+    void testFlush() throws Exception {
+        final GatedStream stream = new GatedStream();
+        final AsyncActionPrinter printer = AsyncActionPrinterTest.createPrinter(OverflowPolicy.BLOCK, stream);
+        AsyncActionPrinterTest.fillBuffer(printer, stream);
+        final CompletableFuture<List<String>> flushed = CompletableFuture.supplyAsync(() -> {
+            printer.flush();
+            return stream.getLines();
+        });
+        Thread.sleep(AsyncActionPrinterTest.BLOCK_CHECK_MILLIS);
+        Assertions.assertFalse(flushed.isDone());
+        
+        stream.open();
+        Assertions.assertEquals(AsyncActionPrinterTest.descriptions(1, 5), flushed.get(10, TimeUnit.SECONDS));
+    }
+    
+    /**
+     * Test that the consumer thread stops when it is idle and a new one is started for the next action
+     *
+     * @throws InterruptedException
+     *     if interrupted while waiting
+     */
+    @Test
+    void testIdleConsumerStopsAndRestarts() throws InterruptedException {
+        final GatedStream stream = new GatedStream();
+        stream.open();
+        final AsyncActionPrinter printer = AsyncActionPrinterTest.createPrinter(OverflowPolicy.BLOCK, stream);
+        printer.print(new NumberedAction(1));
+        printer.flush();
+        final Thread first = stream.getWriters().get(0);
+        first.join(10_000);
+        Assertions.assertFalse(first.isAlive());
+        
+        printer.print(new NumberedAction(2));
+        printer.flush();
+        Assertions.assertEquals(AsyncActionPrinterTest.descriptions(1, 2), stream.getLines());
+        Assertions.assertEquals(2, stream.getWriters().size());
+        Assertions.assertNotSame(first, stream.getWriters().get(1));
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.ColumnarActionStore;
+
+
+/**
+ * Test class for the {@link ColumnarActionStore}
+ */
+class ColumnarActionStoreTest {
+    
+    private static final int SEGMENT = ColumnarActionStore.SEGMENT_SIZE;
+    
+    private static Action turn(final long tick, final Entity entity) {
+        final Direction from = Direction.values()[(int) (tick % 4)];
+        return new EntityTurnAction(tick, entity, from, from.clockWiseNext());
+    }
+    
+    /**
+     * Create a step action which differs from all actions created with other sequence numbers.
+     */
+    private static Action step(final long tick, final Entity entity, final int sequence) {
+        return new EntityStepAction(tick, entity, Position.of(sequence, 0), Position.of(sequence + 1, 0));
+    }
+    
+    private static List<Action> all(final ColumnarActionStore store) {
+        return store.view(store.rowsOfType(Action.class, true), false);
+    }
+    
+    private static List<Action> ofEntity(final List<Action> actions, final Entity entity) {
+        return actions.stream().filter(action -> ((EntityAction) action).getEntity() == entity).collect(Collectors.toList());
+    }
+    
+    /**
+     * Test tick queries and eviction by tick across the segment boundaries
+     */
+    @Test
+    void testSegmentBoundaries() {
+        final ColumnarActionStore store = new ColumnarActionStore();
+        final TestEntity first = new TestEntity();
+        final TestEntity second = new TestEntity();
+        final List<Action> appended = new ArrayList<>();
+        for (int tick = 0; tick < ((3 * ColumnarActionStoreTest.SEGMENT) + 100); tick++) {
+            final Action action = ColumnarActionStoreTest.turn(tick, (tick % 3) == 0 ? first : second);
+            appended.add(action);
+            Assertions.assertEquals(tick, store.append(action));
+        }
+        final List<Action> before = store.viewAll();
+        
+        final int from = ColumnarActionStoreTest.SEGMENT - 5;
+        final int to = (2 * ColumnarActionStoreTest.SEGMENT) + 5;
+        Assertions.assertEquals(appended.subList(from, to + 1), store.view(store.rowsBetweenTicks(from, to), true));
+        
+        final List<Action> evicted = new ArrayList<>();
+        store.evictBeforeTick((2 * ColumnarActionStoreTest.SEGMENT) + 10, evicted::add);
+        //whole segments and the lower rows of the next one are evicted
+        Assertions.assertEquals(appended.subList(0, (2 * ColumnarActionStoreTest.SEGMENT) + 10), evicted);
+        final List<Action> kept = appended.subList((2 * ColumnarActionStoreTest.SEGMENT) + 10, appended.size());
+        Assertions.assertEquals(kept, store.viewAll());
+        Assertions.assertEquals(kept.size(), store.size());
+        Assertions.assertEquals((2 * ColumnarActionStoreTest.SEGMENT) + 10, store.getEvictedCount());
+        Assertions.assertEquals(kept.subList(0, 6), store.view(store.rowsBetweenTicks(from, to + 10), false));
+        Assertions.assertTrue(store.isCompleteFromTick((2 * ColumnarActionStoreTest.SEGMENT) + 10));
+        Assertions.assertFalse(store.isCompleteFromTick((2 * ColumnarActionStoreTest.SEGMENT) + 9));
+        Assertions.assertEquals(
+                ColumnarActionStoreTest.ofEntity(kept, first), store.view(store.rowsOfEntity(first, EntityTurnAction.class, false), false)
+        );
+        Assertions.assertFalse(store.isCompleteForEntity(first));
+        
+        //evicting the rows of the latest segment keeps appending to it
+        store.evictBeforeTick(appended.size() - 1, null);
+        Assertions.assertEquals(appended.subList(appended.size() - 1, appended.size()), store.viewAll());
+        store.evictBeforeTick(Long.MAX_VALUE, null);
+        Assertions.assertEquals(0, store.size());
+        final Action next = ColumnarActionStoreTest.turn(appended.size(), first);
+        store.append(next);
+        Assertions.assertEquals(List.of(next), store.viewAll());
+        Assertions.assertEquals(List.of(next), store.view(store.rowsOfEntity(first, Action.class, true), false));
+        
+        //a view taken before the eviction still returns the evicted actions
+        Assertions.assertEquals(appended, before);
+    }
+    
+    /**
+     * Test that evicting single rows compacts the store and renumbers the rows
+     */
+    @Test
+    void testCompaction() {
+        final ColumnarActionStore store = new ColumnarActionStore();
+        final TestEntity busy = new TestEntity();
+        final TestEntity quiet = new TestEntity();
+        final List<Action> appended = new ArrayList<>();
+        for (int tick = 0; tick < (4 * ColumnarActionStoreTest.SEGMENT); tick++) {
+            final Action action = ColumnarActionStoreTest.turn(tick, (tick % 100) == 0 ? quiet : busy);
+            appended.add(action);
+            store.append(action);
+        }
+        final List<Action> before = store.viewAll();
+        final List<Action> busyBefore = store.view(store.rowsOfEntity(busy, Action.class, true), true);
+        
+        final List<Action> evicted = new ArrayList<>();
+        store.evictOldestOfEntity(busy, 10, evicted::add);
+        final List<Action> busyActions = ColumnarActionStoreTest.ofEntity(appended, busy);
+        Assertions.assertEquals(busyActions.subList(0, busyActions.size() - 10), evicted);
+        
+        final List<Action> kept = new ArrayList<>(ColumnarActionStoreTest.ofEntity(appended, quiet));
+        kept.addAll(busyActions.subList(busyActions.size() - 10, busyActions.size()));
+        kept.sort((a, b) -> Long.compare(a.getTickNumber(), b.getTickNumber()));
+        Assertions.assertEquals(kept, store.viewAll());
+        
+        //after the compaction the kept rows are numbered from 0 on
+        final int[] rows = store.rowsOfType(Action.class, true);
+        Assertions.assertEquals(kept.size(), rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            Assertions.assertEquals(i, rows[i]);
+            Assertions.assertEquals(kept.get(i).getTickNumber(), store.getTick(i));
+        }
+        Assertions.assertEquals(
+                ColumnarActionStoreTest.ofEntity(appended, quiet), store.view(store.rowsOfEntity(quiet, Action.class, true), true)
+        );
+        Assertions.assertTrue(store.isCompleteForEntity(quiet));
+        Assertions.assertFalse(store.isCompleteForEntity(busy));
+        
+        //appending after the compaction continues the new numbering
+        final Action next = ColumnarActionStoreTest.turn(4 * ColumnarActionStoreTest.SEGMENT, quiet);
+        Assertions.assertEquals(kept.size(), store.append(next));
+        
+        //the views taken before still return the old rows
+        Assertions.assertEquals(appended, before);
+        Assertions.assertEquals(busyActions, busyBefore);
+    }
+    
+    /**
+     * Test that the id of an entity whose actions were all evicted is reused for another entity
+     */
+    @Test
+    void testEntityIdReuse() {
+        final ColumnarActionStore store = new ColumnarActionStore();
+        final TestEntity early = new TestEntity();
+        final TestEntity steady = new TestEntity();
+        final List<Action> appended = new ArrayList<>();
+        for (int tick = 0; tick < (2 * ColumnarActionStoreTest.SEGMENT); tick++) {
+            final Action action = ColumnarActionStoreTest.turn(tick, (tick < 10) ? early : steady);
+            appended.add(action);
+            store.append(action);
+        }
+        final List<Action> earlyBefore = store.view(store.rowsOfEntity(early, Action.class, true), true);
+        
+        store.evictBeforeTick(ColumnarActionStoreTest.SEGMENT, null);
+        Assertions.assertEquals(0, store.rowsOfEntity(early, Action.class, true).length);
+        Assertions.assertFalse(store.isCompleteForEntity(early));
+        
+        //the new entity takes the id of the forgotten one
+        final TestEntity late = new TestEntity();
+        final Action lateAction = new EntityStepAction(2 * ColumnarActionStoreTest.SEGMENT, late, Position.of(0, 0), Position.of(1, 0));
+        store.append(lateAction);
+        Assertions.assertEquals(List.of(lateAction), store.view(store.rowsOfEntity(late, Action.class, true), true));
+        Assertions.assertEquals(0, store.rowsOfEntity(early, Action.class, true).length);
+        Assertions.assertEquals(lateAction, ColumnarActionStoreTest.all(store).get(store.size() - 1));
+        
+        //the forgotten entity acting again must not claim that all its actions are kept
+        final Action earlyAgain = ColumnarActionStoreTest.turn((2 * ColumnarActionStoreTest.SEGMENT) + 1, early);
+        store.append(earlyAgain);
+        Assertions.assertEquals(List.of(earlyAgain), store.view(store.rowsOfEntity(early, Action.class, true), false));
+        Assertions.assertFalse(store.isCompleteForEntity(early));
+        
+        //the view taken before still returns the actions of the forgotten entity
+        Assertions.assertEquals(appended.subList(0, 10), earlyBefore);
+    }
+    
+    /**
+     * Test random appends and evictions against a list of the kept actions
+     */
+    @Test
+    void testRandomOperations() {
+        final Random random = new Random(42);
+        final ColumnarActionStore store = new ColumnarActionStore();
+        final List<TestEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entities.add(new TestEntity());
+        }
+        final List<Action> kept = new ArrayList<>();
+        final List<List<Action>> views = new ArrayList<>();
+        final List<List<Action>> viewContents = new ArrayList<>();
+        long tick = 0;
+        for (int operation = 0; operation < 60_000; operation++) {
+            final int choice = random.nextInt(1000);
+            if (choice < 990) {
+                tick += random.nextInt(2);
+                final Action action = ColumnarActionStoreTest.step(tick, entities.get(random.nextInt(entities.size())), operation);
+                kept.add(action);
+                store.append(action);
+            } else if (choice < 996) {
+                final TestEntity entity = entities.get(random.nextInt(entities.size()));
+                final int keep = 1 + random.nextInt(50);
+                final List<Action> ofEntity = ColumnarActionStoreTest.ofEntity(kept, entity);
+                final List<Action> expected = ofEntity.subList(0, Math.max(0, ofEntity.size() - keep));
+                final List<Action> evicted = new ArrayList<>();
+                store.evictOldestOfEntity(entity, keep, evicted::add);
+                Assertions.assertEquals(expected, evicted);
+                kept.removeAll(evicted);
+            } else if (choice < 998) {
+                final long threshold = tick - random.nextInt(3000);
+                final List<Action> evicted = new ArrayList<>();
+                store.evictBeforeTick(threshold, evicted::add);
+                for (final Action action : evicted) {
+                    Assertions.assertTrue(action.getTickNumber() < threshold);
+                }
+                Assertions.assertEquals(kept.subList(0, evicted.size()), evicted);
+                kept.subList(0, evicted.size()).clear();
+            } else {
+                views.add(store.viewAll());
+                viewContents.add(new ArrayList<>(kept));
+            }
+            if ((operation % 5000) == 0) {
+                Assertions.assertEquals(kept, store.viewAll());
+            }
+        }
+        Assertions.assertEquals(kept, store.viewAll());
+        Assertions.assertEquals(kept.size(), store.size());
+        for (final TestEntity entity : entities) {
+            Assertions.assertEquals(
+                    ColumnarActionStoreTest.ofEntity(kept, entity), store.view(store.rowsOfEntity(entity, Action.class, true), false)
+            );
+        }
+        for (int i = 0; i < views.size(); i++) {
+            Assertions.assertEquals(viewContents.get(i), views.get(i));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.CooperativeEntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityIntent;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgramRegistry;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.entity.program.CooperativeProgramScheduler;
+
+
+/**
+ * Test class for the {@link CooperativeProgramScheduler} and the {@link CooperativeEntityProgram}s it runs
+ */
+class CooperativeProgramSchedulerTest {
+    
+    /**
+     * Something a program did in a simulation tick.
+     */
+    private static class Event {
+        
+        private final long      tick;
+        private final String    program;
+        private final Thread    thread;
+        private final Position  position;
+        private final Direction direction;
+        
+        private Event(final long tick, final String program, final TestEntity entity) {
+            this.tick = tick;
+            this.program = program;
+            this.thread = Thread.currentThread();
+            this.position = entity.getPosition();
+            this.direction = entity.getLookingDirection();
+        }
+    }
+    
+    /**
+     * A cooperative program returning the given intents one after the other and recording every call.
+     */
+    private static class ScriptedProgram implements CooperativeEntityProgram {
+        
+        private final String                                   name;
+        private final SimulationClock                          clock;
+        private final List<Event>                              events;
+        private final List<Function<TestEntity, EntityIntent>> intents;
+        private final CountDownLatch                           finished;
+        private int                                            next;
+        
+        private ScriptedProgram(
+                final String name, final SimulationClock clock, final List<Event> events, final CountDownLatch finished,
+                final List<Function<TestEntity, EntityIntent>> intents
+        ) {
+            this.name = name;
+            this.clock = clock;
+            this.events = events;
+            this.finished = finished;
+            this.intents = intents;
+        }
+        
+        @Override
+        public EntityIntent nextIntent(final Entity entity) {
+            final TestEntity testEntity = (TestEntity) entity;
+            synchronized (this.events) {
+                this.events.add(new Event(this.clock.getLastTickNumber(), this.name, testEntity));
+            }
+            if (this.next == this.intents.size()) {
+                this.finished.countDown();
+                return null;
+            }
+            return this.intents.get(this.next++).apply(testEntity);
+        }
+        
+        @Override
+        public boolean canRunOn(final Entity entity) {
+            return entity instanceof TestEntity;
+        }
+    }
+    
+    private static List<Long> ticksOf(final List<Event> events, final String program) {
+        return events.stream().filter(event -> event.program.equals(program)).map(event -> event.tick).collect(Collectors.toList());
+    }
+    
+    private static Event eventAt(final List<Event> events, final String program, final long tick) {
+        return events.stream().filter(event -> event.program.equals(program) && (event.tick == tick)).findFirst().orElseThrow();
+    }
+    
+    /**
+     * Test that cooperative programs run on the tick thread next to a blocking program and that their intents complete
+     * at the expected ticks
+     *
+     * @throws InterruptedException
+     *     if interrupted while waiting for the programs
+     */
+    @Test
+    void testProgramsNextToBlockingProgram() throws InterruptedException {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardSimulationClock clock = simulation.getSimulationClock();
+        final List<Event> events = new ArrayList<>();
+        final CountDownLatch finished = new CountDownLatch(4);
+        
+        final Map<String, TestEntity> entities = new LinkedHashMap<>();
+        for (final String name : List.of("walker", "sleeper", "turner", "blocking")) {
+            final TestEntity entity = new TestEntity();
+            simulation.getPlayfield().addEntity(Position.of(0, entities.size()), entity);
+            entities.put(name, entity);
+        }
+        final EntityProgramRegistry registry = simulation.getEntityProgramRegistry();
+        final List<Function<TestEntity, EntityIntent>> walker = List
+                .of(TestEntity::moveIntent, TestEntity::turnClockWiseIntent, entity -> entity.sleepIntent(3));
+        registry.registerEntityProgram("walker", new ScriptedProgram("walker", clock, events, finished, walker));
+        final List<Function<TestEntity, EntityIntent>> sleeper = List.of(entity -> entity.sleepIntent(2), TestEntity::turnClockWiseIntent);
+        registry.registerEntityProgram("sleeper", new ScriptedProgram("sleeper", clock, events, finished, sleeper));
+        registry.registerEntityProgram(
+                "turner", new ScriptedProgram("turner", clock, events, finished, List.of(TestEntity::turnClockWiseIntent))
+        );
+        registry.registerEntityProgram("blocking", new EntityProgram() {
+            @Override
+            public void run(final Entity entity) {
+                for (int i = 0; i < 3; i++) {
+                    EntityIntent.of(clock, 1, () -> {
+                        synchronized (events) {
+                            events.add(new Event(clock.getLastTickNumber(), "blocking", (TestEntity) entity));
+                        }
+                    }).perform();
+                }
+                finished.countDown();
+            }
+            
+            @Override
+            public boolean canRunOn(final Entity entity) {
+                return entity instanceof TestEntity;
+            }
+        });
+        
+        try {
+            entities.forEach((name, entity) -> simulation.getEntityProgramRunner().run(name, entity));
+            clock.setPeriod(5);
+            clock.start();
+            Assertions.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        } finally {
+            clock.shutdown();
+            simulation.getEntityProgramRunner().shutdown();
+        }
+        
+        //the program is asked for its next intent in the tick the last one completed
+        Assertions.assertEquals(List.of(1L, 5L, 6L, 9L), CooperativeProgramSchedulerTest.ticksOf(events, "walker"));
+        Assertions.assertEquals(List.of(1L, 3L, 4L), CooperativeProgramSchedulerTest.ticksOf(events, "sleeper"));
+        Assertions.assertEquals(List.of(1L, 2L), CooperativeProgramSchedulerTest.ticksOf(events, "turner"));
+        Assertions.assertEquals(Position.of(0, 0), CooperativeProgramSchedulerTest.eventAt(events, "walker", 1).position);
+        Assertions.assertEquals(Position.of(1, 0), CooperativeProgramSchedulerTest.eventAt(events, "walker", 5).position);
+        Assertions.assertEquals(Direction.EAST, CooperativeProgramSchedulerTest.eventAt(events, "walker", 5).direction);
+        Assertions.assertEquals(Direction.SOUTH, CooperativeProgramSchedulerTest.eventAt(events, "walker", 6).direction);
+        Assertions.assertEquals(Direction.EAST, CooperativeProgramSchedulerTest.eventAt(events, "sleeper", 3).direction);
+        Assertions.assertEquals(Direction.SOUTH, CooperativeProgramSchedulerTest.eventAt(events, "sleeper", 4).direction);
+        Assertions.assertEquals(Direction.SOUTH, CooperativeProgramSchedulerTest.eventAt(events, "turner", 2).direction);
+        
+        //all cooperative programs share one thread, which is not the thread of the blocking program
+        final Thread tickThread = events.stream().filter(event -> !event.program.equals("blocking")).findFirst().orElseThrow().thread;
+        final List<Long> blockingTicks = CooperativeProgramSchedulerTest.ticksOf(events, "blocking");
+        Assertions.assertEquals(3, blockingTicks.size());
+        for (final Event event : events) {
+            Assertions.assertEquals(!event.program.equals("blocking"), event.thread == tickThread);
+        }
+        //the ticks are processed one after the other and the operations of a tick run before the cooperative programs
+        for (int i = 1; i < events.size(); i++) {
+            Assertions.assertTrue(events.get(i - 1).tick <= events.get(i).tick);
+            if (events.get(i - 1).tick == events.get(i).tick) {
+                Assertions.assertFalse(events.get(i).program.equals("blocking") && !events.get(i - 1).program.equals("blocking"));
+            }
+        }
+        for (int i = 1; i < blockingTicks.size(); i++) {
+            Assertions.assertTrue(blockingTicks.get(i - 1) < blockingTicks.get(i));
+        }
+    }
+}
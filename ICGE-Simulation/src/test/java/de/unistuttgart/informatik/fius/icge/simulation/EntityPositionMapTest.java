@@ -0,0 +1,107 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.EntityPositionMap;
+
+
+/**
+ * Test class for the {@link EntityPositionMap}
+ */
+class EntityPositionMapTest {
+    
+    /** The slot of an entity in a new map with 16 slots, as computed by the map */
+    private static int initialSlotOf(final Entity entity) {
+        final int hash = System.identityHashCode(entity) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & 15;
+    }
+    
+    private static List<Entity> entitiesWithInitialSlot(final int slot, final int count) {
+        final List<Entity> entities = new ArrayList<>();
+        while (entities.size() < count) {
+            final Entity entity = new TestEntity();
+            if (EntityPositionMapTest.initialSlotOf(entity) == slot) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+    
+    /**
+     * Test removing from a probe chain which wraps around the end of the table
+     */
+    @Test
+    void testCollidingEntitiesWrappingAround() {
+        final List<Entity> lastSlotEntities = EntityPositionMapTest.entitiesWithInitialSlot(15, 4);
+        final Entity firstSlotEntity = EntityPositionMapTest.entitiesWithInitialSlot(0, 1).get(0);
+        
+        for (int removed = 0; removed < lastSlotEntities.size(); removed++) {
+            final EntityPositionMap map = new EntityPositionMap();
+            for (int i = 0; i < lastSlotEntities.size(); i++) {
+                map.put(lastSlotEntities.get(i), i);
+            }
+            map.put(firstSlotEntity, 100);
+            
+            final Entity removedEntity = lastSlotEntities.get(removed);
+            Assertions.assertTrue(map.remove(removedEntity));
+            Assertions.assertFalse(map.remove(removedEntity));
+            Assertions.assertFalse(map.containsKey(removedEntity));
+            Assertions.assertEquals(4, map.size());
+            for (int i = 0; i < lastSlotEntities.size(); i++) {
+                if (i != removed) {
+                    Assertions.assertEquals(i, map.get(lastSlotEntities.get(i)));
+                }
+            }
+            Assertions.assertEquals(100, map.get(firstSlotEntity));
+        }
+    }
+    
+    /**
+     * Test random puts and removes, which grow the map in between, against an {@link IdentityHashMap}
+     */
+    @Test
+    void testAgainstIdentityHashMap() {
+        final Random random = new Random(42);
+        final Entity[] entities = new Entity[1000];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new TestEntity();
+        }
+        final EntityPositionMap map = new EntityPositionMap();
+        final Map<Entity, Long> expected = new IdentityHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            final Entity entity = entities[random.nextInt(entities.length)];
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(entity) != null, map.remove(entity));
+            } else {
+                final long position = random.nextLong();
+                expected.put(entity, position);
+                map.put(entity, position);
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (final Entity entity : entities) {
+            Assertions.assertEquals(expected.containsKey(entity), map.containsKey(entity));
+            if (expected.containsKey(entity)) {
+                Assertions.assertEquals((long) expected.get(entity), map.get(entity));
+            }
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.get(new TestEntity()));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.EntityTypeIndex;
+
+
+/**
+ * Test class for the {@link EntityTypeIndex}
+ */
+class EntityTypeIndexTest {
+    
+    /**
+     * Test that snapshot streams contain the entities at the time of the call and survive modifications
+     */
+    @Test
+    void testSnapshotStream() {
+        final EntityTypeIndex index = new EntityTypeIndex();
+        final TestEntity first = new TestEntity();
+        final TestEntity sub = new TestEntity.SubEntity();
+        index.add(first);
+        index.add(sub);
+        
+        final Stream<TestEntity> all = index.snapshotStream(TestEntity.class, true);
+        final Stream<TestEntity> exact = index.snapshotStream(TestEntity.class, false);
+        final TestEntity second = new TestEntity();
+        index.add(second);
+        index.remove(sub);
+        Assertions.assertEquals(Set.of(first, sub), all.collect(Collectors.toSet()));
+        Assertions.assertEquals(List.of(first), exact.collect(Collectors.toList()));
+        
+        Assertions.assertEquals(List.of(first, second), index.snapshotStream(TestEntity.class, true).collect(Collectors.toList()));
+        // a stream consumed while the index is modified by its consumer
+        index.snapshotStream(TestEntity.class, true).forEach(index::remove);
+        Assertions.assertEquals(0, index.count(TestEntity.class, true));
+    }
+    
+    /**
+     * Test that snapshot lists contain the entities at the time of the call, survive modifications and are unmodifiable
+     */
+    @Test
+    void testSnapshotList() {
+        final EntityTypeIndex index = new EntityTypeIndex();
+        final TestEntity first = new TestEntity();
+        final TestEntity sub = new TestEntity.SubEntity();
+        final TestEntity second = new TestEntity();
+        index.add(first);
+        index.add(sub);
+        index.add(second);
+        
+        final List<TestEntity> all = index.snapshotList(TestEntity.class, true);
+        final List<TestEntity> exact = index.snapshotList(TestEntity.class, false);
+        Assertions.assertEquals(Set.of(first, sub, second), Set.copyOf(all));
+        Assertions.assertEquals(3, all.size());
+        Assertions.assertEquals(List.of(first, second), exact);
+        index.remove(first);
+        index.add(new TestEntity.SubEntity());
+        Assertions.assertEquals(Set.of(first, sub, second), Set.copyOf(all));
+        Assertions.assertEquals(List.of(first, second), exact);
+        Assertions.assertEquals(List.of(second), index.snapshotList(TestEntity.class, false));
+        Assertions.assertEquals(3, index.snapshotList(TestEntity.class, true).size());
+        
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> all.add(first));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> exact.remove(0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> all.get(3));
+        // a list iterated while the index is modified
+        for (final TestEntity entity : index.snapshotList(TestEntity.class, true)) {
+            index.remove(entity);
+        }
+        Assertions.assertTrue(index.snapshotList(TestEntity.class, true).isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.Long2ObjectMap;
+
+
+/**
+ * Test class for the {@link Long2ObjectMap}
+ */
+class Long2ObjectMapTest {
+    
+    /** The slot of a key in a new map with 16 slots, as computed by the map */
+    private static int initialSlotOf(final long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 60);
+    }
+    
+    private static List<Long> keysWithInitialSlot(final int slot, final int count) {
+        final List<Long> keys = new ArrayList<>();
+        for (long key = 0; keys.size() < count; key++) {
+            if (Long2ObjectMapTest.initialSlotOf(key) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Test removing from a probe chain which wraps around the end of the table
+     */
+    @Test
+    void testCollidingKeysWrappingAround() {
+        // four keys for the last slot occupy the slots 15, 0, 1 and 2; a key for slot 0 is pushed to slot 3
+        final List<Long> lastSlotKeys = Long2ObjectMapTest.keysWithInitialSlot(15, 4);
+        final long firstSlotKey = Long2ObjectMapTest.keysWithInitialSlot(0, 1).get(0);
+        final long secondSlotKey = Long2ObjectMapTest.keysWithInitialSlot(1, 1).get(0);
+        
+        for (int removed = 0; removed < lastSlotKeys.size(); removed++) {
+            final Long2ObjectMap<String> map = new Long2ObjectMap<>();
+            for (final long key : lastSlotKeys) {
+                map.put(key, "last" + key);
+            }
+            map.put(firstSlotKey, "first");
+            map.put(secondSlotKey, "second");
+            Assertions.assertEquals(6, map.size());
+            
+            final long removedKey = lastSlotKeys.get(removed);
+            Assertions.assertEquals("last" + removedKey, map.remove(removedKey));
+            Assertions.assertNull(map.remove(removedKey));
+            Assertions.assertEquals(5, map.size());
+            Assertions.assertNull(map.get(removedKey));
+            for (final long key : lastSlotKeys) {
+                if (key != removedKey) {
+                    Assertions.assertEquals("last" + key, map.get(key));
+                }
+            }
+            Assertions.assertEquals("first", map.get(firstSlotKey));
+            Assertions.assertEquals("second", map.get(secondSlotKey));
+            
+            Assertions.assertEquals("first", map.remove(firstSlotKey));
+            Assertions.assertEquals("second", map.get(secondSlotKey));
+            Assertions.assertEquals("second", map.remove(secondSlotKey));
+            Assertions.assertEquals(3, map.size());
+        }
+    }
+    
+    /**
+     * Test random puts and removes, which grow the map in between, against a {@link HashMap}
+     */
+    @Test
+    void testAgainstHashMap() {
+        final Random random = new Random(42);
+        final Long2ObjectMap<Long> map = new Long2ObjectMap<>();
+        final Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // a small key range makes removes hit and lets the size go up and down across the growth thresholds
+            final long key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                final long value = random.nextLong();
+                Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (long key = -1000; key < 1000; key++) {
+            Assertions.assertEquals(expected.get(key), map.get(key));
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        final List<Long> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        Assertions.assertEquals(expected.size(), values.size());
+        Assertions.assertTrue(expected.values().containsAll(values));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.GreedyEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.StandardPlayfield;
+
+
+/**
+ * Test class for {@link StandardPlayfield#snapshot()} and {@link StandardPlayfield#restore(PlayfieldSnapshot)}
+ */
+class PlayfieldSnapshotTest {
+    
+    /**
+     * A minimal greedy entity to test the restored inventory.
+     */
+    private static class GreedyTestEntity extends GreedyEntity {
+        
+        @Override
+        protected String getTextureHandle() {
+            return "test";
+        }
+        
+        @Override
+        protected int getZPosition() {
+            return 0;
+        }
+    }
+    
+    /**
+     * A test entity counting how often its state is saved and restored.
+     */
+    private static class CountingEntity extends TestEntity {
+        
+        private int saved;
+        private int restored;
+        
+        @Override
+        public Object saveState() {
+            this.saved++;
+            return super.saveState();
+        }
+        
+        @Override
+        public void restoreState(final Object state) {
+            this.restored++;
+            super.restoreState(state);
+        }
+    }
+    
+    /**
+     * Test that restoring a snapshot puts back the positions, looking directions and inventories without logging
+     */
+    @Test
+    void testRestore() {
+        //the playfield only references its simulation weakly
+        final Simulation simulation = StandardSimulation.createSimulation();
+        final Playfield playfield = simulation.getPlayfield();
+        final GreedyTestEntity greedy = new GreedyTestEntity();
+        final TestEntity.CollectableTestEntity coin = new TestEntity.CollectableTestEntity();
+        final TestEntity removed = new TestEntity();
+        final TestEntity added = new TestEntity();
+        playfield.addEntity(Position.of(0, 0), greedy);
+        playfield.addEntity(Position.of(1, 0), coin);
+        playfield.addEntity(Position.of(3, 3), removed);
+        
+        final PlayfieldSnapshot snapshot = playfield.snapshot();
+        final int loggedActions = simulation.getActionLog().getAllActions().size();
+        greedy.turnClockWiseIntent().performOperation();
+        playfield.moveEntity(greedy, Position.of(1, 0));
+        greedy.collect(coin);
+        playfield.removeEntity(removed);
+        playfield.addEntity(Position.of(9, 9), added);
+        final PlayfieldSnapshot later = playfield.snapshot();
+        playfield.moveEntity(greedy, Position.of(2, 0));
+        greedy.turnClockWiseIntent().performOperation();
+        
+        playfield.restore(snapshot);
+        Assertions.assertEquals(Position.of(0, 0), greedy.getPosition());
+        Assertions.assertEquals(Direction.EAST, greedy.getLookingDirection());
+        Assertions.assertTrue(greedy.getInventory().isEmpty());
+        Assertions.assertEquals(Position.of(1, 0), coin.getPosition());
+        Assertions.assertEquals(Position.of(3, 3), removed.getPosition());
+        Assertions.assertFalse(playfield.containsEntity(added));
+        Assertions.assertEquals(List.of(coin), playfield.getEntitiesAt(Position.of(1, 0)));
+        Assertions.assertEquals(3, playfield.getAllEntities().size());
+        Assertions.assertEquals(loggedActions + 8, simulation.getActionLog().getAllActions().size());
+        
+        Assertions.assertTrue(snapshot.isValid());
+        Assertions.assertFalse(later.isValid());
+        Assertions.assertThrows(IllegalStateException.class, () -> playfield.restore(later));
+    }
+    
+    /**
+     * Test that a snapshot can be restored again and restores a filled inventory
+     */
+    @Test
+    void testRestoreInventory() {
+        final Simulation simulation = StandardSimulation.createSimulation();
+        final Playfield playfield = simulation.getPlayfield();
+        final GreedyTestEntity greedy = new GreedyTestEntity();
+        final TestEntity.CollectableTestEntity coin = new TestEntity.CollectableTestEntity();
+        playfield.addEntity(Position.of(0, 0), greedy);
+        playfield.addEntity(Position.of(0, 0), coin);
+        greedy.collect(coin);
+        greedy.turnClockWiseIntent().performOperation();
+        
+        final PlayfieldSnapshot snapshot = playfield.snapshot();
+        for (int i = 0; i < 2; i++) {
+            greedy.drop(coin);
+            greedy.turnClockWiseIntent().performOperation();
+            playfield.moveEntity(greedy, Position.of(0, 1));
+            
+            playfield.restore(snapshot);
+            Assertions.assertEquals(Position.of(0, 0), greedy.getPosition());
+            Assertions.assertEquals(Direction.SOUTH, greedy.getLookingDirection());
+            Assertions.assertEquals(List.of(coin), greedy.getInventory().get(CollectableEntity.class, true));
+            Assertions.assertFalse(playfield.containsEntity(coin));
+        }
+        Assertions
+                .assertThrows(IllegalArgumentException.class, () -> StandardSimulation.createSimulation().getPlayfield().restore(snapshot));
+    }
+    
+    /**
+     * Test that only the state of the changed entities is saved and restored
+     */
+    @Test
+    void testLazyState() {
+        final Simulation simulation = StandardSimulation.createSimulation();
+        final Playfield playfield = simulation.getPlayfield();
+        final List<CountingEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final CountingEntity entity = new CountingEntity();
+            playfield.addEntity(Position.of(i, 0), entity);
+            entities.add(entity);
+        }
+        final CountingEntity turned = entities.get(42);
+        
+        final PlayfieldSnapshot snapshot = playfield.snapshot();
+        turned.turnClockWiseIntent().performOperation();
+        turned.turnClockWiseIntent().performOperation();
+        playfield.restore(snapshot);
+        Assertions.assertEquals(Direction.EAST, turned.getLookingDirection());
+        for (final CountingEntity entity : entities) {
+            final int expected = entity == turned ? 1 : 0;
+            Assertions.assertEquals(expected, entity.saved);
+            Assertions.assertEquals(expected, entity.restored);
+        }
+        
+        //the restored snapshot records the changes made after restoring it again
+        turned.turnClockWiseIntent().performOperation();
+        playfield.restore(snapshot);
+        Assertions.assertEquals(Direction.EAST, turned.getLookingDirection());
+        Assertions.assertEquals(2, turned.saved);
+    }
+    
+    /**
+     * Test that discarded snapshots are released and the older snapshots can still be restored
+     */
+    @Test
+    void testDiscard() {
+        final Simulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = (StandardPlayfield) simulation.getPlayfield();
+        final TestEntity entity = new TestEntity();
+        playfield.addEntity(Position.of(0, 0), entity);
+        
+        final PlayfieldSnapshot first = playfield.snapshot();
+        PlayfieldSnapshot previous = null;
+        for (int i = 1; i <= 1000; i++) {
+            final PlayfieldSnapshot next = playfield.snapshot();
+            if (previous != null) {
+                previous.discard();
+                Assertions.assertFalse(previous.isValid());
+            }
+            playfield.moveEntity(entity, Position.of(i, 0));
+            entity.turnClockWiseIntent().performOperation();
+            previous = next;
+            Assertions.assertEquals(2, playfield.getSnapshotCount());
+        }
+        
+        //the changes recorded by the discarded snapshots are kept for the first one
+        playfield.restore(first);
+        Assertions.assertEquals(Position.of(0, 0), entity.getPosition());
+        Assertions.assertEquals(Direction.EAST, entity.getLookingDirection());
+        Assertions.assertFalse(previous.isValid());
+        Assertions.assertEquals(1, playfield.getSnapshotCount());
+        
+        first.discard();
+        first.discard();
+        Assertions.assertEquals(0, playfield.getSnapshotCount());
+        Assertions.assertThrows(IllegalStateException.class, () -> playfield.restore(first));
+    }
+}
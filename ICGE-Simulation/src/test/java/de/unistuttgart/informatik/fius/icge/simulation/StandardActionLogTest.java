@@ -0,0 +1,180 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.Action;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.ActionLogRetention;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityCollectAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDespawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityDropAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntitySpawnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTeleportAction;
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityTurnAction;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.actions.StandardActionLog;
+
+
+/**
+ * Test class for the {@link StandardActionLog}
+ */
+class StandardActionLogTest {
+    
+    /**
+     * An action class unknown to the log, which is stored as object.
+     */
+    private static class CustomAction extends Action {
+        
+        private CustomAction(final long tickNumber) {
+            super(tickNumber);
+        }
+        
+        @Override
+        public String getDescription() {
+            return "custom action";
+        }
+    }
+    
+    /**
+     * Test that the returned actions are equal to the logged ones
+     */
+    @Test
+    void testReturnedActionsEqualLoggedOnes() {
+        final StandardActionLog log = new StandardActionLog();
+        final Playfield playfield = StandardSimulation.createSimulation(log).getPlayfield();
+        final TestEntity entity = new TestEntity();
+        final TestEntity.CollectableTestEntity coin = new TestEntity.CollectableTestEntity();
+        final CustomAction custom = new CustomAction(7);
+        final List<Action> logged = List.of(
+                new EntitySpawnAction(1, entity, playfield, Position.of(0, 0)), new EntityStepAction(2, entity, Position.of(0, 0), Position.of(1, 0)), new EntityTeleportAction(3, entity, Position.of(1, 0), Position.of(-5, 9)), new EntityTurnAction(4, entity, Direction.EAST, Direction.SOUTH), new EntityCollectAction(5, entity, coin, Position.of(-5, 9), Position.of(-5, 9)), new EntityDropAction(6, entity, coin, Position.of(-5, 9), Position.of(-5, 9)), custom, new EntityDespawnAction(8, entity, playfield)
+        );
+        for (final Action action : logged) {
+            log.logAction(action);
+        }
+        log.flush();
+        
+        final List<Action> returned = log.getAllActions();
+        Assertions.assertEquals(logged, returned);
+        for (int i = 0; i < logged.size(); i++) {
+            Assertions.assertEquals(logged.get(i).hashCode(), returned.get(i).hashCode());
+        }
+        Assertions.assertSame(custom, returned.get(6));
+        Assertions.assertEquals(List.of(logged.get(3)), log.getActionsOfTypeOfEntity(entity, EntityTurnAction.class, false));
+    }
+    
+    /**
+     * Test that actions differing in any property or in their class are not equal
+     */
+    @Test
+    void testActionsWithOtherValuesDiffer() {
+        final TestEntity entity = new TestEntity();
+        final TestEntity other = new TestEntity();
+        final EntityStepAction step = new EntityStepAction(2, entity, Position.of(0, 0), Position.of(1, 0));
+        Assertions.assertEquals(step, new EntityStepAction(2, entity, Position.of(0, 0), Position.of(1, 0)));
+        Assertions.assertNotEquals(step, new EntityStepAction(3, entity, Position.of(0, 0), Position.of(1, 0)));
+        Assertions.assertNotEquals(step, new EntityStepAction(2, other, Position.of(0, 0), Position.of(1, 0)));
+        Assertions.assertNotEquals(step, new EntityStepAction(2, entity, Position.of(0, 1), Position.of(1, 0)));
+        Assertions.assertNotEquals(step, new EntityStepAction(2, entity, Position.of(0, 0), Position.of(1, 1)));
+        Assertions.assertNotEquals(step, new EntityTeleportAction(2, entity, Position.of(0, 0), Position.of(1, 0)));
+        Assertions
+                .assertNotEquals(new EntityTurnAction(4, entity, Direction.EAST, Direction.SOUTH), new EntityTurnAction(4, entity, Direction.EAST, Direction.NORTH));
+        Assertions.assertNotEquals(new CustomAction(7), new CustomAction(7));
+    }
+    
+    /**
+     * Test that a retention by ticks keeps exactly the actions of the last ticks
+     */
+    @Test
+    void testTickRetention() {
+        final StandardActionLog log = new StandardActionLog();
+        log.setRetention(ActionLogRetention.lastTicks(100));
+        final TestEntity entity = new TestEntity();
+        final List<Action> logged = new ArrayList<>();
+        for (int tick = 0; tick < 10_000; tick++) {
+            final Action action = new EntityStepAction(tick, entity, Position.of(tick, 0), Position.of(tick + 1, 0));
+            logged.add(action);
+            log.logAction(action);
+        }
+        Assertions.assertEquals(logged.subList(9_900, 10_000), log.getAllActions());
+        Assertions.assertTrue(log.getActionsBetweenTicks(9_900, 9_999).isComplete());
+        Assertions.assertFalse(log.getActionsBetweenTicks(9_899, 9_999).isComplete());
+    }
+    
+    /**
+     * Test that a retention per entity removes despawned entities and limits the actions without entity
+     */
+    @Test
+    void testEntityRetention() {
+        final StandardActionLog log = new StandardActionLog();
+        final Playfield playfield = StandardSimulation.createSimulation(log).getPlayfield();
+        log.setRetention(ActionLogRetention.lastActionsPerEntity(3));
+        final TestEntity kept = new TestEntity();
+        final TestEntity despawned = new TestEntity();
+        final List<Action> keptActions = new ArrayList<>();
+        final List<Action> customActions = new ArrayList<>();
+        for (int tick = 0; tick < 10; tick++) {
+            final Action step = new EntityStepAction(tick, kept, Position.of(tick, 0), Position.of(tick + 1, 0));
+            keptActions.add(step);
+            log.logAction(step);
+            log.logAction(new EntityStepAction(tick, despawned, Position.of(tick, 1), Position.of(tick + 1, 1)));
+            final CustomAction custom = new CustomAction(tick);
+            customActions.add(custom);
+            log.logAction(custom);
+        }
+        log.logAction(new EntityDespawnAction(10, despawned, playfield));
+        
+        Assertions.assertEquals(keptActions.subList(7, 10), log.getAllActionsOfEntity(kept));
+        Assertions.assertFalse(log.getAllActionsOfEntity(kept).isComplete());
+        Assertions.assertEquals(List.of(), log.getAllActionsOfEntity(despawned));
+        Assertions.assertEquals(customActions.subList(7, 10), log.getActionsOfType(CustomAction.class, false));
+        Assertions.assertEquals(6, log.getAllActions().size());
+    }
+    
+    /**
+     * Test that shutting down the simulation writes the whole spill file and closes it
+     *
+     * @throws IOException
+     *     if the spill file cannot be read
+     */
+    @Test
+    void testSpillFileClosedOnShutdown() throws IOException {
+        final Path spillFile = Files.createTempFile("spill", ".txt");
+        try {
+            final StandardActionLog log = new StandardActionLog();
+            final StandardSimulation simulation = StandardSimulation.createSimulation(log);
+            log.setRetention(ActionLogRetention.lastTicks(10).spillingTo(spillFile));
+            final TestEntity entity = new TestEntity();
+            for (int tick = 0; tick < 1_000; tick++) {
+                log.logAction(new EntityStepAction(tick, entity, Position.of(tick, 0), Position.of(tick + 1, 0)));
+            }
+            simulation.shutdown();
+            final List<String> spilled = Files.readAllLines(spillFile);
+            Assertions.assertEquals(990, spilled.size());
+            Assertions.assertTrue(spilled.get(989).startsWith("989\t"));
+            
+            //the actions evicted after closing are discarded
+            log.logAction(new EntityStepAction(1_000, entity, Position.of(1_000, 0), Position.of(1_001, 0)));
+            log.flush();
+            Assertions.assertEquals(990, Files.readAllLines(spillFile).size());
+            Assertions.assertEquals(10, log.getAllActions().size());
+        } finally {
+            Files.delete(spillFile);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardHeadlessSimulationHost;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.Task;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.TaskRunResult;
+
+
+/**
+ * Test class for the {@link StandardHeadlessSimulationHost}
+ */
+class StandardHeadlessSimulationHostTest {
+    
+    /**
+     * A task starting a program which never ends on its own.
+     * <p>
+     * The program pauses between two operations until the run of the task has ended, so the run ends while the program
+     * does not wait for the clock.
+     * </p>
+     */
+    private static class EndlessProgramTask implements Task {
+        
+        private final CountDownLatch paused  = new CountDownLatch(1);
+        private final CountDownLatch resume  = new CountDownLatch(1);
+        private final CountDownLatch stopped = new CountDownLatch(1);
+        /** The playfield only references its simulation weakly; the program must not stop because it was collected */
+        private Simulation           simulation;
+        
+        @Override
+        public void prepare(final Simulation sim) {
+            this.simulation = sim;
+            final TestEntity entity = new TestEntity();
+            sim.getPlayfield().addEntity(new Position(0, 0), entity);
+            sim.getEntityProgramRegistry().registerEntityProgram("endless", new EntityProgram() {
+                @Override
+                public void run(final Entity programEntity) {
+                    try {
+                        ((TestEntity) programEntity).turnClockWise();
+                        EndlessProgramTask.this.paused.countDown();
+                        EndlessProgramTask.this.awaitResume();
+                        while (true) {
+                            ((TestEntity) programEntity).turnClockWise();
+                        }
+                    } finally {
+                        EndlessProgramTask.this.stopped.countDown();
+                    }
+                }
+                
+                @Override
+                public boolean canRunOn(final Entity programEntity) {
+                    return programEntity instanceof TestEntity;
+                }
+            });
+            sim.getEntityProgramRunner().run("endless", entity);
+        }
+        
+        private void awaitResume() {
+            //ignore interrupts, so only the clock can stop the program
+            while (true) {
+                try {
+                    this.resume.await();
+                    return;
+                } catch (@SuppressWarnings("unused") final InterruptedException e) {
+                    //wait again
+                }
+            }
+        }
+        
+        @Override
+        public void solve() {
+            try {
+                this.paused.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        @Override
+        public boolean verify() {
+            return this.paused.getCount() == 0;
+        }
+        
+        /**
+         * Let the program continue after the run has ended and wait for it to stop.
+         *
+         * @return whether the program stopped
+         * @throws InterruptedException
+         *     if interrupted while waiting for the program
+         */
+        private boolean resumeAndAwaitStop() throws InterruptedException {
+            this.resume.countDown();
+            return this.stopped.await(10, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Test that the programs of a task stop once {@link HeadlessSimulationHost#runTask(String)} returns
+     *
+     * @throws InterruptedException
+     *     if interrupted while waiting for the program
+     */
+    @Test
+    void testRunTaskStopsPrograms() throws InterruptedException {
+        final StandardHeadlessSimulationHost host = new StandardHeadlessSimulationHost();
+        final EndlessProgramTask task = new EndlessProgramTask();
+        host.getTaskRegistry().registerTask("endless", task);
+        Assertions.assertTrue(host.runTask("endless"));
+        Assertions.assertTrue(task.resumeAndAwaitStop());
+    }
+    
+    /**
+     * Test that the programs of all tasks stop once {@link HeadlessSimulationHost#runTasks(List, int)} returns
+     *
+     * @throws InterruptedException
+     *     if interrupted while waiting for the programs
+     */
+    @Test
+    void testRunTasksStopsPrograms() throws InterruptedException {
+        final StandardHeadlessSimulationHost host = new StandardHeadlessSimulationHost();
+        final EndlessProgramTask first = new EndlessProgramTask();
+        final EndlessProgramTask second = new EndlessProgramTask();
+        final List<TaskRunResult> results = host.runTasks(List.of(first, second), 2);
+        Assertions.assertEquals(2, results.size());
+        Assertions.assertTrue(results.get(0).isSuccessful());
+        Assertions.assertTrue(results.get(1).isSuccessful());
+        Assertions.assertTrue(first.resumeAndAwaitStop());
+        Assertions.assertTrue(second.resumeAndAwaitStop());
+    }
+    
+    /**
+     * Test that operations cannot be scheduled on a clock which is shut down
+     */
+    @Test
+    void testScheduleAfterShutdown() {
+        final StandardSimulationClock clock = new StandardSimulationClock();
+        clock.shutdown();
+        final CompletableFuture<Void> endOfOperation = new CompletableFuture<>();
+        Assertions.assertThrows(CancellationException.class, () -> clock.scheduleOperationAtNextTick(endOfOperation));
+        Assertions.assertThrows(CancellationException.class, () -> clock.scheduleOperationAtTick(0, endOfOperation));
+    }
+}
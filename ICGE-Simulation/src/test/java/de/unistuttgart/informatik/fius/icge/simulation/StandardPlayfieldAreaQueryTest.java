@@ -0,0 +1,140 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.StandardPlayfield;
+
+
+/**
+ * Test class for the area queries of the {@link StandardPlayfield}
+ */
+class StandardPlayfieldAreaQueryTest {
+    
+    private static Set<Entity> identitySet(final List<? extends Entity> entities) {
+        final Set<Entity> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(entities);
+        Assertions.assertEquals(entities.size(), set.size(), "an entity was returned twice");
+        return set;
+    }
+    
+    private static <T extends Entity> Set<Entity> expected(
+            final Map<Entity, Position> positions, final Position min, final Position max, final Class<T> type
+    ) {
+        final List<Entity> inArea = new ArrayList<>();
+        positions.forEach((entity, pos) -> {
+            if (
+                type.isInstance(entity) && (pos.getX() >= min.getX()) && (pos.getX() <= max.getX()) && (pos.getY() >= min.getY())
+                        && (pos.getY() <= max.getY())
+            ) {
+                inArea.add(entity);
+            }
+        });
+        return StandardPlayfieldAreaQueryTest.identitySet(inArea);
+    }
+    
+    /**
+     * Test small and large areas against the positions of randomly placed entities
+     */
+    @Test
+    void testAreasMatchPositions() {
+        final Random random = new Random(42);
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final Map<Entity, Position> positions = new IdentityHashMap<>();
+        for (int i = 0; i < 300; i++) {
+            final TestEntity entity = (i % 3) == 0 ? new TestEntity.SubEntity() : new TestEntity();
+            final Position pos = Position.of(random.nextInt(81) - 40, random.nextInt(81) - 40);
+            playfield.addEntity(pos, entity);
+            positions.put(entity, pos);
+        }
+        
+        for (int i = 0; i < 500; i++) {
+            //mostly areas of a few chunks, which are looked up one by one, some covering more chunks than exist
+            final int size = (i % 5) == 0 ? 200 + random.nextInt(1000) : random.nextInt(40);
+            final Position min = Position.of(random.nextInt(101) - 60, random.nextInt(101) - 60);
+            final Position max = Position.of(min.getX() + random.nextInt(size + 1), min.getY() + random.nextInt(size + 1));
+            final List<Entity> inArea = playfield.getEntitiesInArea(min, max);
+            Assertions
+                    .assertEquals(StandardPlayfieldAreaQueryTest.expected(positions, min, max, Entity.class), StandardPlayfieldAreaQueryTest.identitySet(inArea));
+            final List<TestEntity.SubEntity> subEntities = playfield.getEntitiesOfTypeInArea(min, max, TestEntity.SubEntity.class, false);
+            Assertions.assertEquals(
+                    StandardPlayfieldAreaQueryTest.expected(positions, min, max, TestEntity.SubEntity.class), StandardPlayfieldAreaQueryTest.identitySet(subEntities)
+            );
+        }
+        
+        final Position smallest = Position.of(Integer.MIN_VALUE, Integer.MIN_VALUE);
+        final Position largest = Position.of(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        final List<Entity> all = playfield.getEntitiesInArea(smallest, largest);
+        Assertions.assertEquals(
+                StandardPlayfieldAreaQueryTest.identitySet(playfield.getAllEntities()), StandardPlayfieldAreaQueryTest.identitySet(all)
+        );
+    }
+    
+    /**
+     * Test that an area with negative coordinates includes the cells on both sides of the chunk borders it covers
+     */
+    @Test
+    void testNegativeCoordinatesAcrossChunkBorders() {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final Map<Entity, Position> positions = new IdentityHashMap<>();
+        for (final int coordinate : new int[] { -33, -32, -17, -16, -1, 0, 15, 16 }) {
+            final TestEntity entity = new TestEntity();
+            final Position pos = Position.of(coordinate, coordinate);
+            playfield.addEntity(pos, entity);
+            positions.put(entity, pos);
+        }
+        
+        final Position min = Position.of(-32, -32);
+        final Position max = Position.of(15, 15);
+        final Set<Entity> inArea = StandardPlayfieldAreaQueryTest.identitySet(playfield.getEntitiesInArea(min, max));
+        Assertions.assertEquals(StandardPlayfieldAreaQueryTest.expected(positions, min, max, Entity.class), inArea);
+        Assertions.assertEquals(6, inArea.size());
+        Assertions.assertEquals(1, playfield.getEntitiesInArea(Position.of(-17, -17), Position.of(-17, -1)).size());
+        Assertions.assertEquals(2, playfield.getEntitiesInArea(Position.of(-17, -17), Position.of(-16, -16)).size());
+        Assertions.assertTrue(playfield.getEntitiesInArea(Position.of(-15, -15), Position.of(-2, -2)).isEmpty());
+    }
+    
+    /**
+     * Test that an area of one position returns the same entities as {@link Playfield#getEntitiesAt(Position)}
+     */
+    @Test
+    void testSinglePositionMatchesEntitiesAt() {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final Position shared = Position.of(-16, 7);
+        playfield.addEntity(shared, new TestEntity());
+        playfield.addEntity(shared, new TestEntity.SubEntity());
+        playfield.addEntity(shared, new TestEntity());
+        playfield.addEntity(Position.of(-17, 7), new TestEntity());
+        
+        for (final Position pos : List.of(shared, Position.of(-17, 7), Position.of(-15, 7), Position.of(100, -100))) {
+            Assertions.assertEquals(playfield.getEntitiesAt(pos), playfield.getEntitiesInArea(pos, pos));
+            final List<TestEntity.SubEntity> subEntities = playfield.getEntitiesOfTypeAt(pos, TestEntity.SubEntity.class, true);
+            Assertions.assertEquals(subEntities, playfield.getEntitiesOfTypeInArea(pos, pos, TestEntity.SubEntity.class, true));
+        }
+        Assertions.assertEquals(3, playfield.getEntitiesInArea(shared, shared).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> playfield.getEntitiesInArea(Position.of(1, 0), Position.of(0, 0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> playfield.getEntitiesInArea(null, shared));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.playfield.StandardPlayfield;
+import de.unistuttgart.informatik.fius.icge.ui.Drawable;
+import de.unistuttgart.informatik.fius.icge.ui.SimulationProxy.EntityDrawListener;
+
+
+/**
+ * Test class for the drawing of the {@link StandardPlayfield}
+ */
+class StandardPlayfieldDrawTest {
+    
+    /**
+     * A draw listener recording the changes of the drawables.
+     */
+    private static class RecordingDrawListener implements EntityDrawListener {
+        
+        private final boolean                    supportsUpdates;
+        private final List<List<Drawable>>       set     = new ArrayList<>();
+        private final List<Collection<Drawable>> removed = new ArrayList<>();
+        private final List<Collection<Drawable>> added   = new ArrayList<>();
+        
+        private RecordingDrawListener(final boolean supportsUpdates) {
+            this.supportsUpdates = supportsUpdates;
+        }
+        
+        @Override
+        public synchronized void setDrawables(final List<Drawable> drawables) {
+            this.set.add(List.copyOf(drawables));
+        }
+        
+        @Override
+        public synchronized void updateDrawables(final Collection<Drawable> removedDrawables, final Collection<Drawable> addedDrawables) {
+            this.removed.add(List.copyOf(removedDrawables));
+            this.added.add(List.copyOf(addedDrawables));
+        }
+        
+        @Override
+        public boolean supportsDrawableUpdates() {
+            return this.supportsUpdates;
+        }
+        
+        @Override
+        public void draw(final long tickCount) {
+            //only the drawables are recorded
+        }
+        
+        private synchronized int getUpdateCount() {
+            return this.added.size();
+        }
+    }
+    
+    private static void assertDrawnAt(final Drawable drawable, final int x, final int y) {
+        Assertions.assertEquals(x, drawable.getX());
+        Assertions.assertEquals(y, drawable.getY());
+    }
+    
+    /**
+     * Test that adding, moving and removing an entity replaces the drawn drawable
+     */
+    @Test
+    void testAddMoveRemove() {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final RecordingDrawListener listener = new RecordingDrawListener(true);
+        simulation.setEntityDrawListener(listener);
+        Assertions.assertEquals(List.of(List.of()), listener.set);
+        
+        final TestEntity entity = new TestEntity();
+        playfield.addEntity(Position.of(0, 0), entity);
+        Assertions.assertEquals(1, listener.getUpdateCount());
+        Assertions.assertTrue(listener.removed.get(0).isEmpty());
+        final Drawable first = listener.added.get(0).iterator().next();
+        StandardPlayfieldDrawTest.assertDrawnAt(first, 0, 0);
+        
+        playfield.moveEntity(entity, Position.of(3, -2));
+        Assertions.assertEquals(2, listener.getUpdateCount());
+        Assertions.assertSame(first, listener.removed.get(1).iterator().next());
+        final Drawable second = listener.added.get(1).iterator().next();
+        StandardPlayfieldDrawTest.assertDrawnAt(second, 3, -2);
+        
+        playfield.removeEntity(entity);
+        Assertions.assertEquals(3, listener.getUpdateCount());
+        Assertions.assertEquals(List.of(second), listener.removed.get(2));
+        Assertions.assertTrue(listener.added.get(2).isEmpty());
+        Assertions.assertEquals(1, listener.set.size());
+    }
+    
+    /**
+     * Test that the drawable of an entity is not sent again while it does not change
+     */
+    @Test
+    void testUnchangedDrawableNotSentAgain() {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final RecordingDrawListener listener = new RecordingDrawListener(true);
+        simulation.setEntityDrawListener(listener);
+        final TestEntity entity = new TestEntity();
+        playfield.addEntity(Position.of(1, 1), entity);
+        Assertions.assertEquals(1, listener.getUpdateCount());
+        
+        playfield.drawInformationChanged(entity);
+        //the looking direction is not part of the drawable
+        entity.turnClockWiseIntent().performOperation();
+        playfield.drawEntities();
+        Assertions.assertEquals(1, listener.getUpdateCount());
+    }
+    
+    /**
+     * Test that the changes made while the clock is running are sent once with the next tick
+     *
+     * @throws InterruptedException
+     *     if interrupted while waiting for the clock
+     */
+    @Test
+    void testChangesCombinedPerTick() throws InterruptedException {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final StandardSimulationClock clock = simulation.getSimulationClock();
+        final RecordingDrawListener listener = new RecordingDrawListener(true);
+        simulation.setEntityDrawListener(listener);
+        final TestEntity moved = new TestEntity();
+        final TestEntity removed = new TestEntity();
+        playfield.addEntity(Position.of(0, 0), moved);
+        playfield.addEntity(Position.of(5, 5), removed);
+        Assertions.assertEquals(2, listener.getUpdateCount());
+        final Drawable removedDrawable = listener.added.get(1).iterator().next();
+        
+        try {
+            //only the first render tick is processed before the changes
+            clock.setPeriod(60_000);
+            clock.start();
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while ((clock.getLastRenderTickNumber() < 0) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(1);
+            }
+            Assertions.assertTrue(clock.isRunning());
+            final TestEntity addedEntity = new TestEntity();
+            playfield.addEntity(Position.of(2, 0), addedEntity);
+            playfield.moveEntity(moved, Position.of(1, 0));
+            playfield.moveEntity(moved, Position.of(1, 1));
+            playfield.removeEntity(removed);
+            Assertions.assertEquals(2, listener.getUpdateCount());
+            
+            //the next simulation tick sends the changes
+            clock.stop();
+            clock.step();
+            while ((listener.getUpdateCount() < 3) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(1);
+            }
+            Assertions.assertEquals(3, listener.getUpdateCount());
+            final Collection<Drawable> removedInTick = listener.removed.get(2);
+            final Collection<Drawable> addedInTick = listener.added.get(2);
+            Assertions.assertEquals(2, removedInTick.size());
+            Assertions.assertTrue(removedInTick.contains(removedDrawable));
+            Assertions.assertTrue(removedInTick.contains(listener.added.get(0).iterator().next()));
+            Assertions.assertEquals(2, addedInTick.size());
+            Assertions.assertTrue(addedInTick.stream().anyMatch(drawable -> (drawable.getX() == 1) && (drawable.getY() == 1)));
+            Assertions.assertTrue(addedInTick.stream().anyMatch(drawable -> (drawable.getX() == 2) && (drawable.getY() == 0)));
+        } finally {
+            clock.shutdown();
+        }
+    }
+    
+    /**
+     * Test that all drawables are set again if the listener does not support updating them
+     */
+    @Test
+    void testFallbackToSetDrawables() {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardPlayfield playfield = simulation.getPlayfield();
+        final RecordingDrawListener listener = new RecordingDrawListener(false);
+        simulation.setEntityDrawListener(listener);
+        final TestEntity entity = new TestEntity();
+        final TestEntity other = new TestEntity();
+        playfield.addEntity(Position.of(0, 0), entity);
+        playfield.addEntity(Position.of(4, 0), other);
+        playfield.moveEntity(entity, Position.of(1, 0));
+        
+        Assertions.assertEquals(0, listener.getUpdateCount());
+        Assertions.assertEquals(4, listener.set.size());
+        final List<Drawable> drawables = listener.set.get(3);
+        Assertions.assertEquals(2, drawables.size());
+        Assertions.assertTrue(drawables.stream().anyMatch(drawable -> (drawable.getX() == 1) && (drawable.getY() == 0)));
+        Assertions.assertTrue(drawables.stream().anyMatch(drawable -> (drawable.getX() == 4) && (drawable.getY() == 0)));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> new EntityDrawListener() {
+            @Override
+            public void setDrawables(final List<Drawable> unused) {
+                //not used
+            }
+            
+            @Override
+            public void draw(final long tickCount) {
+                //not used
+            }
+        }.updateDrawables(List.of(), List.of()));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulationClock;
+
+
+/**
+ * Test class for the {@link StandardSimulationClock}
+ */
+class StandardSimulationClockTest {
+    
+    private static final int OPERATIONS = 20;
+    
+    /**
+     * Schedule an operation at the given tick on a new thread.
+     *
+     * @return a future completed with the tick the operation ran in or with the exception of scheduling it
+     */
+    private static CompletableFuture<Long> scheduleOnNewThread(
+            final StandardSimulationClock clock, final long tick, final Runnable operation, final List<Thread> threads
+    ) {
+        final CompletableFuture<Long> ranAt = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            final CompletableFuture<Void> endOfOperation = new CompletableFuture<>();
+            try {
+                clock.scheduleOperationAtTick(tick, endOfOperation);
+                final long currentTick = clock.getLastTickNumber();
+                operation.run();
+                ranAt.complete(currentTick);
+            } catch (final RuntimeException e) {
+                ranAt.completeExceptionally(e);
+            } finally {
+                endOfOperation.complete(null);
+            }
+        });
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+        return ranAt;
+    }
+    
+    /**
+     * Wait until all given threads wait for the clock, so their operations are scheduled.
+     */
+    private static void awaitWaiting(final List<Thread> threads) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        for (final Thread thread : threads) {
+            while ((thread.getState() != Thread.State.WAITING) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(1);
+            }
+            Assertions.assertEquals(Thread.State.WAITING, thread.getState());
+        }
+    }
+    
+    private static void assertCancelled(final CompletableFuture<Long> ranAt) {
+        //a future completed with a CancellationException rethrows it directly
+        Assertions.assertThrows(CancellationException.class, () -> ranAt.get(10, TimeUnit.SECONDS));
+    }
+    
+    /**
+     * Test that all operations scheduled for the same tick run in that tick and are done before the clock continues
+     *
+     * @throws Exception
+     *     if waiting for the operations fails
+     */
+    @Test
+    void testOperationsOfOneTickFinishBeforeClockContinues() throws Exception {
+        final StandardSimulationClock clock = new StandardSimulationClock();
+        final AtomicInteger done = new AtomicInteger();
+        final CompletableFuture<Integer> doneInTickListener = new CompletableFuture<>();
+        clock.registerTickListener(tick -> {
+            if (tick < 1) return true;
+            doneInTickListener.complete(done.get());
+            return false;
+        });
+        final List<Thread> threads = new ArrayList<>();
+        final List<CompletableFuture<Long>> ranAt = new ArrayList<>();
+        try {
+            for (int i = 0; i < StandardSimulationClockTest.OPERATIONS; i++) {
+                ranAt.add(StandardSimulationClockTest.scheduleOnNewThread(clock, 1, () -> {
+                    //the operations take some time, so the clock would continue without waiting for them
+                    try {
+                        Thread.sleep(20);
+                    } catch (final InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    done.incrementAndGet();
+                }, threads));
+            }
+            StandardSimulationClockTest.awaitWaiting(threads);
+            clock.setPeriod(1);
+            clock.start();
+            for (final CompletableFuture<Long> operation : ranAt) {
+                Assertions.assertEquals(Long.valueOf(1), operation.get(10, TimeUnit.SECONDS));
+            }
+            //the tick listeners of the tick run after all its operations
+            final Integer doneBeforeListener = doneInTickListener.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(Integer.valueOf(StandardSimulationClockTest.OPERATIONS), doneBeforeListener);
+        } finally {
+            clock.shutdown();
+        }
+    }
+    
+    /**
+     * Test that waiting operations are cancelled and new ones are rejected after the clock cancels its operations or is
+     * shut down
+     *
+     * @throws Exception
+     *     if waiting for the operations fails
+     */
+    @Test
+    void testOperationsCancelled() throws Exception {
+        final StandardSimulationClock clock = new StandardSimulationClock();
+        final List<Thread> threads = new ArrayList<>();
+        final Runnable nothing = () -> {
+            //only the scheduling is tested
+        };
+        
+        final CompletableFuture<Long> beforeCancel = StandardSimulationClockTest.scheduleOnNewThread(clock, 100, nothing, threads);
+        StandardSimulationClockTest.awaitWaiting(threads);
+        clock.cancelOperations();
+        StandardSimulationClockTest.assertCancelled(beforeCancel);
+        StandardSimulationClockTest.assertCancelled(StandardSimulationClockTest.scheduleOnNewThread(clock, 100, nothing, threads));
+        
+        //the clock accepts operations again after a reset
+        clock.reset();
+        threads.clear();
+        final List<CompletableFuture<Long>> beforeShutdown = new ArrayList<>();
+        for (int i = 0; i < StandardSimulationClockTest.OPERATIONS; i++) {
+            beforeShutdown.add(StandardSimulationClockTest.scheduleOnNewThread(clock, 100 + (i % 3), nothing, threads));
+        }
+        StandardSimulationClockTest.awaitWaiting(threads);
+        clock.shutdown();
+        for (final CompletableFuture<Long> operation : beforeShutdown) {
+            StandardSimulationClockTest.assertCancelled(operation);
+        }
+        StandardSimulationClockTest.assertCancelled(StandardSimulationClockTest.scheduleOnNewThread(clock, 1, nothing, threads));
+    }
+}
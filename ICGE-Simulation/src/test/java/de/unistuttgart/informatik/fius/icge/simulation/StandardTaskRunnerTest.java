@@ -0,0 +1,170 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.simulation.actions.EntityStepAction;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.Entity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.program.EntityProgram;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.StandardSimulation;
+import de.unistuttgart.informatik.fius.icge.simulation.internal.tasks.StandardTaskRunner;
+import de.unistuttgart.informatik.fius.icge.simulation.tasks.Task;
+
+
+/**
+ * Test class for the {@link StandardTaskRunner}
+ */
+class StandardTaskRunnerTest {
+    
+    /**
+     * A task moving one entity while a program started in {@link #prepare(Simulation)} turns another one once.
+     */
+    private static class MovingTask implements Task {
+        
+        /** Counted down once the task has started to solve */
+        final CountDownLatch    moved = new CountDownLatch(1);
+        /** Awaited before solving unless null */
+        volatile CountDownLatch start;
+        Simulation              sim;
+        private TestEntity      mover;
+        private TestEntity      turner;
+        
+        @Override
+        public void prepare(final Simulation simulation) {
+            this.sim = simulation;
+            this.mover = new TestEntity();
+            this.turner = new TestEntity();
+            simulation.getPlayfield().addEntity(new Position(0, 0), this.mover);
+            simulation.getPlayfield().addEntity(new Position(5, 5), this.turner);
+            simulation.getEntityProgramRegistry().registerEntityProgram("turner", new EntityProgram() {
+                @Override
+                public void run(final Entity entity) {
+                    ((TestEntity) entity).turnClockWise();
+                    while (true) {
+                        ((TestEntity) entity).sleep(1);
+                    }
+                }
+                
+                @Override
+                public boolean canRunOn(final Entity entity) {
+                    return entity instanceof TestEntity;
+                }
+            });
+            simulation.getEntityProgramRunner().run("turner", this.turner);
+        }
+        
+        @Override
+        public void solve() {
+            if (this.start != null) {
+                awaitUninterruptibly(this.start);
+            }
+            //the snapshot is taken after preparing, so the program must not turn before
+            this.sim.getSimulationClock().start();
+            this.mover.move();
+            this.moved.countDown();
+            this.mover.move();
+        }
+        
+        @Override
+        public boolean verify() {
+            //the steps of an earlier run must not count
+            final int steps = this.sim.getActionLog().getActionsOfTypeOfEntity(this.mover, EntityStepAction.class, true).size();
+            return this.mover.getPosition().equals(new Position(2, 0)) && (steps == 2);
+        }
+    }
+    
+    /**
+     * Test that a stopped task restarts from the state after it was prepared
+     *
+     * @throws Exception
+     *     if the run fails
+     */
+    @Test
+    void testRestartTask() throws Exception {
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final MovingTask task = new MovingTask();
+        final StandardTaskRunner runner = new StandardTaskRunner(task, simulation);
+        try {
+            simulation.getSimulationClock().setUnthrottled(true);
+            final CompletableFuture<Boolean> firstRun = runner.runRestartableTask();
+            Assertions.assertTrue(firstRun.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(Direction.SOUTH, task.turner.getLookingDirection());
+            Assertions.assertTrue(runner.stopTask(5000));
+            Assertions.assertFalse(simulation.getSimulationClock().isRunning());
+            
+            //check the restored state before the clock is started again
+            task.start = new CountDownLatch(1);
+            final CompletableFuture<Boolean> secondRun = runner.restartTask();
+            Assertions.assertEquals(new Position(0, 0), task.mover.getPosition());
+            Assertions.assertEquals(Direction.EAST, task.turner.getLookingDirection());
+            Assertions.assertEquals(2, simulation.getActionLog().getAllActions().size());
+            Assertions.assertEquals("turner", simulation.getEntityProgramRunner().getProgramNames().get(task.turner));
+            Assertions.assertThrows(IllegalStateException.class, runner::restartTask);
+            task.start.countDown();
+            Assertions.assertTrue(secondRun.get(10, TimeUnit.SECONDS));
+        } finally {
+            simulation.getSimulationClock().shutdown();
+            simulation.getEntityProgramRunner().shutdown();
+        }
+    }
+    
+    /**
+     * Test that a task which does not stop in time cannot be restarted
+     *
+     * @throws Exception
+     *     if the run fails
+     */
+    @Test
+    void testStopTaskTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final MovingTask task = new MovingTask() {
+            @Override
+            public void solve() {
+                this.sim.getSimulationClock().start();
+                this.moved.countDown();
+                //ignore the stop until the test releases the task
+                awaitUninterruptibly(release);
+            }
+        };
+        final StandardSimulation simulation = StandardSimulation.createSimulation();
+        final StandardTaskRunner runner = new StandardTaskRunner(task, simulation);
+        try {
+            Assertions.assertFalse(runner.stopTask(100), "a task which did not run cannot be stopped for a restart");
+            simulation.getSimulationClock().setUnthrottled(true);
+            final CompletableFuture<Boolean> run = runner.runRestartableTask();
+            Assertions.assertTrue(task.moved.await(10, TimeUnit.SECONDS));
+            Assertions.assertFalse(runner.stopTask(100));
+            Assertions.assertThrows(IllegalStateException.class, runner::restartTask);
+            release.countDown();
+            Assertions.assertFalse(run.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            simulation.getSimulationClock().shutdown();
+            simulation.getEntityProgramRunner().shutdown();
+        }
+    }
+    
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (@SuppressWarnings("unused") final InterruptedException e) {
+                //wait again
+            }
+        }
+    }
+}
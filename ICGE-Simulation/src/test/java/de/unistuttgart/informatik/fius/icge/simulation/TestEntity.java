@@ -0,0 +1,44 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.simulation;
+
+import de.unistuttgart.informatik.fius.icge.simulation.entity.CollectableEntity;
+import de.unistuttgart.informatik.fius.icge.simulation.entity.MovableEntity;
+
+
+/**
+ * A minimal movable entity for the tests.
+ */
+public class TestEntity extends MovableEntity {
+    
+    @Override
+    protected String getTextureHandle() {
+        return "test";
+    }
+    
+    @Override
+    protected int getZPosition() {
+        return 0;
+    }
+    
+    /**
+     * A subclass to test type queries.
+     */
+    public static class SubEntity extends TestEntity {
+        //only the type differs
+    }
+    
+    /**
+     * A collectable subclass to test collect and drop actions.
+     */
+    public static class CollectableTestEntity extends TestEntity implements CollectableEntity {
+        //only the type differs
+    }
+}
@@ -9,6 +9,7 @@
  */
 package de.unistuttgart.informatik.fius.icge.ui;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -288,6 +289,35 @@ public interface SimulationProxy {
          */
         void setDrawables(List<Drawable> drawables);
         
+        /**
+         * Change the current list of Drawables to be rendered.
+         * <p>
+         * A moved entity is reported by removing its old Drawable and adding its new one. The listener may delay the
+         * changes until the next frame, so many changes made between two render ticks are drawn together.
+         * </p>
+         * <p>
+         * This operation is optional; it is only called if {@link #supportsDrawableUpdates()} returns true. Otherwise
+         * the whole list is set again with {@link #setDrawables(List)}.
+         * </p>
+         *
+         * @param removed
+         *     the Drawables not to render any more; the instances previously passed to this listener
+         * @param added
+         *     the Drawables to render additionally
+         * @throws UnsupportedOperationException
+         *     if this listener does not support changing the list
+         */
+        default void updateDrawables(Collection<Drawable> removed, Collection<Drawable> added) {
+            throw new UnsupportedOperationException("This listener cannot change the list of drawables.");
+        }
+        
+        /**
+         * @return whether this listener supports {@link #updateDrawables(Collection, Collection)}; false by default
+         */
+        default boolean supportsDrawableUpdates() {
+            return false;
+        }
+        
         /**
          * (Re-)Draws the playfield.
          * 
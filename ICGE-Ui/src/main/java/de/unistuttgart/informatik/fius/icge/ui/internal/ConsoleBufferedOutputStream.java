@@ -1,49 +1,165 @@
 /*
  * This source file is part of the FIUS ICGE project.
  * For more information see github.com/FIUS/ICGE2
- * 
+ *
  * Copyright (c) 2019 the ICGE project authors.
- * 
+ *
  * This software is available under the MIT license.
  * SPDX-License-Identifier:    MIT
  */
 package de.unistuttgart.informatik.fius.icge.ui.internal;
 
-import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 
-import javax.swing.JTextArea;
+import javax.swing.Timer;
 
 
 /**
- * The ConsoleBufferedOutputStream allows other streams and classes to write text into a {@link JTextArea}
+ * The ConsoleBufferedOutputStream allows other streams and classes to write text into a {@link ConsoleLineBuffer}
+ * <p>
+ * The written bytes are decoded with the given charset, so characters split across several writes are kept intact. The
+ * text is collected and appended to the line buffer on the event dispatch thread at most every
+ * {@value #PUSH_DELAY_MILLIS}ms, so a lot of output does not freeze the user interface.
+ * </p>
  *
  * @author Tobias Wältken
  * @version 1.0
  */
 public class ConsoleBufferedOutputStream extends OutputStream {
     
-    private final JTextArea textArea;
+    /** The time the written text is collected before it is appended to the line buffer */
+    public static final int PUSH_DELAY_MILLIS = 16;
+    
+    private final ConsoleLineBuffer lines;
     
-    //TODO add actual buffer to avoid overflowing the textarea and cause lag
+    private final CharsetDecoder decoder;
+    /** The bytes of a character whose last bytes were not written yet */
+    private final ByteBuffer     undecoded = ByteBuffer.allocate(16);
+    private final CharBuffer     decoded   = CharBuffer.allocate(1024);
+    /** The text waiting to be appended to the line buffer */
+    private final StringBuilder  pending   = new StringBuilder();
+    /** Whether the line buffer has to be cleared before the pending text is appended */
+    private boolean              clearPending;
+    /** Runs while text is written and stops once there is nothing to append */
+    private final Timer          pushTimer;
+    private boolean              pushScheduled;
     
     /**
      * Default Constructor
      *
-     * @param textArea
-     *     The text area to place the stream data into
+     * @param lines
+     *     The line buffer to place the stream data into
+     */
+    public ConsoleBufferedOutputStream(final ConsoleLineBuffer lines) {
+        this(lines, Charset.defaultCharset());
+    }
+    
+    /**
+     * Create a new stream decoding the bytes with the given charset.
+     *
+     * @param lines
+     *     The line buffer to place the stream data into
+     * @param charset
+     *     The charset the written text is encoded with
      */
-    public ConsoleBufferedOutputStream(final JTextArea textArea) {
-        this.textArea = textArea;
+    public ConsoleBufferedOutputStream(final ConsoleLineBuffer lines, final Charset charset) {
+        this.lines = lines;
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.pushTimer = new Timer(ConsoleBufferedOutputStream.PUSH_DELAY_MILLIS, unused -> this.push());
+    }
+    
+    @Override
+    public void write(final int arg0) {
+        this.write(new byte[] { (byte) arg0 }, 0, 1);
     }
     
     @Override
-    public void flush() throws IOException {
-        super.flush();
+    public synchronized void write(final byte[] bytes, final int offset, final int length) {
+        if ((offset < 0) || (length < 0) || (length > (bytes.length - offset))) throw new IndexOutOfBoundsException();
+        ByteBuffer input = ByteBuffer.wrap(bytes, offset, length);
+        if (this.undecoded.position() > 0) {
+            //complete the started character first
+            while (input.hasRemaining() && this.undecoded.hasRemaining()) {
+                this.undecoded.put(input.get());
+                this.undecoded.flip();
+                this.decode(this.undecoded);
+                this.undecoded.compact();
+                if (this.undecoded.position() == 0) {
+                    break;
+                }
+            }
+        }
+        this.decode(input);
+        if (input.hasRemaining()) {
+            this.undecoded.put(input);
+        }
+        this.schedulePush();
+    }
+    
+    private void decode(final ByteBuffer input) {
+        while (true) {
+            final boolean overflow = this.decoder.decode(input, this.decoded, false).isOverflow();
+            this.decoded.flip();
+            this.pending.append(this.decoded);
+            this.decoded.clear();
+            if (!overflow) return;
+        }
+    }
+    
+    private void schedulePush() {
+        if (!this.pushScheduled && ((this.pending.length() > 0) || this.clearPending)) {
+            this.pushScheduled = true;
+            this.pushTimer.start();
+        }
+    }
+    
+    /**
+     * Append the pending text to the line buffer; called on the event dispatch thread.
+     */
+    private void push() {
+        final String text;
+        final boolean clear;
+        synchronized (this) {
+            if ((this.pending.length() == 0) && !this.clearPending) {
+                //stopping while holding the lock makes sure the next write starts the timer again
+                this.pushScheduled = false;
+                this.pushTimer.stop();
+                return;
+            }
+            text = this.pending.toString();
+            this.pending.setLength(0);
+            clear = this.clearPending;
+            this.clearPending = false;
+        }
+        if (clear) {
+            this.lines.clear();
+        }
+        if (!text.isEmpty()) {
+            this.lines.append(text);
+        }
+    }
+    
+    /**
+     * Discard the text not yet appended to the line buffer and clear the line buffer.
+     * <p>
+     * The line buffer is cleared with the next push, so text written after this call is never removed.
+     * </p>
+     */
+    public synchronized void clear() {
+        this.pending.setLength(0);
+        this.undecoded.clear();
+        this.decoder.reset();
+        this.clearPending = true;
+        this.schedulePush();
     }
     
     @Override
-    public void write(final int arg0) throws IOException {
-        this.textArea.append("" + (char) arg0);
+    public synchronized void flush() {
+        this.schedulePush();
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.util.Locale;
+
+import javax.swing.AbstractListModel;
+
+
+/**
+ * The lines of a console, kept in a ring buffer with a fixed capacity.
+ * <p>
+ * Once the capacity is reached, every new line drops the oldest line, so memory and layout cost stay constant no matter
+ * how much text is appended. Lines longer than {@value #MAX_LINE_LENGTH} characters are wrapped. Like all swing models
+ * the buffer must only be used on the event dispatch thread.
+ * </p>
+ */
+public class ConsoleLineBuffer extends AbstractListModel<String> {
+    private static final long serialVersionUID = -4519307823176392785L;
+    
+    /** The number of lines kept by default */
+    public static final int DEFAULT_CAPACITY = 10000;
+    /** The maximum number of characters in one line */
+    public static final int MAX_LINE_LENGTH  = 1000;
+    
+    private final String[] lines;
+    /** The index of the oldest line in {@link #lines} */
+    private int            start;
+    private int            size;
+    /** Whether the last line was not terminated yet and text is appended to it */
+    private boolean        lastLineOpen;
+    private int            longestLineLength;
+    
+    //counters of the current append to fire the matching events
+    private int     droppedLines;
+    private boolean lastLineChanged;
+    
+    /**
+     * Create a new buffer keeping {@value #DEFAULT_CAPACITY} lines.
+     */
+    public ConsoleLineBuffer() {
+        this(ConsoleLineBuffer.DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Create a new buffer.
+     *
+     * @param capacity
+     *     The maximum number of lines kept; must be positive
+     */
+    public ConsoleLineBuffer(final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity must be positive.");
+        this.lines = new String[capacity];
+    }
+    
+    /**
+     * @return the maximum number of lines kept
+     */
+    public int getCapacity() {
+        return this.lines.length;
+    }
+    
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+    
+    @Override
+    public String getElementAt(final int index) {
+        if ((index < 0) || (index >= this.size)) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        return this.lines[(this.start + index) % this.lines.length];
+    }
+    
+    /**
+     * @return the length of the longest line appended since the buffer was last cleared
+     */
+    public int getLongestLineLength() {
+        return this.longestLineLength;
+    }
+    
+    /**
+     * Append the given text. Line breaks start new lines; text after the last line break is continued by the next call.
+     *
+     * @param text
+     *     The text to append; must not be null
+     */
+    public void append(final String text) {
+        if (text == null) throw new IllegalArgumentException("The given text is null.");
+        final int oldSize = this.size;
+        this.droppedLines = 0;
+        this.lastLineChanged = false;
+        
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = text.indexOf('\n', lineStart)) >= 0) {
+            final int end = ((lineEnd > lineStart) && (text.charAt(lineEnd - 1) == '\r')) ? lineEnd - 1 : lineEnd;
+            this.appendToLine(text.substring(lineStart, end));
+            this.lastLineOpen = false;
+            lineStart = lineEnd + 1;
+        }
+        if (lineStart < text.length()) {
+            this.appendToLine(text.substring(lineStart));
+            this.lastLineOpen = true;
+        }
+        
+        final int removedOldLines = Math.min(this.droppedLines, oldSize);
+        final int remainingOldLines = oldSize - removedOldLines;
+        if (removedOldLines > 0) {
+            this.fireIntervalRemoved(this, 0, removedOldLines - 1);
+        }
+        if (this.lastLineChanged && (remainingOldLines > 0)) {
+            this.fireContentsChanged(this, remainingOldLines - 1, remainingOldLines - 1);
+        }
+        if (this.size > remainingOldLines) {
+            this.fireIntervalAdded(this, remainingOldLines, this.size - 1);
+        }
+    }
+    
+    private void appendToLine(final String text) {
+        String rest = text;
+        if (this.lastLineOpen && (this.size > 0)) {
+            final int lastIndex = (this.start + this.size - 1) % this.lines.length;
+            final String lastLine = this.lines[lastIndex];
+            final int fitting = Math.min(rest.length(), ConsoleLineBuffer.MAX_LINE_LENGTH - lastLine.length());
+            if (fitting > 0) {
+                this.lines[lastIndex] = lastLine.concat(rest.substring(0, fitting));
+                this.updateLongestLine(this.lines[lastIndex]);
+                this.lastLineChanged = true;
+                rest = rest.substring(fitting);
+            }
+            if (rest.isEmpty()) return;
+        }
+        do {
+            final int end = Math.min(rest.length(), ConsoleLineBuffer.MAX_LINE_LENGTH);
+            this.addLine(rest.substring(0, end));
+            rest = rest.substring(end);
+        } while (!rest.isEmpty());
+    }
+    
+    private void addLine(final String line) {
+        if (this.size == this.lines.length) {
+            this.lines[this.start] = line;
+            this.start = (this.start + 1) % this.lines.length;
+            this.droppedLines++;
+        } else {
+            this.lines[(this.start + this.size) % this.lines.length] = line;
+            this.size++;
+        }
+        this.updateLongestLine(line);
+    }
+    
+    private void updateLongestLine(final String line) {
+        this.longestLineLength = Math.max(this.longestLineLength, line.length());
+    }
+    
+    /**
+     * Remove all lines.
+     */
+    public void clear() {
+        final int oldSize = this.size;
+        for (int i = 0; i < oldSize; i++) {
+            this.lines[(this.start + i) % this.lines.length] = null;
+        }
+        this.start = 0;
+        this.size = 0;
+        this.lastLineOpen = false;
+        this.longestLineLength = 0;
+        if (oldSize > 0) {
+            this.fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+    }
+    
+    /**
+     * Find the next line containing the given text, ignoring the case.
+     *
+     * @param query
+     *     The text to search for; must not be null
+     * @param fromIndex
+     *     The index of the first line to search; the search wraps around at the end
+     * @return the index of the found line or -1 if no line contains the text
+     */
+    public int find(final String query, final int fromIndex) {
+        if (query == null) throw new IllegalArgumentException("The given query is null.");
+        final String lowerQuery = query.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < this.size; i++) {
+            final int index = Math.floorMod(fromIndex + i, this.size);
+            if (this.getElementAt(index).toLowerCase(Locale.ROOT).contains(lowerQuery)) return index;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+
+/**
+ * Shows the lines of a {@link ConsoleLineBuffer}.
+ * <p>
+ * The lines are rendered by a {@link JList} with a fixed cell size, so only the visible lines are laid out and painted.
+ * Selected lines can be copied, and the search field finds the next line containing its text. The view keeps following
+ * the newest line as long as it is scrolled to the bottom.
+ * </p>
+ */
+public class ConsoleLineView extends JPanel {
+    private static final long serialVersionUID = 2387915409836172043L;
+    
+    private final ConsoleLineBuffer lines;
+    private final JList<String>     list;
+    private final JScrollPane       scrollPane;
+    private final JTextField        searchField;
+    private final int               charWidth;
+    
+    private boolean scrollScheduled;
+    
+    /**
+     * Create a new view.
+     *
+     * @param lines
+     *     The line buffer to show
+     */
+    public ConsoleLineView(final ConsoleLineBuffer lines) {
+        super(new BorderLayout());
+        this.lines = lines;
+        
+        //
+        // list setup
+        //
+        this.list = new JList<>(lines);
+        this.list.setFont(new Font("monospaced", Font.PLAIN, 12));
+        final FontMetrics metrics = this.list.getFontMetrics(this.list.getFont());
+        this.charWidth = metrics.charWidth('m');
+        //fixed cell sizes keep the list from measuring every line
+        this.list.setFixedCellHeight(metrics.getHeight());
+        this.updateCellWidth();
+        this.scrollPane = new JScrollPane(this.list);
+        this.add(this.scrollPane, BorderLayout.CENTER);
+        lines.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(final ListDataEvent e) {
+                ConsoleLineView.this.linesChanged();
+            }
+            
+            @Override
+            public void intervalRemoved(final ListDataEvent e) {
+                ConsoleLineView.this.linesChanged();
+            }
+            
+            @Override
+            public void contentsChanged(final ListDataEvent e) {
+                ConsoleLineView.this.linesChanged();
+            }
+        });
+        
+        //
+        // search setup
+        //
+        final JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(2, 2, 2, 2));
+        searchPanel.add(new JLabel("Search: "), BorderLayout.WEST);
+        this.searchField = new JTextField();
+        this.searchField.addActionListener(ae -> this.findNext());
+        searchPanel.add(this.searchField, BorderLayout.CENTER);
+        this.add(searchPanel, BorderLayout.SOUTH);
+        
+        final KeyStroke searchKey = KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK);
+        this.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(searchKey, "focusSearch");
+        this.getActionMap().put("focusSearch", new AbstractAction() {
+            private static final long serialVersionUID = -6400529001386734931L;
+            
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                ConsoleLineView.this.searchField.requestFocusInWindow();
+                ConsoleLineView.this.searchField.selectAll();
+            }
+        });
+    }
+    
+    private void updateCellWidth() {
+        final int width = (this.lines.getLongestLineLength() + 2) * this.charWidth;
+        if (width != this.list.getFixedCellWidth()) {
+            this.list.setFixedCellWidth(width);
+        }
+    }
+    
+    private void linesChanged() {
+        final JScrollBar bar = this.scrollPane.getVerticalScrollBar();
+        //the layout is not updated yet, so the scroll bar still shows whether the old last line was visible
+        final boolean atBottom = (bar.getValue() + bar.getVisibleAmount()) >= (bar.getMaximum() - this.list.getFixedCellHeight());
+        this.updateCellWidth();
+        if (atBottom && !this.scrollScheduled) {
+            this.scrollScheduled = true;
+            SwingUtilities.invokeLater(() -> {
+                this.scrollScheduled = false;
+                if (this.lines.getSize() > 0) {
+                    this.list.ensureIndexIsVisible(this.lines.getSize() - 1);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Select the next line after the current selection containing the text of the search field.
+     */
+    private void findNext() {
+        final String query = this.searchField.getText();
+        if (query.isEmpty()) return;
+        final int index = this.lines.find(query, this.list.getMaxSelectionIndex() + 1);
+        if (index < 0) {
+            UIManager.getLookAndFeel().provideErrorFeedback(this.searchField);
+            return;
+        }
+        this.list.setSelectedIndex(index);
+        this.list.ensureIndexIsVisible(index);
+    }
+}
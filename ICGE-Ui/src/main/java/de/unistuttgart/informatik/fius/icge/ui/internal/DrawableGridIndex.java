@@ -0,0 +1,236 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.unistuttgart.informatik.fius.icge.ui.Drawable;
+
+
+/**
+ * A spatial index of drawables which do not move.
+ * <p>
+ * The drawables are grouped into square buckets of {@value #BUCKET_SIZE} cells, so only the buckets intersecting an
+ * area have to be visited to find the drawables in that area. Every bucket is sorted by {@link Drawable#compareTo}.
+ * </p>
+ */
+public class DrawableGridIndex {
+    
+    /** The number of cells in each direction grouped into one bucket */
+    public static final int BUCKET_SIZE = 16;
+    
+    private final Map<Long, List<Drawable>> buckets = new HashMap<>();
+    private int                             size;
+    /** The number of drawables per z value */
+    private final TreeMap<Integer, Integer> zCounts = new TreeMap<>();
+    
+    /**
+     * A consumer of the buckets of a {@link DrawableGridIndex}.
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        
+        /**
+         * Consume a bucket.
+         *
+         * @param bucketX
+         *     the x coordinate of the bucket; the bucket starts at the cell {@code bucketX * BUCKET_SIZE}
+         * @param bucketY
+         *     the y coordinate of the bucket; the bucket starts at the cell {@code bucketY * BUCKET_SIZE}
+         * @param drawables
+         *     the sorted drawables of the bucket; must not be changed
+         */
+        void accept(int bucketX, int bucketY, List<Drawable> drawables);
+    }
+    
+    private static int toBucketCoordinate(final double cellCoordinate) {
+        return Math.floorDiv((int) Math.floor(cellCoordinate), DrawableGridIndex.BUCKET_SIZE);
+    }
+    
+    /**
+     * Get the key of the bucket with the given coordinates.
+     *
+     * @param bucketX
+     *     the x coordinate of the bucket
+     * @param bucketY
+     *     the y coordinate of the bucket
+     * @return the key of the bucket
+     */
+    public static long key(final int bucketX, final int bucketY) {
+        return (((long) bucketX) << 32) | (bucketY & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Get the key of the bucket the given drawable belongs to.
+     *
+     * @param drawable
+     *     the drawable
+     * @return the key of the bucket
+     */
+    public static long keyOf(final Drawable drawable) {
+        return DrawableGridIndex
+                .key(DrawableGridIndex.toBucketCoordinate(drawable.getX()), DrawableGridIndex.toBucketCoordinate(drawable.getY()));
+    }
+    
+    /**
+     * @return the number of drawables in this index
+     */
+    public int size() {
+        return this.size;
+    }
+    
+    /**
+     * @return the lowest z value of the drawables in this index or {@link Integer#MAX_VALUE} if it is empty
+     */
+    public int getMinZ() {
+        return this.zCounts.isEmpty() ? Integer.MAX_VALUE : this.zCounts.firstKey();
+    }
+    
+    /**
+     * Add the given drawable.
+     *
+     * @param drawable
+     *     The drawable to add; its position and z value must not change while it is in this index
+     */
+    public void add(final Drawable drawable) {
+        final List<Drawable> bucket = this.buckets.computeIfAbsent(DrawableGridIndex.keyOf(drawable), unused -> new ArrayList<>());
+        final int index = Collections.binarySearch(bucket, drawable);
+        bucket.add(index < 0 ? -index - 1 : index, drawable);
+        this.zCounts.merge(drawable.getZ(), 1, Integer::sum);
+        this.size++;
+    }
+    
+    /**
+     * Remove the given drawable instance from the bucket of its current position.
+     *
+     * @param drawable
+     *     The drawable to remove
+     * @return true if the drawable was found and removed
+     */
+    public boolean remove(final Drawable drawable) {
+        final long key = DrawableGridIndex.keyOf(drawable);
+        final List<Drawable> bucket = this.buckets.get(key);
+        if ((bucket == null) || !DrawableGridIndex.removeSorted(bucket, drawable)) return false;
+        if (bucket.isEmpty()) {
+            this.buckets.remove(key);
+        }
+        this.removeZ(drawable);
+        this.size--;
+        return true;
+    }
+    
+    /**
+     * Remove the given drawable instance from whichever bucket it is in; this visits every bucket.
+     *
+     * @param drawable
+     *     The drawable to remove
+     * @return true if the drawable was found and removed
+     */
+    public boolean removeFromAnyBucket(final Drawable drawable) {
+        final Iterator<List<Drawable>> iter = this.buckets.values().iterator();
+        while (iter.hasNext()) {
+            final List<Drawable> bucket = iter.next();
+            if (bucket.removeIf(d -> d == drawable)) {
+                if (bucket.isEmpty()) {
+                    iter.remove();
+                }
+                this.removeZ(drawable);
+                this.size--;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Remove all drawables.
+     */
+    public void clear() {
+        this.buckets.clear();
+        this.zCounts.clear();
+        this.size = 0;
+    }
+    
+    private void removeZ(final Drawable drawable) {
+        this.zCounts.computeIfPresent(drawable.getZ(), (z, count) -> count == 1 ? null : count - 1);
+    }
+    
+    /**
+     * Call the given consumer with every sorted bucket which may contain drawables in the given area.
+     *
+     * @param minX
+     *     the minimal x cell coordinate
+     * @param minY
+     *     the minimal y cell coordinate
+     * @param maxX
+     *     the maximal x cell coordinate
+     * @param maxY
+     *     the maximal y cell coordinate
+     * @param consumer
+     *     the consumer of the buckets
+     */
+    public void forEachBucketInArea(
+            final double minX, final double minY, final double maxX, final double maxY, final BucketConsumer consumer
+    ) {
+        if (this.buckets.isEmpty()) return;
+        final int minBucketX = DrawableGridIndex.toBucketCoordinate(minX);
+        final int minBucketY = DrawableGridIndex.toBucketCoordinate(minY);
+        final int maxBucketX = DrawableGridIndex.toBucketCoordinate(maxX);
+        final int maxBucketY = DrawableGridIndex.toBucketCoordinate(maxY);
+        final long bucketsWide = ((long) maxBucketX - minBucketX) + 1;
+        final long bucketsHigh = ((long) maxBucketY - minBucketY) + 1;
+        if ((bucketsWide * bucketsHigh) > this.buckets.size()) {
+            // the area covers more bucket coordinates than there are buckets, so it is cheaper to check every bucket
+            for (final Map.Entry<Long, List<Drawable>> bucket : this.buckets.entrySet()) {
+                final int bucketX = (int) (bucket.getKey() >> 32);
+                final int bucketY = (int) (long) bucket.getKey();
+                if ((bucketX >= minBucketX) && (bucketX <= maxBucketX) && (bucketY >= minBucketY) && (bucketY <= maxBucketY)) {
+                    consumer.accept(bucketX, bucketY, bucket.getValue());
+                }
+            }
+            return;
+        }
+        for (int bucketY = minBucketY; bucketY <= maxBucketY; bucketY++) {
+            for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+                final List<Drawable> bucket = this.buckets.get(DrawableGridIndex.key(bucketX, bucketY));
+                if (bucket != null) {
+                    consumer.accept(bucketX, bucketY, bucket);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Remove the given instance from the sorted list; equal drawables are next to each other.
+     */
+    private static boolean removeSorted(final List<Drawable> drawables, final Drawable drawable) {
+        final int index = Collections.binarySearch(drawables, drawable);
+        if (index < 0) return false;
+        for (int i = index; (i < drawables.size()) && (drawables.get(i).compareTo(drawable) == 0); i++) {
+            if (drawables.get(i) == drawable) {
+                drawables.remove(i);
+                return true;
+            }
+        }
+        for (int i = index - 1; (i >= 0) && (drawables.get(i).compareTo(drawable) == 0); i--) {
+            if (drawables.get(i) == drawable) {
+                drawables.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+}
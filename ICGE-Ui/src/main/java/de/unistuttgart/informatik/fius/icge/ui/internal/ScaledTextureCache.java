@@ -0,0 +1,180 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A cache of texture images scaled to the sizes they are drawn with.
+ * <p>
+ * Drawing a pre-scaled image is a plain copy, while drawing an image with another size rescales it on every draw. The
+ * scaled images are created compatible with the default screen, so they can be copied by the graphics hardware. To
+ * bound the memory used, the least recently used images are discarded once the images hold more than the maximum number
+ * of pixels.
+ * </p>
+ */
+public class ScaledTextureCache {
+    
+    /** The number of pixels of all images kept by default */
+    public static final long DEFAULT_MAX_PIXELS = 8L * 1024 * 1024;
+    
+    private final long                    maxPixels;
+    /** The scaled images in access order */
+    private final Map<Key, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long                          pixels;
+    /** The configuration to create the images for, or null in a headless environment */
+    private final GraphicsConfiguration   graphicsConfiguration;
+    
+    /**
+     * Create a new cache keeping images with up to {@value #DEFAULT_MAX_PIXELS} pixels.
+     */
+    public ScaledTextureCache() {
+        this(ScaledTextureCache.DEFAULT_MAX_PIXELS);
+    }
+    
+    /**
+     * Create a new cache.
+     *
+     * @param maxPixels
+     *     The maximum number of pixels of all images kept; must be positive
+     */
+    public ScaledTextureCache(final long maxPixels) {
+        if (maxPixels < 1) throw new IllegalArgumentException("The maximum number of pixels must be positive.");
+        this.maxPixels = maxPixels;
+        if (GraphicsEnvironment.isHeadless()) {
+            this.graphicsConfiguration = null;
+        } else {
+            this.graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+        }
+    }
+    
+    /**
+     * Draw the given image with the given size, using a cached scaled image if possible.
+     *
+     * @param source
+     *     the image to draw
+     * @param g
+     *     the graphics object used to draw the image
+     * @param x
+     *     x coordinate of the image
+     * @param y
+     *     y coordinate of the image
+     * @param width
+     *     the width to draw the image with
+     * @param height
+     *     the height to draw the image with
+     */
+    public void drawScaled(final Image source, final Graphics g, final int x, final int y, final int width, final int height) {
+        final Image scaled = this.getScaledImage(source, width, height);
+        if (scaled == null) {
+            g.drawImage(source, x, y, width, height, null);
+        } else {
+            g.drawImage(scaled, x, y, null);
+        }
+    }
+    
+    /**
+     * Get the given image scaled to the given size.
+     *
+     * @param source
+     *     the image to scale; must not be null
+     * @param width
+     *     the width of the scaled image
+     * @param height
+     *     the height of the scaled image
+     * @return the scaled image, the source image if it already has the size, or null if the image should not be cached
+     */
+    public synchronized Image getScaledImage(final Image source, final int width, final int height) {
+        if (source == null) throw new IllegalArgumentException("The given source image is null.");
+        if ((source.getWidth(null) == width) && (source.getHeight(null) == height)) return source;
+        final long size = (long) width * height;
+        if ((width <= 0) || (height <= 0) || (source.getWidth(null) < 0) || (size > (this.maxPixels / 4))) {
+            // images not loaded yet or too large to keep many of them are scaled on every draw
+            return null;
+        }
+        final Key key = new Key(source, width, height);
+        BufferedImage scaled = this.images.get(key);
+        if (scaled != null) return scaled;
+        
+        if (this.graphicsConfiguration != null) {
+            scaled = this.graphicsConfiguration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        } else {
+            scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        final Graphics g = scaled.createGraphics();
+        try {
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        this.images.put(key, scaled);
+        this.pixels += size;
+        final Iterator<BufferedImage> iter = this.images.values().iterator();
+        while (this.pixels > this.maxPixels) {
+            final BufferedImage eldest = iter.next();
+            this.pixels -= (long) eldest.getWidth() * eldest.getHeight();
+            iter.remove();
+        }
+        return scaled;
+    }
+    
+    /**
+     * Discard all scaled images.
+     */
+    public synchronized void clear() {
+        this.images.clear();
+        this.pixels = 0;
+    }
+    
+    /**
+     * @return the number of scaled images kept
+     */
+    public synchronized int size() {
+        return this.images.size();
+    }
+    
+    /**
+     * The key of a scaled image; source images are compared by identity.
+     */
+    private static final class Key {
+        private final Image source;
+        private final int   width;
+        private final int   height;
+        
+        private Key(final Image source, final int width, final int height) {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (((System.identityHashCode(this.source) * 31) + this.width) * 31) + this.height;
+        }
+        
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key other = (Key) obj;
+            return (this.source == other.source) && (this.width == other.width) && (this.height == other.height);
+        }
+    }
+}
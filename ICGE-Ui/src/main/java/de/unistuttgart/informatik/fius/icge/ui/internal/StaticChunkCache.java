@@ -0,0 +1,154 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A cache of pre-rendered images of the static drawables in the buckets of a {@link DrawableGridIndex}.
+ * <p>
+ * The images are only valid for the cell size, sub-pixel origin and z limit they were rendered with; setting other
+ * render parameters discards all images. To bound the memory used, the least recently used images are discarded once
+ * the images hold more than the maximum number of pixels. Like all swing components the cache must only be used on the
+ * event dispatch thread.
+ * </p>
+ */
+public class StaticChunkCache {
+    
+    /** The number of pixels of all images kept by default */
+    public static final long DEFAULT_MAX_PIXELS = 16L * 1024 * 1024;
+    
+    private final long                     maxPixels;
+    /** The images by bucket key, in access order */
+    private final Map<Long, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long                           pixels;
+    
+    // the parameters the images were rendered with
+    private double cellSize        = Double.NaN;
+    private double originFractionX = Double.NaN;
+    private double originFractionY = Double.NaN;
+    private int    zLimit          = Integer.MIN_VALUE;
+    
+    /**
+     * Create a new cache keeping images with up to {@value #DEFAULT_MAX_PIXELS} pixels.
+     */
+    public StaticChunkCache() {
+        this(StaticChunkCache.DEFAULT_MAX_PIXELS);
+    }
+    
+    /**
+     * Create a new cache.
+     *
+     * @param maxPixels
+     *     The maximum number of pixels of all images kept; must be positive
+     */
+    public StaticChunkCache(final long maxPixels) {
+        if (maxPixels < 1) throw new IllegalArgumentException("The maximum number of pixels must be positive.");
+        this.maxPixels = maxPixels;
+    }
+    
+    /**
+     * Set the parameters the images are rendered with; discard all images if they differ from the current ones.
+     *
+     * @param cellSize
+     *     the size of a cell in pixels
+     * @param originFractionX
+     *     the fractional part of the x screen coordinate of the cell origin
+     * @param originFractionY
+     *     the fractional part of the y screen coordinate of the cell origin
+     * @param zLimit
+     *     the images contain only the drawables with a lower z value
+     */
+    public void setRenderParameters(final double cellSize, final double originFractionX, final double originFractionY, final int zLimit) {
+        if (
+            (Double.compare(cellSize, this.cellSize) == 0) && (Double.compare(originFractionX, this.originFractionX) == 0)
+                    && (Double.compare(originFractionY, this.originFractionY) == 0) && (zLimit == this.zLimit)
+        ) return;
+        this.cellSize = cellSize;
+        this.originFractionX = originFractionX;
+        this.originFractionY = originFractionY;
+        this.zLimit = zLimit;
+        this.invalidateAll();
+    }
+    
+    /**
+     * Get the image of a bucket.
+     *
+     * @param key
+     *     the key of the bucket as given by {@link DrawableGridIndex#key(int, int)}
+     * @return the image or null if there is no valid image of the bucket
+     */
+    public BufferedImage get(final long key) {
+        return this.images.get(key);
+    }
+    
+    /**
+     * Set the image of a bucket, discarding the least recently used images if the cache is full.
+     *
+     * @param key
+     *     the key of the bucket as given by {@link DrawableGridIndex#key(int, int)}
+     * @param image
+     *     the rendered image; must not be null
+     */
+    public void put(final long key, final BufferedImage image) {
+        if (image == null) throw new IllegalArgumentException("The given image is null.");
+        final BufferedImage old = this.images.put(key, image);
+        if (old != null) {
+            this.pixels -= StaticChunkCache.pixelsOf(old);
+        }
+        this.pixels += StaticChunkCache.pixelsOf(image);
+        final Iterator<Map.Entry<Long, BufferedImage>> iter = this.images.entrySet().iterator();
+        while ((this.pixels > this.maxPixels) && iter.hasNext()) {
+            final Map.Entry<Long, BufferedImage> eldest = iter.next();
+            if (eldest.getKey() == key) {
+                // never discard the image just added
+                continue;
+            }
+            this.pixels -= StaticChunkCache.pixelsOf(eldest.getValue());
+            iter.remove();
+        }
+    }
+    
+    /**
+     * Discard the image of a bucket, because its drawables changed.
+     *
+     * @param key
+     *     the key of the bucket as given by {@link DrawableGridIndex#key(int, int)}
+     */
+    public void invalidate(final long key) {
+        final BufferedImage old = this.images.remove(key);
+        if (old != null) {
+            this.pixels -= StaticChunkCache.pixelsOf(old);
+        }
+    }
+    
+    /**
+     * Discard all images.
+     */
+    public void invalidateAll() {
+        this.images.clear();
+        this.pixels = 0;
+    }
+    
+    /**
+     * @return the number of images kept
+     */
+    public int size() {
+        return this.images.size();
+    }
+    
+    private static long pixelsOf(final BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+}
@@ -20,7 +20,10 @@ import java.awt.Image;
  */
 public class StaticTexture implements Texture {
     
-    private final Image texture;
+    private final Image                  texture;
+    private final ScaledTextureCache     scaledTextures;
+    /** The region of a texture atlas containing the image, or null */
+    private volatile TextureAtlas.Region atlasRegion;
     
     /**
      * Create a new Texture.
@@ -29,7 +32,33 @@ public class StaticTexture implements Texture {
      *     the image to use as texture.
      */
     public StaticTexture(Image texture) {
+        this(texture, null);
+    }
+    
+    /**
+     * Create a new Texture drawing pre-scaled images.
+     * 
+     * @param texture
+     *     the image to use as texture.
+     * @param scaledTextures
+     *     the cache of scaled images to draw, or null to scale the image on every draw
+     */
+    public StaticTexture(Image texture, ScaledTextureCache scaledTextures) {
         this.texture = texture;
+        this.scaledTextures = scaledTextures;
+    }
+    
+    /**
+     * Set the region of a texture atlas containing the image of this texture.
+     * <p>
+     * The texture is drawn from the atlas if it is drawn with the size of its image.
+     * </p>
+     * 
+     * @param atlasRegion
+     *     the region containing the image, or null to draw the image itself
+     */
+    public void setAtlasRegion(TextureAtlas.Region atlasRegion) {
+        this.atlasRegion = atlasRegion;
     }
     
     @Override
@@ -39,6 +68,13 @@ public class StaticTexture implements Texture {
     
     @Override
     public void drawTexture(long frame, Graphics g, int x, int y, int width, int height) {
-        g.drawImage(this.texture, x, y, width, height, null);
+        final TextureAtlas.Region region = this.atlasRegion;
+        if ((region != null) && (region.getWidth() == width) && (region.getHeight() == height)) {
+            region.draw(g, x, y, width, height);
+        } else if (this.scaledTextures != null) {
+            this.scaledTextures.drawScaled(this.texture, g, x, y, width, height);
+        } else {
+            g.drawImage(this.texture, x, y, width, height, null);
+        }
     }
 }
@@ -9,7 +9,6 @@
  */
 package de.unistuttgart.informatik.fius.icge.ui.internal;
 
-import java.awt.Font;
 import java.awt.Dimension;
 import java.io.OutputStream;
 
@@ -17,7 +16,6 @@ import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
-import javax.swing.text.DefaultCaret;
 
 import de.unistuttgart.informatik.fius.icge.ui.Console;
 
@@ -31,8 +29,8 @@ import de.unistuttgart.informatik.fius.icge.ui.Console;
 public class SwingConsole extends JTabbedPane implements Console {
     private static final long serialVersionUID = 5100186594058483257L;
     
-    private JTextArea simulationConsole;
-    private JTextArea systemConsole;
+    private ConsoleLineBuffer simulationConsole;
+    private ConsoleLineBuffer systemConsole;
     
     private ConsoleBufferedOutputStream simulationOutputStream;
     private ConsoleBufferedOutputStream systemOutputStream;
@@ -43,25 +41,17 @@ public class SwingConsole extends JTabbedPane implements Console {
     public SwingConsole() {
         super(SwingConstants.TOP, JTabbedPane.SCROLL_TAB_LAYOUT);
         {   // Setup simulation console
-            this.simulationConsole = new JTextArea();
-            this.simulationConsole.setEditable(false);
-            this.simulationConsole.setFont(new Font("monospaced", Font.PLAIN, 12));
-            final DefaultCaret caret = (DefaultCaret) this.simulationConsole.getCaret();
-            caret.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
+            this.simulationConsole = new ConsoleLineBuffer();
             this.simulationOutputStream = new ConsoleBufferedOutputStream(this.simulationConsole);
         }
         {   // Setup system console
-            this.systemConsole = new JTextArea();
-            this.systemConsole.setEditable(false);
-            this.systemConsole.setFont(new Font("monospaced", Font.PLAIN, 12));
-            final DefaultCaret caret = (DefaultCaret) this.systemConsole.getCaret();
-            caret.setUpdatePolicy(DefaultCaret.ALWAYS_UPDATE);
+            this.systemConsole = new ConsoleLineBuffer();
             this.systemOutputStream = new ConsoleBufferedOutputStream(this.systemConsole);
         }
         
         // Add consoles to the TabbedPane
-        this.addTab("Simulation", new JScrollPane(this.simulationConsole));
-        this.addTab("System", new JScrollPane(this.systemConsole));
+        this.addTab("Simulation", new ConsoleLineView(this.simulationConsole));
+        this.addTab("System", new ConsoleLineView(this.systemConsole));
         this.addTab("Notes", new JScrollPane(new JTextArea("Your place for non permanent notes!\n")));
     }
     
@@ -77,7 +67,7 @@ public class SwingConsole extends JTabbedPane implements Console {
     
     @Override
     public void clearSimulationConsole() {
-        this.simulationConsole.setText("");
+        this.simulationOutputStream.clear();
     }
     
     @Override
@@ -17,18 +17,27 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.GraphicsConfiguration;
 import java.awt.Toolkit;
+import java.awt.Transparency;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
-import java.lang.reflect.InvocationTargetException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
 
 import javax.swing.JPanel;
 import javax.swing.RepaintManager;
@@ -60,6 +69,9 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
     
     private static final int INFO_BAR_HEIGHT = 25;
     
+    /** The maximum size of a chunk image in pixels; if zoomed in further the static drawables are painted directly. */
+    private static final int MAX_CHUNK_IMAGE_SIZE = 1024;
+    
     // Colors
     private static final Color BACKGROUND_COLOR             = new Color(255, 255, 255);
     private static final Color BACKGROUND_COLOR_TRANSPARENT = new Color(255, 255, 255, 230);
@@ -91,11 +103,32 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
     private String             selectedEntityTexture = null;
     private SimulationProxy    simulationProxy;
     
-    private List<Drawable> drawables         = List.of();
-    private List<Drawable> animatedDrawables = List.of();
-    private boolean        fullRepaintNeeded = true;
-    private Rectangle      lastRedrawArea    = null;
-    private long           currentFrame      = 0;
+    // the drawables are only changed and painted on the event dispatch thread
+    /** The drawables whose position and texture are not animated */
+    private final DrawableGridIndex staticDrawables          = new DrawableGridIndex();
+    /** The pre-rendered images of the buckets of {@link #staticDrawables} */
+    private final StaticChunkCache  staticChunks             = new StaticChunkCache();
+    /**
+     * The images of {@link #staticChunks} contain the static drawables with a lower z value; only lowered to the z of
+     * the animated drawables, so the images are not rendered again whenever an animation ends
+     */
+    private int                     chunkZLimit              = Integer.MAX_VALUE;
+    /** The drawables whose position is animated, sorted with every frame */
+    private final List<Drawable>    movingDrawables          = new ArrayList<>();
+    /** The drawables whose position is not animated but whose texture is */
+    private final DrawableGridIndex animatedTextureDrawables = new DrawableGridIndex();
+    /** The cells changed since the last frame, or null */
+    private Rectangle2D             changedCells             = null;
+    private boolean                 fullRepaintNeeded        = true;
+    private Rectangle               lastRedrawArea           = null;
+    private volatile long           currentFrame             = 0;
+    
+    // the changes not applied yet, guarded by pendingLock
+    private final Object         pendingLock          = new Object();
+    private List<Drawable>       pendingDrawables     = null;
+    private final List<Drawable> pendingRemoved       = new ArrayList<>();
+    private final List<Drawable> pendingAdded         = new ArrayList<>();
+    private boolean              pendingDrawScheduled = false;
     
     // current graphic settings
     private final RepaintManager repaintManager;
@@ -122,6 +155,16 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
                 SwingPlayfieldDrawer.this.setDrawables(drawables);
             }
             
+            @Override
+            public void updateDrawables(Collection<Drawable> removed, Collection<Drawable> added) {
+                SwingPlayfieldDrawer.this.updateDrawables(removed, added);
+            }
+            
+            @Override
+            public boolean supportsDrawableUpdates() {
+                return true;
+            }
+            
             @Override
             public void draw(long tickCount) {
                 SwingPlayfieldDrawer.this.draw(tickCount);
@@ -212,24 +255,42 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
     
     @Override
     public void setDrawables(final List<Drawable> drawables) {
-        this.drawables = drawables.stream().sorted((a, b) -> a.compareTo(b)).collect(Collectors.toUnmodifiableList());
-        this.animatedDrawables = drawables.stream().filter(
-                d -> d.isAnimated() || this.textureRegistry.isTextureAnimated(d.getTextureHandle())
-        ).collect(Collectors.toUnmodifiableList());
-        this.fullRepaintNeeded = true;
+        synchronized (this.pendingLock) {
+            this.pendingDrawables = drawables;
+            this.pendingRemoved.clear();
+            this.pendingAdded.clear();
+        }
+        this.draw(this.currentFrame);
+    }
+    
+    /**
+     * Change the current list of Drawables to be rendered onto the playfield.
+     * <p>
+     * The changes are applied with the next frame. If no frame is drawn before, one is drawn for the changes.
+     * </p>
+     *
+     * @param removed
+     *     the Drawables not to render any more
+     * @param added
+     *     the Drawables to render additionally
+     */
+    public void updateDrawables(final Collection<Drawable> removed, final Collection<Drawable> added) {
+        synchronized (this.pendingLock) {
+            this.pendingRemoved.addAll(removed);
+            this.pendingAdded.addAll(added);
+            if (this.pendingDrawScheduled) return;
+            this.pendingDrawScheduled = true;
+        }
         this.draw(this.currentFrame);
     }
     
     @Override
     public void draw(final long tickCount) {
         this.currentFrame = tickCount;
-        this.animatedDrawables.forEach(d -> d.setCurrentTick(tickCount));
-        if (this.animatedDrawables.size() > 0) {
-            this.drawables = this.drawables.stream().sorted((a, b) -> a.compareTo(b)).collect(Collectors.toUnmodifiableList());
-        }
         
         SwingUtilities.invokeLater(() -> {
-            // synchronize this to fix possible null pointer when setting double buffer setting
+            this.applyPendingChanges();
+            this.updateMovingDrawables(tickCount);
             
             boolean bufferEnabled = this.repaintManager.isDoubleBufferingEnabled();
             if (!this.useDoubleBuffer) {
@@ -245,34 +306,41 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
                 this.paintImmediately(visible);
                 this.fullRepaintNeeded = false;
             } else {
-                if (this.animatedDrawables.size() > 0) {
-                    final Rectangle visible = this.getVisibleRect();
-                    final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
-                    final int textureSize = Math.toIntExact(Math.round(cellSize));
-                    final Optional<Rectangle> rectToDraw = this.animatedDrawables.stream().map(
-                            d -> this.getScreenPointFromCellCoordinates(d.getX(), d.getY(), cellSize)
-                    ).map(p -> getPaintRectFromPoint(p, textureSize)).filter(r -> r.intersects(visible))
-                            .reduce((Rectangle r1, Rectangle r2) -> {
-                                r1.add(r2);
-                                return r1;
-                            }).map(rect -> {
-                                return new Rectangle(rect.x - 5, rect.y - 5, rect.width + 10, rect.height + 10);
-                            });
-                    if (rectToDraw.isPresent()) {
-                        Rectangle lastRedraw = this.lastRedrawArea;
-                        if (lastRedraw != null) {
-                            this.paintImmediately(lastRedraw);
-                        }
-                        Rectangle toDraw = rectToDraw.get();
-                        this.lastRedrawArea = toDraw;
-                        if (toDraw != null) {
-                            this.paintImmediately(toDraw);
-                        }
-                    } else {
-                        this.lastRedrawArea = null;
+                final Rectangle visible = this.getVisibleRect();
+                final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
+                final int textureSize = Math.toIntExact(Math.round(cellSize));
+                final List<Drawable> visibleAnimatedTextures = new ArrayList<>();
+                this.forEachBucketInScreenArea(
+                        this.animatedTextureDrawables, visible, (bucketX, bucketY, bucket) -> visibleAnimatedTextures.addAll(bucket)
+                );
+                final Optional<Rectangle> animatedRect = Stream.concat(this.movingDrawables.stream(), visibleAnimatedTextures.stream()).map(
+                        d -> this.getScreenPointFromCellCoordinates(d.getX(), d.getY(), cellSize)
+                ).map(p -> getPaintRectFromPoint(p, textureSize)).filter(r -> r.intersects(visible))
+                        .reduce((Rectangle r1, Rectangle r2) -> {
+                            r1.add(r2);
+                            return r1;
+                        }).map(rect -> {
+                            return new Rectangle(rect.x - 5, rect.y - 5, rect.width + 10, rect.height + 10);
+                        });
+                if (animatedRect.isPresent()) {
+                    Rectangle lastRedraw = this.lastRedrawArea;
+                    if (lastRedraw != null) {
+                        this.paintImmediately(lastRedraw);
+                    }
+                    Rectangle toDraw = animatedRect.get();
+                    this.lastRedrawArea = toDraw;
+                    this.paintImmediately(toDraw);
+                } else {
+                    this.lastRedrawArea = null;
+                }
+                if (this.changedCells != null) {
+                    final Rectangle changedRect = this.getPaintRectFromCells(this.changedCells, cellSize);
+                    if (changedRect.intersects(visible)) {
+                        this.paintImmediately(changedRect.intersection(visible));
                     }
                 }
             }
+            this.changedCells = null;
             if (this.syncToscreen) {
                 // flush drawing changes to screen (improves render latency when mouse is not in window)
                 Toolkit.getDefaultToolkit().sync();
@@ -283,10 +351,104 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
                 this.repaintManager.setDoubleBufferingEnabled(bufferEnabled);
             }
         });
-        // filter out finished animations
-        this.animatedDrawables = this.drawables.stream().filter(
-                d -> d.isAnimated() || this.textureRegistry.isTextureAnimated(d.getTextureHandle())
-        ).collect(Collectors.toUnmodifiableList());
+    }
+    
+    /**
+     * Apply the changes made by {@link #setDrawables(List)} and {@link #updateDrawables(Collection, Collection)};
+     * called on the event dispatch thread.
+     */
+    private void applyPendingChanges() {
+        final List<Drawable> drawables;
+        final List<Drawable> removed;
+        final List<Drawable> added;
+        synchronized (this.pendingLock) {
+            drawables = this.pendingDrawables;
+            this.pendingDrawables = null;
+            removed = new ArrayList<>(this.pendingRemoved);
+            this.pendingRemoved.clear();
+            added = new ArrayList<>(this.pendingAdded);
+            this.pendingAdded.clear();
+            this.pendingDrawScheduled = false;
+        }
+        if (drawables != null) {
+            this.staticDrawables.clear();
+            this.staticChunks.invalidateAll();
+            this.chunkZLimit = Integer.MAX_VALUE;
+            this.movingDrawables.clear();
+            this.animatedTextureDrawables.clear();
+            for (final Drawable drawable : drawables) {
+                drawable.setCurrentTick(this.currentFrame);
+                if (drawable.isAnimated()) {
+                    this.movingDrawables.add(drawable);
+                } else {
+                    this.getStaticIndexFor(drawable).add(drawable);
+                }
+            }
+            this.fullRepaintNeeded = true;
+        }
+        for (final Drawable drawable : removed) {
+            this.markCellChanged(drawable);
+            final DrawableGridIndex index = this.getStaticIndexFor(drawable);
+            if (index.remove(drawable)) {
+                this.staticDrawableChanged(drawable);
+            } else if (!this.movingDrawables.removeIf(d -> d == drawable) && index.removeFromAnyBucket(drawable)) {
+                // the position of the drawable changed after it was added, so its old bucket is unknown
+                this.staticChunks.invalidateAll();
+            }
+        }
+        for (final Drawable drawable : added) {
+            drawable.setCurrentTick(this.currentFrame);
+            this.addDrawable(drawable);
+        }
+    }
+    
+    private void addDrawable(final Drawable drawable) {
+        this.markCellChanged(drawable);
+        if (drawable.isAnimated()) {
+            this.movingDrawables.add(drawable);
+            return;
+        }
+        this.getStaticIndexFor(drawable).add(drawable);
+        this.staticDrawableChanged(drawable);
+    }
+    
+    /**
+     * Get the index for the given drawable if its position is not animated.
+     */
+    private DrawableGridIndex getStaticIndexFor(final Drawable drawable) {
+        if (this.textureRegistry.isTextureAnimated(drawable.getTextureHandle())) return this.animatedTextureDrawables;
+        return this.staticDrawables;
+    }
+    
+    private void staticDrawableChanged(final Drawable drawable) {
+        if (!this.textureRegistry.isTextureAnimated(drawable.getTextureHandle())) {
+            this.staticChunks.invalidate(DrawableGridIndex.keyOf(drawable));
+        }
+    }
+    
+    /**
+     * Move the drawables to the given tick, and turn finished animations into static drawables.
+     */
+    private void updateMovingDrawables(final long tickCount) {
+        if (this.movingDrawables.isEmpty()) return;
+        final List<Drawable> finished = new ArrayList<>();
+        this.movingDrawables.removeIf(drawable -> {
+            drawable.setCurrentTick(tickCount);
+            if (drawable.isAnimated()) return false;
+            finished.add(drawable);
+            return true;
+        });
+        finished.forEach(this::addDrawable);
+        Collections.sort(this.movingDrawables);
+    }
+    
+    private void markCellChanged(final Drawable drawable) {
+        final Rectangle2D cell = new Rectangle2D.Double(drawable.getX(), drawable.getY(), 1, 1);
+        if (this.changedCells == null) {
+            this.changedCells = cell;
+        } else {
+            this.changedCells.add(cell);
+        }
     }
     
     @Override
@@ -331,6 +493,26 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
         return new Rectangle(upperLeftCorner.x, upperLeftCorner.y, cellSize, cellSize);
     }
     
+    /**
+     * Call the given consumer with the buckets of the given index intersecting the given area of the screen.
+     */
+    private void forEachBucketInScreenArea(DrawableGridIndex index, Rectangle area, DrawableGridIndex.BucketConsumer consumer) {
+        final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
+        // include one more cell in each direction for drawables between cells
+        final double minX = Math.floor((area.x - this.offsetX) / cellSize) - 1;
+        final double minY = Math.floor((area.y - this.offsetY) / cellSize) - 1;
+        final double maxX = Math.floor(((area.x + area.width) - this.offsetX) / cellSize) + 1;
+        final double maxY = Math.floor(((area.y + area.height) - this.offsetY) / cellSize) + 1;
+        index.forEachBucketInArea(minX, minY, maxX, maxY, consumer);
+    }
+    
+    private Rectangle getPaintRectFromCells(Rectangle2D cells, double cellSize) {
+        final Point upperLeftCorner = this.getScreenPointFromCellCoordinates(cells.getX(), cells.getY(), cellSize);
+        final int width = Math.toIntExact(Math.round(cells.getWidth() * cellSize));
+        final int height = Math.toIntExact(Math.round(cells.getHeight() * cellSize));
+        return new Rectangle(upperLeftCorner.x - 5, upperLeftCorner.y - 5, width + 10, height + 10);
+    }
+    
     @Override
     public void paintComponent(final Graphics g) {
         if (g instanceof Graphics2D) {
@@ -339,10 +521,97 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
         g.setColor(SwingPlayfieldDrawer.BACKGROUND_COLOR);
         g.fillRect(0, 0, this.getWidth(), this.getHeight());
         this.paintGrid(g);
-        this.paintDrawableList(g, this.drawables);
+        Rectangle clipBounds = g.getClipBounds();
+        if (clipBounds == null) {
+            clipBounds = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        }
+        final List<Iterator<Drawable>> visibleDrawables = new ArrayList<>();
+        final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
+        if ((cellSize * (DrawableGridIndex.BUCKET_SIZE + 1)) <= SwingPlayfieldDrawer.MAX_CHUNK_IMAGE_SIZE) {
+            // the images only contain the static drawables below all animated drawables and are painted first; the other
+            // static drawables are painted with the animated ones, so all drawables are painted in the order of their z
+            this.chunkZLimit = Math.min(this.chunkZLimit, this.getAnimatedMinZ());
+            this.staticChunks.setRenderParameters(
+                    cellSize, this.offsetX - Math.floor(this.offsetX), this.offsetY - Math.floor(this.offsetY), this.chunkZLimit
+            );
+            this.forEachBucketInScreenArea(this.staticDrawables, clipBounds, (bucketX, bucketY, bucket) -> {
+                final int split = SwingPlayfieldDrawer.indexOfZ(bucket, this.chunkZLimit);
+                if (split > 0) {
+                    this.paintChunk(g, bucketX, bucketY, bucket.subList(0, split));
+                }
+                if (split < bucket.size()) {
+                    visibleDrawables.add(bucket.subList(split, bucket.size()).iterator());
+                }
+            });
+        } else {
+            this.forEachBucketInScreenArea(
+                    this.staticDrawables, clipBounds, (bucketX, bucketY, bucket) -> visibleDrawables.add(bucket.iterator())
+            );
+        }
+        this.forEachBucketInScreenArea(
+                this.animatedTextureDrawables, clipBounds, (bucketX, bucketY, bucket) -> visibleDrawables.add(bucket.iterator())
+        );
+        visibleDrawables.add(this.movingDrawables.iterator());
+        this.paintDrawableList(g, new MergingIterator(visibleDrawables), this.offsetX, this.offsetY);
         this.paintOverlay(g);
     }
     
+    private int getAnimatedMinZ() {
+        int minZ = this.animatedTextureDrawables.getMinZ();
+        for (final Drawable drawable : this.movingDrawables) {
+            minZ = Math.min(minZ, drawable.getZ());
+        }
+        return minZ;
+    }
+    
+    /**
+     * Get the index of the first drawable of the sorted list with at least the given z value.
+     */
+    private static int indexOfZ(final List<Drawable> drawables, final int z) {
+        int low = 0;
+        int high = drawables.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (drawables.get(middle).getZ() < z) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Paint the image of a bucket of static drawables, rendering it first if it is not cached.
+     */
+    private void paintChunk(final Graphics g, final int bucketX, final int bucketY, final List<Drawable> bucket) {
+        final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
+        // the image starts at the pixel containing the bucket origin; the drawables keep their sub-pixel position in it
+        final int imageX = (int) Math.floor((bucketX * DrawableGridIndex.BUCKET_SIZE * cellSize) + this.offsetX);
+        final int imageY = (int) Math.floor((bucketY * DrawableGridIndex.BUCKET_SIZE * cellSize) + this.offsetY);
+        // one more cell in each direction for drawables between cells
+        final int imageSize = (int) Math.ceil(cellSize * (DrawableGridIndex.BUCKET_SIZE + 1)) + 1;
+        if (!g.hitClip(imageX, imageY, imageSize, imageSize)) return;
+        final long key = DrawableGridIndex.key(bucketX, bucketY);
+        BufferedImage image = this.staticChunks.get(key);
+        if (image == null) {
+            final GraphicsConfiguration config = this.getGraphicsConfiguration();
+            if (config != null) {
+                image = config.createCompatibleImage(imageSize, imageSize, Transparency.TRANSLUCENT);
+            } else {
+                image = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_ARGB);
+            }
+            final Graphics imageGraphics = image.createGraphics();
+            try {
+                this.paintDrawableList(imageGraphics, bucket.iterator(), this.offsetX - imageX, this.offsetY - imageY);
+            } finally {
+                imageGraphics.dispose();
+            }
+            this.staticChunks.put(key, image);
+        }
+        g.drawImage(image, imageX, imageY, null);
+    }
+    
     private void paintGrid(final Graphics g) {
         final Rectangle clipBounds = g.getClipBounds();
         // cell size on screen (with zoom)
@@ -388,9 +657,10 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
         return true;
     }
     
-    private void paintDrawableList(final Graphics g, final List<Drawable> drawables) {
-        if (drawables.size() <= 0) return;
-        final Iterator<Drawable> iter = drawables.iterator();
+    /**
+     * Paint the drawables of the sorted iterator; the cell origin is painted at the given screen coordinates.
+     */
+    private void paintDrawableList(final Graphics g, final Iterator<Drawable> iter, final double originX, final double originY) {
         Drawable last = null;
         int currentCount = 0;
         boolean isTilable = true;
@@ -401,7 +671,7 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
             currentCount += 1;
             boolean groupable = canGroupDrawables(last, next);
             if (!groupable && last != null) {
-                this.paintDrawable(g, last, currentCount, isTilable);
+                this.paintDrawable(g, last, currentCount, isTilable, originX, originY);
             }
             isTilable = isTilable && next.isTilable();
             last = next;
@@ -411,14 +681,16 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
             }
         }
         if (last != null) {
-            this.paintDrawable(g, last, currentCount + 1, isTilable);
+            this.paintDrawable(g, last, currentCount + 1, isTilable, originX, originY);
         }
     }
     
-    private void paintDrawable(final Graphics g, final Drawable drawable, final int count, final boolean isTilable) {
+    private void paintDrawable(
+            final Graphics g, final Drawable drawable, final int count, final boolean isTilable, final double originX, final double originY
+    ) {
         final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
-        final int x = Math.toIntExact(Math.round((drawable.getX() * cellSize) + this.offsetX));
-        final int y = Math.toIntExact(Math.round((drawable.getY() * cellSize) + this.offsetY));
+        final int x = Math.toIntExact(Math.round((drawable.getX() * cellSize) + originX));
+        final int y = Math.toIntExact(Math.round((drawable.getY() * cellSize) + originY));
         final int textureSize = Math.toIntExact(Math.round(cellSize));
         if (!g.hitClip(x, y, textureSize, textureSize)) {
             // drawable is not in the area that gets painted
@@ -433,7 +705,7 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
             final Double[] xOffsets = { 0.0, 0.5, 0.0, 0.5 };
             final Double[] yOffsets = { 0.0, 0.0, 0.5, 0.5 };
             final Double scaleAdjust = 0.5;
-            this.paintMultiCountDrawable(g, drawable, count, xOffsets, yOffsets, scaleAdjust);
+            this.paintMultiCountDrawable(g, drawable, count, xOffsets, yOffsets, scaleAdjust, originX, originY);
             return;
         }
         final Double third = 1.0 / 3;
@@ -441,12 +713,12 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
         final Double[] xOffsets = { 0.0, third, twoThird, 0.0, third, twoThird, 0.0, third, twoThird };
         final Double[] yOffsets = { 0.0, 0.0, 0.0, third, third, third, twoThird, twoThird, twoThird };
         final Double scaleAdjust = third;
-        this.paintMultiCountDrawable(g, drawable, count, xOffsets, yOffsets, scaleAdjust);
+        this.paintMultiCountDrawable(g, drawable, count, xOffsets, yOffsets, scaleAdjust, originX, originY);
     }
     
     private void paintMultiCountDrawable(
             final Graphics g, final Drawable drawable, final int count, final Double[] xOffsets, final Double[] yOffsets,
-            final Double scaleAdjust
+            final Double scaleAdjust, final double originX, final double originY
     ) {
         final double cellSize = SwingPlayfieldDrawer.CELL_SIZE * this.scale;
         final int textureSize = Math.toIntExact(Math.round(cellSize * scaleAdjust));
@@ -457,8 +729,8 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
             // intra cell offsets
             final double offsetX = cellSize * xOffsets[i];
             final double offsetY = cellSize * yOffsets[i];
-            final int x = Math.toIntExact(Math.round((drawable.getX() * cellSize) + this.offsetX + offsetX));
-            final int y = Math.toIntExact(Math.round((drawable.getY() * cellSize) + this.offsetY + offsetY));
+            final int x = Math.toIntExact(Math.round((drawable.getX() * cellSize) + originX + offsetX));
+            final int y = Math.toIntExact(Math.round((drawable.getY() * cellSize) + originY + offsetY));
             texture.drawTexture(this.currentFrame, g, x, y, textureSize, textureSize);
         }
     }
@@ -616,4 +888,39 @@ public class SwingPlayfieldDrawer extends JPanel implements PlayfieldDrawer {
         this.offsetY += dy;
         this.repaint();
     }
+    
+    /**
+     * Iterates over several sorted iterators in sorted order.
+     */
+    private static class MergingIterator implements Iterator<Drawable> {
+        /** The next drawable of every iterator which has one, ordered by that drawable */
+        private final PriorityQueue<Map.Entry<Drawable, Iterator<Drawable>>> heads = new PriorityQueue<>(
+                (a, b) -> a.getKey().compareTo(b.getKey())
+        );
+        
+        MergingIterator(final List<Iterator<Drawable>> iterators) {
+            for (final Iterator<Drawable> iterator : iterators) {
+                this.advance(iterator);
+            }
+        }
+        
+        private void advance(final Iterator<Drawable> iterator) {
+            if (iterator.hasNext()) {
+                this.heads.add(new AbstractMap.SimpleImmutableEntry<>(iterator.next(), iterator));
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !this.heads.isEmpty();
+        }
+        
+        @Override
+        public Drawable next() {
+            final Map.Entry<Drawable, Iterator<Drawable>> head = this.heads.poll();
+            if (head == null) throw new NoSuchElementException();
+            this.advance(head.getValue());
+            return head.getKey();
+        }
+    }
 }
@@ -9,13 +9,16 @@
  */
 package de.unistuttgart.informatik.fius.icge.ui.internal;
 
+import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -40,6 +43,9 @@ public class SwingTextureRegistry implements TextureRegistry {
     private final Map<String, String>  pathToHandle     = new HashMap<>();
     private final Set<String>          animatedTextures = new HashSet<>();
     private final Map<String, Texture> handleToTexture  = new HashMap<>();
+    private final ScaledTextureCache   scaledTextures   = new ScaledTextureCache();
+    /** Whether static textures were loaded since the textures were last packed */
+    private boolean                    atlasOutdated    = false;
     
     /**
      * Default constructor
@@ -76,7 +82,8 @@ public class SwingTextureRegistry implements TextureRegistry {
             final BufferedImage texture = ImageIO.read(input);
             final String textureHandle = "resource://" + resourceName;
             this.resourceToHandle.put(resourceName, textureHandle);
-            this.handleToTexture.put(textureHandle, new StaticTexture(texture));
+            this.handleToTexture.put(textureHandle, new StaticTexture(texture, this.scaledTextures));
+            this.atlasOutdated = true;
             return textureHandle;
         } catch (IllegalArgumentException | IOException e) {
             throw new TextureNotFoundException("The requested Resource could not be loaded!", e);
@@ -93,7 +100,8 @@ public class SwingTextureRegistry implements TextureRegistry {
             final File textureFile = resolvedPath.toFile();
             final BufferedImage texture = ImageIO.read(textureFile);
             this.pathToHandle.put(fullPath, textureHandle);
-            this.handleToTexture.put(textureHandle, new StaticTexture(texture));
+            this.handleToTexture.put(textureHandle, new StaticTexture(texture, this.scaledTextures));
+            this.atlasOutdated = true;
         } catch (IllegalArgumentException | IOException e) {
             throw new TextureNotFoundException("The requested path could not be loaded!", e);
         }
@@ -136,10 +144,36 @@ public class SwingTextureRegistry implements TextureRegistry {
      * @throws NoSuchElementException
      */
     public Texture getTextureForHandle(final String handle) {
+        if (this.atlasOutdated) {
+            this.packTextures();
+        }
         Texture texture = this.handleToTexture.get(handle);
         if (texture == null) {
             throw new NoSuchElementException("No Texture for handle \"" + handle + "\" found!");
         }
         return texture;
     }
+    
+    /**
+     * Pack the images of all static textures into a texture atlas to draw them from.
+     * <p>
+     * This also covers all frames of animated textures, since they are static textures themselves. The textures are
+     * packed automatically before a texture is requested after new textures were loaded.
+     * </p>
+     */
+    public void packTextures() {
+        final List<StaticTexture> staticTextures = new ArrayList<>();
+        final List<Image> images = new ArrayList<>();
+        for (final Texture texture : this.handleToTexture.values()) {
+            if (texture instanceof StaticTexture) {
+                staticTextures.add((StaticTexture) texture);
+                images.add(texture.getTexture());
+            }
+        }
+        final TextureAtlas atlas = TextureAtlas.pack(images);
+        for (final StaticTexture texture : staticTextures) {
+            texture.setAtlasRegion(atlas.getRegion(texture.getTexture()));
+        }
+        this.atlasOutdated = false;
+    }
 }
@@ -0,0 +1,232 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui.internal;
+
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A few large images (pages) containing many small texture images.
+ * <p>
+ * Drawing many sprites from one page avoids switching the source image for every sprite. The images are packed into
+ * shelves of similar height; images larger than a page are not packed and have to be drawn on their own.
+ * </p>
+ */
+public class TextureAtlas {
+    
+    /** The maximum width and height of a page by default */
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    
+    /** The free pixels around every image, so scaled drawing does not blend in neighboring images */
+    private static final int PADDING = 1;
+    
+    private final List<BufferedImage> pages;
+    private final Map<Image, Region>  regions;
+    
+    private TextureAtlas(final List<BufferedImage> pages, final Map<Image, Region> regions) {
+        this.pages = pages;
+        this.regions = regions;
+    }
+    
+    /**
+     * Pack the given images into pages of up to {@value #DEFAULT_PAGE_SIZE} pixels.
+     *
+     * @param images
+     *     the images to pack; must not be null
+     * @return the atlas
+     * @see #pack(Collection, int)
+     */
+    public static TextureAtlas pack(final Collection<? extends Image> images) {
+        return TextureAtlas.pack(images, TextureAtlas.DEFAULT_PAGE_SIZE);
+    }
+    
+    /**
+     * Pack the given images into pages compatible with the default screen.
+     *
+     * @param images
+     *     the images to pack; must not be null; images which are not loaded yet are not packed
+     * @param pageSize
+     *     the maximum width and height of a page; must be positive
+     * @return the atlas
+     */
+    public static TextureAtlas pack(final Collection<? extends Image> images, final int pageSize) {
+        if (images == null) throw new IllegalArgumentException("The given images are null.");
+        if (pageSize < 1) throw new IllegalArgumentException("The page size must be positive.");
+        
+        final List<Image> sorted = new ArrayList<>();
+        final Map<Image, Boolean> seen = new IdentityHashMap<>();
+        for (final Image image : images) {
+            final int width = image.getWidth(null);
+            final int height = image.getHeight(null);
+            if (
+                (width <= 0) || (height <= 0) || ((width + (2 * TextureAtlas.PADDING)) > pageSize)
+                        || ((height + (2 * TextureAtlas.PADDING)) > pageSize) || (seen.put(image, Boolean.TRUE) != null)
+            ) {
+                continue;
+            }
+            sorted.add(image);
+        }
+        // packing the highest images first wastes the least space in the shelves
+        sorted.sort(Comparator.comparingInt((final Image image) -> image.getHeight(null)).reversed());
+        
+        //
+        // layout
+        //
+        final List<int[]> pageSizes = new ArrayList<>();
+        final Map<Image, int[]> positions = new IdentityHashMap<>();
+        int page = -1;
+        int shelfX = pageSize;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (final Image image : sorted) {
+            final int width = image.getWidth(null) + (2 * TextureAtlas.PADDING);
+            final int height = image.getHeight(null) + (2 * TextureAtlas.PADDING);
+            if ((shelfX + width) > pageSize) {
+                // start a new shelf
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = height;
+            }
+            if ((page < 0) || ((shelfY + height) > pageSize)) {
+                // start a new page
+                page++;
+                pageSizes.add(new int[] { 0, 0 });
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = height;
+            }
+            positions.put(image, new int[] { page, shelfX + TextureAtlas.PADDING, shelfY + TextureAtlas.PADDING });
+            shelfX += width;
+            final int[] size = pageSizes.get(page);
+            size[0] = Math.max(size[0], shelfX);
+            size[1] = Math.max(size[1], shelfY + height);
+        }
+        
+        //
+        // rendering
+        //
+        final List<BufferedImage> pages = new ArrayList<>();
+        final List<Graphics> pageGraphics = new ArrayList<>();
+        for (final int[] size : pageSizes) {
+            final BufferedImage pageImage = TextureAtlas.createImage(size[0], size[1]);
+            pages.add(pageImage);
+            pageGraphics.add(pageImage.createGraphics());
+        }
+        final Map<Image, Region> regions = new IdentityHashMap<>();
+        try {
+            for (final Image image : sorted) {
+                final int[] position = positions.get(image);
+                final BufferedImage pageImage = pages.get(position[0]);
+                pageGraphics.get(position[0]).drawImage(image, position[1], position[2], null);
+                regions.put(image, new Region(pageImage, position[1], position[2], image.getWidth(null), image.getHeight(null)));
+            }
+        } finally {
+            pageGraphics.forEach(Graphics::dispose);
+        }
+        return new TextureAtlas(Collections.unmodifiableList(pages), regions);
+    }
+    
+    private static BufferedImage createImage(final int width, final int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            final GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+    /**
+     * Get the region of a packed image.
+     *
+     * @param image
+     *     the packed image
+     * @return the region of the image or null if it was not packed
+     */
+    public Region getRegion(final Image image) {
+        return this.regions.get(image);
+    }
+    
+    /**
+     * @return the pages of this atlas
+     */
+    public List<BufferedImage> getPages() {
+        return this.pages;
+    }
+    
+    /**
+     * The region of a page containing one image.
+     */
+    public static final class Region {
+        private final BufferedImage page;
+        private final int           x;
+        private final int           y;
+        private final int           width;
+        private final int           height;
+        
+        private Region(final BufferedImage page, final int x, final int y, final int width, final int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+        
+        /**
+         * @return the page containing the image
+         */
+        public BufferedImage getPage() {
+            return this.page;
+        }
+        
+        /**
+         * @return the width of the image
+         */
+        public int getWidth() {
+            return this.width;
+        }
+        
+        /**
+         * @return the height of the image
+         */
+        public int getHeight() {
+            return this.height;
+        }
+        
+        /**
+         * Draw the image of this region.
+         *
+         * @param g
+         *     the graphics object used to draw the image
+         * @param x
+         *     x coordinate of the image
+         * @param y
+         *     y coordinate of the image
+         * @param width
+         *     the width to draw the image with
+         * @param height
+         *     the height to draw the image with
+         */
+        public void draw(final Graphics g, final int x, final int y, final int width, final int height) {
+            g.drawImage(this.page, x, y, x + width, y + height, this.x, this.y, this.x + this.width, this.y + this.height, null);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.ConsoleBufferedOutputStream;
+import de.unistuttgart.informatik.fius.icge.ui.internal.ConsoleLineBuffer;
+
+
+/**
+ * Test class for the {@link ConsoleBufferedOutputStream}
+ */
+class ConsoleBufferedOutputStreamTest {
+    
+    private ConsoleLineBuffer           lines;
+    private ConsoleBufferedOutputStream stream;
+    
+    /**
+     * Setup the stream
+     */
+    @BeforeEach
+    public void setup() {
+        this.lines = new ConsoleLineBuffer(20000);
+        this.stream = new ConsoleBufferedOutputStream(this.lines, StandardCharsets.UTF_8);
+    }
+    
+    private List<String> waitForLines(final List<String> expected) throws InterruptedException, InvocationTargetException {
+        final List<String> actual = new ArrayList<>();
+        final long end = System.currentTimeMillis() + 5000;
+        do {
+            Thread.sleep(ConsoleBufferedOutputStream.PUSH_DELAY_MILLIS * 4L);
+            SwingUtilities.invokeAndWait(() -> {
+                actual.clear();
+                for (int i = 0; i < this.lines.getSize(); i++) {
+                    actual.add(this.lines.getElementAt(i));
+                }
+            });
+        } while (!expected.equals(actual) && (System.currentTimeMillis() < end));
+        return actual;
+    }
+    
+    /**
+     * Test that characters written byte by byte are decoded correctly
+     *
+     * @throws Exception
+     *     if waiting for the event dispatch thread fails
+     */
+    @Test
+    void testSplitCharacters() throws Exception {
+        final String text = "Grüße € 𝄞\n";
+        for (final byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            this.stream.write(b);
+        }
+        Assertions.assertEquals(List.of("Grüße € 𝄞"), this.waitForLines(List.of("Grüße € 𝄞")));
+    }
+    
+    /**
+     * Test that many small writes are appended in order
+     *
+     * @throws Exception
+     *     if waiting for the event dispatch thread fails
+     */
+    @Test
+    void testManyWrites() throws Exception {
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final String line = "line " + i;
+            expected.add(line);
+            final byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+            this.stream.write(bytes, 0, bytes.length);
+        }
+        Assertions.assertEquals(expected, this.waitForLines(expected));
+    }
+    
+    /**
+     * Test that clearing discards text which was not appended yet
+     *
+     * @throws Exception
+     *     if waiting for the event dispatch thread fails
+     */
+    @Test
+    void testClear() throws Exception {
+        final byte[] bytes = "old\n".getBytes(StandardCharsets.UTF_8);
+        this.stream.write(bytes, 0, bytes.length);
+        this.stream.clear();
+        final byte[] newBytes = "new\n".getBytes(StandardCharsets.UTF_8);
+        this.stream.write(newBytes, 0, newBytes.length);
+        Assertions.assertEquals(List.of("new"), this.waitForLines(List.of("new")));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.ConsoleLineBuffer;
+
+
+/**
+ * Test class for the {@link ConsoleLineBuffer}
+ */
+class ConsoleLineBufferTest {
+    
+    private static List<String> linesOf(final ConsoleLineBuffer buffer) {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < buffer.getSize(); i++) {
+            lines.add(buffer.getElementAt(i));
+        }
+        return lines;
+    }
+    
+    /**
+     * Test that text is split into lines and unterminated lines are continued
+     */
+    @Test
+    void testAppend() {
+        final ConsoleLineBuffer buffer = new ConsoleLineBuffer(10);
+        buffer.append("first\r\nsec");
+        buffer.append("ond\n\nth");
+        Assertions.assertEquals(List.of("first", "second", "", "th"), ConsoleLineBufferTest.linesOf(buffer));
+        buffer.append("ird\n");
+        buffer.append("fourth");
+        Assertions.assertEquals(List.of("first", "second", "", "third", "fourth"), ConsoleLineBufferTest.linesOf(buffer));
+    }
+    
+    /**
+     * Test that the oldest lines are dropped once the capacity is reached
+     */
+    @Test
+    void testCapacity() {
+        final ConsoleLineBuffer buffer = new ConsoleLineBuffer(3);
+        final int[] size = new int[1];
+        buffer.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(final ListDataEvent e) {
+                size[0] += (e.getIndex1() - e.getIndex0()) + 1;
+            }
+            
+            @Override
+            public void intervalRemoved(final ListDataEvent e) {
+                size[0] -= (e.getIndex1() - e.getIndex0()) + 1;
+            }
+            
+            @Override
+            public void contentsChanged(final ListDataEvent e) {
+                //the number of lines does not change
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            buffer.append("line " + i + "\n");
+        }
+        Assertions.assertEquals(List.of("line 7", "line 8", "line 9"), ConsoleLineBufferTest.linesOf(buffer));
+        buffer.append("a\nb\nc\nd\ne");
+        Assertions.assertEquals(List.of("c", "d", "e"), ConsoleLineBufferTest.linesOf(buffer));
+        Assertions.assertEquals(buffer.getSize(), size[0]);
+        buffer.clear();
+        Assertions.assertEquals(0, buffer.getSize());
+        Assertions.assertEquals(0, size[0]);
+    }
+    
+    /**
+     * Test that long lines are wrapped
+     */
+    @Test
+    void testLongLines() {
+        final ConsoleLineBuffer buffer = new ConsoleLineBuffer(10);
+        buffer.append("x".repeat(ConsoleLineBuffer.MAX_LINE_LENGTH - 1));
+        buffer.append("yy\n");
+        Assertions
+                .assertEquals(List.of("x".repeat(ConsoleLineBuffer.MAX_LINE_LENGTH - 1) + "y", "y"), ConsoleLineBufferTest.linesOf(buffer));
+        Assertions.assertEquals(ConsoleLineBuffer.MAX_LINE_LENGTH, buffer.getLongestLineLength());
+    }
+    
+    /**
+     * Test searching lines
+     */
+    @Test
+    void testFind() {
+        final ConsoleLineBuffer buffer = new ConsoleLineBuffer(10);
+        buffer.append("Alpha\nbeta\nALPHA\n");
+        Assertions.assertEquals(0, buffer.find("alpha", 0));
+        Assertions.assertEquals(2, buffer.find("alpha", 1));
+        Assertions.assertEquals(0, buffer.find("alpha", 3));
+        Assertions.assertEquals(-1, buffer.find("gamma", 0));
+    }
+}
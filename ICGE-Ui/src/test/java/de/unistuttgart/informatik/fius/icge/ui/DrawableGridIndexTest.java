@@ -0,0 +1,91 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.DrawableGridIndex;
+
+
+/**
+ * Test class for the {@link DrawableGridIndex}
+ */
+class DrawableGridIndexTest {
+    
+    private static List<Drawable> drawablesInArea(
+            final DrawableGridIndex index, final double minX, final double minY, final double maxX, final double maxY
+    ) {
+        final List<Drawable> result = new ArrayList<>();
+        index.forEachBucketInArea(minX, minY, maxX, maxY, (bucketX, bucketY, bucket) -> {
+            for (final Drawable drawable : bucket) {
+                if ((drawable.getX() >= minX) && (drawable.getX() <= maxX) && (drawable.getY() >= minY) && (drawable.getY() <= maxY)) {
+                    result.add(drawable);
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Test that only the buckets of the area are visited
+     */
+    @Test
+    void testArea() {
+        final DrawableGridIndex index = new DrawableGridIndex();
+        for (int x = -100; x < 100; x++) {
+            for (int y = -100; y < 100; y++) {
+                index.add(new BasicDrawable(x, y, 0, "texture"));
+            }
+        }
+        Assertions.assertEquals(40000, index.size());
+        
+        final int[] visited = new int[1];
+        index.forEachBucketInArea(-5, -5, 5, 5, (bucketX, bucketY, bucket) -> visited[0] += bucket.size());
+        Assertions.assertTrue(visited[0] <= (4 * DrawableGridIndex.BUCKET_SIZE * DrawableGridIndex.BUCKET_SIZE));
+        Assertions.assertEquals(121, DrawableGridIndexTest.drawablesInArea(index, -5, -5, 5, 5).size());
+        Assertions.assertEquals(40000, DrawableGridIndexTest.drawablesInArea(index, -1000, -1000, 1000, 1000).size());
+    }
+    
+    /**
+     * Test that the buckets are sorted and instances are removed by identity
+     */
+    @Test
+    void testSortedBuckets() {
+        final DrawableGridIndex index = new DrawableGridIndex();
+        final Drawable top = new BasicDrawable(1, 1, 2, "texture");
+        final Drawable first = new BasicDrawable(1, 1, 0, "texture");
+        final Drawable second = new BasicDrawable(1, 1, 0, "texture");
+        index.add(top);
+        index.add(first);
+        index.add(second);
+        
+        final List<Drawable> bucket = new ArrayList<>();
+        index.forEachBucketInArea(1, 1, 1, 1, (bucketX, bucketY, drawables) -> bucket.addAll(drawables));
+        Assertions.assertEquals(3, bucket.size());
+        Assertions.assertSame(top, bucket.get(2));
+        Assertions.assertEquals(0, index.getMinZ());
+        
+        Assertions.assertTrue(index.remove(second));
+        Assertions.assertFalse(index.remove(second));
+        bucket.clear();
+        index.forEachBucketInArea(1, 1, 1, 1, (bucketX, bucketY, drawables) -> bucket.addAll(drawables));
+        Assertions.assertEquals(List.of(first, top), bucket);
+        
+        Assertions.assertTrue(index.removeFromAnyBucket(first));
+        Assertions.assertEquals(2, index.getMinZ());
+        Assertions.assertTrue(index.remove(top));
+        Assertions.assertEquals(0, index.size());
+        Assertions.assertEquals(Integer.MAX_VALUE, index.getMinZ());
+    }
+}
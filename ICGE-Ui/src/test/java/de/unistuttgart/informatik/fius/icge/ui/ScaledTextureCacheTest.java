@@ -0,0 +1,71 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.ScaledTextureCache;
+
+
+/**
+ * Test class for the {@link ScaledTextureCache}
+ */
+class ScaledTextureCacheTest {
+    
+    /**
+     * Test that scaled images are reused and have the requested size
+     */
+    @Test
+    void testScaledImages() {
+        final ScaledTextureCache cache = new ScaledTextureCache();
+        final BufferedImage source = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(0, 0, 0xFFFF0000);
+        
+        Assertions.assertSame(source, cache.getScaledImage(source, 32, 32));
+        final Image scaled = cache.getScaledImage(source, 64, 64);
+        Assertions.assertEquals(64, scaled.getWidth(null));
+        Assertions.assertEquals(64, scaled.getHeight(null));
+        Assertions.assertSame(scaled, cache.getScaledImage(source, 64, 64));
+        Assertions.assertNotSame(scaled, cache.getScaledImage(source, 16, 16));
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(0xFFFF0000, ((BufferedImage) scaled).getRGB(1, 1));
+        
+        Assertions.assertNull(cache.getScaledImage(source, 0, 10));
+    }
+    
+    /**
+     * Test that the least recently used images are discarded once the cache is full
+     */
+    @Test
+    void testEviction() {
+        final ScaledTextureCache cache = new ScaledTextureCache(400);
+        final BufferedImage source = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        final Image first = cache.getScaledImage(source, 10, 10);
+        final Image second = cache.getScaledImage(source, 20, 5);
+        cache.getScaledImage(source, 5, 20);
+        cache.getScaledImage(source, 4, 25);
+        Assertions.assertEquals(4, cache.size());
+        
+        Assertions.assertSame(first, cache.getScaledImage(source, 10, 10));
+        cache.getScaledImage(source, 25, 4);
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertSame(first, cache.getScaledImage(source, 10, 10));
+        Assertions.assertNotSame(second, cache.getScaledImage(source, 20, 5));
+        
+        // images too large to keep several of them are not cached
+        Assertions.assertNull(cache.getScaledImage(source, 20, 20));
+        cache.clear();
+        Assertions.assertEquals(0, cache.size());
+    }
+}
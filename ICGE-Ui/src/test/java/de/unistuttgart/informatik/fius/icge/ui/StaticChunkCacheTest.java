@@ -0,0 +1,82 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.DrawableGridIndex;
+import de.unistuttgart.informatik.fius.icge.ui.internal.StaticChunkCache;
+
+
+/**
+ * Test class for the {@link StaticChunkCache}
+ */
+class StaticChunkCacheTest {
+    
+    private static BufferedImage image() {
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    }
+    
+    /**
+     * Test that the least recently used images are discarded once the cache is full
+     */
+    @Test
+    void testEviction() {
+        final StaticChunkCache cache = new StaticChunkCache(300);
+        final long first = DrawableGridIndex.key(0, 0);
+        final long second = DrawableGridIndex.key(1, 0);
+        final long third = DrawableGridIndex.key(-1, 0);
+        final long fourth = DrawableGridIndex.key(0, -1);
+        cache.put(first, StaticChunkCacheTest.image());
+        cache.put(second, StaticChunkCacheTest.image());
+        cache.put(third, StaticChunkCacheTest.image());
+        Assertions.assertEquals(3, cache.size());
+        
+        Assertions.assertNotNull(cache.get(first));
+        cache.put(fourth, StaticChunkCacheTest.image());
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertNull(cache.get(second));
+        Assertions.assertNotNull(cache.get(first));
+        
+        cache.invalidate(first);
+        Assertions.assertNull(cache.get(first));
+        Assertions.assertEquals(2, cache.size());
+        
+        // an image larger than the cache is still kept until the next one is added
+        final long large = DrawableGridIndex.key(5, 5);
+        cache.put(large, new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertNotNull(cache.get(large));
+    }
+    
+    /**
+     * Test that changing the render parameters discards the images
+     */
+    @Test
+    void testRenderParameters() {
+        final StaticChunkCache cache = new StaticChunkCache();
+        final long key = DrawableGridIndex.key(0, 0);
+        cache.setRenderParameters(32, 0, 0, 5);
+        cache.put(key, StaticChunkCacheTest.image());
+        cache.setRenderParameters(32, 0, 0, 5);
+        Assertions.assertNotNull(cache.get(key));
+        cache.setRenderParameters(32, 0.5, 0, 5);
+        Assertions.assertNull(cache.get(key));
+        cache.put(key, StaticChunkCacheTest.image());
+        cache.setRenderParameters(35.2, 0.5, 0, 5);
+        Assertions.assertEquals(0, cache.size());
+        cache.put(key, StaticChunkCacheTest.image());
+        cache.setRenderParameters(35.2, 0.5, 0, 2);
+        Assertions.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This source file is part of the FIUS ICGE project.
+ * For more information see github.com/FIUS/ICGE2
+ *
+ * Copyright (c) 2019 the ICGE project authors.
+ *
+ * This software is available under the MIT license.
+ * SPDX-License-Identifier:    MIT
+ */
+package de.unistuttgart.informatik.fius.icge.ui;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.unistuttgart.informatik.fius.icge.ui.internal.TextureAtlas;
+
+
+/**
+ * Test class for the {@link TextureAtlas}
+ */
+class TextureAtlasTest {
+    
+    private static BufferedImage image(final int width, final int height, final int color) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, color);
+            }
+        }
+        return image;
+    }
+    
+    /**
+     * Test that every image is drawn from its own region
+     */
+    @Test
+    void testPacking() {
+        final List<BufferedImage> images = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            images.add(TextureAtlasTest.image(8 + (i % 5), 8 + (i % 3), 0xFF000000 | (i * 0x010203)));
+        }
+        final BufferedImage tooLarge = TextureAtlasTest.image(100, 10, 0xFFFFFFFF);
+        images.add(tooLarge);
+        final TextureAtlas atlas = TextureAtlas.pack(images, 64);
+        
+        Assertions.assertNull(atlas.getRegion(tooLarge));
+        Assertions.assertTrue(atlas.getPages().size() > 1);
+        for (int i = 0; i < 40; i++) {
+            final BufferedImage image = images.get(i);
+            final TextureAtlas.Region region = atlas.getRegion(image);
+            Assertions.assertEquals(image.getWidth(), region.getWidth());
+            Assertions.assertEquals(image.getHeight(), region.getHeight());
+            
+            final BufferedImage target = new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB);
+            region.draw(target.getGraphics(), 1, 1, region.getWidth(), region.getHeight());
+            Assertions.assertEquals(0, target.getRGB(0, 0));
+            Assertions.assertEquals(image.getRGB(0, 0), target.getRGB(1, 1));
+            Assertions.assertEquals(image.getRGB(0, 0), target.getRGB(region.getWidth(), region.getHeight()));
+            Assertions.assertEquals(0, target.getRGB(region.getWidth() + 1, region.getHeight() + 1));
+        }
+    }
+}